@@ -0,0 +1,98 @@
+package com.pagueibaratoapi.cache;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+/**
+ * Endpoint de administração do cache (/actuator/cache), que mostra as estatísticas de cada região e permite
+ * remover uma região inteira ou uma chave sem reiniciar a aplicação.
+ */
+@Endpoint(id = "cache")
+public class AdministracaoCache {
+
+    // Gerenciador das regiões.
+    private final GerenciadorCache gerenciador;
+
+    // Construtor.
+    public AdministracaoCache(GerenciadorCache gerenciador) {
+        this.gerenciador = gerenciador;
+    }
+
+    /**
+     * Busca as estatísticas de todas as regiões já utilizadas.
+     * @return Map&lt;String, EstatisticasRegiao&gt; - Estatísticas de cada região, pelo nome da região.
+     */
+    @ReadOperation
+    public Map<String, EstatisticasRegiao> regioes() {
+        Map<String, EstatisticasRegiao> estatisticas = new TreeMap<String, EstatisticasRegiao>();
+
+        for(CacheRegiao regiao : gerenciador.regioes().values())
+            estatisticas.put(regiao.getName(), new EstatisticasRegiao(regiao));
+
+        return estatisticas;
+    }
+
+    /**
+     * Busca as estatísticas de uma região.
+     * @param regiao - Nome da região.
+     * @return EstatisticasRegiao - Estatísticas da região ou null (404) se a região ainda não foi utilizada.
+     */
+    @ReadOperation
+    public EstatisticasRegiao regiao(@Selector String regiao) {
+        CacheRegiao encontrada = gerenciador.regioes().get(regiao);
+
+        return encontrada == null ? null : new EstatisticasRegiao(encontrada);
+    }
+
+    /**
+     * Remove todos os valores da região.
+     * @param regiao - Nome da região.
+     */
+    @DeleteOperation
+    public void limpar(@Selector String regiao) {
+        CacheRegiao encontrada = gerenciador.regioes().get(regiao);
+
+        if(encontrada != null)
+            encontrada.clear();
+    }
+
+    /**
+     * Remove uma chave da região. Se não houver uma chave igual ao texto informado, o texto é lido como os registros
+     * alterados ("mercado:5" ou "mercado:5,produto:7") e são removidos os valores que dependem deles, como em um @CacheEvict.
+     * @param regiao - Nome da região.
+     * @param chave - Chave do valor, como "email:usuario@email.com", ou registros dos quais os valores dependem.
+     */
+    @DeleteOperation
+    public void remover(@Selector String regiao, @Selector String chave) {
+        CacheRegiao encontrada = gerenciador.regioes().get(regiao);
+
+        if(encontrada == null || encontrada.evictIfPresent(chave))
+            return;
+
+        Dependencias dependencias = dependencias(chave);
+
+        if(dependencias != null)
+            encontrada.evict(dependencias);
+    }
+
+    // Lê os pares "tipo:id" separados por vírgula. Retorna null se o texto não estiver nesse formato.
+    private Dependencias dependencias(String chave) {
+        Dependencias dependencias = Dependencias.de();
+
+        for(String par : chave.split(",")) {
+            String[] tipoId = par.trim().split(":");
+
+            if(tipoId.length != 2 || tipoId[0].isEmpty() || tipoId[1].isEmpty())
+                return null;
+
+            dependencias = dependencias.mais(tipoId[0], tipoId[1]);
+        }
+
+        return dependencias;
+    }
+}
@@ -0,0 +1,177 @@
+package com.pagueibaratoapi.cache;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.pagueibaratoapi.repository.SugestaoRepository;
+
+/**
+ * Classe responsável por aquecer o cache na inicialização da aplicação, antes que ela seja considerada pronta.
+ * <P>
+ * As listagens configuradas e o levantamento dos produtos mais sugeridos no período configurado são requisitados ao
+ * próprio servidor, em paralelo e com uma quantidade limitada de requisições ao mesmo tempo. Assim, os valores passam
+ * pelos mesmos controllers, chaves e links das requisições dos clientes. A aplicação só fica pronta ao fim do
+ * aquecimento, que é limitado pelo tempo máximo configurado.
+ * </P>
+ * <P>
+ * O aquecimento só acontece com o endereço público configurado, enviado nos cabeçalhos X-Forwarded, para que os links
+ * guardados sejam os mesmos das requisições recebidas pelo proxy. Os cabeçalhos são considerados pelo servidor somente
+ * nas requisições vindas dos proxies confiáveis (server.tomcat.remoteip.internal-proxies), que incluem o próprio servidor.
+ * </P>
+ */
+@Component
+public class AquecimentoCache implements ApplicationRunner {
+
+    // Configurações do aquecimento.
+    private final PropriedadesAquecimento propriedades;
+
+    // Repositório das sugestões, usado para encontrar os produtos mais sugeridos.
+    private final SugestaoRepository sugestaoRepository;
+
+    // Contexto da aplicação, de onde é lida a porta do servidor.
+    private final ApplicationContext contexto;
+
+    // Ambiente da aplicação, de onde é lido o caminho base do servidor.
+    private final Environment ambiente;
+
+    // Requisições de aquecimento respondidas com sucesso.
+    private final AtomicInteger aquecidos = new AtomicInteger();
+
+    // Requisições de aquecimento que falharam ou não foram concluídas no tempo máximo.
+    private final AtomicInteger falhas = new AtomicInteger();
+
+    // Construtor.
+    public AquecimentoCache(
+        PropriedadesAquecimento propriedades,
+        SugestaoRepository sugestaoRepository,
+        ApplicationContext contexto,
+        Environment ambiente
+    ) {
+        this.propriedades = propriedades;
+        this.sugestaoRepository = sugestaoRepository;
+        this.contexto = contexto;
+        this.ambiente = ambiente;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if(!propriedades.isHabilitado())
+            return;
+
+        // Sem o endereço público, as respostas guardadas teriam links para o localhost, que seriam enviados aos clientes.
+        if(propriedades.getUrlPublica() == null || propriedades.getUrlPublica().isBlank())
+            return;
+
+        // Sem um servidor (como nos testes sem servidor), não há para onde enviar as requisições.
+        if(!(contexto instanceof WebServerApplicationContext) || ((WebServerApplicationContext) contexto).getWebServer() == null)
+            return;
+
+        int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+
+        if(porta <= 0)
+            return;
+
+        String base = "http://localhost:" + porta + ambiente.getProperty("server.servlet.context-path", "");
+
+        HttpClient cliente = HttpClient.newBuilder()
+            .connectTimeout(propriedades.getTempoMaximo())
+            .build();
+
+        List<Callable<Void>> requisicoes = new ArrayList<Callable<Void>>();
+
+        for(String caminho : caminhos())
+            requisicoes.add(() -> requisitar(cliente, base + caminho));
+
+        ExecutorService threads = Executors.newFixedThreadPool(Math.max(1, propriedades.getThreads()));
+
+        try {
+            // As requisições não concluídas no tempo máximo são canceladas.
+            threads.invokeAll(requisicoes, propriedades.getTempoMaximo().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    /**
+     * @return int - Quantidade de requisições de aquecimento respondidas com sucesso.
+     */
+    public int getAquecidos() {
+        return aquecidos.get();
+    }
+
+    /**
+     * @return int - Quantidade de requisições de aquecimento que falharam.
+     */
+    public int getFalhas() {
+        return falhas.get();
+    }
+
+    // Caminhos configurados mais o levantamento dos produtos mais sugeridos no período.
+    private List<String> caminhos() {
+        List<String> caminhos = new ArrayList<String>(propriedades.getCaminhos());
+
+        if(propriedades.getProdutosMaisSugeridos() <= 0)
+            return caminhos;
+
+        Calendar desde = Calendar.getInstance();
+        desde.setTimeInMillis(System.currentTimeMillis() - propriedades.getPeriodo().toMillis());
+
+        for(Integer produtoId : sugestaoRepository.findProdutoIdMaisSugeridos(desde, PageRequest.of(0, propriedades.getProdutosMaisSugeridos())))
+            caminhos.add("/produto/" + produtoId + "/levantamento");
+
+        return caminhos;
+    }
+
+    // Envia a requisição e contabiliza o resultado. Uma falha não interrompe o aquecimento.
+    private Void requisitar(HttpClient cliente, String url) {
+        try {
+            HttpRequest.Builder requisicao = HttpRequest.newBuilder(URI.create(url))
+                .timeout(propriedades.getTempoMaximo())
+                .GET();
+
+            // Com o endereço público, os links das respostas guardadas são os mesmos das requisições recebidas pelo proxy.
+            URI publica = URI.create(propriedades.getUrlPublica());
+
+            requisicao.header("X-Forwarded-Proto", publica.getScheme());
+            requisicao.header("X-Forwarded-Host", publica.getHost());
+
+            if(publica.getPort() != -1)
+                requisicao.header("X-Forwarded-Port", String.valueOf(publica.getPort()));
+
+            HttpResponse<Void> resposta = cliente.send(requisicao.build(), HttpResponse.BodyHandlers.discarding());
+
+            if(resposta.statusCode() == 200)
+                aquecidos.incrementAndGet();
+            else
+                falhas.incrementAndGet();
+
+        } catch (InterruptedException e) {
+            falhas.incrementAndGet();
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            falhas.incrementAndGet();
+        }
+
+        return null;
+    }
+}
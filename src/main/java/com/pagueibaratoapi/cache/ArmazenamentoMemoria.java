@@ -0,0 +1,121 @@
+package com.pagueibaratoapi.cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Armazenamento do cache compartilhado na memória da própria JVM, que substitui o servidor Redis nos testes.
+ * Várias instâncias simuladas na mesma JVM compartilham os valores usando o mesmo armazenamento.
+ */
+public class ArmazenamentoMemoria implements ArmazenamentoRemoto {
+
+    // Regiões pelo nome. Todas as operações são feitas com a trava do armazenamento, como os comandos atômicos do Redis.
+    private final Map<String, Regiao> regioes = new HashMap<String, Regiao>();
+
+    // Se o armazenamento está fora do ar, para simular as falhas do servidor.
+    private volatile boolean foraDoAr;
+
+    @Override
+    public synchronized Leitura buscar(String regiao, String chave) {
+        verificar();
+
+        Regiao atual = regiao(regiao);
+        Valor valor = atual.valores.get(chave);
+
+        if(valor != null && valor.expiraEm - System.nanoTime() <= 0) {
+            atual.valores.remove(chave);
+            valor = null;
+        }
+
+        return new Leitura(atual.geracao, valor == null ? null : valor.bytes);
+    }
+
+    @Override
+    public synchronized long geracao(String regiao) {
+        verificar();
+        return regiao(regiao).geracao;
+    }
+
+    @Override
+    public synchronized boolean gravar(String regiao, String chave, Dependencias dependencias, byte[] valor, Duration expiracao, long geracaoLida) {
+        verificar();
+
+        Regiao atual = regiao(regiao);
+
+        if(atual.geracao != geracaoLida)
+            return false;
+
+        atual.valores.put(chave, new Valor(valor.clone(), dependencias, System.nanoTime() + expiracao.toNanos()));
+        return true;
+    }
+
+    @Override
+    public synchronized void remover(String regiao, String chave) {
+        verificar();
+
+        Regiao atual = regiao(regiao);
+
+        atual.geracao++;
+        atual.valores.remove(chave);
+    }
+
+    @Override
+    public synchronized void remover(String regiao, Dependencias escrita) {
+        verificar();
+
+        Regiao atual = regiao(regiao);
+
+        atual.geracao++;
+        atual.valores.values().removeIf(valor -> valor.dependencias.afetadaPor(escrita));
+    }
+
+    @Override
+    public synchronized void limpar(String regiao) {
+        verificar();
+
+        Regiao atual = regiao(regiao);
+
+        atual.geracao++;
+        atual.valores.clear();
+    }
+
+    @Override
+    public void close() {}
+
+    /**
+     * Simula a queda ou o retorno do servidor.
+     * @param foraDoAr - Se as operações devem falhar.
+     */
+    public void setForaDoAr(boolean foraDoAr) {
+        this.foraDoAr = foraDoAr;
+    }
+
+    private void verificar() {
+        if(foraDoAr)
+            throw new IllegalStateException("cache_remoto_indisponivel");
+    }
+
+    private Regiao regiao(String nome) {
+        return regioes.computeIfAbsent(nome, novo -> new Regiao());
+    }
+
+    private static final class Regiao {
+
+        private long geracao;
+        private final Map<String, Valor> valores = new HashMap<String, Valor>();
+    }
+
+    private static final class Valor {
+
+        private final byte[] bytes;
+        private final Dependencias dependencias;
+        private final long expiraEm;
+
+        private Valor(byte[] bytes, Dependencias dependencias, long expiraEm) {
+            this.bytes = bytes;
+            this.dependencias = dependencias;
+            this.expiraEm = expiraEm;
+        }
+    }
+}
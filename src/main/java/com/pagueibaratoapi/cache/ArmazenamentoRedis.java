@@ -0,0 +1,198 @@
+package com.pagueibaratoapi.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+
+/**
+ * Armazenamento do cache compartilhado em um servidor compatível com o protocolo do Redis.
+ * <P>
+ * Cada região usa três tipos de chave, com o nome da região entre chaves para que fiquem no mesmo nó de um cluster:
+ * os valores ("...{produtos}:v:chave"), o índice das dependências dos valores ("...{produtos}:indice") e a geração
+ * ("...{produtos}:geracao"). A gravação condicionada à geração e as remoções em lote são feitas por scripts Lua,
+ * executados de forma atômica pelo servidor.
+ * </P>
+ * <P>
+ * A conexão é aberta no primeiro uso e refeita automaticamente. Enquanto estiver desconectado, os comandos falham
+ * imediatamente em vez de aguardar na fila, e a aplicação usa somente a memória.
+ * </P>
+ */
+public class ArmazenamentoRedis implements ArmazenamentoRemoto {
+
+    // Prefixo das chaves, com a versão do formato dos valores. Um formato novo não lê os valores do formato anterior.
+    private static final String PREFIXO = "pagueibarato:cache:v1:";
+
+    // Quantidade máxima de chaves removidas por script.
+    private static final int LOTE_REMOCAO = 500;
+
+    // Grava o valor e o registra no índice, somente se a geração não mudou. O índice expira junto com o valor mais novo.
+    private static final String GRAVAR =
+        "if (redis.call('GET', KEYS[3]) or '0') ~= ARGV[3] then return 0 end\n" +
+        "redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])\n" +
+        "redis.call('HSET', KEYS[2], KEYS[1], ARGV[4])\n" +
+        "redis.call('PEXPIRE', KEYS[2], ARGV[2])\n" +
+        "return 1";
+
+    // Remove os valores e as suas entradas no índice (KEYS[1]).
+    private static final String REMOVER =
+        "for i = 2, #KEYS do\n" +
+        "  redis.call('DEL', KEYS[i])\n" +
+        "  redis.call('HDEL', KEYS[1], KEYS[i])\n" +
+        "end\n" +
+        "return #KEYS - 1";
+
+    // Chaves como texto e valores como bytes.
+    private static final RedisCodec<String, byte[]> CODEC = RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE);
+
+    private final RedisClient cliente;
+
+    private volatile StatefulRedisConnection<String, byte[]> conexao;
+
+    // Construtor. Nenhuma conexão é aberta até o primeiro comando.
+    public ArmazenamentoRedis(String endereco, Duration tempoLimite) {
+        RedisURI uri = RedisURI.create(endereco);
+        uri.setTimeout(tempoLimite);
+
+        this.cliente = RedisClient.create(uri);
+        this.cliente.setOptions(
+            ClientOptions.builder()
+                .autoReconnect(true)
+                .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                .timeoutOptions(TimeoutOptions.enabled(tempoLimite))
+                .socketOptions(SocketOptions.builder().connectTimeout(tempoLimite).build())
+                .build()
+        );
+    }
+
+    @Override
+    public Leitura buscar(String regiao, String chave) {
+        List<KeyValue<String, byte[]>> valores = comandos().mget(geracaoDe(regiao), valorDe(regiao, chave));
+
+        return new Leitura(numero(valores.get(0)), valores.get(1).getValueOrElse(null));
+    }
+
+    @Override
+    public long geracao(String regiao) {
+        byte[] geracao = comandos().get(geracaoDe(regiao));
+        return geracao == null ? 0 : Long.parseLong(new String(geracao, StandardCharsets.US_ASCII));
+    }
+
+    @Override
+    public boolean gravar(String regiao, String chave, Dependencias dependencias, byte[] valor, Duration expiracao, long geracaoLida) {
+        Long gravado = comandos().eval(
+            GRAVAR,
+            ScriptOutputType.INTEGER,
+            new String[] { valorDe(regiao, chave), indiceDe(regiao), geracaoDe(regiao) },
+            valor,
+            texto(String.valueOf(expiracao.toMillis())),
+            texto(String.valueOf(geracaoLida)),
+            texto(dependencias.escrever())
+        );
+
+        return gravado != null && gravado == 1;
+    }
+
+    @Override
+    public void remover(String regiao, String chave) {
+        RedisCommands<String, byte[]> comandos = comandos();
+
+        comandos.incr(geracaoDe(regiao));
+        remover(comandos, regiao, List.of(valorDe(regiao, chave)));
+    }
+
+    @Override
+    public void remover(String regiao, Dependencias escrita) {
+        RedisCommands<String, byte[]> comandos = comandos();
+
+        // A geração muda antes da leitura do índice, para que nenhum carregamento anterior grave depois da busca das chaves.
+        comandos.incr(geracaoDe(regiao));
+
+        List<String> afetadas = new ArrayList<String>();
+
+        for(Map.Entry<String, byte[]> entrada : comandos.hgetall(indiceDe(regiao)).entrySet())
+            if(Dependencias.ler(new String(entrada.getValue(), StandardCharsets.UTF_8)).afetadaPor(escrita))
+                afetadas.add(entrada.getKey());
+
+        remover(comandos, regiao, afetadas);
+    }
+
+    @Override
+    public void limpar(String regiao) {
+        RedisCommands<String, byte[]> comandos = comandos();
+
+        comandos.incr(geracaoDe(regiao));
+        remover(comandos, regiao, comandos.hkeys(indiceDe(regiao)));
+        comandos.del(indiceDe(regiao));
+    }
+
+    @Override
+    public void close() {
+        if(conexao != null)
+            conexao.close();
+
+        cliente.shutdown();
+    }
+
+    // Remove os valores em lotes, para que um script não bloqueie o servidor por muito tempo.
+    private void remover(RedisCommands<String, byte[]> comandos, String regiao, List<String> valores) {
+        for(int inicio = 0; inicio < valores.size(); inicio += LOTE_REMOCAO) {
+            List<String> chaves = new ArrayList<String>();
+
+            chaves.add(indiceDe(regiao));
+            chaves.addAll(valores.subList(inicio, Math.min(inicio + LOTE_REMOCAO, valores.size())));
+
+            comandos.eval(REMOVER, ScriptOutputType.INTEGER, chaves.toArray(new String[0]));
+        }
+    }
+
+    // Abre a conexão no primeiro uso.
+    private RedisCommands<String, byte[]> comandos() {
+        StatefulRedisConnection<String, byte[]> atual = conexao;
+
+        if(atual == null) {
+            synchronized(this) {
+                if(conexao == null)
+                    conexao = cliente.connect(CODEC);
+
+                atual = conexao;
+            }
+        }
+
+        return atual.sync();
+    }
+
+    private static String valorDe(String regiao, String chave) {
+        return PREFIXO + "{" + regiao + "}:v:" + chave;
+    }
+
+    private static String indiceDe(String regiao) {
+        return PREFIXO + "{" + regiao + "}:indice";
+    }
+
+    private static String geracaoDe(String regiao) {
+        return PREFIXO + "{" + regiao + "}:geracao";
+    }
+
+    private static long numero(KeyValue<String, byte[]> valor) {
+        return valor.hasValue() ? Long.parseLong(new String(valor.getValue(), StandardCharsets.US_ASCII)) : 0;
+    }
+
+    private static byte[] texto(String texto) {
+        return texto.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,89 @@
+package com.pagueibaratoapi.cache;
+
+import java.time.Duration;
+
+/**
+ * Armazenamento do cache compartilhado entre as instâncias da aplicação (segundo nível).
+ * <P>
+ * Cada região possui, além dos valores, o índice das dependências de cada chave e uma geração, incrementada a cada
+ * remoção. Um valor só é gravado se a geração não mudou desde a leitura que antecedeu o carregamento, assim um valor
+ * carregado antes de uma escrita não volta ao cache depois que a escrita o removeu.
+ * </P>
+ * <P>
+ * As falhas de comunicação são lançadas como exceções e tratadas pelo {@link CacheRemoto}.
+ * </P>
+ */
+public interface ArmazenamentoRemoto extends AutoCloseable {
+
+    /**
+     * Busca o valor da chave junto com a geração atual da região.
+     * @param regiao - Nome da região.
+     * @param chave - Chave do valor.
+     * @return Leitura - Geração da região e o valor, nulo se ausente.
+     */
+    Leitura buscar(String regiao, String chave);
+
+    /**
+     * Busca somente a geração atual da região.
+     * @param regiao - Nome da região.
+     * @return long - Geração da região.
+     */
+    long geracao(String regiao);
+
+    /**
+     * Grava o valor, se a geração da região ainda for a lida antes do carregamento.
+     * @param regiao - Nome da região.
+     * @param chave - Chave do valor.
+     * @param dependencias - Registros dos quais o valor depende.
+     * @param valor - Valor serializado.
+     * @param expiracao - Tempo após o qual o valor é descartado.
+     * @param geracaoLida - Geração lida antes do carregamento do valor.
+     * @return boolean - Se o valor foi gravado.
+     */
+    boolean gravar(String regiao, String chave, Dependencias dependencias, byte[] valor, Duration expiracao, long geracaoLida);
+
+    /**
+     * Remove o valor da chave.
+     * @param regiao - Nome da região.
+     * @param chave - Chave do valor.
+     */
+    void remover(String regiao, String chave);
+
+    /**
+     * Remove os valores que dependem dos registros alterados pela escrita.
+     * @param regiao - Nome da região.
+     * @param escrita - Registros alterados.
+     */
+    void remover(String regiao, Dependencias escrita);
+
+    /**
+     * Remove todos os valores da região.
+     * @param regiao - Nome da região.
+     */
+    void limpar(String regiao);
+
+    @Override
+    void close();
+
+    /**
+     * Resultado de uma busca: o valor, se presente, e a geração da região no momento da busca.
+     */
+    final class Leitura {
+
+        private final long geracao;
+        private final byte[] valor;
+
+        public Leitura(long geracao, byte[] valor) {
+            this.geracao = geracao;
+            this.valor = valor;
+        }
+
+        public long getGeracao() {
+            return geracao;
+        }
+
+        public byte[] getValor() {
+            return valor;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.pagueibaratoapi.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Barramento que repassa as invalidações do cache e das versões às outras instâncias da aplicação.
+ * <P>
+ * As invalidações publicadas são acumuladas durante o intervalo configurado e enviadas em lotes pelo
+ * {@link DifusorInvalidacao}. Invalidações repetidas são enviadas uma única vez e a limpeza de uma região descarta as
+ * chaves pendentes da mesma região. Se um lote passar do tamanho máximo, as chaves das regiões com mais invalidações
+ * são trocadas pela limpeza da região. Um lote que não pôde ser enviado volta para as pendentes e é reenviado.
+ * </P>
+ * <P>
+ * Os lotes recebidos são entregues em duas etapas: primeiro aos receptores do cache e depois aos receptores das
+ * versões. Assim, como nas escritas locais, uma leitura nunca recebe a versão nova junto com um valor antigo do cache.
+ * Pelo mesmo motivo, quando as pendentes não cabem em um lote, as invalidações do cache são enviadas antes das versões.
+ * As invalidações recebidas são aplicadas somente na própria instância, sem serem publicadas de novo.
+ * </P>
+ */
+public class BarramentoInvalidacao implements AutoCloseable {
+
+    // Meio de envio e recebimento das invalidações.
+    private final DifusorInvalidacao difusor;
+
+    // Tempo de acúmulo das invalidações, em milissegundos.
+    private final long intervaloEmMillis;
+
+    // Quantidade máxima de invalidações por lote.
+    private final int tamanhoLote;
+
+    // Invalidações aguardando o envio, sem repetições e na ordem de publicação.
+    private final Set<Invalidacao> pendentes = new LinkedHashSet<Invalidacao>();
+
+    // Receptores das invalidações do cache e das versões vindas das outras instâncias.
+    private final List<Consumer<List<Invalidacao>>> receptores = new CopyOnWriteArrayList<Consumer<List<Invalidacao>>>();
+    private final List<Consumer<List<Invalidacao>>> receptoresVersoes = new CopyOnWriteArrayList<Consumer<List<Invalidacao>>>();
+
+    // Thread que envia os lotes.
+    private final ScheduledExecutorService agendador;
+
+    // Se já há um envio agendado.
+    private boolean agendado;
+
+    // Lotes enviados, lotes recebidos e tentativas de envio que falharam.
+    private final AtomicLong enviados = new AtomicLong();
+    private final AtomicLong recebidos = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+
+    // Construtor. As invalidações das outras instâncias passam a ser recebidas imediatamente.
+    public BarramentoInvalidacao(DifusorInvalidacao difusor, Duration intervalo, int tamanhoLote) {
+        this.difusor = difusor;
+        this.intervaloEmMillis = intervalo.toMillis();
+        this.tamanhoLote = Math.max(tamanhoLote, 1);
+        this.agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "invalidacao-cache");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        difusor.iniciar(this::entregar);
+    }
+
+    /**
+     * Publica uma invalidação feita nesta instância, enviada às demais no próximo lote.
+     * @param invalidacao - Invalidação feita.
+     */
+    public void publicar(Invalidacao invalidacao) {
+        synchronized(pendentes) {
+            if(invalidacao.getTipo() == Invalidacao.Tipo.REGIAO)
+                pendentes.removeIf(pendente -> pendente.getTipo() != Invalidacao.Tipo.VERSAO && pendente.getRegiao().equals(invalidacao.getRegiao()));
+
+            // Chaves de uma região que já será limpa não precisam ser enviadas.
+            else if(invalidacao.getTipo() != Invalidacao.Tipo.VERSAO && pendentes.contains(Invalidacao.regiao(invalidacao.getRegiao())))
+                return;
+
+            pendentes.add(invalidacao);
+            agendar(intervaloEmMillis);
+        }
+    }
+
+    /**
+     * Registra um receptor das invalidações do cache vindas das outras instâncias.
+     * @param receptor - Recebe as invalidações de cada lote, exceto as das versões.
+     */
+    public void aoReceber(Consumer<List<Invalidacao>> receptor) {
+        receptores.add(receptor);
+    }
+
+    /**
+     * Registra um receptor das invalidações das versões, chamado depois que os receptores do cache aplicaram o lote.
+     * @param receptor - Recebe as invalidações do tipo VERSAO e TUDO de cada lote.
+     */
+    public void aoReceberVersoes(Consumer<List<Invalidacao>> receptor) {
+        receptoresVersoes.add(receptor);
+    }
+
+    /**
+     * Envia imediatamente um lote com as invalidações pendentes.
+     * @return boolean - Se um lote foi enviado.
+     */
+    public boolean enviar() {
+        List<Invalidacao> lote;
+
+        synchronized(pendentes) {
+            agendado = false;
+
+            if(pendentes.isEmpty())
+                return false;
+
+            compactar();
+            lote = retirar();
+
+            // As invalidações que não couberam no lote seguem no próximo envio, sem aguardar o intervalo.
+            if(!pendentes.isEmpty())
+                agendar(0);
+        }
+
+        try {
+            difusor.publicar(lote);
+            enviados.incrementAndGet();
+            return true;
+        } catch (Exception e) {
+            // O lote volta para as pendentes, mantendo as invalidações publicadas depois.
+            falhas.incrementAndGet();
+
+            synchronized(pendentes) {
+                List<Invalidacao> depois = new ArrayList<Invalidacao>(pendentes);
+
+                pendentes.clear();
+                pendentes.addAll(lote);
+                pendentes.addAll(depois);
+                agendar(intervaloEmMillis);
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * @return long - Quantidade de lotes enviados às outras instâncias.
+     */
+    public long getEnviados() {
+        return enviados.get();
+    }
+
+    /**
+     * @return long - Quantidade de lotes recebidos das outras instâncias e já entregues aos receptores.
+     */
+    public long getRecebidos() {
+        return recebidos.get();
+    }
+
+    /**
+     * @return long - Quantidade de tentativas de envio que falharam.
+     */
+    public long getFalhas() {
+        return falhas.get();
+    }
+
+    /**
+     * Envia as invalidações pendentes e para de receber as invalidações das outras instâncias.
+     */
+    @Override
+    public void close() {
+        agendador.shutdown();
+
+        try {
+            agendador.awaitTermination(intervaloEmMillis + 1000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Envia as invalidações restantes enquanto o envio for possível.
+        while(enviar());
+
+        difusor.close();
+    }
+
+    // Agenda o envio, se ainda não houver um agendado. Deve ser chamado com a trava das pendentes.
+    private void agendar(long atrasoEmMillis) {
+        if(agendado || agendador.isShutdown())
+            return;
+
+        agendado = true;
+        agendador.schedule(this::enviar, atrasoEmMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Troca as chaves das regiões com mais invalidações pela limpeza da região, até que as pendentes caibam em um lote.
+    private void compactar() {
+        while(pendentes.size() > tamanhoLote) {
+            Map<String, Integer> chavesPorRegiao = new HashMap<String, Integer>();
+            String maior = null;
+
+            for(Invalidacao pendente : pendentes) {
+                if(pendente.getTipo() != Invalidacao.Tipo.CHAVE && pendente.getTipo() != Invalidacao.Tipo.DEPENDENCIAS)
+                    continue;
+
+                int quantidade = chavesPorRegiao.merge(pendente.getRegiao(), 1, Integer::sum);
+
+                if(maior == null || quantidade > chavesPorRegiao.get(maior))
+                    maior = pendente.getRegiao();
+            }
+
+            // As versões não podem ser agrupadas e são enviadas em vários lotes.
+            if(maior == null || chavesPorRegiao.get(maior) < 2)
+                return;
+
+            String regiao = maior;
+
+            pendentes.removeIf(pendente -> pendente.getTipo() != Invalidacao.Tipo.VERSAO && pendente.getRegiao().equals(regiao));
+            pendentes.add(Invalidacao.regiao(regiao));
+        }
+    }
+
+    // Retira das pendentes as invalidações do próximo lote. As invalidações do cache saem antes das versões, já que a
+    // limpeza de uma região fica depois das versões publicadas antes dela. Assim, uma versão nunca chega às outras
+    // instâncias em um lote anterior ao da invalidação do cache da mesma escrita.
+    private List<Invalidacao> retirar() {
+        List<Invalidacao> lote = new ArrayList<Invalidacao>(Math.min(pendentes.size(), tamanhoLote));
+
+        retirar(lote, false);
+        retirar(lote, true);
+
+        return lote;
+    }
+
+    // Retira das pendentes, na ordem em que foram publicadas, as invalidações das versões ou as demais, até completar o lote.
+    private void retirar(List<Invalidacao> lote, boolean versoes) {
+        Iterator<Invalidacao> iterador = pendentes.iterator();
+
+        while(iterador.hasNext() && lote.size() < tamanhoLote) {
+            Invalidacao pendente = iterador.next();
+
+            if((pendente.getTipo() == Invalidacao.Tipo.VERSAO) != versoes)
+                continue;
+
+            lote.add(pendente);
+            iterador.remove();
+        }
+    }
+
+    // Entrega um lote recebido, primeiro aos receptores do cache e depois aos das versões.
+    private void entregar(List<Invalidacao> lote) {
+        List<Invalidacao> cache = new ArrayList<Invalidacao>();
+        List<Invalidacao> versoes = new ArrayList<Invalidacao>();
+
+        for(Invalidacao invalidacao : lote) {
+            if(invalidacao.getTipo() != Invalidacao.Tipo.VERSAO)
+                cache.add(invalidacao);
+
+            // A limpeza de tudo também altera todas as versões.
+            if(invalidacao.getTipo() == Invalidacao.Tipo.VERSAO || invalidacao.getTipo() == Invalidacao.Tipo.TUDO)
+                versoes.add(invalidacao);
+        }
+
+        entregar(cache, receptores);
+        entregar(versoes, receptoresVersoes);
+
+        // Contado depois da entrega, para que o lote contado já tenha sido aplicado.
+        recebidos.incrementAndGet();
+    }
+
+    // Entrega as invalidações a cada receptor.
+    private static void entregar(List<Invalidacao> invalidacoes, List<Consumer<List<Invalidacao>>> receptores) {
+        if(invalidacoes.isEmpty())
+            return;
+
+        for(Consumer<List<Invalidacao>> receptor : receptores)
+            receptor.accept(invalidacoes);
+    }
+}
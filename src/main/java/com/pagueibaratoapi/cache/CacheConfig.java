@@ -0,0 +1,130 @@
+package com.pagueibaratoapi.cache;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.annotation.CachingConfigurerSupport;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.pagueibaratoapi.services.VersaoService;
+
+/**
+ * Classe de configuração do cache.
+ */
+@Configuration
+@EnableConfigurationProperties({ PropriedadesCache.class, PropriedadesAquecimento.class, PropriedadesInvalidacao.class })
+public class CacheConfig extends CachingConfigurerSupport {
+
+    // Injeção do gerenciador de cache, substituindo os mapas sem limite do gerenciador padrão.
+    // As remoções são repassadas às outras instâncias e as remoções das outras instâncias são aplicadas nesta.
+    // As regiões compartilhadas usam o cache compartilhado configurado, fechado junto com a aplicação.
+    @Bean(destroyMethod = "close")
+    public GerenciadorCache cacheManager(PropriedadesCache propriedades, BarramentoInvalidacao barramentoInvalidacao) {
+        GerenciadorCache gerenciador = new GerenciadorCache(propriedades, Ticker.systemTicker());
+
+        gerenciador.compartilharPor(CacheRemoto.criar(propriedades.getRemoto()));
+
+        gerenciador.difundirPor(barramentoInvalidacao::publicar);
+        barramentoInvalidacao.aoReceber(gerenciador::aplicar);
+
+        return gerenciador;
+    }
+
+    // Barramento que repassa as invalidações às outras instâncias, pelo meio configurado.
+    @Bean(destroyMethod = "close")
+    public BarramentoInvalidacao barramentoInvalidacao(PropriedadesInvalidacao propriedades, ObjectProvider<DataSource> dataSource) {
+        DifusorInvalidacao difusor = propriedades.getDifusor() == PropriedadesInvalidacao.Difusor.POSTGRES
+            ? new DifusorPostgres(dataSource.getObject(), propriedades.getCanal(), propriedades.getReconexaoMaxima())
+            : new DifusorLocal(propriedades.getCanal());
+
+        return new BarramentoInvalidacao(difusor, propriedades.getIntervalo(), propriedades.getTamanhoLote());
+    }
+
+    // Invalidação das entidades do cache de segundo nível do Hibernate nas outras instâncias.
+    @Bean
+    public DifusaoEntidades difusaoEntidades(BarramentoInvalidacao barramentoInvalidacao, EntityManagerFactory entityManagerFactory) {
+        return new DifusaoEntidades(barramentoInvalidacao, entityManagerFactory);
+    }
+
+    // Existência dos registros consultados pelo id, removida após as criações e remoções confirmadas.
+    @Bean
+    public RegistroExistencia registroExistencia(GerenciadorCache cacheManager, EntityManagerFactory entityManagerFactory) {
+        return new RegistroExistencia(cacheManager, entityManagerFactory);
+    }
+
+    // Métricas das regiões no Micrometer, registradas conforme as regiões são criadas.
+    @Bean
+    public MetricasCache metricasCache(GerenciadorCache cacheManager) {
+        return new MetricasCache(cacheManager);
+    }
+
+    // Endpoint de administração do cache, com as estatísticas e a remoção de regiões e chaves.
+    @Bean
+    public AdministracaoCache administracaoCache(GerenciadorCache cacheManager) {
+        return new AdministracaoCache(cacheManager);
+    }
+
+    // Regiões do cache de segundo nível do Hibernate, fechadas junto com a aplicação.
+    @Bean(destroyMethod = "close")
+    public javax.cache.CacheManager cacheEntidades(PropriedadesCache propriedades) {
+        return CacheEntidades.criar(propriedades);
+    }
+
+    // Entrega ao Hibernate o gerenciador com as regiões já configuradas.
+    @Bean
+    public HibernatePropertiesCustomizer cacheHibernate(javax.cache.CacheManager cacheEntidades) {
+        return propriedades -> propriedades.put(ConfigSettings.CACHE_MANAGER, cacheEntidades);
+    }
+
+    // Registro do interceptador das requisições condicionais (ETag e Last-Modified).
+    @Bean
+    public WebMvcConfigurer requisicoesCondicionais(VersaoService versaoService) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new RequisicaoCondicional(versaoService));
+            }
+        };
+    }
+
+    // Respostas dos métodos em cache guardadas já convertidas em JSON.
+    @Bean
+    public RespostasCodificadas respostasCodificadas(PropriedadesCache propriedades) {
+        return new RespostasCodificadas(propriedades.getRespostas());
+    }
+
+    // Envolve os conversores das respostas dos controllers depois que todos foram registrados (inclusive os do HAL),
+    // antes que o adaptador os entregue aos processadores das respostas.
+    @Bean
+    public static BeanPostProcessor conversoresRespostasCodificadas(ObjectProvider<PropriedadesCache> propriedades, ObjectProvider<RespostasCodificadas> respostasCodificadas) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+                if(bean instanceof RequestMappingHandlerAdapter && propriedades.getObject().getRespostas().isHabilitado()) {
+                    RequestMappingHandlerAdapter adaptador = (RequestMappingHandlerAdapter) bean;
+                    adaptador.setMessageConverters(respostasCodificadas.getObject().envolver(adaptador.getMessageConverters()));
+                }
+
+                return bean;
+            }
+        };
+    }
+
+    // Gerador das chaves que guardam as dependências dos valores, usadas na remoção por escrita.
+    @Override
+    public KeyGenerator keyGenerator() {
+        return new GeradorChave();
+    }
+}
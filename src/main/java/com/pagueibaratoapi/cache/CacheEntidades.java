@@ -0,0 +1,75 @@
+package com.pagueibaratoapi.cache;
+
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+
+import org.hibernate.cache.spi.RegionFactory;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Classe que cria as regiões do cache de segundo nível do Hibernate, usado pelas entidades de referência
+ * (categorias e ramos), que possuem poucos registros e quase nunca são alteradas.
+ * <P>
+ * As regiões são criadas com o mesmo limite e expiração das regiões do {@link GerenciadorCache}, configurados em
+ * pagueibarato.config.cache. O Hibernate atualiza as regiões das entidades e invalida as consultas em cache a cada
+ * escrita feita por ele nas tabelas, por isso as regiões não precisam ser limpas pelos controllers. As listagens
+ * guardadas pelos controllers (@Cacheable, como "categorias" e "ramos") ficam no {@link GerenciadorCache} e continuam
+ * sendo removidas pelos endpoints de escrita.
+ * </P>
+ */
+public final class CacheEntidades {
+
+    // Regiões das entidades, usadas na anotação @Cache das entidades.
+    public static final String CATEGORIA = "categoria";
+    public static final String RAMO = "ramo";
+
+    // Prefixo do identificador do gerenciador, separado do gerenciador padrão do provedor.
+    private static final String URI_GERENCIADOR = "pagueibarato:entidades:";
+
+    // Sequência dos gerenciadores criados, para que cada contexto da aplicação na mesma JVM (como nos testes) tenha as suas regiões.
+    private static final AtomicInteger GERENCIADORES = new AtomicInteger();
+
+    private CacheEntidades() {}
+
+    /**
+     * Cria o gerenciador com as regiões das entidades e das consultas.
+     * @param propriedades - Configurações das regiões de cache.
+     * @return CacheManager - Gerenciador utilizado pelo Hibernate.
+     */
+    public static CacheManager criar(PropriedadesCache propriedades) {
+        CachingProvider provedor = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager gerenciador = provedor.getCacheManager(URI.create(URI_GERENCIADOR + GERENCIADORES.incrementAndGet()), CacheEntidades.class.getClassLoader());
+
+        criarRegiao(gerenciador, CATEGORIA, propriedades.configuracao(CATEGORIA));
+        criarRegiao(gerenciador, RAMO, propriedades.configuracao(RAMO));
+        criarRegiao(gerenciador, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, propriedades.configuracao(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME));
+
+        // As datas de alteração das tabelas não podem expirar, senão consultas desatualizadas seriam consideradas válidas.
+        criarRegiao(gerenciador, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, null);
+
+        return gerenciador;
+    }
+
+    // Cria a região, limitada e com expiração se houver configuração.
+    private static void criarRegiao(CacheManager gerenciador, String nome, PropriedadesCache.Regiao configuracao) {
+        CaffeineConfiguration<Object, Object> regiao = new CaffeineConfiguration<Object, Object>();
+
+        // Os valores do Hibernate não são alterados após a gravação, não sendo necessário copiá-los.
+        regiao.setStoreByValue(false);
+        regiao.setStatisticsEnabled(true);
+
+        if(configuracao != null) {
+            regiao.setMaximumSize(OptionalLong.of(configuracao.getTamanhoMaximo()));
+            regiao.setExpireAfterWrite(OptionalLong.of(configuracao.getExpiracao().toNanos()));
+        }
+
+        gerenciador.createCache(nome, regiao);
+    }
+}
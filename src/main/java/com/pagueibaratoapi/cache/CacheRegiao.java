@@ -0,0 +1,478 @@
+package com.pagueibaratoapi.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+/**
+ * Região de cache limitada, com expiração e recarga após a escrita.
+ * <P>
+ * O Caffeine só recarrega registros por meio de um CacheLoader, que não conhece o método anotado com @Cacheable.
+ * Por isso a recarga é feita pela própria requisição: quando um registro passa do tempo de recarga, a primeira
+ * requisição que o lê recebe um cache miss e executa o método, enquanto as demais continuam recebendo o valor
+ * antigo até que o novo valor seja gravado ou o registro expire.
+ * </P>
+ * <P>
+ * Os métodos anotados com @Cacheable(sync = true) são carregados uma única vez por chave: as requisições que não
+ * encontram o valor enquanto outra requisição o carrega aguardam o mesmo carregamento, até o tempo de espera máximo
+ * da região. Passado esse tempo, a requisição carrega o valor por conta própria.
+ * </P>
+ * <P>
+ * As chaves gravadas são registradas em um índice de dependências. Um @CacheEvict cuja chave é um objeto
+ * {@link Dependencias} remove somente os valores que dependem dos registros alterados pela escrita.
+ * </P>
+ * <P>
+ * As remoções e limpezas feitas pela aplicação são repassadas às outras instâncias pelo {@link BarramentoInvalidacao}.
+ * As invalidações recebidas das outras instâncias são aplicadas por {@link #aplicar(Invalidacao)}, sem serem repassadas.
+ * </P>
+ * <P>
+ * Nas regiões compartilhadas, um valor ausente na memória é buscado no {@link CacheRemoto} antes de executar o método,
+ * e o valor carregado é gravado nos dois níveis. As remoções feitas pela aplicação são aplicadas primeiro no cache
+ * compartilhado, para que uma leitura simultânea não traga de volta à memória o valor que está sendo removido.
+ * </P>
+ */
+public class CacheRegiao extends CaffeineCache {
+
+    // Tempo de recarga em nanossegundos. Se zero, os registros somente expiram.
+    private final long recargaEmNanos;
+
+    // Tempo de espera por um carregamento em andamento, em nanossegundos. Se zero, a espera não tem limite.
+    private final long esperaEmNanos;
+
+    // Relógio utilizado para medir a idade dos registros.
+    private final Ticker relogio;
+
+    // Índice das chaves da região pelos registros dos quais os valores dependem.
+    private final IndiceDependencias indice;
+
+    // Carregamentos em andamento, pela chave.
+    private final Map<Object, CompletableFuture<Object>> carregamentos = new ConcurrentHashMap<Object, CompletableFuture<Object>>();
+
+    // Requisições que aguardaram o carregamento feito por outra requisição.
+    private final LongAdder requisicoesAgrupadas = new LongAdder();
+
+    // Execuções do método anotado e o tempo gasto nelas, em nanossegundos.
+    private final LongAdder carregamentosExecutados = new LongAdder();
+    private final LongAdder tempoCarregamento = new LongAdder();
+
+    // Requisições que desistiram de aguardar e carregaram o valor por conta própria.
+    private final LongAdder esperasEsgotadas = new LongAdder();
+
+    // Destino das remoções e limpezas feitas nesta instância, repassadas às outras instâncias.
+    private volatile Consumer<Invalidacao> difusao = invalidacao -> {};
+
+    // Cache compartilhado entre as instâncias, se a região for compartilhada, e a expiração dos valores gravados nele.
+    private volatile CacheRemoto remoto;
+    private volatile Duration expiracaoRemota;
+
+    // Carregamentos atendidos pelo cache compartilhado e carregamentos que não encontraram o valor nele.
+    private final LongAdder acertosRemotos = new LongAdder();
+    private final LongAdder ausenciasRemotas = new LongAdder();
+
+    // Construtor. O índice deve ser o mesmo que recebe as remoções por tamanho e expiração do cache.
+    public CacheRegiao(String nome, Cache<Object, Object> cache, Duration recarga, Duration esperaMaxima, Ticker relogio, IndiceDependencias indice) {
+        super(nome, cache, true);
+        this.recargaEmNanos = recarga == null ? 0 : recarga.toNanos();
+        this.esperaEmNanos = esperaMaxima == null ? 0 : esperaMaxima.toNanos();
+        this.relogio = relogio;
+        this.indice = indice;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Entrada entrada = (Entrada) super.lookup(key);
+
+        if(entrada == null)
+            return null;
+
+        // A requisição responsável pela recarga recebe um cache miss e recalcula o valor.
+        if(deveRecarregar(entrada))
+            return null;
+
+        return entrada.valor;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Entrada entrada = (Entrada) getNativeCache().getIfPresent(key);
+
+        if(entrada == null)
+            return (T) fromStoreValue(carregarUmaVez(key, valueLoader));
+
+        // Se o registro passou do tempo de recarga, somente esta chamada recalcula o valor.
+        if(deveRecarregar(entrada))
+            return (T) fromStoreValue(recarregar(key, valueLoader, entrada));
+
+        return (T) fromStoreValue(entrada.valor);
+    }
+
+    // As escritas e remoções passam pelo compute do Caffeine para que o cache e o índice sejam alterados juntos.
+    @Override
+    public void put(Object key, Object value) {
+        Entrada nova = new Entrada(toStoreValue(value), relogio.read());
+
+        getNativeCache().asMap().compute(key, (chave, antiga) -> {
+            indice.registrar(chave);
+            return nova;
+        });
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        Entrada nova = new Entrada(toStoreValue(value), relogio.read());
+
+        Entrada atual = (Entrada) getNativeCache().asMap().compute(key, (chave, antiga) -> {
+            if(antiga != null)
+                return antiga;
+
+            indice.registrar(chave);
+            return nova;
+        });
+
+        return atual == nova ? null : toValueWrapper(atual.valor);
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictIfPresent(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        CacheRemoto remoto = this.remoto;
+
+        if(remoto != null)
+            remoto.remover(getName(), key);
+
+        boolean removeu = removerLocal(key);
+
+        difusao.accept(Invalidacao.daRemocao(getName(), key));
+
+        return removeu;
+    }
+
+    @Override
+    public void clear() {
+        CacheRemoto remoto = this.remoto;
+
+        if(remoto != null)
+            remoto.limpar(getName());
+
+        limparLocal();
+        difusao.accept(Invalidacao.regiao(getName()));
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean continhaValores = !getNativeCache().asMap().isEmpty();
+        clear();
+        return continhaValores;
+    }
+
+    /**
+     * Aplica nesta região uma invalidação recebida de outra instância, sem repassá-la.
+     * @param invalidacao - Invalidação da região.
+     */
+    public void aplicar(Invalidacao invalidacao) {
+        switch(invalidacao.getTipo()) {
+            case CHAVE:
+                removerLocal(invalidacao.getChave());
+                break;
+            case DEPENDENCIAS:
+                removerLocal(invalidacao.getDependencias());
+                break;
+            case REGIAO:
+            case TUDO:
+                limparLocal();
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Define o destino das remoções e limpezas feitas nesta instância.
+    void difundirPor(Consumer<Invalidacao> difusao) {
+        this.difusao = difusao;
+    }
+
+    // Torna a região compartilhada, guardando os valores também no cache compartilhado.
+    void compartilharPor(CacheRemoto remoto, Duration expiracao) {
+        this.expiracaoRemota = expiracao;
+        this.remoto = remoto;
+    }
+
+    // Remove a chave ou os valores que dependem dos registros alterados, somente nesta instância.
+    private boolean removerLocal(Object key) {
+
+        // Remove os valores que dependem dos registros alterados pela escrita.
+        if(key instanceof Dependencias) {
+            boolean removeu = false;
+
+            // Os carregamentos em andamento dessas chaves podem ter lido os registros antes da escrita e não serão gravados.
+            carregamentos.keySet().removeIf(chave -> IndiceDependencias.dependencias(chave).afetadaPor((Dependencias) key));
+
+            for(Object chave : indice.afetadas((Dependencias) key))
+                removeu |= remover(chave);
+
+            return removeu;
+        }
+
+        return remover(key);
+    }
+
+    // Remove todos os valores, somente nesta instância.
+    private void limparLocal() {
+        carregamentos.clear();
+
+        for(Object chave : getNativeCache().asMap().keySet())
+            remover(chave);
+    }
+
+    /**
+     * @return long - Quantidade de requisições que aguardaram o carregamento feito por outra requisição.
+     */
+    public long getRequisicoesAgrupadas() {
+        return requisicoesAgrupadas.sum();
+    }
+
+    /**
+     * @return long - Quantidade de requisições que esgotaram o tempo de espera e carregaram o valor por conta própria.
+     */
+    public long getEsperasEsgotadas() {
+        return esperasEsgotadas.sum();
+    }
+
+    /**
+     * @return long - Quantidade de execuções do método anotado, feitas nos cache misses e nas recargas.
+     */
+    public long getCarregamentos() {
+        return carregamentosExecutados.sum();
+    }
+
+    /**
+     * @return long - Tempo total gasto nas execuções do método anotado, em nanossegundos.
+     */
+    public long getTempoCarregamento() {
+        return tempoCarregamento.sum();
+    }
+
+    /**
+     * @return long - Quantidade de valores ausentes na memória encontrados no cache compartilhado.
+     */
+    public long getAcertosRemotos() {
+        return acertosRemotos.sum();
+    }
+
+    /**
+     * @return long - Quantidade de valores ausentes na memória e no cache compartilhado, carregados pelo método.
+     */
+    public long getAusenciasRemotas() {
+        return ausenciasRemotas.sum();
+    }
+
+    /**
+     * Estima a memória ocupada pelos valores da região a partir de uma amostra dos valores.
+     * @param amostras - Quantidade máxima de valores medidos.
+     * @return long - Estimativa em bytes, proporcional à quantidade de registros da região.
+     */
+    public long estimarMemoria(int amostras) {
+        long medidos = 0;
+        long bytes = 0;
+
+        for(Object entrada : getNativeCache().asMap().values()) {
+            if(medidos == amostras)
+                break;
+
+            bytes += EstimativaMemoria.estimar(((Entrada) entrada).valor);
+            medidos++;
+        }
+
+        return medidos == 0 ? 0 : bytes * getNativeCache().estimatedSize() / medidos;
+    }
+
+    // Carrega o valor ausente, aguardando o carregamento da mesma chave se outra requisição já o iniciou.
+    private Object carregarUmaVez(Object chave, Callable<?> valueLoader) {
+        CompletableFuture<Object> carregamento = new CompletableFuture<Object>();
+        CompletableFuture<Object> emAndamento = carregamentos.putIfAbsent(chave, carregamento);
+
+        if(emAndamento != null)
+            return aguardar(chave, valueLoader, emAndamento);
+
+        try {
+            // Outro carregamento pode ter gravado o valor entre a leitura do cache e o registro deste carregamento.
+            Entrada gravada = (Entrada) getNativeCache().asMap().get(chave);
+            Object valor = gravada != null ? gravada.valor : carregarCompartilhado(chave, valueLoader);
+
+            if(gravada == null)
+                gravarSeAtual(chave, valor, carregamento);
+
+            carregamento.complete(valor);
+            return valor;
+        } catch (RuntimeException e) {
+            carregamento.completeExceptionally(e);
+            throw e;
+        } finally {
+            carregamentos.remove(chave, carregamento);
+        }
+    }
+
+    // Recarrega o valor registrado como um carregamento em andamento, para que uma remoção feita por uma escrita durante
+    // a recarga impeça a gravação do valor lido antes dela.
+    private Object recarregar(Object chave, Callable<?> valueLoader, Entrada entrada) {
+        CompletableFuture<Object> carregamento = new CompletableFuture<Object>();
+
+        try {
+            CompletableFuture<Object> emAndamento = carregamentos.putIfAbsent(chave, carregamento);
+
+            // A chave já está sendo carregada por outra requisição, cujo valor é o mais recente.
+            if(emAndamento != null)
+                return aguardar(chave, valueLoader, emAndamento);
+
+            CacheRemoto remoto = this.remoto;
+            Long geracao = remoto != null ? remoto.geracao(getName()) : null;
+
+            Object valor = toStoreValue(carregar(chave, valueLoader));
+
+            if(gravarSeAtual(chave, valor, carregamento) && geracao != null)
+                remoto.gravar(getName(), chave, valor, geracao, expiracaoRemota);
+
+            carregamento.complete(valor);
+            return valor;
+        } catch (RuntimeException e) {
+            carregamento.completeExceptionally(e);
+            throw e;
+        } finally {
+            carregamentos.remove(chave, carregamento);
+
+            // Se a recarga falhar, o registro continua podendo ser recarregado pela próxima requisição.
+            entrada.recarregando.set(false);
+        }
+    }
+
+    // Busca o valor no cache compartilhado e, se ausente, executa o método e grava o valor carregado no cache compartilhado.
+    private Object carregarCompartilhado(Object chave, Callable<?> valueLoader) {
+        CacheRemoto remoto = this.remoto;
+        ArmazenamentoRemoto.Leitura leitura = remoto != null ? remoto.buscar(getName(), chave) : null;
+
+        // Sem cache compartilhado ou com ele indisponível, a região usa somente a memória.
+        if(leitura == null)
+            return toStoreValue(carregar(chave, valueLoader));
+
+        if(leitura.getValor() != null) {
+            try {
+                Object valor = SerializadorRespostas.ler(leitura.getValor());
+                acertosRemotos.increment();
+                return valor;
+            } catch (RuntimeException e) {
+                // Um valor que não pode ser lido é carregado de novo e substituído.
+            }
+        }
+
+        ausenciasRemotas.increment();
+
+        Object valor = toStoreValue(carregar(chave, valueLoader));
+        remoto.gravar(getName(), chave, valor, leitura.getGeracao(), expiracaoRemota);
+
+        return valor;
+    }
+
+    // Aguarda o carregamento feito por outra requisição, recebendo o mesmo valor ou a mesma exceção.
+    private Object aguardar(Object chave, Callable<?> valueLoader, CompletableFuture<Object> emAndamento) {
+        requisicoesAgrupadas.increment();
+
+        try {
+            return esperaEmNanos > 0 ? emAndamento.get(esperaEmNanos, TimeUnit.NANOSECONDS) : emAndamento.get();
+        } catch (TimeoutException e) {
+            // O carregamento está demorando além do esperado, então a requisição não fica presa a ele.
+            esperasEsgotadas.increment();
+            return toStoreValue(carregar(chave, valueLoader));
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+
+            throw new ValueRetrievalException(chave, valueLoader, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(chave, valueLoader, e);
+        }
+    }
+
+    // Grava o valor carregado, exceto se a chave foi removida durante o carregamento por uma escrita.
+    // Retorna se o valor foi gravado.
+    private boolean gravarSeAtual(Object chave, Object valor, CompletableFuture<Object> carregamento) {
+        Entrada nova = new Entrada(valor, relogio.read());
+
+        return getNativeCache().asMap().compute(chave, (registrada, antiga) -> {
+            if(carregamentos.get(registrada) != carregamento)
+                return antiga;
+
+            indice.registrar(registrada);
+            return nova;
+        }) == nova;
+    }
+
+    // Remove a chave do cache e do índice, descartando o carregamento em andamento da chave.
+    private boolean remover(Object chave) {
+        boolean[] removeu = { false };
+
+        carregamentos.remove(chave);
+
+        getNativeCache().asMap().computeIfPresent(chave, (registrada, antiga) -> {
+            indice.remover(registrada);
+            removeu[0] = true;
+            return null;
+        });
+
+        return removeu[0];
+    }
+
+    // Verifica se o registro deve ser recarregado e, em caso positivo, reserva a recarga para quem chamou.
+    private boolean deveRecarregar(Entrada entrada) {
+        return recargaEmNanos > 0
+            && relogio.read() - entrada.escritoEm >= recargaEmNanos
+            && entrada.recarregando.compareAndSet(false, true);
+    }
+
+    // Executa o método anotado, repassando as exceções da forma esperada pelo Spring.
+    private <T> T carregar(Object chave, Callable<T> valueLoader) {
+        long inicio = relogio.read();
+
+        try {
+            return valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(chave, valueLoader, e);
+        } finally {
+            carregamentosExecutados.increment();
+            tempoCarregamento.add(relogio.read() - inicio);
+        }
+    }
+
+    // Valor armazenado junto ao momento da escrita, para controlar a recarga.
+    private static final class Entrada {
+
+        private final Object valor;
+        private final long escritoEm;
+
+        // Garante que somente uma requisição recarregue o registro.
+        private final AtomicBoolean recarregando = new AtomicBoolean(false);
+
+        private Entrada(Object valor, long escritoEm) {
+            this.valor = valor;
+            this.escritoEm = escritoEm;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.pagueibaratoapi.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+
+/**
+ * Cache compartilhado entre as instâncias da aplicação (segundo nível), consultado pelas regiões compartilhadas
+ * quando o valor não está na memória da instância.
+ * <P>
+ * Os valores são guardados em bytes pelo {@link SerializadorRespostas}. Valores de tipos não suportados ficam somente
+ * na memória. A chave é o resumo (SHA-256) do texto dos parâmetros da chave da região, igual em todas as instâncias.
+ * </P>
+ * <P>
+ * Uma falha do armazenamento torna o cache compartilhado indisponível durante a espera configurada, e as regiões
+ * continuam usando somente a memória. As remoções feitas nesse período não chegam ao armazenamento, então as regiões
+ * afetadas são limpas no armazenamento antes que ele volte a ser consultado.
+ * </P>
+ */
+public class CacheRemoto implements AutoCloseable {
+
+    // Armazenamento dos valores.
+    private final ArmazenamentoRemoto armazenamento;
+
+    // Tempo sem consultar o armazenamento depois de uma falha, em nanossegundos.
+    private final long esperaEmNanos;
+
+    // Relógio utilizado para medir a espera.
+    private final Ticker relogio;
+
+    // Se o armazenamento está indisponível e desde quando.
+    private volatile boolean indisponivel;
+    private volatile long indisponivelDesde;
+
+    // Regiões cujas remoções não chegaram ao armazenamento.
+    private final Set<String> regioesPendentes = ConcurrentHashMap.newKeySet();
+
+    // Operações que falharam.
+    private final LongAdder falhas = new LongAdder();
+
+    // Construtor.
+    public CacheRemoto(ArmazenamentoRemoto armazenamento, Duration esperaAposFalha, Ticker relogio) {
+        this.armazenamento = armazenamento;
+        this.esperaEmNanos = esperaAposFalha.toNanos();
+        this.relogio = relogio;
+    }
+
+    /**
+     * Cria o cache compartilhado com o armazenamento configurado.
+     * @param propriedades - Configuração do cache compartilhado.
+     * @return CacheRemoto - Cache compartilhado, ou null se nenhum armazenamento foi configurado.
+     */
+    public static CacheRemoto criar(PropriedadesCache.Remoto propriedades) {
+        switch(propriedades.getTipo()) {
+            case REDIS:
+                return new CacheRemoto(new ArmazenamentoRedis(propriedades.getEndereco(), propriedades.getTempoLimite()), propriedades.getEsperaAposFalha(), Ticker.systemTicker());
+            case MEMORIA:
+                return new CacheRemoto(new ArmazenamentoMemoria(), propriedades.getEsperaAposFalha(), Ticker.systemTicker());
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Busca o valor da chave.
+     * @param regiao - Nome da região.
+     * @param chave - Chave do valor na região.
+     * @return ArmazenamentoRemoto.Leitura - Geração da região e o valor, ou null se o armazenamento está indisponível.
+     */
+    public ArmazenamentoRemoto.Leitura buscar(String regiao, Object chave) {
+        if(!disponivel())
+            return null;
+
+        try {
+            return armazenamento.buscar(regiao, chave(chave));
+        } catch (RuntimeException e) {
+            falhar();
+            return null;
+        }
+    }
+
+    /**
+     * Busca a geração da região, lida antes de um carregamento que não consulta o valor guardado (como a recarga).
+     * @param regiao - Nome da região.
+     * @return Long - Geração da região, ou null se o armazenamento está indisponível.
+     */
+    public Long geracao(String regiao) {
+        if(!disponivel())
+            return null;
+
+        try {
+            return armazenamento.geracao(regiao);
+        } catch (RuntimeException e) {
+            falhar();
+            return null;
+        }
+    }
+
+    /**
+     * Grava o valor carregado, se for de um tipo suportado e se a região não teve remoções desde a leitura da geração.
+     * @param regiao - Nome da região.
+     * @param chave - Chave do valor na região.
+     * @param valor - Valor carregado.
+     * @param geracao - Geração lida antes do carregamento.
+     * @param expiracao - Tempo após o qual o valor é descartado.
+     */
+    public void gravar(String regiao, Object chave, Object valor, long geracao, Duration expiracao) {
+        byte[] bytes = SerializadorRespostas.escrever(valor);
+
+        if(bytes == null || !disponivel())
+            return;
+
+        try {
+            armazenamento.gravar(regiao, chave(chave), IndiceDependencias.dependencias(chave), bytes, expiracao, geracao);
+        } catch (RuntimeException e) {
+            falhar();
+        }
+    }
+
+    /**
+     * Remove a chave, ou os valores que dependem dos registros alterados se a chave for um {@link Dependencias}.
+     * @param regiao - Nome da região.
+     * @param chave - Chave removida da região.
+     */
+    public void remover(String regiao, Object chave) {
+        if(!disponivel()) {
+            regioesPendentes.add(regiao);
+            return;
+        }
+
+        try {
+            if(chave instanceof Dependencias)
+                armazenamento.remover(regiao, (Dependencias) chave);
+            else
+                armazenamento.remover(regiao, chave(chave));
+        } catch (RuntimeException e) {
+            regioesPendentes.add(regiao);
+            falhar();
+        }
+    }
+
+    /**
+     * Remove todos os valores da região.
+     * @param regiao - Nome da região.
+     */
+    public void limpar(String regiao) {
+        if(!disponivel()) {
+            regioesPendentes.add(regiao);
+            return;
+        }
+
+        try {
+            armazenamento.limpar(regiao);
+        } catch (RuntimeException e) {
+            regioesPendentes.add(regiao);
+            falhar();
+        }
+    }
+
+    /**
+     * @return boolean - Se o armazenamento está sendo consultado.
+     */
+    public boolean isDisponivel() {
+        return !indisponivel;
+    }
+
+    /**
+     * @return long - Quantidade de operações do armazenamento que falharam.
+     */
+    public long getFalhas() {
+        return falhas.sum();
+    }
+
+    @Override
+    public void close() {
+        armazenamento.close();
+    }
+
+    /**
+     * Converte a chave da região na chave do armazenamento.
+     * @param chave - Chave da região.
+     * @return String - Resumo do texto dos parâmetros da chave.
+     */
+    static String chave(Object chave) {
+        String texto = String.valueOf(chave instanceof ChaveCache ? ((ChaveCache) chave).getParametros() : chave);
+
+        try {
+            byte[] resumo = MessageDigest.getInstance("SHA-256").digest(texto.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(resumo);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Verifica se o armazenamento pode ser consultado. Passada a espera, limpa as regiões pendentes antes de voltar a usá-lo.
+    private boolean disponivel() {
+        if(!indisponivel)
+            return true;
+
+        if(relogio.read() - indisponivelDesde < esperaEmNanos)
+            return false;
+
+        synchronized(this) {
+            if(!indisponivel)
+                return true;
+
+            if(relogio.read() - indisponivelDesde < esperaEmNanos)
+                return false;
+
+            try {
+                for(String regiao : new ArrayList<String>(regioesPendentes)) {
+                    armazenamento.limpar(regiao);
+                    regioesPendentes.remove(regiao);
+                }
+            } catch (RuntimeException e) {
+                falhar();
+                return false;
+            }
+
+            indisponivel = false;
+            return true;
+        }
+    }
+
+    private void falhar() {
+        falhas.increment();
+        indisponivelDesde = relogio.read();
+        indisponivel = true;
+    }
+}
@@ -0,0 +1,40 @@
+package com.pagueibaratoapi.cache;
+
+/**
+ * Chave de um valor em cache, composta pelos parâmetros do método e pelos registros dos quais o valor depende.
+ * Somente os parâmetros identificam a chave, as dependências são derivadas deles.
+ */
+public class ChaveCache {
+
+    private final Object parametros;
+    private final Dependencias dependencias;
+
+    // Construtor.
+    public ChaveCache(Object parametros, Dependencias dependencias) {
+        this.parametros = parametros;
+        this.dependencias = dependencias;
+    }
+
+    public Object getParametros() {
+        return parametros;
+    }
+
+    public Dependencias getDependencias() {
+        return dependencias;
+    }
+
+    @Override
+    public boolean equals(Object outro) {
+        return outro instanceof ChaveCache && parametros.equals(((ChaveCache) outro).parametros);
+    }
+
+    @Override
+    public int hashCode() {
+        return parametros.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return parametros + " " + dependencias;
+    }
+}
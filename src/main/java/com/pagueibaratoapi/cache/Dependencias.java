@@ -0,0 +1,191 @@
+package com.pagueibaratoapi.cache;
+
+import java.beans.PropertyDescriptor;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.springframework.beans.BeanWrapperImpl;
+
+/**
+ * Classe que representa os registros (mercado, produto, estoque...) dos quais um valor em cache depende,
+ * ou os registros alterados por uma escrita.
+ * <P>
+ * Um valor em cache depende de um registro quando foi calculado para um id específico, como os produtos do mercado 5.
+ * Se o valor não informa um id para algum tipo de registro, ele depende de todos os registros daquele tipo.
+ * Usada como chave de um @CacheEvict, remove da região somente os valores compatíveis com a escrita.
+ * </P>
+ */
+public class Dependencias {
+
+    // Id de cada tipo de registro, pelo nome do tipo ("mercado", "produto"...).
+    private final Map<String, String> ids;
+
+    // Construtor.
+    private Dependencias(Map<String, String> ids) {
+        this.ids = Collections.unmodifiableMap(ids);
+    }
+
+    /**
+     * Cria as dependências a partir de pares de tipo e id. Os ids nulos são ignorados.
+     * @param pares - Tipo do registro seguido do seu id, como ("mercado", 5, "produto", 7).
+     * @return Dependencias - Dependências com os ids informados.
+     */
+    public static Dependencias de(Object... pares) {
+        Map<String, String> ids = new TreeMap<String, String>();
+
+        for(int i = 0; i + 1 < pares.length; i += 2)
+            if(pares[i + 1] != null)
+                ids.put((String) pares[i], String.valueOf(pares[i + 1]));
+
+        return new Dependencias(ids);
+    }
+
+    /**
+     * Cria as dependências a partir dos ids preenchidos em um modelo de requisição.
+     * O id do próprio modelo recebe o nome da classe e os campos terminados em "Id" recebem o nome sem o sufixo.
+     * @param modelo - Modelo de requisição, como um Produto com o campo categoriaId preenchido.
+     * @return Dependencias - Dependências com os ids preenchidos no modelo.
+     */
+    public static Dependencias doModelo(Object modelo) {
+        Map<String, String> ids = new TreeMap<String, String>();
+
+        if(modelo == null)
+            return new Dependencias(ids);
+
+        BeanWrapperImpl dados = new BeanWrapperImpl(modelo);
+
+        for(PropertyDescriptor propriedade : dados.getPropertyDescriptors()) {
+            String tipo = tipo(propriedade.getName(), modelo.getClass().getSimpleName());
+
+            if(tipo == null || propriedade.getReadMethod() == null)
+                continue;
+
+            Object id = dados.getPropertyValue(propriedade.getName());
+
+            if(id != null)
+                ids.put(tipo, String.valueOf(id));
+        }
+
+        return new Dependencias(ids);
+    }
+
+    /**
+     * Lê as dependências escritas por {@link #escrever()}.
+     * @param texto - Dependências escritas, como "mercado=5,produto=7".
+     * @return Dependencias - Dependências lidas.
+     */
+    public static Dependencias ler(String texto) {
+        Map<String, String> ids = new TreeMap<String, String>();
+
+        for(String par : texto.split(",")) {
+            int separador = par.indexOf('=');
+
+            if(separador > 0)
+                ids.put(par.substring(0, separador), par.substring(separador + 1));
+        }
+
+        return new Dependencias(ids);
+    }
+
+    /**
+     * Converte o nome de um campo ou parâmetro no tipo de registro que ele identifica.
+     * @param nome - Nome do campo, como "id" ou "produtoId".
+     * @param recurso - Nome do recurso identificado pelo campo "id", como "Mercado" ou "mercado".
+     * @return String - Tipo do registro, como "produto", ou null caso o campo não seja um id.
+     */
+    public static String tipo(String nome, String recurso) {
+        if(nome.equals("id"))
+            return recurso == null ? null : recurso.substring(0, 1).toLowerCase() + recurso.substring(1);
+
+        if(nome.length() > 2 && nome.endsWith("Id"))
+            return nome.substring(0, nome.length() - 2);
+
+        return null;
+    }
+
+    /**
+     * Adiciona uma dependência. Se o id for nulo, retorna as mesmas dependências.
+     * @param tipo - Tipo do registro.
+     * @param id - Id do registro.
+     * @return Dependencias - Novas dependências com o id informado.
+     */
+    public Dependencias mais(String tipo, Object id) {
+        if(id == null)
+            return this;
+
+        Map<String, String> novas = new TreeMap<String, String>(ids);
+        novas.put(tipo, String.valueOf(id));
+
+        return new Dependencias(novas);
+    }
+
+    /**
+     * Adiciona todas as dependências informadas.
+     * @param outras - Dependências que serão adicionadas.
+     * @return Dependencias - Novas dependências com os ids das duas.
+     */
+    public Dependencias mais(Dependencias outras) {
+        Map<String, String> novas = new TreeMap<String, String>(ids);
+        novas.putAll(outras.ids);
+
+        return new Dependencias(novas);
+    }
+
+    /**
+     * Verifica se um valor com estas dependências pode ter sido afetado pela escrita informada.
+     * Somente os tipos informados nos dois lados são comparados, os demais são considerados afetados.
+     * @param escrita - Registros alterados pela escrita.
+     * @return boolean - true se o valor deve ser removido do cache.
+     */
+    public boolean afetadaPor(Dependencias escrita) {
+        for(Map.Entry<String, String> dependencia : ids.entrySet()) {
+            String idAlterado = escrita.ids.get(dependencia.getKey());
+
+            if(idAlterado != null && !idAlterado.equals(dependencia.getValue()))
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Escreve as dependências em texto, para que sejam guardadas ou enviadas para fora da aplicação.
+     * @return String - Pares de tipo e id separados por vírgula, como "mercado=5,produto=7".
+     */
+    public String escrever() {
+        StringBuilder texto = new StringBuilder();
+
+        for(Map.Entry<String, String> id : ids.entrySet()) {
+            if(texto.length() > 0)
+                texto.append(',');
+
+            texto.append(id.getKey()).append('=').append(id.getValue());
+        }
+
+        return texto.toString();
+    }
+
+    /**
+     * @return Map&lt;String, String&gt; - Id de cada tipo de registro, pelo nome do tipo.
+     */
+    public Map<String, String> getIds() {
+        return ids;
+    }
+
+    @Override
+    public boolean equals(Object outro) {
+        return outro instanceof Dependencias && ids.equals(((Dependencias) outro).ids);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ids);
+    }
+
+    @Override
+    public String toString() {
+        return ids.toString();
+    }
+}
@@ -0,0 +1,105 @@
+package com.pagueibaratoapi.cache;
+
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Classe que repassa às outras instâncias as escritas nas entidades do cache de segundo nível do Hibernate.
+ * <P>
+ * O Hibernate só atualiza as regiões da própria instância. Depois da confirmação de cada escrita em uma entidade em
+ * cache (categorias e ramos), a região da entidade é invalidada nas outras instâncias, junto com as consultas em cache,
+ * que dependem das datas de alteração das tabelas guardadas somente na instância que escreveu.
+ * </P>
+ */
+public class DifusaoEntidades implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    // Barramento que repassa as invalidações.
+    private final BarramentoInvalidacao barramento;
+
+    // Fábrica de sessões, de onde vêm as regiões das entidades.
+    private final SessionFactoryImplementor sessionFactory;
+
+    // Construtor. Registra o envio das escritas no Hibernate e o recebimento das invalidações no barramento.
+    public DifusaoEntidades(BarramentoInvalidacao barramento, EntityManagerFactory entityManagerFactory) {
+        this.barramento = barramento;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+
+        EventListenerRegistry eventos = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+
+        eventos.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        eventos.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        eventos.appendListeners(EventType.POST_COMMIT_DELETE, this);
+
+        barramento.aoReceber(this::aplicar);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        difundir(event.getPersister());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        difundir(event.getPersister());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        difundir(event.getPersister());
+    }
+
+    // Sem a confirmação, o banco não foi alterado e não há o que invalidar.
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {}
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {}
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {}
+
+    // Método obsoleto da interface, que ainda precisa ser implementado. Usa a mesma regra do método atual.
+    @Override
+    @SuppressWarnings("deprecation")
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return requiresPostCommitHandling(persister);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.canWriteToCache();
+    }
+
+    // Publica a limpeza da região da entidade escrita.
+    private void difundir(EntityPersister persister) {
+        if(persister.canWriteToCache())
+            barramento.publicar(Invalidacao.regiao(persister.getCacheAccessStrategy().getRegion().getName()));
+    }
+
+    // Limpa as regiões das entidades escritas pelas outras instâncias e as consultas em cache.
+    private void aplicar(List<Invalidacao> invalidacoes) {
+        for(Invalidacao invalidacao : invalidacoes) {
+            if(invalidacao.getTipo() == Invalidacao.Tipo.TUDO) {
+                sessionFactory.getCache().evictAllRegions();
+                return;
+            }
+
+            if(invalidacao.getTipo() == Invalidacao.Tipo.REGIAO && sessionFactory.getCache().getCacheRegionNames().contains(invalidacao.getRegiao())) {
+                sessionFactory.getCache().evictRegion(invalidacao.getRegiao());
+                sessionFactory.getCache().evictDefaultQueryRegion();
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.pagueibaratoapi.cache;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Meio pelo qual as invalidações de uma instância da aplicação chegam às demais.
+ * Cada instância recebe somente as invalidações publicadas pelas outras instâncias.
+ */
+public interface DifusorInvalidacao extends AutoCloseable {
+
+    /**
+     * Começa a receber as invalidações das outras instâncias.
+     * @param receptor - Recebe cada lote de invalidações, na ordem em que foi publicado.
+     */
+    void iniciar(Consumer<List<Invalidacao>> receptor);
+
+    /**
+     * Envia um lote de invalidações às outras instâncias.
+     * @param invalidacoes - Lote de invalidações.
+     * @throws Exception - Se o lote não pôde ser enviado.
+     */
+    void publicar(List<Invalidacao> invalidacoes) throws Exception;
+
+    /**
+     * Para de receber as invalidações.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,47 @@
+package com.pagueibaratoapi.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Difusor que entrega as invalidações às instâncias criadas na mesma JVM e no mesmo canal.
+ * Usado com uma única instância da aplicação e nos testes, que simulam várias instâncias com vários difusores.
+ */
+public class DifusorLocal implements DifusorInvalidacao {
+
+    // Difusores iniciados, pelo canal.
+    private static final Map<String, List<DifusorLocal>> CANAIS = new ConcurrentHashMap<String, List<DifusorLocal>>();
+
+    private final String canal;
+
+    private volatile Consumer<List<Invalidacao>> receptor;
+
+    // Construtor.
+    public DifusorLocal(String canal) {
+        this.canal = canal;
+    }
+
+    @Override
+    public void iniciar(Consumer<List<Invalidacao>> receptor) {
+        this.receptor = receptor;
+        CANAIS.computeIfAbsent(canal, nome -> new CopyOnWriteArrayList<DifusorLocal>()).add(this);
+    }
+
+    @Override
+    public void publicar(List<Invalidacao> invalidacoes) {
+        for(DifusorLocal difusor : CANAIS.getOrDefault(canal, List.of()))
+            if(difusor != this)
+                difusor.receptor.accept(List.copyOf(invalidacoes));
+    }
+
+    @Override
+    public void close() {
+        List<DifusorLocal> difusores = CANAIS.get(canal);
+
+        if(difusores != null)
+            difusores.remove(this);
+    }
+}
@@ -0,0 +1,191 @@
+package com.pagueibaratoapi.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+/**
+ * Difusor que envia as invalidações pelo LISTEN/NOTIFY do PostgreSQL, para as instâncias que usam o mesmo banco.
+ * <P>
+ * Cada lote é enviado com pg_notify, em uma ou mais notificações de até 8000 bytes, começando pelo identificador da
+ * instância que o enviou. As notificações são recebidas por uma thread que mantém uma conexão do pool ouvindo o canal.
+ * </P>
+ * <P>
+ * O PostgreSQL não guarda as notificações enviadas enquanto a conexão estava fechada. Por isso, quando a conexão cai e é
+ * refeita, todas as regiões e versões da instância são invalidadas.
+ * </P>
+ */
+public class DifusorPostgres implements DifusorInvalidacao {
+
+    // Tamanho máximo de uma notificação, abaixo do limite de 8000 bytes do PostgreSQL.
+    private static final int TAMANHO_NOTIFICACAO = 7900;
+
+    // Tempo máximo de espera por notificações, depois do qual a thread verifica se deve parar.
+    private static final int ESPERA_NOTIFICACOES = 1000;
+
+    // O canal é usado no comando LISTEN, que não aceita parâmetros.
+    private static final Pattern CANAL_VALIDO = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+
+    private final DataSource dataSource;
+    private final String canal;
+    private final long reconexaoMaximaEmMillis;
+
+    // Identificador desta instância, usado para ignorar as próprias notificações.
+    private final String origem = UUID.randomUUID().toString();
+
+    private volatile boolean ativo = true;
+    private Thread ouvinte;
+
+    // Construtor.
+    public DifusorPostgres(DataSource dataSource, String canal, Duration reconexaoMaxima) {
+        if(!CANAL_VALIDO.matcher(canal).matches())
+            throw new IllegalArgumentException("canal_invalido");
+
+        this.dataSource = dataSource;
+        this.canal = canal;
+        this.reconexaoMaximaEmMillis = reconexaoMaxima.toMillis();
+    }
+
+    @Override
+    public void iniciar(Consumer<List<Invalidacao>> receptor) {
+        ouvinte = new Thread(() -> ouvir(receptor), "invalidacao-cache-postgres");
+        ouvinte.setDaemon(true);
+        ouvinte.start();
+    }
+
+    @Override
+    public void publicar(List<Invalidacao> invalidacoes) throws SQLException {
+        try (
+            Connection conexao = dataSource.getConnection();
+            PreparedStatement notificar = conexao.prepareStatement("SELECT pg_notify(?, ?)")
+        ) {
+            for(String notificacao : dividir(invalidacoes)) {
+                notificar.setString(1, canal);
+                notificar.setString(2, notificacao);
+                notificar.execute();
+            }
+
+            if(!conexao.getAutoCommit())
+                conexao.commit();
+        }
+    }
+
+    @Override
+    public void close() {
+        ativo = false;
+
+        if(ouvinte != null)
+            ouvinte.interrupt();
+    }
+
+    // Mantém a conexão ouvindo o canal, refazendo-a sempre que cair.
+    private void ouvir(Consumer<List<Invalidacao>> receptor) {
+        long espera = 100;
+        boolean reconexao = false;
+
+        while(ativo) {
+            try (Connection conexao = dataSource.getConnection()) {
+                conexao.setAutoCommit(true);
+
+                try (Statement comando = conexao.createStatement()) {
+                    comando.execute("LISTEN " + canal);
+                }
+
+                // As invalidações enviadas enquanto a conexão estava fechada foram perdidas.
+                if(reconexao)
+                    receptor.accept(List.of(Invalidacao.tudo()));
+
+                espera = 100;
+
+                PGConnection notificacoes = conexao.unwrap(PGConnection.class);
+
+                while(ativo) {
+                    PGNotification[] recebidas = notificacoes.getNotifications(ESPERA_NOTIFICACOES);
+
+                    if(recebidas == null)
+                        continue;
+
+                    for(PGNotification notificacao : recebidas) {
+                        List<Invalidacao> lote = ler(notificacao.getParameter());
+
+                        if(lote != null)
+                            receptor.accept(lote);
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if(!ativo)
+                    return;
+
+                reconexao = true;
+
+                try {
+                    Thread.sleep(espera);
+                } catch (InterruptedException interrupcao) {
+                    return;
+                }
+
+                espera = Math.min(espera * 2, reconexaoMaximaEmMillis);
+            }
+        }
+    }
+
+    // Divide o lote em notificações de até 8000 bytes, cada uma começando pela origem.
+    private List<String> dividir(List<Invalidacao> invalidacoes) {
+        List<String> notificacoes = new ArrayList<String>();
+        StringBuilder atual = new StringBuilder(origem);
+        int bytes = origem.length();
+
+        for(Invalidacao invalidacao : invalidacoes) {
+            String linha = invalidacao.escrever();
+            int tamanho = linha.getBytes(StandardCharsets.UTF_8).length + 1;
+
+            // Uma invalidação que não cabe em uma notificação é trocada pela limpeza da região.
+            if(origem.length() + tamanho > TAMANHO_NOTIFICACAO) {
+                linha = Invalidacao.regiao(invalidacao.getRegiao()).escrever();
+                tamanho = linha.getBytes(StandardCharsets.UTF_8).length + 1;
+            }
+
+            if(bytes + tamanho > TAMANHO_NOTIFICACAO) {
+                notificacoes.add(atual.toString());
+                atual = new StringBuilder(origem);
+                bytes = origem.length();
+            }
+
+            atual.append('\n').append(linha);
+            bytes += tamanho;
+        }
+
+        if(bytes > origem.length())
+            notificacoes.add(atual.toString());
+
+        return notificacoes;
+    }
+
+    // Lê as invalidações da notificação, ou null se a notificação foi enviada por esta instância.
+    private List<Invalidacao> ler(String notificacao) {
+        String[] linhas = notificacao.split("\n");
+
+        if(linhas[0].equals(origem))
+            return null;
+
+        List<Invalidacao> lote = new ArrayList<Invalidacao>(linhas.length - 1);
+
+        for(int i = 1; i < linhas.length; i++)
+            lote.add(Invalidacao.ler(linhas[i]));
+
+        return lote;
+    }
+}
@@ -0,0 +1,97 @@
+package com.pagueibaratoapi.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Classe que representa as estatísticas de uma região de cache, retornadas pelo endpoint de administração do cache.
+ */
+public class EstatisticasRegiao {
+
+    // Quantidade máxima de valores medidos na estimativa de memória.
+    private static final int AMOSTRAS_MEMORIA = 32;
+
+    private final long acertos;
+    private final long ausencias;
+    private final double taxaAcertos;
+    private final double taxaAusencias;
+    private final long tamanho;
+    private final long remocoes;
+    private final long carregamentos;
+    private final double tempoMedioCarregamentoMs;
+    private final long requisicoesAgrupadas;
+    private final long esperasEsgotadas;
+    private final long memoriaEstimada;
+    private final long acertosRemotos;
+    private final long ausenciasRemotas;
+
+    // Construtor.
+    public EstatisticasRegiao(CacheRegiao regiao) {
+        CacheStats estatisticas = regiao.getNativeCache().stats();
+
+        this.acertos = estatisticas.hitCount();
+        this.ausencias = estatisticas.missCount();
+        this.taxaAcertos = estatisticas.hitRate();
+        this.taxaAusencias = estatisticas.missRate();
+        this.tamanho = regiao.getNativeCache().estimatedSize();
+        this.remocoes = estatisticas.evictionCount();
+        this.carregamentos = regiao.getCarregamentos();
+        this.tempoMedioCarregamentoMs = carregamentos == 0 ? 0 : regiao.getTempoCarregamento() / 1e6 / carregamentos;
+        this.requisicoesAgrupadas = regiao.getRequisicoesAgrupadas();
+        this.esperasEsgotadas = regiao.getEsperasEsgotadas();
+        this.memoriaEstimada = regiao.estimarMemoria(AMOSTRAS_MEMORIA);
+        this.acertosRemotos = regiao.getAcertosRemotos();
+        this.ausenciasRemotas = regiao.getAusenciasRemotas();
+    }
+
+    public long getAcertos() {
+        return acertos;
+    }
+
+    public long getAusencias() {
+        return ausencias;
+    }
+
+    public double getTaxaAcertos() {
+        return taxaAcertos;
+    }
+
+    public double getTaxaAusencias() {
+        return taxaAusencias;
+    }
+
+    public long getTamanho() {
+        return tamanho;
+    }
+
+    public long getRemocoes() {
+        return remocoes;
+    }
+
+    public long getCarregamentos() {
+        return carregamentos;
+    }
+
+    public double getTempoMedioCarregamentoMs() {
+        return tempoMedioCarregamentoMs;
+    }
+
+    public long getRequisicoesAgrupadas() {
+        return requisicoesAgrupadas;
+    }
+
+    public long getEsperasEsgotadas() {
+        return esperasEsgotadas;
+    }
+
+    public long getMemoriaEstimada() {
+        return memoriaEstimada;
+    }
+
+    public long getAcertosRemotos() {
+        return acertosRemotos;
+    }
+
+    public long getAusenciasRemotas() {
+        return ausenciasRemotas;
+    }
+}
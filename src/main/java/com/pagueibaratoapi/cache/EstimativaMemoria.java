@@ -0,0 +1,154 @@
+package com.pagueibaratoapi.cache;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Classe que estima a memória ocupada por um valor do cache, percorrendo os objetos alcançáveis a partir dele.
+ * <P>
+ * A estimativa considera referências comprimidas (4 bytes) e cabeçalhos de 12 bytes, alinhados em 8 bytes. Os campos
+ * das classes do Java não podem ser lidos por reflexão, por isso textos, números, coleções e mapas são medidos pelo
+ * seu conteúdo e as demais classes do Java contam somente um tamanho fixo. O resultado serve para comparar as regiões,
+ * não para medir a memória com exatidão.
+ * </P>
+ */
+final class EstimativaMemoria {
+
+    // Quantidade máxima de objetos percorridos por valor, para que a estimativa não pese na requisição.
+    private static final int LIMITE_OBJETOS = 10000;
+
+    // Tamanho considerado para as classes do Java que não são percorridas.
+    private static final long TAMANHO_CLASSE_JAVA = 64;
+
+    private EstimativaMemoria() {}
+
+    /**
+     * Estima a memória ocupada pelo valor e pelos objetos alcançáveis a partir dele.
+     * @param valor - Valor guardado no cache.
+     * @return long - Estimativa em bytes.
+     */
+    static long estimar(Object valor) {
+        Set<Object> visitados = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        Deque<Object> pendentes = new ArrayDeque<Object>();
+        long bytes = 0;
+
+        if(valor != null)
+            pendentes.push(valor);
+
+        while(!pendentes.isEmpty() && visitados.size() < LIMITE_OBJETOS) {
+            Object objeto = pendentes.pop();
+
+            if(!visitados.add(objeto))
+                continue;
+
+            bytes += medir(objeto, pendentes);
+        }
+
+        return bytes;
+    }
+
+    // Mede o próprio objeto e adiciona aos pendentes os objetos referenciados por ele.
+    private static long medir(Object objeto, Deque<Object> pendentes) {
+        Class<?> classe = objeto.getClass();
+
+        // Enums e classes são compartilhados por toda a aplicação.
+        if(classe.isEnum() || objeto instanceof Class)
+            return 0;
+
+        if(objeto instanceof String)
+            return alinhar(24) + alinhar(16 + ((String) objeto).length());
+
+        if(objeto instanceof Number || objeto instanceof Boolean || objeto instanceof Character)
+            return 16;
+
+        if(classe.isArray()) {
+            int tamanho = Array.getLength(objeto);
+
+            if(!classe.getComponentType().isPrimitive()) {
+                for(int i = 0; i < tamanho; i++)
+                    adicionar(Array.get(objeto, i), pendentes);
+
+                return alinhar(16 + 4L * tamanho);
+            }
+
+            return alinhar(16 + tamanhoPrimitivo(classe.getComponentType()) * tamanho);
+        }
+
+        // Coleções e mapas: o objeto, o array interno e um nó por elemento.
+        if(objeto instanceof Collection) {
+            for(Object elemento : (Collection<?>) objeto)
+                adicionar(elemento, pendentes);
+
+            return 48 + 24L * ((Collection<?>) objeto).size();
+        }
+
+        if(objeto instanceof Map) {
+            for(Map.Entry<?, ?> entrada : ((Map<?, ?>) objeto).entrySet()) {
+                adicionar(entrada.getKey(), pendentes);
+                adicionar(entrada.getValue(), pendentes);
+            }
+
+            return 48 + 36L * ((Map<?, ?>) objeto).size();
+        }
+
+        if(classe.getName().startsWith("java.") || classe.getName().startsWith("javax."))
+            return TAMANHO_CLASSE_JAVA;
+
+        // Demais classes: cabeçalho mais os campos de toda a hierarquia.
+        long bytes = 12;
+
+        for(Class<?> atual = classe; atual != null && atual != Object.class; atual = atual.getSuperclass()) {
+            for(Field campo : atual.getDeclaredFields()) {
+                if(Modifier.isStatic(campo.getModifiers()))
+                    continue;
+
+                if(campo.getType().isPrimitive()) {
+                    bytes += tamanhoPrimitivo(campo.getType());
+                    continue;
+                }
+
+                bytes += 4;
+
+                if(campo.trySetAccessible()) {
+                    try {
+                        adicionar(campo.get(objeto), pendentes);
+                    } catch (IllegalAccessException e) {
+                        // O campo não pôde ser lido e conta somente a referência.
+                    }
+                }
+            }
+        }
+
+        return alinhar(bytes);
+    }
+
+    private static void adicionar(Object objeto, Deque<Object> pendentes) {
+        if(objeto != null)
+            pendentes.push(objeto);
+    }
+
+    private static long tamanhoPrimitivo(Class<?> tipo) {
+        if(tipo == long.class || tipo == double.class)
+            return 8;
+
+        if(tipo == int.class || tipo == float.class)
+            return 4;
+
+        if(tipo == short.class || tipo == char.class)
+            return 2;
+
+        return 1;
+    }
+
+    private static long alinhar(long bytes) {
+        return (bytes + 7) / 8 * 8;
+    }
+}
@@ -0,0 +1,140 @@
+package com.pagueibaratoapi.cache;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import com.pagueibaratoapi.models.requests.Usuario;
+
+/**
+ * Gerador das chaves dos métodos anotados com @Cacheable.
+ * Além dos parâmetros, a chave guarda os ids dos registros dos quais o valor depende, lidos das variáveis
+ * de caminho (o "id" do recurso do controller e os parâmetros terminados em "Id") e dos modelos usados como filtro.
+ * <P>
+ * Os modelos não implementam equals e hashCode, então cada filtro é convertido nos seus campos preenchidos, com os
+ * textos em minúsculas, já que as listagens comparam os textos sem diferenciar maiúsculas. Assim, filtros iguais
+ * geram a mesma chave. O método também faz parte da chave, pois listagens diferentes da mesma região podem receber
+ * os mesmos valores.
+ * </P>
+ * <P>
+ * Os parâmetros da chave são uma lista com os campos dos filtros em ordem alfabética, cujo texto é o mesmo em todas as
+ * instâncias da aplicação. Assim, o texto da chave também identifica o valor no cache compartilhado.
+ * </P>
+ */
+public class GeradorChave implements KeyGenerator {
+
+    // Pacote dos modelos de requisição usados como filtro nas listagens.
+    private static final String PACOTE_MODELOS = Usuario.class.getPackageName();
+
+    private final ParameterNameDiscoverer nomesParametros = new DefaultParameterNameDiscoverer();
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        Dependencias dependencias = Dependencias.de();
+
+        String[] nomes = nomesParametros.getParameterNames(method);
+
+        for(int i = 0; i < params.length; i++) {
+
+            if(params[i] == null)
+                continue;
+
+            // Modelo usado como filtro: as dependências são os ids preenchidos pelo cliente.
+            if(params[i].getClass().getPackageName().equals(PACOTE_MODELOS)) {
+                dependencias = dependencias.mais(Dependencias.doModelo(params[i]));
+                continue;
+            }
+
+            // Variável de caminho: o "id" identifica o recurso do controller, as demais identificam o próprio tipo.
+            PathVariable variavel = method.getParameters()[i].getAnnotation(PathVariable.class);
+
+            if(variavel == null)
+                continue;
+
+            String nome = !variavel.value().isEmpty() ? variavel.value() : (nomes != null ? nomes[i] : "");
+            String tipo = Dependencias.tipo(nome, recurso(target));
+
+            if(tipo != null)
+                dependencias = dependencias.mais(tipo, params[i]);
+        }
+
+        List<Object> chave = new ArrayList<Object>(params.length + 1);
+
+        chave.add(method);
+        chave.addAll(Arrays.asList(parametros(method, nomes, params)));
+
+        return new ChaveCache(Collections.unmodifiableList(chave), dependencias);
+    }
+
+    // Converte os parâmetros em valores comparáveis, sem alterar os parâmetros recebidos pelo método.
+    private Object[] parametros(Method method, String[] nomes, Object[] params) {
+        Object[] parametros = new Object[params.length];
+
+        for(int i = 0; i < params.length; i++) {
+            if(params[i] != null && params[i].getClass().getPackageName().equals(PACOTE_MODELOS))
+                parametros[i] = filtro(params[i]);
+
+            // A direção da ordenação é lida sem diferenciar maiúsculas ("asc" e "ASC").
+            else if(params[i] instanceof String && nomes != null && nomes[i].equals("ordem"))
+                parametros[i] = ((String) params[i]).toLowerCase(Locale.ROOT);
+
+            else
+                parametros[i] = params[i];
+        }
+
+        return parametros;
+    }
+
+    /**
+     * Converte o modelo usado como filtro em uma chave imutável com os campos preenchidos.
+     * Os relacionamentos com outros modelos são ignorados, pois não são preenchidos pelo cliente.
+     * @param modelo - Modelo usado como filtro.
+     * @return Object - Nome do modelo e mapa com os campos preenchidos, comparáveis entre requisições.
+     */
+    private Object filtro(Object modelo) {
+        Map<String, Object> campos = new TreeMap<String, Object>();
+        BeanWrapperImpl dados = new BeanWrapperImpl(modelo);
+
+        for(PropertyDescriptor propriedade : dados.getPropertyDescriptors()) {
+            if(propriedade.getReadMethod() == null || propriedade.getWriteMethod() == null)
+                continue;
+
+            Object valor = dados.getPropertyValue(propriedade.getName());
+
+            if(valor == null || valor instanceof Collection || valor.getClass().getPackageName().equals(PACOTE_MODELOS))
+                continue;
+
+            campos.put(propriedade.getName(), valor instanceof String ? ((String) valor).toLowerCase(Locale.ROOT) : valor);
+        }
+
+        return List.of(modelo.getClass().getSimpleName(), Collections.unmodifiableMap(campos));
+    }
+
+    // Nome do recurso do controller, lido do caminho mapeado, como "mercado" para "/mercado".
+    private String recurso(Object controller) {
+        RequestMapping mapeamento = AnnotatedElementUtils.findMergedAnnotation(AopUtils.getTargetClass(controller), RequestMapping.class);
+
+        if(mapeamento == null || mapeamento.value().length == 0)
+            return null;
+
+        String caminho = mapeamento.value()[0].replace("/", "");
+
+        return caminho.isEmpty() ? null : caminho;
+    }
+}
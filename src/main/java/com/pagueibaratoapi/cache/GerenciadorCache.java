@@ -0,0 +1,163 @@
+package com.pagueibaratoapi.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Gerenciador das regiões de cache da aplicação.
+ * Cada região é criada no primeiro uso, limitada e com o tempo de expiração e de recarga da sua configuração.
+ * As regiões configuradas como compartilhadas também guardam os valores no {@link CacheRemoto}, se houver um.
+ */
+public class GerenciadorCache extends CaffeineCacheManager implements AutoCloseable {
+
+    // Configurações das regiões.
+    private final PropriedadesCache propriedades;
+
+    // Relógio utilizado pelas regiões.
+    private final Ticker relogio;
+
+    // Cache compartilhado entre as instâncias, usado pelas regiões compartilhadas.
+    private volatile CacheRemoto remoto;
+
+    // Ações executadas em cada região criada, como o registro das métricas.
+    private final List<Consumer<CacheRegiao>> aoCriar = new CopyOnWriteArrayList<Consumer<CacheRegiao>>();
+
+    // Construtor.
+    public GerenciadorCache(PropriedadesCache propriedades, Ticker relogio) {
+        this.propriedades = propriedades;
+        this.relogio = relogio;
+    }
+
+    @Override
+    protected Cache createCaffeineCache(String name) {
+        PropriedadesCache.Regiao configuracao = propriedades.configuracao(name);
+        IndiceDependencias indice = new IndiceDependencias();
+
+        // As remoções por tamanho e expiração retiram a chave do índice junto com o valor.
+        Caffeine<Object, Object> construtor = Caffeine.newBuilder()
+            .evictionListener((Object chave, Object valor, RemovalCause causa) -> indice.remover(chave))
+            .maximumSize(configuracao.getTamanhoMaximo())
+            .expireAfterWrite(configuracao.getExpiracao())
+            .ticker(relogio)
+            .recordStats();
+
+        // Com o relógio do sistema, os registros expirados são removidos mesmo sem acessos à região.
+        if(relogio == Ticker.systemTicker())
+            construtor.scheduler(Scheduler.systemScheduler());
+
+        CacheRegiao regiao = new CacheRegiao(name, construtor.build(), configuracao.getRecarga(), configuracao.getEsperaMaxima(), relogio, indice);
+
+        if(remoto != null && Boolean.TRUE.equals(configuracao.getCompartilhada()))
+            regiao.compartilharPor(remoto, configuracao.getExpiracao());
+
+        for(Consumer<CacheRegiao> acao : aoCriar)
+            acao.accept(regiao);
+
+        return regiao;
+    }
+
+    /**
+     * Registra uma ação executada nas regiões já criadas e em cada região criada depois.
+     * @param acao - Ação que recebe a região.
+     */
+    public void aoCriarRegiao(Consumer<CacheRegiao> acao) {
+        aoCriar.add(acao);
+
+        for(CacheRegiao regiao : regioes().values())
+            acao.accept(regiao);
+    }
+
+    /**
+     * Define o cache compartilhado das regiões compartilhadas. Deve ser chamado antes da criação das regiões.
+     * @param remoto - Cache compartilhado entre as instâncias.
+     */
+    public void compartilharPor(CacheRemoto remoto) {
+        this.remoto = remoto;
+    }
+
+    /**
+     * @return CacheRemoto - Cache compartilhado entre as instâncias, ou null se não houver.
+     */
+    public CacheRemoto getRemoto() {
+        return remoto;
+    }
+
+    /**
+     * Repassa as remoções e limpezas feitas nas regiões, já criadas e criadas depois, às outras instâncias.
+     * @param difusao - Destino das invalidações, como o {@link BarramentoInvalidacao}.
+     */
+    public void difundirPor(Consumer<Invalidacao> difusao) {
+        aoCriarRegiao(regiao -> regiao.difundirPor(difusao));
+    }
+
+    /**
+     * Aplica as invalidações recebidas das outras instâncias, sem repassá-las.
+     * As regiões ainda não utilizadas nesta instância não possuem valores e são ignoradas.
+     * @param invalidacoes - Invalidações recebidas.
+     */
+    public void aplicar(List<Invalidacao> invalidacoes) {
+        Map<String, CacheRegiao> regioes = regioes();
+
+        for(Invalidacao invalidacao : invalidacoes) {
+            if(invalidacao.getTipo() == Invalidacao.Tipo.TUDO) {
+                for(CacheRegiao regiao : regioes.values())
+                    regiao.aplicar(invalidacao);
+
+                continue;
+            }
+
+            CacheRegiao regiao = regioes.get(invalidacao.getRegiao());
+
+            if(regiao != null)
+                regiao.aplicar(invalidacao);
+        }
+    }
+
+    /**
+     * Busca todas as regiões já utilizadas.
+     * @return Map&lt;String, CacheRegiao&gt; - Regiões pelo nome.
+     */
+    public Map<String, CacheRegiao> regioes() {
+        Map<String, CacheRegiao> regioes = new TreeMap<String, CacheRegiao>();
+
+        for(String nome : getCacheNames())
+            regioes.put(nome, (CacheRegiao) getCache(nome));
+
+        return regioes;
+    }
+
+    /**
+     * Busca as estatísticas de todas as regiões já utilizadas.
+     * @return Map&lt;String, CacheStats&gt; - Estatísticas de acertos, falhas e remoções de cada região, pelo nome da região.
+     */
+    public Map<String, CacheStats> estatisticas() {
+        Map<String, CacheStats> estatisticas = new TreeMap<String, CacheStats>();
+
+        for(String nome : getCacheNames())
+            estatisticas.put(nome, ((CaffeineCache) getCache(nome)).getNativeCache().stats());
+
+        return estatisticas;
+    }
+
+    /**
+     * Fecha a conexão com o cache compartilhado, se houver.
+     */
+    @Override
+    public void close() {
+        if(remoto != null)
+            remoto.close();
+    }
+}
@@ -0,0 +1,108 @@
+package com.pagueibaratoapi.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice das chaves de uma região de cache pelos registros dos quais seus valores dependem.
+ * Permite encontrar as chaves afetadas por uma escrita sem percorrer a região inteira.
+ */
+public class IndiceDependencias {
+
+    // Chaves de cada id, por tipo de registro e id: "mercado" -> "5" -> chaves que dependem do mercado 5.
+    private final Map<String, Map<String, Set<Object>>> porId = new ConcurrentHashMap<String, Map<String, Set<Object>>>();
+
+    // Chaves que dependem de algum id de cada tipo de registro.
+    private final Map<String, Set<Object>> porTipo = new ConcurrentHashMap<String, Set<Object>>();
+
+    // Dependências de cada chave registrada. Chaves sem dependências dependem de todos os registros.
+    private final Map<Object, Dependencias> chaves = new ConcurrentHashMap<Object, Dependencias>();
+
+    /**
+     * Registra a chave de um valor gravado na região.
+     * @param chave - Chave do valor.
+     */
+    public void registrar(Object chave) {
+        Dependencias dependencias = dependencias(chave);
+
+        chaves.put(chave, dependencias);
+
+        for(Map.Entry<String, String> id : dependencias.getIds().entrySet()) {
+            porTipo.computeIfAbsent(id.getKey(), tipo -> ConcurrentHashMap.newKeySet()).add(chave);
+            porId
+                .computeIfAbsent(id.getKey(), tipo -> new ConcurrentHashMap<String, Set<Object>>())
+                .computeIfAbsent(id.getValue(), valor -> ConcurrentHashMap.newKeySet())
+                .add(chave);
+        }
+    }
+
+    /**
+     * Remove a chave de um valor que deixou a região.
+     * @param chave - Chave do valor.
+     */
+    public void remover(Object chave) {
+        Dependencias dependencias = chaves.remove(chave);
+
+        if(dependencias == null)
+            return;
+
+        for(Map.Entry<String, String> id : dependencias.getIds().entrySet()) {
+            Set<Object> doTipo = porTipo.get(id.getKey());
+
+            if(doTipo != null)
+                doTipo.remove(chave);
+
+            Map<String, Set<Object>> ids = porId.get(id.getKey());
+
+            if(ids != null)
+                ids.computeIfPresent(id.getValue(), (valor, registradas) -> {
+                    registradas.remove(chave);
+                    return registradas.isEmpty() ? null : registradas;
+                });
+        }
+    }
+
+    /**
+     * Busca as chaves cujos valores podem ter sido afetados pela escrita.
+     * @param escrita - Registros alterados pela escrita.
+     * @return List&lt;Object&gt; - Chaves afetadas.
+     */
+    public List<Object> afetadas(Dependencias escrita) {
+
+        // Sem índice que restrinja a busca, todas as chaves são verificadas.
+        Collection<Object> candidatas = chaves.keySet();
+
+        for(Map.Entry<String, String> id : escrita.getIds().entrySet()) {
+            Set<Object> doTipo = porTipo.get(id.getKey());
+
+            // Se todas as chaves dependem de algum id desse tipo, somente as que dependem do id escrito podem ser afetadas.
+            if(doTipo == null || doTipo.size() < chaves.size())
+                continue;
+
+            Set<Object> registradas = porId.getOrDefault(id.getKey(), Map.of()).getOrDefault(id.getValue(), Set.of());
+
+            if(registradas.size() < candidatas.size())
+                candidatas = registradas;
+        }
+
+        List<Object> afetadas = new ArrayList<Object>();
+
+        for(Object chave : candidatas) {
+            Dependencias dependencias = chaves.get(chave);
+
+            if(dependencias != null && dependencias.afetadaPor(escrita))
+                afetadas.add(chave);
+        }
+
+        return afetadas;
+    }
+
+    // Dependências da chave. Chaves que não foram geradas pelo GeradorChave dependem de todos os registros.
+    static Dependencias dependencias(Object chave) {
+        return chave instanceof ChaveCache ? ((ChaveCache) chave).getDependencias() : Dependencias.de();
+    }
+}
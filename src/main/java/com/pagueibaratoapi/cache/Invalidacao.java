@@ -0,0 +1,177 @@
+package com.pagueibaratoapi.cache;
+
+import java.util.Objects;
+
+/**
+ * Classe que representa uma invalidação feita em uma instância da aplicação e repassada às demais pelo
+ * {@link BarramentoInvalidacao}: a limpeza de uma região, a remoção de uma chave, a remoção dos valores que dependem
+ * de registros alterados ou o incremento da versão de um recurso (usada nas ETags).
+ * <P>
+ * Cada invalidação é escrita em uma linha de texto ("D\tmercadoProdutos\tmercado=5,produto=7"), para que possa ser
+ * enviada por qualquer meio, como o NOTIFY do PostgreSQL.
+ * </P>
+ */
+public final class Invalidacao {
+
+    /**
+     * Tipos de invalidação.
+     */
+    public enum Tipo {
+        // Remove todos os valores de uma região.
+        REGIAO('R'),
+        // Remove uma chave de texto de uma região.
+        CHAVE('C'),
+        // Remove os valores de uma região que dependem dos registros alterados.
+        DEPENDENCIAS('D'),
+        // Incrementa a versão de um recurso ou coleção.
+        VERSAO('V'),
+        // Remove os valores de todas as regiões e altera todas as versões, quando invalidações podem ter sido perdidas.
+        TUDO('T');
+
+        private final char codigo;
+
+        Tipo(char codigo) {
+            this.codigo = codigo;
+        }
+
+        private static Tipo doCodigo(char codigo) {
+            for(Tipo tipo : values())
+                if(tipo.codigo == codigo)
+                    return tipo;
+
+            throw new IllegalArgumentException("invalidacao_invalida");
+        }
+    }
+
+    private final Tipo tipo;
+    private final String regiao;
+    private final String chave;
+
+    private Invalidacao(Tipo tipo, String regiao, String chave) {
+        this.tipo = tipo;
+        this.regiao = regiao;
+        this.chave = chave;
+    }
+
+    /**
+     * @param regiao - Nome da região.
+     * @return Invalidacao - Limpeza da região.
+     */
+    public static Invalidacao regiao(String regiao) {
+        return new Invalidacao(Tipo.REGIAO, regiao, "");
+    }
+
+    /**
+     * @param chave - Chave da versão, como "mercado:5" ou "mercado".
+     * @return Invalidacao - Incremento da versão.
+     */
+    public static Invalidacao versao(String chave) {
+        return new Invalidacao(Tipo.VERSAO, "", chave);
+    }
+
+    /**
+     * @return Invalidacao - Limpeza de todas as regiões e de todas as versões.
+     */
+    public static Invalidacao tudo() {
+        return new Invalidacao(Tipo.TUDO, "", "");
+    }
+
+    /**
+     * Converte a chave removida de uma região na invalidação equivalente. Chaves que não são texto nem dependências
+     * não podem ser reconstruídas nas outras instâncias, então a região inteira é limpa.
+     * @param regiao - Nome da região.
+     * @param chave - Chave removida.
+     * @return Invalidacao - Invalidação que remove a mesma chave nas outras instâncias.
+     */
+    public static Invalidacao daRemocao(String regiao, Object chave) {
+        if(chave instanceof Dependencias)
+            return new Invalidacao(Tipo.DEPENDENCIAS, regiao, ((Dependencias) chave).escrever());
+
+        if(chave instanceof String)
+            return new Invalidacao(Tipo.CHAVE, regiao, (String) chave);
+
+        return regiao(regiao);
+    }
+
+    /**
+     * Lê a invalidação escrita por {@link #escrever()}.
+     * @param linha - Linha com a invalidação.
+     * @return Invalidacao - Invalidação lida.
+     */
+    public static Invalidacao ler(String linha) {
+        String[] partes = linha.split("\t", -1);
+
+        if(partes.length != 3 || partes[0].length() != 1)
+            throw new IllegalArgumentException("invalidacao_invalida");
+
+        return new Invalidacao(Tipo.doCodigo(partes[0].charAt(0)), desescapar(partes[1]), desescapar(partes[2]));
+    }
+
+    /**
+     * @return String - Invalidação escrita em uma linha, sem quebras de linha.
+     */
+    public String escrever() {
+        return tipo.codigo + "\t" + escapar(regiao) + "\t" + escapar(chave);
+    }
+
+    /**
+     * @return Dependencias - Registros alterados, nas invalidações do tipo DEPENDENCIAS.
+     */
+    public Dependencias getDependencias() {
+        return Dependencias.ler(chave);
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public String getRegiao() {
+        return regiao;
+    }
+
+    public String getChave() {
+        return chave;
+    }
+
+    @Override
+    public boolean equals(Object outro) {
+        if(!(outro instanceof Invalidacao))
+            return false;
+
+        Invalidacao invalidacao = (Invalidacao) outro;
+
+        return tipo == invalidacao.tipo && regiao.equals(invalidacao.regiao) && chave.equals(invalidacao.chave);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tipo, regiao, chave);
+    }
+
+    @Override
+    public String toString() {
+        return escrever();
+    }
+
+    // Os separadores (tabulação e quebra de linha) não podem aparecer no texto.
+    private static String escapar(String texto) {
+        return texto.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n");
+    }
+
+    private static String desescapar(String texto) {
+        StringBuilder resultado = new StringBuilder(texto.length());
+
+        for(int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+
+            if(c == '\\' && i + 1 < texto.length()) {
+                char proximo = texto.charAt(++i);
+                resultado.append(proximo == 't' ? '\t' : proximo == 'n' ? '\n' : proximo);
+            }
+            else
+                resultado.append(c);
+        }
+
+        return resultado.toString();
+    }
+}
@@ -0,0 +1,90 @@
+package com.pagueibaratoapi.cache;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Classe que registra as métricas das regiões de cache no Micrometer.
+ * <P>
+ * As regiões são criadas no primeiro uso, depois do registro das métricas dos caches feito pelo Actuator, por isso
+ * cada região é registrada pelo {@link GerenciadorCache} no momento da sua criação. Além das métricas do Caffeine
+ * (acertos, ausências, tamanho e remoções), são registrados o tempo dos carregamentos, as requisições agrupadas e a
+ * memória estimada, já que os carregamentos são feitos fora do Caffeine.
+ * </P>
+ */
+public class MetricasCache implements MeterBinder {
+
+    // Quantidade máxima de valores medidos na estimativa de memória, a cada leitura da métrica.
+    private static final int AMOSTRAS_MEMORIA = 32;
+
+    // Gerenciador das regiões.
+    private final GerenciadorCache gerenciador;
+
+    // Construtor.
+    public MetricasCache(GerenciadorCache gerenciador) {
+        this.gerenciador = gerenciador;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registro) {
+        gerenciador.aoCriarRegiao(regiao -> registrar(regiao, registro));
+
+        CacheRemoto remoto = gerenciador.getRemoto();
+
+        if(remoto == null)
+            return;
+
+        Gauge.builder("cache.remoto.disponivel", remoto, valor -> valor.isDisponivel() ? 1 : 0)
+            .description("Se o cache compartilhado entre as instâncias está sendo consultado")
+            .register(registro);
+
+        FunctionCounter.builder("cache.remoto.falhas", remoto, CacheRemoto::getFalhas)
+            .description("Operações do cache compartilhado que falharam")
+            .register(registro);
+    }
+
+    // Registra as métricas da região, identificadas pelo nome da região e do gerenciador, como as do Actuator.
+    private void registrar(CacheRegiao regiao, MeterRegistry registro) {
+        Tags tags = Tags.of("cache", regiao.getName(), "cacheManager", "cacheManager");
+
+        CaffeineCacheMetrics.monitor(registro, regiao.getNativeCache(), regiao.getName(), Tags.of("cacheManager", "cacheManager"));
+
+        FunctionTimer.builder("cache.carregamento", regiao, CacheRegiao::getCarregamentos, CacheRegiao::getTempoCarregamento, TimeUnit.NANOSECONDS)
+            .tags(tags)
+            .description("Execuções do método anotado com @Cacheable")
+            .register(registro);
+
+        FunctionCounter.builder("cache.requisicoes.agrupadas", regiao, CacheRegiao::getRequisicoesAgrupadas)
+            .tags(tags)
+            .description("Requisições que aguardaram o carregamento feito por outra requisição")
+            .register(registro);
+
+        FunctionCounter.builder("cache.esperas.esgotadas", regiao, CacheRegiao::getEsperasEsgotadas)
+            .tags(tags)
+            .description("Requisições que esgotaram o tempo de espera e carregaram o valor por conta própria")
+            .register(registro);
+
+        FunctionCounter.builder("cache.remoto.requisicoes", regiao, CacheRegiao::getAcertosRemotos)
+            .tags(tags.and("resultado", "acerto"))
+            .description("Valores ausentes na memória buscados no cache compartilhado")
+            .register(registro);
+
+        FunctionCounter.builder("cache.remoto.requisicoes", regiao, CacheRegiao::getAusenciasRemotas)
+            .tags(tags.and("resultado", "ausencia"))
+            .description("Valores ausentes na memória buscados no cache compartilhado")
+            .register(registro);
+
+        Gauge.builder("cache.memoria.estimada", regiao, valor -> valor.estimarMemoria(AMOSTRAS_MEMORIA))
+            .tags(tags)
+            .baseUnit("bytes")
+            .description("Memória estimada a partir de uma amostra dos valores")
+            .register(registro);
+    }
+}
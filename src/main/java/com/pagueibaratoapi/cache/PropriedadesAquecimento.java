@@ -0,0 +1,98 @@
+package com.pagueibaratoapi.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Classe que representa as configurações do aquecimento do cache, lidas do application.properties.
+ */
+@ConfigurationProperties(prefix = "pagueibarato.config.aquecimento")
+public class PropriedadesAquecimento {
+
+    // Se o cache é aquecido na inicialização.
+    private boolean habilitado = true;
+
+    // Caminhos das listagens aquecidas, com os parâmetros da requisição.
+    private List<String> caminhos = new ArrayList<String>(List.of(
+        "/categoria",
+        "/ramo",
+        "/produto?pagina=0&limite=10",
+        "/mercado?pagina=0&limite=10"
+    ));
+
+    // Quantidade de produtos mais sugeridos cujo levantamento é aquecido.
+    private int produtosMaisSugeridos = 20;
+
+    // Período, até a inicialização, em que as sugestões são contadas para escolher os produtos mais sugeridos.
+    private Duration periodo = Duration.ofDays(7);
+
+    // Quantidade de requisições de aquecimento feitas ao mesmo tempo.
+    private int threads = 4;
+
+    // Tempo máximo do aquecimento. As requisições não concluídas são canceladas e a aplicação fica pronta mesmo assim.
+    private Duration tempoMaximo = Duration.ofSeconds(60);
+
+    // Endereço público da API, enviado nos cabeçalhos X-Forwarded para que os links guardados no cache sejam os mesmos das
+    // requisições dos clientes. Somente o protocolo, o host e a porta são usados, já que o servidor não considera o
+    // X-Forwarded-Prefix. Sem o endereço público, o aquecimento não é feito.
+    private String urlPublica;
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public void setHabilitado(boolean habilitado) {
+        this.habilitado = habilitado;
+    }
+
+    public List<String> getCaminhos() {
+        return caminhos;
+    }
+
+    public void setCaminhos(List<String> caminhos) {
+        this.caminhos = caminhos;
+    }
+
+    public int getProdutosMaisSugeridos() {
+        return produtosMaisSugeridos;
+    }
+
+    public void setProdutosMaisSugeridos(int produtosMaisSugeridos) {
+        this.produtosMaisSugeridos = produtosMaisSugeridos;
+    }
+
+    public Duration getPeriodo() {
+        return periodo;
+    }
+
+    public void setPeriodo(Duration periodo) {
+        this.periodo = periodo;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public Duration getTempoMaximo() {
+        return tempoMaximo;
+    }
+
+    public void setTempoMaximo(Duration tempoMaximo) {
+        this.tempoMaximo = tempoMaximo;
+    }
+
+    public String getUrlPublica() {
+        return urlPublica;
+    }
+
+    public void setUrlPublica(String urlPublica) {
+        this.urlPublica = urlPublica;
+    }
+}
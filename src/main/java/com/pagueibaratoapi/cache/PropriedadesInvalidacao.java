@@ -0,0 +1,77 @@
+package com.pagueibaratoapi.cache;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Classe que representa as configurações do barramento de invalidação entre instâncias, lidas do application.properties.
+ */
+@ConfigurationProperties(prefix = "pagueibarato.config.invalidacao")
+public class PropriedadesInvalidacao {
+
+    /**
+     * Meios de envio das invalidações.
+     */
+    public enum Difusor {
+        // Somente as instâncias da mesma JVM, para uma única instância e para os testes.
+        LOCAL,
+        // LISTEN/NOTIFY do PostgreSQL, para várias instâncias usando o mesmo banco.
+        POSTGRES
+    }
+
+    // Meio de envio das invalidações.
+    private Difusor difusor = Difusor.LOCAL;
+
+    // Canal em que as invalidações são enviadas. No PostgreSQL, deve ser um identificador válido.
+    private String canal = "pagueibarato_cache";
+
+    // Tempo em que as invalidações são acumuladas antes do envio, agrupando as invalidações de uma rajada de escritas.
+    private Duration intervalo = Duration.ofMillis(50);
+
+    // Quantidade máxima de invalidações por lote. Acima dela, as chaves de uma mesma região viram a limpeza da região.
+    private int tamanhoLote = 200;
+
+    // Espera máxima entre as tentativas de reconectar ao canal.
+    private Duration reconexaoMaxima = Duration.ofSeconds(30);
+
+    public Difusor getDifusor() {
+        return difusor;
+    }
+
+    public void setDifusor(Difusor difusor) {
+        this.difusor = difusor;
+    }
+
+    public String getCanal() {
+        return canal;
+    }
+
+    public void setCanal(String canal) {
+        this.canal = canal;
+    }
+
+    public Duration getIntervalo() {
+        return intervalo;
+    }
+
+    public void setIntervalo(Duration intervalo) {
+        this.intervalo = intervalo;
+    }
+
+    public int getTamanhoLote() {
+        return tamanhoLote;
+    }
+
+    public void setTamanhoLote(int tamanhoLote) {
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    public Duration getReconexaoMaxima() {
+        return reconexaoMaxima;
+    }
+
+    public void setReconexaoMaxima(Duration reconexaoMaxima) {
+        this.reconexaoMaxima = reconexaoMaxima;
+    }
+}
@@ -0,0 +1,106 @@
+package com.pagueibaratoapi.cache;
+
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.cache.Cache;
+
+/**
+ * Classe que guarda em cache se os registros consultados pelo id existem, para que as requisições repetidas a ids
+ * removidos ou inexistentes (como as de robôs e de versões antigas do aplicativo) não consultem o banco a cada vez.
+ * <P>
+ * Os resultados ficam na região "existencias", com expiração curta. Depois da confirmação de cada criação ou remoção
+ * de um registro acompanhado, a chave do registro é removida da região, e a remoção é repassada às outras instâncias
+ * pelo {@link GerenciadorCache}. Uma consulta em andamento durante a remoção não grava o seu resultado.
+ * </P>
+ */
+public class RegistroExistencia implements PostCommitInsertEventListener, PostCommitDeleteEventListener {
+
+    // Região dos resultados.
+    public static final String REGIAO = "existencias";
+
+    // Tipos dos registros acompanhados, pelo nome da entidade.
+    private static final Set<String> TIPOS = Set.of("mercado", "produto");
+
+    // Região onde os resultados são guardados.
+    private final Cache regiao;
+
+    // Construtor. Registra a remoção das chaves após as criações e remoções confirmadas no Hibernate.
+    public RegistroExistencia(GerenciadorCache gerenciador, EntityManagerFactory entityManagerFactory) {
+        this.regiao = gerenciador.getCache(REGIAO);
+
+        EventListenerRegistry eventos = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class);
+
+        eventos.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        eventos.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    /**
+     * Verifica se o registro existe, consultando o banco somente se o resultado não estiver em cache.
+     * @param tipo - Tipo do registro, como "mercado".
+     * @param id - Id do registro.
+     * @param consulta - Consulta da existência do registro no banco, como o existsById do repositório.
+     * @return boolean - Se o registro existe.
+     */
+    public boolean existe(String tipo, Object id, BooleanSupplier consulta) {
+        return regiao.get(chave(tipo, id), () -> consulta.getAsBoolean());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        remover(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        remover(event.getPersister(), event.getId());
+    }
+
+    // Sem a confirmação, o registro não foi criado nem removido.
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {}
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {}
+
+    // Método obsoleto da interface, que ainda precisa ser implementado. Usa a mesma regra do método atual.
+    @Override
+    @SuppressWarnings("deprecation")
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return requiresPostCommitHandling(persister);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return TIPOS.contains(tipo(persister));
+    }
+
+    // Remove o resultado guardado para o registro criado ou removido.
+    private void remover(EntityPersister persister, Object id) {
+        String tipo = tipo(persister);
+
+        if(TIPOS.contains(tipo))
+            regiao.evict(chave(tipo, id));
+    }
+
+    // Tipo do registro pelo nome da classe da entidade, como nas dependências.
+    private static String tipo(EntityPersister persister) {
+        return Dependencias.tipo("id", persister.getMappedClass().getSimpleName());
+    }
+
+    private static String chave(String tipo, Object id) {
+        return tipo + ":" + id;
+    }
+}
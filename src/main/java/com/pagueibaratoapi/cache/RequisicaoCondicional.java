@@ -0,0 +1,99 @@
+package com.pagueibaratoapi.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.pagueibaratoapi.services.VersaoService;
+
+/**
+ * Interceptador que responde às requisições condicionais de leitura pela versão dos recursos.
+ * <P>
+ * As leituras de mercados, produtos, estoques e sugestões recebem uma ETag forte e o cabeçalho Last-Modified, calculados
+ * pela versão dos recursos presentes no caminho: "/mercado/{id}/produto" depende da versão do mercado informado e da
+ * coleção de produtos. Se o cliente enviar a ETag atual em If-None-Match, a resposta 304 é enviada sem executar o método.
+ * </P>
+ * <P>
+ * Ao fim de cada requisição, as versões alteradas pelas escritas são incrementadas.
+ * </P>
+ * <P>
+ * A ETag é própria de cada instância: ela contém o momento da inicialização e a soma dos contadores locais, que diferem
+ * entre as instâncias mesmo para os mesmos dados. Com várias instâncias, as respostas 304 só acontecem quando o
+ * balanceador mantém o cliente na mesma instância (sessões fixas); ao trocar de instância, o cliente recebe a resposta
+ * completa com a ETag da nova instância.
+ * </P>
+ */
+public class RequisicaoCondicional implements HandlerInterceptor {
+
+    private final VersaoService versaoService;
+
+    // Construtor.
+    public RequisicaoCondicional(VersaoService versaoService) {
+        this.versaoService = versaoService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+
+        // Somente as leituras feitas pelos controllers possuem versão.
+        if(!(handler instanceof HandlerMethod) || !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod())))
+            return true;
+
+        List<String> chaves = chaves(request);
+
+        if(chaves == null)
+            return true;
+
+        VersaoService.Versao versao = versaoService.versao(chaves);
+
+        // ETag válida somente nesta instância (veja a documentação da classe).
+        String etag = "\"" + Long.toString(versaoService.getInicio(), 36) + "-" + Long.toString(versao.getNumero(), 36) + "\"";
+
+        // Adiciona os cabeçalhos e, se a versão do cliente for a atual, responde 304 sem executar o método.
+        return !new ServletWebRequest(request, response).checkNotModified(etag, versao.getAlteradoEm());
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        versaoService.concluir(new ServletRequestAttributes(request, response));
+    }
+
+    // Chaves das versões das quais a resposta depende, ou null se o caminho não começar por um recurso com versão.
+    @SuppressWarnings("unchecked")
+    private List<String> chaves(HttpServletRequest request) {
+        String padrao = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Map<String, String> variaveis = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+
+        if(padrao == null || variaveis == null)
+            return null;
+
+        String[] segmentos = padrao.replaceAll("^/+", "").split("/");
+
+        if(!VersaoService.TIPOS.contains(segmentos[0]))
+            return null;
+
+        List<String> chaves = new ArrayList<String>();
+
+        for(int i = 0; i < segmentos.length; i++) {
+            if(!VersaoService.TIPOS.contains(segmentos[i]))
+                continue;
+
+            // Um recurso seguido do seu id depende da versão do recurso, sem o id depende da versão da coleção.
+            if(i + 1 < segmentos.length && segmentos[i + 1].startsWith("{"))
+                chaves.add(segmentos[i] + ":" + variaveis.get(segmentos[i + 1].replaceAll("[{}]", "")));
+            else
+                chaves.add(segmentos[i]);
+        }
+
+        return chaves;
+    }
+}
@@ -0,0 +1,322 @@
+package com.pagueibaratoapi.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Classe que guarda as respostas dos métodos em cache já convertidas em JSON, e comprimidas em gzip quando grandes.
+ * <P>
+ * Um acerto no cache dos métodos (@Cacheable) entrega o mesmo objeto a cada requisição, que seria convertido em JSON
+ * novamente, com todos os links. Os bytes são guardados pelo próprio objeto, comparado por identidade e referenciado
+ * de forma fraca: quando uma escrita remove o objeto do cache, a próxima leitura carrega um objeto novo e os bytes do
+ * antigo são descartados. Assim, os bytes são invalidados pelas mesmas remoções do cache dos objetos.
+ * </P>
+ * <P>
+ * Os conversores do Jackson (inclusive o do HAL) são envolvidos por conversores que escrevem os bytes guardados
+ * diretamente na resposta, com o tamanho do conteúdo. As demais respostas são convertidas normalmente.
+ * </P>
+ */
+public class RespostasCodificadas {
+
+    // Bytes pelo objeto da resposta, limitados pela memória ocupada.
+    private final Cache<Object, Codificacoes> codificacoes;
+
+    // Tamanho a partir do qual a resposta também é guardada comprimida.
+    private final long compressaoMinima;
+
+    // Respostas escritas com os bytes guardados e respostas convertidas e guardadas.
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder conversoes = new LongAdder();
+
+    // Construtor.
+    public RespostasCodificadas(PropriedadesCache.Respostas propriedades) {
+        this.compressaoMinima = propriedades.getCompressaoMinima().toBytes();
+        this.codificacoes = Caffeine.newBuilder()
+            .weakKeys()
+            .maximumWeight(propriedades.getMemoriaMaxima().toBytes())
+            .weigher((Object resposta, Codificacoes valor) -> valor.tamanho())
+            .build();
+    }
+
+    /**
+     * Envolve os conversores do Jackson, para que as respostas dos métodos em cache sejam escritas com os bytes guardados.
+     * @param conversores - Conversores das respostas.
+     * @return List - Conversores com os do Jackson envolvidos, na mesma ordem.
+     */
+    @SuppressWarnings("unchecked")
+    public List<HttpMessageConverter<?>> envolver(List<HttpMessageConverter<?>> conversores) {
+        List<HttpMessageConverter<?>> envolvidos = new ArrayList<HttpMessageConverter<?>>(conversores.size());
+
+        for(HttpMessageConverter<?> conversor : conversores) {
+            if(conversor instanceof AbstractJackson2HttpMessageConverter)
+                envolvidos.add(new Conversor((GenericHttpMessageConverter<Object>) conversor));
+            else
+                envolvidos.add(conversor);
+        }
+
+        return envolvidos;
+    }
+
+    /**
+     * @return long - Quantidade de respostas escritas com os bytes guardados.
+     */
+    public long getAcertos() {
+        return acertos.sum();
+    }
+
+    /**
+     * @return long - Quantidade de respostas convertidas e guardadas.
+     */
+    public long getConversoes() {
+        return conversoes.sum();
+    }
+
+    /**
+     * @return long - Memória ocupada pelos bytes guardados, em bytes.
+     */
+    public long getMemoria() {
+        return codificacoes.policy().eviction().map(limite -> limite.weightedSize().orElse(0)).orElse(0L);
+    }
+
+    // Escreve a resposta com os bytes guardados, convertendo e guardando na primeira vez.
+    private void escrever(GenericHttpMessageConverter<Object> conversor, Object resposta, Type tipo, MediaType tipoConteudo, HttpOutputMessage saida) throws IOException {
+        String variante = System.identityHashCode(conversor) + ";" + tipoConteudo;
+        Codificacoes guardadas = codificacoes.getIfPresent(resposta);
+        Codificada codificada = guardadas != null ? guardadas.buscar(variante) : null;
+
+        if(codificada == null) {
+            codificada = converter(conversor, resposta, tipo, tipoConteudo, variante);
+            conversoes.increment();
+
+            Codificada nova = codificada;
+            codificacoes.asMap().merge(resposta, new Codificacoes(List.of(nova)), (atuais, novas) -> atuais.mais(nova));
+        } else {
+            acertos.increment();
+        }
+
+        HttpHeaders cabecalhos = saida.getHeaders();
+        byte[] corpo = codificada.bytes;
+
+        // As respostas grandes são enviadas comprimidas aos clientes que aceitam gzip.
+        cabecalhos.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if(codificada.comprimidos != null && aceitaGzip()) {
+            cabecalhos.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            corpo = codificada.comprimidos;
+        }
+
+        cabecalhos.setContentType(codificada.tipoConteudo);
+        cabecalhos.setContentLength(corpo.length);
+
+        saida.getBody().write(corpo);
+        saida.getBody().flush();
+    }
+
+    // Converte a resposta pelo conversor do Jackson, em memória.
+    private Codificada converter(GenericHttpMessageConverter<Object> conversor, Object resposta, Type tipo, MediaType tipoConteudo, String variante) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        HttpHeaders cabecalhos = new HttpHeaders();
+
+        conversor.write(resposta, tipo, tipoConteudo, new HttpOutputMessage() {
+            public OutputStream getBody() { return bytes; }
+            public HttpHeaders getHeaders() { return cabecalhos; }
+        });
+
+        byte[] convertidos = bytes.toByteArray();
+        byte[] comprimidos = null;
+
+        if(convertidos.length >= compressaoMinima) {
+            ByteArrayOutputStream compressao = new ByteArrayOutputStream(convertidos.length / 4);
+
+            try(GZIPOutputStream gzip = new GZIPOutputStream(compressao)) {
+                gzip.write(convertidos);
+            }
+
+            comprimidos = compressao.toByteArray();
+        }
+
+        return new Codificada(variante, cabecalhos.getContentType(), convertidos, comprimidos);
+    }
+
+    // Somente as leituras dos métodos em cache são guardadas, pois somente elas entregam o mesmo objeto a cada requisição.
+    private static boolean guardavel(Object resposta) {
+        HttpServletRequest requisicao = requisicao();
+
+        if(resposta == null || requisicao == null || !("GET".equals(requisicao.getMethod()) || "HEAD".equals(requisicao.getMethod())))
+            return false;
+
+        Object handler = requisicao.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+
+        return handler instanceof HandlerMethod && ((HandlerMethod) handler).hasMethodAnnotation(Cacheable.class);
+    }
+
+    // Verifica se o cliente aceita gzip, sem peso zero.
+    private static boolean aceitaGzip() {
+        HttpServletRequest requisicao = requisicao();
+        String codificacoes = requisicao != null ? requisicao.getHeader(HttpHeaders.ACCEPT_ENCODING) : null;
+
+        if(codificacoes == null)
+            return false;
+
+        for(String codificacao : codificacoes.split(",")) {
+            String[] partes = codificacao.trim().split(";");
+
+            if(partes[0].trim().equalsIgnoreCase("gzip"))
+                return partes.length == 1 || !partes[1].trim().matches("q=0(\\.0*)?");
+        }
+
+        return false;
+    }
+
+    private static HttpServletRequest requisicao() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        return atributos instanceof ServletRequestAttributes ? ((ServletRequestAttributes) atributos).getRequest() : null;
+    }
+
+    /**
+     * Conversor que escreve as respostas dos métodos em cache com os bytes guardados e repassa o restante ao conversor do Jackson.
+     */
+    private final class Conversor implements GenericHttpMessageConverter<Object> {
+
+        private final GenericHttpMessageConverter<Object> conversor;
+
+        private Conversor(GenericHttpMessageConverter<Object> conversor) {
+            this.conversor = conversor;
+        }
+
+        @Override
+        public void write(Object resposta, Type tipo, MediaType tipoConteudo, HttpOutputMessage saida) throws IOException {
+            if(guardavel(resposta))
+                escrever(conversor, resposta, tipo, tipoConteudo, saida);
+            else
+                conversor.write(resposta, tipo, tipoConteudo, saida);
+        }
+
+        @Override
+        public void write(Object resposta, MediaType tipoConteudo, HttpOutputMessage saida) throws IOException {
+            write(resposta, null, tipoConteudo, saida);
+        }
+
+        @Override
+        public boolean canWrite(Type tipo, Class<?> classe, MediaType tipoConteudo) {
+            return conversor.canWrite(tipo, classe, tipoConteudo);
+        }
+
+        @Override
+        public boolean canWrite(Class<?> classe, MediaType tipoConteudo) {
+            return conversor.canWrite(classe, tipoConteudo);
+        }
+
+        @Override
+        public boolean canRead(Type tipo, Class<?> contexto, MediaType tipoConteudo) {
+            return conversor.canRead(tipo, contexto, tipoConteudo);
+        }
+
+        @Override
+        public boolean canRead(Class<?> classe, MediaType tipoConteudo) {
+            return conversor.canRead(classe, tipoConteudo);
+        }
+
+        @Override
+        public Object read(Type tipo, Class<?> contexto, HttpInputMessage entrada) throws IOException {
+            return conversor.read(tipo, contexto, entrada);
+        }
+
+        @Override
+        public Object read(Class<? extends Object> classe, HttpInputMessage entrada) throws IOException {
+            return conversor.read(classe, entrada);
+        }
+
+        @Override
+        public List<MediaType> getSupportedMediaTypes() {
+            return conversor.getSupportedMediaTypes();
+        }
+
+        @Override
+        public List<MediaType> getSupportedMediaTypes(Class<?> classe) {
+            return conversor.getSupportedMediaTypes(classe);
+        }
+    }
+
+    /**
+     * Variantes convertidas de uma resposta, uma por conversor e tipo de conteúdo. Imutável.
+     */
+    private static final class Codificacoes {
+
+        private final List<Codificada> variantes;
+
+        private Codificacoes(List<Codificada> variantes) {
+            this.variantes = variantes;
+        }
+
+        private Codificada buscar(String variante) {
+            for(Codificada codificada : variantes)
+                if(codificada.variante.equals(variante))
+                    return codificada;
+
+            return null;
+        }
+
+        private Codificacoes mais(Codificada nova) {
+            if(buscar(nova.variante) != null)
+                return this;
+
+            List<Codificada> todas = new ArrayList<Codificada>(variantes);
+            todas.add(nova);
+
+            return new Codificacoes(todas);
+        }
+
+        private int tamanho() {
+            int tamanho = 0;
+
+            for(Codificada codificada : variantes)
+                tamanho += codificada.bytes.length + (codificada.comprimidos != null ? codificada.comprimidos.length : 0);
+
+            return tamanho;
+        }
+    }
+
+    /**
+     * Resposta convertida em JSON, com o tipo de conteúdo definido pelo conversor.
+     */
+    private static final class Codificada {
+
+        private final String variante;
+        private final MediaType tipoConteudo;
+        private final byte[] bytes;
+        private final byte[] comprimidos;
+
+        private Codificada(String variante, MediaType tipoConteudo, byte[] bytes, byte[] comprimidos) {
+            this.variante = variante;
+            this.tipoConteudo = tipoConteudo;
+            this.bytes = bytes;
+            this.comprimidos = comprimidos;
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package com.pagueibaratoapi.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.cache.support.NullValue;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.RepresentationModel;
+
+import com.pagueibaratoapi.models.projections.MercadoResumo;
+import com.pagueibaratoapi.models.projections.ProdutoResumo;
+import com.pagueibaratoapi.models.responses.ResponseMercado;
+import com.pagueibaratoapi.models.responses.ResponsePagina;
+import com.pagueibaratoapi.models.responses.ResponseProduto;
+
+/**
+ * Classe que converte as respostas guardadas no cache compartilhado em bytes e de volta.
+ * <P>
+ * São suportadas as respostas de produtos e mercados, as listas e as páginas dessas respostas. Cada valor começa por
+ * um byte com o seu tipo, seguido dos campos na ordem da classe. Números são gravados com tamanho variável e os nulos
+ * ocupam um único byte, então um produto com os seus links ocupa poucas centenas de bytes. Dos links são guardados
+ * somente a relação e o endereço, que são os dados preenchidos pelos controllers.
+ * </P>
+ */
+public final class SerializadorRespostas {
+
+    // Tipos dos valores.
+    private static final int NULO = 0;
+    private static final int LISTA = 1;
+    private static final int PAGINA = 2;
+    private static final int PRODUTO = 3;
+    private static final int MERCADO = 4;
+
+    private SerializadorRespostas() {}
+
+    /**
+     * Converte o valor em bytes.
+     * @param valor - Valor guardado no cache, como uma lista de produtos ou o NullValue do Spring.
+     * @return byte[] - Valor convertido, ou null se o valor possui algum tipo não suportado.
+     */
+    public static byte[] escrever(Object valor) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(256);
+
+        return escrever(valor, saida) ? saida.toByteArray() : null;
+    }
+
+    /**
+     * Converte os bytes de volta no valor.
+     * @param bytes - Bytes gravados por {@link #escrever(Object)}.
+     * @return Object - Valor lido, com o NullValue do Spring no lugar dos valores nulos.
+     */
+    public static Object ler(byte[] bytes) {
+        ByteBuffer entrada = ByteBuffer.wrap(bytes);
+        Object valor = ler(entrada);
+
+        return valor == null ? NullValue.INSTANCE : valor;
+    }
+
+    private static boolean escrever(Object valor, ByteArrayOutputStream saida) {
+        if(valor == null || valor == NullValue.INSTANCE) {
+            saida.write(NULO);
+            return true;
+        }
+
+        if(valor instanceof List) {
+            List<?> lista = (List<?>) valor;
+
+            saida.write(LISTA);
+            escreverNumero(lista.size(), saida);
+
+            for(Object item : lista)
+                if(!escrever(item, saida))
+                    return false;
+
+            return true;
+        }
+
+        if(valor instanceof ResponsePagina) {
+            ResponsePagina pagina = (ResponsePagina) valor;
+
+            saida.write(PAGINA);
+            escreverInteiro(pagina.getContagem(), saida);
+            escreverInteiro(pagina.getItensPorPagina(), saida);
+            escreverInteiro(pagina.getPaginaAtual(), saida);
+            escreverInteiro(pagina.getTotalPaginas(), saida);
+            escreverLong(pagina.getTotalRegistros(), saida);
+            escreverLinks(pagina, saida);
+
+            return escrever(pagina.getItens(), saida);
+        }
+
+        if(valor instanceof ResponseProduto) {
+            ResponseProduto produto = (ResponseProduto) valor;
+
+            saida.write(PRODUTO);
+            escreverInteiro(produto.getId(), saida);
+            escreverTexto(produto.getNome(), saida);
+            escreverTexto(produto.getMarca(), saida);
+            escreverTexto(produto.getTamanho(), saida);
+            escreverTexto(produto.getCor(), saida);
+            escreverInteiro(produto.getCategoriaId(), saida);
+            escreverLinks(produto, saida);
+
+            return true;
+        }
+
+        if(valor instanceof ResponseMercado) {
+            ResponseMercado mercado = (ResponseMercado) valor;
+
+            saida.write(MERCADO);
+            escreverInteiro(mercado.getId(), saida);
+            escreverTexto(mercado.getNome(), saida);
+            escreverTexto(mercado.getLogradouro(), saida);
+            escreverInteiro(mercado.getNumero(), saida);
+            escreverTexto(mercado.getComplemento(), saida);
+            escreverTexto(mercado.getBairro(), saida);
+            escreverTexto(mercado.getCidade(), saida);
+            escreverTexto(mercado.getUf(), saida);
+            escreverTexto(mercado.getCep(), saida);
+            escreverInteiro(mercado.getRamoId(), saida);
+            escreverLinks(mercado, saida);
+
+            return true;
+        }
+
+        return false;
+    }
+
+    private static Object ler(ByteBuffer entrada) {
+        int tipo = entrada.get();
+
+        switch(tipo) {
+            case NULO:
+                return null;
+
+            case LISTA: {
+                int tamanho = (int) lerNumero(entrada);
+                List<Object> lista = new ArrayList<Object>(tamanho);
+
+                for(int i = 0; i < tamanho; i++)
+                    lista.add(ler(entrada));
+
+                return lista;
+            }
+
+            case PAGINA: {
+                ResponsePagina pagina = new ResponsePagina();
+
+                pagina.setContagem(lerInteiro(entrada));
+                pagina.setItensPorPagina(lerInteiro(entrada));
+                pagina.setPaginaAtual(lerInteiro(entrada));
+                pagina.setTotalPaginas(lerInteiro(entrada));
+                pagina.setTotalRegistros(lerLong(entrada));
+                lerLinks(pagina, entrada);
+                pagina.setItens((List<?>) ler(entrada));
+
+                return pagina;
+            }
+
+            case PRODUTO: {
+                Integer id = lerInteiro(entrada);
+                String nome = lerTexto(entrada);
+                String marca = lerTexto(entrada);
+                String tamanho = lerTexto(entrada);
+                String cor = lerTexto(entrada);
+                Integer categoriaId = lerInteiro(entrada);
+
+                // A resposta é criada pela projeção, como nas listagens, sem os tratamentos dos setters.
+                ResponseProduto produto = new ResponseProduto(new ProdutoResumo() {
+                    public Integer getId() { return id; }
+                    public String getNome() { return nome; }
+                    public String getMarca() { return marca; }
+                    public String getTamanho() { return tamanho; }
+                    public String getCor() { return cor; }
+                    public Integer getCategoriaId() { return categoriaId; }
+                });
+
+                lerLinks(produto, entrada);
+
+                return produto;
+            }
+
+            case MERCADO: {
+                Integer id = lerInteiro(entrada);
+                String nome = lerTexto(entrada);
+                String logradouro = lerTexto(entrada);
+                Integer numero = lerInteiro(entrada);
+                String complemento = lerTexto(entrada);
+                String bairro = lerTexto(entrada);
+                String cidade = lerTexto(entrada);
+                String uf = lerTexto(entrada);
+                String cep = lerTexto(entrada);
+                Integer ramoId = lerInteiro(entrada);
+
+                ResponseMercado mercado = new ResponseMercado(new MercadoResumo() {
+                    public Integer getId() { return id; }
+                    public String getNome() { return nome; }
+                    public String getLogradouro() { return logradouro; }
+                    public Integer getNumero() { return numero; }
+                    public String getComplemento() { return complemento; }
+                    public String getBairro() { return bairro; }
+                    public String getCidade() { return cidade; }
+                    public String getUf() { return uf; }
+                    public String getCep() { return cep; }
+                    public Integer getRamoId() { return ramoId; }
+                });
+
+                lerLinks(mercado, entrada);
+
+                return mercado;
+            }
+
+            default:
+                throw new IllegalArgumentException("valor_invalido");
+        }
+    }
+
+    // Links: quantidade, seguida da relação e do endereço de cada link.
+    private static void escreverLinks(RepresentationModel<?> modelo, ByteArrayOutputStream saida) {
+        List<Link> links = modelo.getLinks().toList();
+
+        escreverNumero(links.size(), saida);
+
+        for(Link link : links) {
+            escreverTexto(link.getRel().value(), saida);
+            escreverTexto(link.getHref(), saida);
+        }
+    }
+
+    private static void lerLinks(RepresentationModel<?> modelo, ByteBuffer entrada) {
+        int quantidade = (int) lerNumero(entrada);
+
+        for(int i = 0; i < quantidade; i++) {
+            String relacao = lerTexto(entrada);
+            modelo.add(Link.of(lerTexto(entrada), relacao));
+        }
+    }
+
+    // Números nulos são gravados como zero e os demais somados de um, em zigue-zague para que os negativos também sejam curtos.
+    private static void escreverInteiro(Integer numero, ByteArrayOutputStream saida) {
+        escreverLong(numero == null ? null : numero.longValue(), saida);
+    }
+
+    private static Integer lerInteiro(ByteBuffer entrada) {
+        Long numero = lerLong(entrada);
+        return numero == null ? null : numero.intValue();
+    }
+
+    private static void escreverLong(Long numero, ByteArrayOutputStream saida) {
+        escreverNumero(numero == null ? 0 : ((numero << 1) ^ (numero >> 63)) + 1, saida);
+    }
+
+    private static Long lerLong(ByteBuffer entrada) {
+        long numero = lerNumero(entrada);
+
+        if(numero == 0)
+            return null;
+
+        numero--;
+        return (numero >>> 1) ^ -(numero & 1);
+    }
+
+    // Textos nulos são gravados como zero e os demais pelo tamanho mais um, seguido dos bytes em UTF-8.
+    private static void escreverTexto(String texto, ByteArrayOutputStream saida) {
+        if(texto == null) {
+            escreverNumero(0, saida);
+            return;
+        }
+
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+
+        escreverNumero(bytes.length + 1L, saida);
+        saida.write(bytes, 0, bytes.length);
+    }
+
+    private static String lerTexto(ByteBuffer entrada) {
+        long tamanho = lerNumero(entrada);
+
+        if(tamanho == 0)
+            return null;
+
+        byte[] bytes = new byte[(int) tamanho - 1];
+        entrada.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Número sem sinal em grupos de 7 bits, com o bit mais alto indicando que há mais grupos.
+    private static void escreverNumero(long numero, ByteArrayOutputStream saida) {
+        while((numero & ~0x7FL) != 0) {
+            saida.write((int) ((numero & 0x7F) | 0x80));
+            numero >>>= 7;
+        }
+
+        saida.write((int) numero);
+    }
+
+    private static long lerNumero(ByteBuffer entrada) {
+        long numero = 0;
+
+        for(int deslocamento = 0; ; deslocamento += 7) {
+            byte grupo = entrada.get();
+            numero |= (long) (grupo & 0x7F) << deslocamento;
+
+            if((grupo & 0x80) == 0)
+                return numero;
+        }
+    }
+}
@@ -26,6 +26,7 @@ import com.pagueibaratoapi.models.exceptions.DadosInvalidosException;
 import com.pagueibaratoapi.models.requests.Categoria;
 import com.pagueibaratoapi.models.responses.ResponseCategoria;
 import com.pagueibaratoapi.repository.CategoriaRepository;
+import com.pagueibaratoapi.services.BuscaProdutoService;
 import com.pagueibaratoapi.utils.EditaRecurso;
 import com.pagueibaratoapi.utils.Tratamento;
 
@@ -39,9 +40,13 @@ public class CategoriaController {
     // Repositório da categoria, responsável pelos métodos JPA no banco.
     private final CategoriaRepository categoriaRepository;
 
+    // Serviço da busca textual de produtos, que também busca pelo nome da categoria.
+    private final BuscaProdutoService buscaProdutoService;
+
     // Construtor
-    public CategoriaController(CategoriaRepository categoriaRepository) {
+    public CategoriaController(CategoriaRepository categoriaRepository, BuscaProdutoService buscaProdutoService) {
         this.categoriaRepository = categoriaRepository;
+        this.buscaProdutoService = buscaProdutoService;
     }
 
     /**
@@ -126,7 +131,7 @@ public class CategoriaController {
      * @return Lista de categorias.
      */
     @GetMapping
-    @Cacheable("categorias")
+    @Cacheable(value = "categorias", sync = true)
     public List<ResponseCategoria> listar() {
         try {
             
@@ -174,6 +179,7 @@ public class CategoriaController {
      * @return Dados novos da categoria editada.
      */
     @PatchMapping("/{id}")
+    @CacheEvict(value = "categorias", allEntries = true)
     public ResponseCategoria editar(@PathVariable int id, @RequestBody Categoria requestCategoria) {
         try {
 
@@ -200,6 +206,9 @@ public class CategoriaController {
                 )
             );
 
+            // Atualiza na busca os produtos da categoria.
+            buscaProdutoService.indexarCategoria(id);
+
             // Adiciona o link para a categoria editada.
             responseCategoria.add(
                 linkTo(
@@ -233,6 +242,7 @@ public class CategoriaController {
      * @return Dados da nova categoria inserida.
      */
     @PutMapping("/{id}")
+    @CacheEvict(value = "categorias", allEntries = true)
     public ResponseCategoria atualizar(@PathVariable int id, @RequestBody Categoria requestCategoria) {
         try {
 
@@ -245,7 +255,7 @@ public class CategoriaController {
             Tratamento.validarCategoria(requestCategoria, false);
 
             // Se não existir alguma categoria com o id fornecido,
-            if(!categoriaRepository.existsById(id))
+            if(!categoriaRepository.existeId(id))
                 // Retorna erro.
                 throw new NoSuchElementException("nao_encontrado");
 
@@ -255,6 +265,9 @@ public class CategoriaController {
             // Insere a categoria e transforma os dados inseridos em resposta.
             ResponseCategoria responseCategoria = new ResponseCategoria(categoriaRepository.save(requestCategoria));
 
+            // Atualiza na busca os produtos da categoria.
+            buscaProdutoService.indexarCategoria(id);
+
             // Adiciona o link para a categoria inserida.
             responseCategoria.add(
                 linkTo(
@@ -291,7 +304,7 @@ public class CategoriaController {
         try {
 
             // Se não existir alguma categoria com o id fornecido,
-            if(!categoriaRepository.existsById(id))
+            if(!categoriaRepository.existeId(id))
                 // Retorna erro.
                 throw new NoSuchElementException("nao_encontrado");
 
@@ -26,14 +26,17 @@ import org.springframework.web.server.ResponseStatusException;
 
 import com.pagueibaratoapi.models.exceptions.DadosConflitantesException;
 import com.pagueibaratoapi.models.exceptions.DadosInvalidosException;
+import com.pagueibaratoapi.models.projections.EstoqueResumo;
 import com.pagueibaratoapi.models.requests.Estoque;
-import com.pagueibaratoapi.models.requests.Usuario;
 import com.pagueibaratoapi.models.responses.ResponseEstoque;
 import com.pagueibaratoapi.models.responses.ResponsePagina;
 import com.pagueibaratoapi.repository.EstoqueRepository;
-import com.pagueibaratoapi.repository.MercadoRepository;
-import com.pagueibaratoapi.repository.ProdutoRepository;
-import com.pagueibaratoapi.repository.UsuarioRepository;
+import com.pagueibaratoapi.services.LevantamentoService;
+import com.pagueibaratoapi.services.ReferenciaService;
+import com.pagueibaratoapi.services.Referencias;
+import com.pagueibaratoapi.services.VersaoService;
+import com.pagueibaratoapi.utils.OrdenacaoUtils;
+import com.pagueibaratoapi.utils.PaginaCursor;
 import com.pagueibaratoapi.utils.PaginaUtils;
 import com.pagueibaratoapi.utils.Tratamento;
 import com.pagueibaratoapi.utils.tratamentos.TratamentoEstoque;
@@ -47,21 +50,27 @@ public class EstoqueController {
 
     // Iniciando as variáveis de instância dos repositórios.
     private final EstoqueRepository estoqueRepository;
-    private final UsuarioRepository usuarioRepository;
-    private final ProdutoRepository produtoRepository;
-    private final MercadoRepository mercadoRepository;
+
+    // Serviço de verificação das referências das requisições de escrita.
+    private final ReferenciaService referenciaService;
+
+    // Serviço do levantamento de preços dos produtos, mantido em memória.
+    private final LevantamentoService levantamentoService;
+
+    // Serviço das versões dos recursos, usadas nas requisições condicionais.
+    private final VersaoService versaoService;
 
     // Construtor do controller do estoque que realiza a injeção de dependência dos repositórios.
     public EstoqueController(
         EstoqueRepository estoqueRepository,
-        UsuarioRepository usuarioRepository,
-        ProdutoRepository produtoRepository,
-        MercadoRepository mercadoRepository
+        ReferenciaService referenciaService,
+        LevantamentoService levantamentoService,
+        VersaoService versaoService
     ) {
         this.estoqueRepository = estoqueRepository;
-        this.usuarioRepository = usuarioRepository;
-        this.produtoRepository = produtoRepository;
-        this.mercadoRepository = mercadoRepository;
+        this.referenciaService = referenciaService;
+        this.levantamentoService = levantamentoService;
+        this.versaoService = versaoService;
     }
 
     /**
@@ -72,57 +81,46 @@ public class EstoqueController {
      * @throws DadosConflitantesException Lança exceção caso os dados do estoque sejam conflitantes.
      */
     @PostMapping
-    @CacheEvict(value = "estoques", allEntries = true)
+    @CacheEvict(value = {"estoques", "mercadoProdutos", "produtoMercados"}, key = "T(com.pagueibaratoapi.cache.Dependencias).doModelo(#requestEstoque)")
     public ResponseEstoque criar(@RequestBody Estoque requestEstoque) {
         try {
 
             // Validando os dados enviados pelo usuário.
             TratamentoEstoque.validar(requestEstoque, false);
 
-            // Verifica se o usuário informado existe. Caso não exista, lança exceção.
-            if(!usuarioRepository.existsById(requestEstoque.getCriadoPor()))
-                throw new DadosInvalidosException("usuario_invalido");
-
-            // Obtendo o usuário informado.
-            Usuario usuario = usuarioRepository.findById(requestEstoque.getCriadoPor()).get();
+            // Verificando, em uma única consulta, o usuário, o produto, o mercado e o estoque informados.
+            Referencias referencias = referenciaService.verificar(
+                new Referencias()
+                    .usuario(requestEstoque.getCriadoPor())
+                    .produto(requestEstoque.getProdutoId())
+                    .mercado(requestEstoque.getMercadoId())
+                    .estoque(requestEstoque.getProdutoId(), requestEstoque.getMercadoId())
+            );
 
-            // Verifica se o usuário informado não foi deletado. Caso tenha sido, lança exceção.
-            if(!Tratamento.usuarioExiste(usuario))
+            // Verifica se o usuário informado existe e não foi deletado. Caso contrário, lança exceção.
+            if(!referencias.isUsuarioAtivo())
                 throw new DadosInvalidosException("usuario_invalido");
 
             // Verifica se o produto informado existe. Caso não exista, lança exceção.
-            if(!produtoRepository.existsById(requestEstoque.getProdutoId()))
+            if(!referencias.isProdutoExiste())
                 throw new DadosInvalidosException("produto_invalido");
 
             // Verifica se o mercado informado existe. Caso não exista, lança exceção.
-            if(!mercadoRepository.existsById(requestEstoque.getMercadoId()))
+            if(!referencias.isMercadoExiste())
                 throw new DadosInvalidosException("mercado_invalido");
 
-            // Instanciando um objeto do estoque que será utilizado para verificar se o estoque já existe.
-            Estoque estoqueComparar = new Estoque();
-            // Definindo o id do produto informado pelo usuário.
-            estoqueComparar.setProdutoId(requestEstoque.getProdutoId());
-            // Definindo o id do mercado informado pelo usuário.
-            estoqueComparar.setMercadoId(requestEstoque.getMercadoId());
-
-            // Buscando o estoque pelo produto e mercado informados.
-            List<Estoque> estoquesSemelhantes = estoqueRepository.findAll(
-                Example.of(
-                    estoqueComparar, 
-                    ExampleMatcher
-                        .matching()
-                        .withIgnoreCase()
-                        .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
-                )
-            );
-
             // Se o estoque já existir, lança exceção.
-            if(estoquesSemelhantes.size() != 0)
+            if(referencias.getEstoqueEncontradoId() != null)
                 throw new DadosConflitantesException("estoque_existente");
 
             // Criando um novo estoque.
             ResponseEstoque responseEstoque = new ResponseEstoque(estoqueRepository.save(requestEstoque));
 
+            // Altera a versão do estoque e dos produtos do mercado e dos mercados do produto.
+            versaoService.alterar("estoque", responseEstoque.getId());
+            versaoService.alterarSubrecursos("mercado", requestEstoque.getMercadoId());
+            versaoService.alterarSubrecursos("produto", requestEstoque.getProdutoId());
+
             // Adicionando um link para ler o estoque criado.
             responseEstoque.add(
                 linkTo(
@@ -166,7 +164,7 @@ public class EstoqueController {
     public ResponseEstoque ler(@PathVariable("id") Integer id) {
         try {
             // Buscando o estoque pelo id informado e armazenando numa instância do tipo ResponseEstoque.
-            ResponseEstoque responseEstoque = new ResponseEstoque(estoqueRepository.findById(id).get());
+            ResponseEstoque responseEstoque = new ResponseEstoque(estoqueRepository.findResumoById(id).get());
 
             // Se houver um estoque com o id informado, adiciona um link para listar todos os estoques.
             if(responseEstoque != null) {
@@ -196,21 +194,22 @@ public class EstoqueController {
      * @return List< ResponseEstoque > - Lista de objetos do tipo ResponseEstoque que representam os itens do estoque.
      */
     @GetMapping
-    @Cacheable("estoques")
+    @Cacheable(value = "estoques", sync = true)
     public List<ResponseEstoque> listar(Estoque requestEstoque) {
         try {
             // Validando o estoque enviado como parâmetro
             Tratamento.validarEstoque(requestEstoque, true);
 
             // Buscando todos os estoques que atendam aos filtros informados e armazenando numa lista de estoques.
-            List<Estoque> estoques = estoqueRepository.findAll(
+            List<EstoqueResumo> estoques = estoqueRepository.buscarResumos(
                 Example.of(
                     requestEstoque, 
                     ExampleMatcher
                         .matching()
                         .withIgnoreCase()
                         .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
-                )
+                ),
+                EstoqueResumo.class
             );
 
             // Criando uma lista de objetos do tipo ResponseEstoque.
@@ -218,7 +217,7 @@ public class EstoqueController {
 
             // Para cada estoque encontrado, cria um objeto do tipo ResponseEstoque e adiciona na lista de resposta.
             // Etapa realizada para que o Estoque seja convertido em um objeto do tipo ResponseEstoque.
-            for(Estoque estoque : estoques) {
+            for(EstoqueResumo estoque : estoques) {
                 responseEstoque.add(new ResponseEstoque(estoque));
             }
 
@@ -265,7 +264,7 @@ public class EstoqueController {
      * @return ResponseEstoque - Objeto com os estoques retornados e as informações da paginação;
      */
     @GetMapping(params = { "pagina", "limite" })
-    @Cacheable("estoques")
+    @Cacheable(value = "estoques", sync = true)
     public ResponsePagina listar(
         Estoque requestEstoque,
         @RequestParam(required = false, defaultValue = "0") Integer pagina, 
@@ -276,7 +275,7 @@ public class EstoqueController {
             Tratamento.validarEstoque(requestEstoque, true);
 
             // Buscando todos os estoques que atendam aos filtros informados e armazenando numa página de estoques.
-            Page<Estoque> paginaEstoque = estoqueRepository.findAll(
+            Page<EstoqueResumo> paginaEstoque = estoqueRepository.buscarResumos(
                 Example.of(
                     requestEstoque, 
                     ExampleMatcher
@@ -284,6 +283,7 @@ public class EstoqueController {
                         .withIgnoreCase()
                         .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
                 ),
+                EstoqueResumo.class,
                 PageRequest.of(pagina, limite)
             );
 
@@ -291,7 +291,7 @@ public class EstoqueController {
             List<ResponseEstoque> estoques = new ArrayList<ResponseEstoque>();
 
             // Para cada estoque da página de estoques
-            for(Estoque estoque : paginaEstoque.getContent()) {
+            for(EstoqueResumo estoque : paginaEstoque.getContent()) {
                 // Cria um objeto do tipo ResponseEstoque e adiciona na lista de resposta.
                 estoques.add(new ResponseEstoque(estoque));
             }
@@ -369,24 +369,123 @@ public class EstoqueController {
         }
     }
 
+    /**
+     * Sobrecarga do método responsável por listar os estoques. Paginado por cursor.
+     * A busca parte do último registro da página anterior em vez de descartar registros, e o total de registros não é contado.
+     * @param requestEstoque - Dados de pesquisa para filtragem.
+     * @param cursor - Cursor da página que será listada, obtido nos links "next" e "previous". Se estiver vazio, lista a primeira página.
+     * @param limite - Número de registros por página.
+     * @return <b>ResponsePagina</b> - Objeto com os estoques da página e os links para as páginas seguinte e anterior.
+     */
+    @GetMapping(params = { "cursor" })
+    @Cacheable(value = "estoques", sync = true)
+    public ResponsePagina listar(
+        Estoque requestEstoque,
+        @RequestParam(required = false, defaultValue = "") String cursor,
+        @RequestParam(required = false, defaultValue = "10") Integer limite
+    ) {
+        try {
+
+            // Valida os dados de pesquisa.
+            Tratamento.validarEstoque(requestEstoque, true);
+
+            // Busca somente a página dos estoques a partir do cursor, sem OFFSET e sem consulta de contagem.
+            PaginaCursor<Estoque> paginaEstoque = estoqueRepository.buscarPorCursor(
+                Example.of(
+                    requestEstoque, 
+                    ExampleMatcher
+                        .matching()
+                        .withIgnoreCase()
+                        .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
+                ),
+                cursor,
+                "id",
+                "asc",
+                limite,
+                OrdenacaoUtils.CAMPOS_ESTOQUE
+            );
+
+            // Lista dos estoques que será retornada.
+            List<ResponseEstoque> estoques = new ArrayList<ResponseEstoque>();
+
+            // Percorre os estoques da página,
+            for(Estoque estoque : paginaEstoque.getItens()) {
+                // Converte para o modelo de resposta.
+                ResponseEstoque responseEstoque = new ResponseEstoque(estoque);
+
+                // Adiciona o link para a rota de detalhamento.
+                responseEstoque.add(
+                    linkTo(
+                        methodOn(EstoqueController.class).ler(responseEstoque.getId())
+                    )
+                    .withSelfRel()
+                );
+
+                estoques.add(responseEstoque);
+            }
+
+            // Formata a resposta com os dados obtidos, sem os totais da pesquisa.
+            ResponsePagina responsePagina = PaginaUtils.criarResposta(limite, estoques);
+
+            // Se houver página anterior,
+            if(paginaEstoque.getCursorAnterior() != null) {
+                // Adiciona o link para a página anterior.
+                responsePagina.add(
+                    linkTo(
+                        methodOn(EstoqueController.class).listar(requestEstoque, paginaEstoque.getCursorAnterior(), limite)
+                    )
+                    .withRel("previous")
+                );
+            }
+
+            // Se houver página seguinte,
+            if(paginaEstoque.getProximoCursor() != null) {
+                // Adiciona o link para a página seguinte.
+                responsePagina.add(
+                    linkTo(
+                        methodOn(EstoqueController.class).listar(requestEstoque, paginaEstoque.getProximoCursor(), limite)
+                    )
+                    .withRel("next")
+                );
+            }
+
+            // Retorna a resposta.
+            return responsePagina;
+
+        } catch (DadosInvalidosException e) {
+            throw new ResponseStatusException(400, e.getMessage(), e);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(500, "erro_inesperado", e);
+        } catch (Exception e) {
+            throw new ResponseStatusException(500, "erro_inesperado", e);
+        }
+    }
+
     /**
      * Método responsável por deletar um estoque com o id informado.
      * @param id Id do estoque que será deletado.
      * @return Object - Link para listar os estoques.
      */
     @DeleteMapping("/{id}")
-    @CacheEvict(value = "estoques", allEntries = true)
+    @CacheEvict(
+        value = {"estoques", "mercadoProdutos", "produtoMercados", "sugestoes", "mercadoSugestoes"},
+        key = "T(com.pagueibaratoapi.cache.Dependencias).de('estoque', #id)"
+    )
     public Object remover(@PathVariable int id) {
         try {
 
-            // Se o estoque com o id informado não existir.
-            if(!estoqueRepository.existsById(id))
-                // Lança uma exceção indicando que o estoque não existe.
-                throw new NoSuchElementException("nao_encontrado");
+            // Busca o estoque, cujo mercado e produto também são alterados pela remoção.
+            // Se o estoque com o id informado não existir, lança uma exceção indicando que o estoque não existe.
+            Estoque estoque = estoqueRepository.findById(id).orElseThrow(() -> new NoSuchElementException("nao_encontrado"));
 
             // Deleta o estoque com o id informado.
             estoqueRepository.deleteById(id);
 
+            // Altera a versão do estoque e dos subrecursos do mercado e do produto.
+            versaoService.alterar("estoque", id);
+            versaoService.alterarSubrecursos("mercado", estoque.getMercadoId());
+            versaoService.alterarSubrecursos("produto", estoque.getProdutoId());
+
             // Retorna um link para listar todos os estoques.
             return linkTo(
                         methodOn(EstoqueController.class).listar(new Estoque())
@@ -30,7 +30,7 @@ public class IndiceController {
      * @return - Lista com todas as rotas.
      */
     @GetMapping
-    @Cacheable("indices")
+    @Cacheable(value = "indices", sync = true)
     public List<Object> listar() {
         try {
             
@@ -9,7 +9,6 @@ import java.util.NoSuchElementException;
 
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
@@ -28,27 +27,35 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.pagueibaratoapi.cache.RegistroExistencia;
 import com.pagueibaratoapi.models.exceptions.DadosConflitantesException;
 import com.pagueibaratoapi.models.exceptions.DadosInvalidosException;
+import com.pagueibaratoapi.models.projections.EstoqueResumo;
+import com.pagueibaratoapi.models.projections.MercadoResumo;
+import com.pagueibaratoapi.models.projections.ProdutoResumo;
+import com.pagueibaratoapi.models.projections.SugestaoResumo;
 import com.pagueibaratoapi.models.requests.Estoque;
 import com.pagueibaratoapi.models.requests.Mercado;
 import com.pagueibaratoapi.models.requests.Produto;
 import com.pagueibaratoapi.models.requests.Sugestao;
-import com.pagueibaratoapi.models.requests.Usuario;
 import com.pagueibaratoapi.models.responses.ResponseEstoque;
 import com.pagueibaratoapi.models.responses.ResponseEstoqueProduto;
 import com.pagueibaratoapi.models.responses.ResponseMercado;
 import com.pagueibaratoapi.models.responses.ResponsePagina;
 import com.pagueibaratoapi.models.responses.ResponseProduto;
 import com.pagueibaratoapi.models.responses.ResponseSugestao;
-import com.pagueibaratoapi.repository.CategoriaRepository;
 import com.pagueibaratoapi.repository.EstoqueRepository;
 import com.pagueibaratoapi.repository.MercadoRepository;
 import com.pagueibaratoapi.repository.ProdutoRepository;
 import com.pagueibaratoapi.repository.RamoRepository;
 import com.pagueibaratoapi.repository.SugestaoRepository;
-import com.pagueibaratoapi.repository.UsuarioRepository;
+import com.pagueibaratoapi.services.BuscaProdutoService;
+import com.pagueibaratoapi.services.LevantamentoService;
+import com.pagueibaratoapi.services.ReferenciaService;
+import com.pagueibaratoapi.services.Referencias;
+import com.pagueibaratoapi.services.VersaoService;
 import com.pagueibaratoapi.utils.EditaRecurso;
+import com.pagueibaratoapi.utils.OrdenacaoUtils;
 import com.pagueibaratoapi.utils.PaginaUtils;
 import com.pagueibaratoapi.utils.Tratamento;
 
@@ -60,31 +67,50 @@ import com.pagueibaratoapi.utils.Tratamento;
 public class MercadoController {
 
     // Iniciando as variáveis de instância dos repositórios.
-    private final CategoriaRepository categoriaRepository;
     private final EstoqueRepository estoqueRepository;
     private final MercadoRepository mercadoRepository;
     private final ProdutoRepository produtoRepository;
     private final RamoRepository ramoRepository;
     private final SugestaoRepository sugestaoRepository;
-    private final UsuarioRepository usuarioRepository;
+
+    // Serviço de verificação das referências das requisições de escrita.
+    private final ReferenciaService referenciaService;
+
+    // Serviço do levantamento de preços dos produtos, atualizado a cada sugestão.
+    private final LevantamentoService levantamentoService;
+
+    // Serviço das versões dos recursos, usadas nas requisições condicionais.
+    private final VersaoService versaoService;
+
+    // Existência em cache dos registros consultados pelo id.
+    private final RegistroExistencia registroExistencia;
+
+    // Serviço da busca textual de produtos.
+    private final BuscaProdutoService buscaProdutoService;
 
     // Construtor do controller do estoque, que realiza a injeção de dependência dos repositórios.
     public MercadoController(
-        CategoriaRepository categoriaRepository,
         EstoqueRepository estoqueRepository,
         MercadoRepository mercadoRepository,
         ProdutoRepository produtoRepository,
         RamoRepository ramoRepository,
         SugestaoRepository sugestaoRepository,
-        UsuarioRepository usuarioRepository
+        ReferenciaService referenciaService,
+        LevantamentoService levantamentoService,
+        VersaoService versaoService,
+        RegistroExistencia registroExistencia,
+        BuscaProdutoService buscaProdutoService
     ) {
-        this.categoriaRepository = categoriaRepository;
         this.estoqueRepository = estoqueRepository;
         this.mercadoRepository = mercadoRepository;
         this.produtoRepository = produtoRepository;
         this.ramoRepository = ramoRepository;
         this.sugestaoRepository = sugestaoRepository;
-        this.usuarioRepository = usuarioRepository;
+        this.referenciaService = referenciaService;
+        this.levantamentoService = levantamentoService;
+        this.versaoService = versaoService;
+        this.registroExistencia = registroExistencia;
+        this.buscaProdutoService = buscaProdutoService;
     }
 
     /**
@@ -93,44 +119,43 @@ public class MercadoController {
      * @return ResponseMercado - Objeto do tipo ResponseMercado que contém os dados do novo mercado, já com o Id criado.
      */
     @PostMapping
-    @CacheEvict(value = "mercados", allEntries = true)
+    @CacheEvict(value = "mercados", key = "T(com.pagueibaratoapi.cache.Dependencias).doModelo(#requestMercado)")
     public ResponseMercado criar(@RequestBody Mercado requestMercado) {
         try {
 
             // Validando os dados do mercado enviados pelo cliente.
             Tratamento.validarMercado(requestMercado, false);
 
+            // Verificando, em uma única consulta, o usuário, o ramo, o nome e o endereço informados.
+            Referencias referencias = referenciaService.verificar(
+                new Referencias()
+                    .usuario(requestMercado.getCriadoPor())
+                    .ramo(requestMercado.getRamoId())
+                    .nomeMercado(requestMercado.getNome())
+                    .enderecoMercado(requestMercado)
+            );
+
             // Verificando se o usuário informado existe.
-            if(!usuarioRepository.existsById(requestMercado.getCriadoPor()))
+            if(!referencias.isUsuarioExiste())
                 // Se não existir, lança exceção com mensagem de erro.
                 throw new DadosInvalidosException("usuario_nao_encontrado");
 
-            Usuario usuario = usuarioRepository.findById(requestMercado.getCriadoPor()).get();
-
             // Verificando se o usuário informado não foi deletado.
-            if(!Tratamento.usuarioExiste(usuario))
+            if(!referencias.isUsuarioAtivo())
                 // Se o usuário foi deletado, lança exceção com mensagem de erro.
                 throw new NoSuchElementException("usuario_nao_encontrado");
 
             // Verificando se o ramo informado existe.
-            if(!ramoRepository.existsById(requestMercado.getRamoId()))
+            if(!referencias.isRamoExiste())
                 // Se não existirm, lança exceção com mensagem de erro.
                 throw new DadosInvalidosException("ramo_nao_encontrado");
 
             // Verificando se o nome do mercado informado já existe
-            if(mercadoRepository.existsByNomeIgnoreCase(requestMercado.getNome()))
+            if(referencias.isNomeMercadoExistente())
                 throw new DadosConflitantesException("mercado_existente");
 
             // Verificando se o endereço do mercado informado já existe
-            if(mercadoRepository.findByEndereco(
-                requestMercado.getLogradouro(), 
-                requestMercado.getNumero(),
-                requestMercado.getComplemento(), 
-                requestMercado.getBairro(), 
-                requestMercado.getCidade(),
-                requestMercado.getUf(), 
-                requestMercado.getCep()) != null
-            )
+            if(referencias.isEnderecoMercadoExistente())
                 // Se já existir, lança exceção com mensagem de erro, 
                 // haja vista que não pode haver dois mercados no mesmo local.
                 throw new DadosConflitantesException("mercado_existente");
@@ -138,6 +163,9 @@ public class MercadoController {
             // Cria o mercado e armazena o retorno num objeto do tipo ResponseMercado.
             ResponseMercado responseMercado = new ResponseMercado(mercadoRepository.save(requestMercado));
 
+            // Altera a versão do novo mercado e da coleção de mercados.
+            versaoService.alterar("mercado", responseMercado.getId());
+
             // Adiciona ao retorno um link para ler o mercado criado
             responseMercado.add(
                 linkTo(
@@ -177,7 +205,7 @@ public class MercadoController {
      * @return ResponseEstoque - Objeto do estoque criado.
      */
     @PostMapping("/{id}/produto/{produtoId}")
-    @CacheEvict(value = "estoques", allEntries = true)
+    @CacheEvict(value = {"estoques", "mercadoProdutos", "produtoMercados"}, key = "T(com.pagueibaratoapi.cache.Dependencias).de('mercado', #id, 'produto', #produtoId)")
     public ResponseEstoque criarEstoque(
         @PathVariable("id") Integer id,
         @PathVariable(value = "produtoId") Integer produtoId,
@@ -193,46 +221,34 @@ public class MercadoController {
                 // Lança um erro de usuário não encontrado.
                 throw new DadosInvalidosException("usuario_nao_encontrado");
 
+            // Verificando, em uma única consulta, o usuário, o produto, o mercado e o estoque informados.
+            Referencias referencias = referenciaService.verificar(
+                new Referencias()
+                    .usuario(requestEstoque.getCriadoPor())
+                    .produto(produtoId)
+                    .mercado(id)
+                    .estoque(produtoId, id)
+            );
+
             // Verifica se o usuário informado existe. Caso não exista, lança exceção.
-            if(!usuarioRepository.existsById(requestEstoque.getCriadoPor()))
+            if(!referencias.isUsuarioExiste())
                 throw new DadosInvalidosException("usuario_invalido");
 
-            // Obtendo o usuário informado.
-            Usuario usuario = usuarioRepository.findById(requestEstoque.getCriadoPor()).get();
-
             // Verifica se o usuário informado como criador não foi deletado anteriormente.
-            if(!Tratamento.usuarioExiste(usuario))
+            if(!referencias.isUsuarioAtivo())
                 // Retorna um erro.
                 throw new NoSuchElementException("usuario_nao_encontrado");
 
             // Verifica se o produto informado existe. Caso não exista, lança exceção.
-            if(!produtoRepository.existsById(produtoId))
+            if(!referencias.isProdutoExiste())
                 throw new DadosInvalidosException("produto_invalido");
 
             // Verifica se o mercado informado existe. Caso não exista, lança exceção.
-            if(!mercadoRepository.existsById(id))
+            if(!referencias.isMercadoExiste())
                 throw new DadosInvalidosException("mercado_invalido");
 
-            // Instanciando um objeto do estoque que será utilizado para verificar se o estoque já existe.
-            Estoque estoqueComparar = new Estoque();
-            // Definindo o id do produto informado pelo usuário.
-            estoqueComparar.setProdutoId(produtoId);
-            // Definindo o id do mercado informado pelo usuário.
-            estoqueComparar.setMercadoId(id);
-
-            // Buscando o estoque pelo produto e mercado informados.
-            List<Estoque> estoquesSemelhantes = estoqueRepository.findAll(
-                Example.of(
-                    estoqueComparar, 
-                    ExampleMatcher
-                        .matching()
-                        .withIgnoreCase()
-                        .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
-                )
-            );
-
             // Se o estoque já existir, lança exceção.
-            if(estoquesSemelhantes.size() != 0)
+            if(referencias.getEstoqueEncontradoId() != null)
                 throw new DadosConflitantesException("estoque_existente");
 
             // Definindo o id do mercado no objeto do tipo Estoque como o id enviado pela URI.
@@ -243,6 +259,11 @@ public class MercadoController {
             
             ResponseEstoque responseEstoque = new ResponseEstoque(estoqueRepository.save(requestEstoque));
 
+            // Altera a versão do estoque e dos produtos do mercado e dos mercados do produto.
+            versaoService.alterar("estoque", responseEstoque.getId());
+            versaoService.alterarSubrecursos("mercado", id);
+            versaoService.alterarSubrecursos("produto", produtoId);
+
             // Adiciona à resposta um link para a leitura do estoque criado.
             responseEstoque.add(
                 linkTo(
@@ -298,10 +319,7 @@ public class MercadoController {
      * @return ResponseEstoqueProduto - Objeto do produto criado com o id do estoque criado.
      */
     @PostMapping("/{id}/produto")
-    @Caching(evict = {
-        @CacheEvict(value = "mercadoProdutos", allEntries = true),
-        @CacheEvict(value = "estoques", allEntries = true)
-    })
+    @CacheEvict(value = {"mercadoProdutos", "estoques", "produtos"}, key = "T(com.pagueibaratoapi.cache.Dependencias).doModelo(#requestProduto).mais('mercado', #id)")
     public ResponseEstoqueProduto criarProduto(
         @PathVariable("id") Integer id,
         @RequestBody Produto requestProduto
@@ -310,36 +328,37 @@ public class MercadoController {
 
             Tratamento.validarProduto(requestProduto, false);
 
+            // Verificando, em uma única consulta, o usuário, a categoria, o mercado e as características informados.
+            Referencias referencias = referenciaService.verificar(
+                new Referencias()
+                    .usuario(requestProduto.getCriadoPor())
+                    .categoria(requestProduto.getCategoriaId())
+                    .mercado(id)
+                    .caracteristicasProduto(requestProduto)
+            );
+
             // Se o usuário fornecido não existir,
-            if(!usuarioRepository.existsById(requestProduto.getCriadoPor()))
+            if(!referencias.isUsuarioExiste())
                 // Retorna um erro.
                 throw new DadosInvalidosException("usuario_nao_encontrado");
 
             // Se a categoria fornecida não existir,
-            if(!categoriaRepository.existsById(requestProduto.getCategoriaId()))
+            if(!referencias.isCategoriaExiste())
                 // Retorna um erro.
                 throw new DadosInvalidosException("categoria_nao_encontrado");
 
             // Se as características fornecidas pertencer a um produto já existente,
-            if(produtoRepository.findByCaracteristicas(
-                requestProduto.getNome(), 
-                requestProduto.getMarca(),
-                requestProduto.getTamanho(), 
-                requestProduto.getCor()) != null
-            )
+            if(referencias.isProdutoExistente())
                 // Retorna um erro.
                 throw new DadosConflitantesException("produto_existente");
 
-            // Obtendo o usuário informado.
-            Usuario usuario = usuarioRepository.findById(requestProduto.getCriadoPor()).get();
-
             // Verifica se o usuário informado como criador não foi deletado anteriormente.
-            if(!Tratamento.usuarioExiste(usuario))
+            if(!referencias.isUsuarioAtivo())
                 // Retorna um erro.
                 throw new NoSuchElementException("usuario_nao_encontrado");
 
             // Verifica se o mercado informado existe. Caso não exista, lança exceção.
-            if(!mercadoRepository.existsById(id))
+            if(!referencias.isMercadoExiste())
                 throw new DadosInvalidosException("mercado_invalido");
 
             // Criando uma nova instância do produto para tratar o nome dele e criá-lo no banco.
@@ -389,6 +408,14 @@ public class MercadoController {
             // Definindo o id do estoque no objeto do tipo ResponseEstoqueProduto como o id do novo estoque criado.
             responseProduto.setEstoqueId(novoEstoque.getId());
 
+            // Altera a versão do novo produto, do novo estoque e dos produtos do mercado.
+            versaoService.alterar("produto", responseProduto.getId());
+            versaoService.alterar("estoque", novoEstoque.getId());
+            versaoService.alterarSubrecursos("mercado", id);
+
+            // Adiciona o novo produto à busca.
+            buscaProdutoService.indexar(responseProduto.getId());
+
             // Adiciona à resposta um link para a leitura do produto criado.
             responseProduto.add(
                 linkTo(
@@ -445,7 +472,7 @@ public class MercadoController {
      * @return ResponseSugestao - Objeto da sugestão criada.
      */
     @PostMapping("/{id}/produto/{produtoId}/sugestao")
-    @CacheEvict(value = "mercadoSugestoes", allEntries = true)
+    @CacheEvict(value = {"mercadoSugestoes", "sugestoes"}, key = "T(com.pagueibaratoapi.cache.Dependencias).de('mercado', #id, 'produto', #produtoId)")
     public ResponseSugestao criarSugestao(
         @PathVariable("id") Integer id,
         @PathVariable(value = "produtoId") Integer produtoId,
@@ -466,43 +493,50 @@ public class MercadoController {
                 // Lança exceção informando que o cliente não informou o preço da sugestão.
                 throw new DadosInvalidosException("preco_invalido");
 
+            // Verificando, em uma única consulta, o usuário, o produto, o mercado e o estoque do produto no mercado.
+            Referencias referencias = referenciaService.verificar(
+                new Referencias()
+                    .usuario(requestSugestao.getCriadoPor())
+                    .produto(produtoId)
+                    .mercado(id)
+                    .estoque(produtoId, id)
+            );
+
             // Se o usuário informado não existir,
-            if(!usuarioRepository.existsById(requestSugestao.getCriadoPor()))
+            if(!referencias.isUsuarioExiste())
                 // Retorna erro.
                 throw new DadosInvalidosException("usuario_nao_encontrado");
 
-            Usuario usuario = usuarioRepository.findById(requestSugestao.getCriadoPor()).get();
-
             // Verifica se o produto informado existe. Caso não exista, lança exceção.
-            if(!produtoRepository.existsById(produtoId))
+            if(!referencias.isProdutoExiste())
                 throw new DadosInvalidosException("produto_invalido");
 
             // Verifica se o mercado informado existe. Caso não exista, lança exceção.
-            if(!mercadoRepository.existsById(id))
+            if(!referencias.isMercadoExiste())
                 throw new DadosInvalidosException("mercado_invalido");
 
             // Validando se o usuário informado como criador já foi excluído.
-            if(!Tratamento.usuarioExiste(usuario))
+            if(!referencias.isUsuarioAtivo())
                 // Retorna erro.
                 throw new NoSuchElementException("usuario_nao_encontrado");
 
-            // Buscando o registro do estoque do mercado, que associa o produto ao estoque
-            // do mercado
-            Estoque estoque = estoqueRepository.findByProdutoIdAndMercadoId(produtoId, id);
-
-            // Se o estoque for nulo
-            if(estoque == null)
+            // Se o produto não estiver no estoque do mercado
+            if(referencias.getEstoqueEncontradoId() == null)
                 // Lança uma exceção informando que o produto não está no estoque do mercado.
                 throw new NoSuchElementException("estoque_nao_encontrado");
 
             // Adicionando à sugestão que será criada o id do estoque.
-            requestSugestao.setEstoqueId(estoque.getId());
+            requestSugestao.setEstoqueId(referencias.getEstoqueEncontradoId());
 
             // Elimina os decimais do preço multiplicando por 100.
             requestSugestao.setPreco(requestSugestao.getPreco() * 100);
 
-            // Insere a sugestão e transforma os dados obtidos em modelo de resposta.
-            ResponseSugestao responseSugestao = new ResponseSugestao(sugestaoRepository.save(requestSugestao));
+            // Insere a sugestão, atualizando o levantamento de preços do produto, e transforma os dados obtidos em modelo de resposta.
+            ResponseSugestao responseSugestao = new ResponseSugestao(levantamentoService.inserir(requestSugestao, produtoId));
+
+            // Altera a versão da sugestão e das sugestões do mercado.
+            versaoService.alterar("sugestao", responseSugestao.getId());
+            versaoService.alterarSubrecursos("mercado", id);
 
             // Adiciona o link para a leitura da sugestão criada.
             responseSugestao.add(
@@ -554,8 +588,12 @@ public class MercadoController {
     @GetMapping("/{id}")
     public ResponseMercado ler(@PathVariable("id") Integer id) {
         try {
+            // Verifica se o mercado existe, sem consultar o banco se o resultado estiver em cache.
+            if(!registroExistencia.existe("mercado", id, () -> mercadoRepository.existsById(id)))
+                throw new NoSuchElementException("nao_encontrado");
+
             // Busca o mercado com o id informado e armazena num objeto do tipo ResponseMercado.
-            ResponseMercado responseMercado = new ResponseMercado(mercadoRepository.findById(id).get());
+            ResponseMercado responseMercado = new ResponseMercado(mercadoRepository.findResumoById(id).get());
 
             // Se houver um mercado com o id informado
             if(responseMercado != null) {
@@ -588,28 +626,28 @@ public class MercadoController {
      * @return <b>List < ResponseProduto ></b> - Lista de objetos ResponseProduto que contém todos os produtos do mercado.
      */
     @GetMapping("/{id}/produto")
-    @Cacheable("mercadoProdutos")
+    @Cacheable(value = "mercadoProdutos", sync = true)
     public List<ResponseProduto> listarProdutos(@PathVariable("id") Integer id) {
         try {
             // Verifica se o mercado informado existe. Caso não exista, lança exceção.
             if(!mercadoRepository.existsById(id))
                 throw new NoSuchElementException("mercado_nao_encontrado");
 
-            // Busca todos os estoques do mercado com o id informado e os armazena numa lista.
-            List<Estoque> estoques = estoqueRepository.findByMercadoId(id);
+            // Busca, em uma única consulta, todos os produtos em estoque no mercado com o id informado.
+            List<ProdutoResumo> produtosMercado = produtoRepository.findByMercadoId(id);
             
             // Se não houver estoques no mercado
-            if(estoques.isEmpty())
+            if(produtosMercado.isEmpty())
                 // Lança uma exceção informando que o mercado com o id informado não possui nenhum estoque.
                 throw new NoSuchElementException("estoque_nao_encontrado");
 
             // Cria uma lista de objetos ResponseProduto.
             List<ResponseProduto> responseProduto = new ArrayList<>();
 
-            // Para cada estoque do mercado
-            for(Estoque estoque : estoques){
-                // Pesquisa as informações do produto do estoque atual e adiciona à lista de resposta de produtos.
-                responseProduto.add(new ResponseProduto(produtoRepository.findById(estoque.getProdutoId()).get()));
+            // Para cada produto do mercado
+            for(ProdutoResumo produto : produtosMercado){
+                // Adiciona o produto atual à lista de resposta de produtos.
+                responseProduto.add(new ResponseProduto(produto));
             }
 
             // Para cada produto da lista de resposta
@@ -653,7 +691,7 @@ public class MercadoController {
      * @return <b>ResponsePagina</b> - Objeto da página com as informações de paginação e os itens da página atual.
      */
     @GetMapping(value = "/{id}/produto", params = {"pagina", "limite"})
-    @Cacheable("mercadoProdutos")
+    @Cacheable(value = "mercadoProdutos", sync = true)
     public ResponsePagina listarProdutos(
         @PathVariable("id") Integer id,
         @RequestParam(required = false, defaultValue = "0") Integer pagina,
@@ -664,21 +702,22 @@ public class MercadoController {
             if(!mercadoRepository.existsById(id))
                 throw new NoSuchElementException("mercado_nao_encontrado");
 
-            // Busca todos os estoques do mercado com o id informado e os armazena numa lista.
-            List<Estoque> estoques = estoqueRepository.findByMercadoId(id);
+            // Busca no banco somente a página solicitada dos produtos em estoque no mercado com o id informado.
+            // O total de registros é obtido por uma consulta de contagem, sem carregar os demais produtos.
+            Page<ProdutoResumo> paginaProduto = produtoRepository.findByMercadoId(id, PageRequest.of(pagina, limite));
             
             // Se não houver estoques no mercado
-            if(estoques.isEmpty())
+            if(paginaProduto.getTotalElements() == 0)
                 // Lança uma exceção informando que o mercado com o id informado não possui nenhum estoque.
                 throw new NoSuchElementException("estoque_nao_encontrado");
 
             // Cria uma lista de objetos ResponseProduto.
             List<ResponseProduto> produtos = new ArrayList<>();
 
-            // Para cada estoque do mercado
-            for(Estoque estoque : estoques){
-                // Pesquisa as informações do produto do estoque atual e adiciona à lista de resposta de produtos.
-                produtos.add(new ResponseProduto(produtoRepository.findById(estoque.getProdutoId()).get()));
+            // Para cada produto da página atual
+            for(ProdutoResumo produto : paginaProduto.getContent()){
+                // Adiciona o produto atual à lista de resposta de produtos.
+                produtos.add(new ResponseProduto(produto));
             }
 
             // Para cada produto da lista de resposta
@@ -702,22 +741,8 @@ public class MercadoController {
 
             }
 
-            // Produtos que serão mostrados na página atual.
-            // O início da página é a multiplicação do número da página pelo limite de produtos por página.
-            // O fim da página é o inicío da página mais o limite de produtos por página.
-            List<ResponseProduto> produtosPagina = produtos.subList(pagina * limite, (pagina * limite) + limite);
-
-            // Representa o total de páginas da pesquisa.
-            // O total de páginas é calculado dividindo o total de produtos pelo limite de produtos por página.
-            // O valor é arredondado para cima porque existe a possibilidade da ultima página não possuir o número limite de produtos.
-            Integer totalPaginas = (int) Math.ceil(produtos.size() / (double) limite);
-
-            // Total de produtos da pesquisa.
-            // Se o tamanho for maior que Integer.MAX_VALUE, o valor é Integer.MAX_VALUE.
-            Integer totalRegistros = produtos.size();
-
             // Prepara uma resposta em formato de página
-            ResponsePagina responseProduto = PaginaUtils.criarResposta(pagina, limite, totalRegistros, totalPaginas, produtosPagina);
+            ResponsePagina responseProduto = PaginaUtils.criarResposta(pagina, limite, paginaProduto, produtos);
 
             // Adiciona à resposta um link para a primeira página da listagem de produtos.
             responseProduto.add(
@@ -728,7 +753,7 @@ public class MercadoController {
             );
 
             // Se a página de produtos não estiver vazia.
-            if(!produtos.isEmpty()) {
+            if(!paginaProduto.isEmpty()) {
                 // Se a página informada pelo cliente não for a primeira página da listagem de produtos.
                 if(pagina > 0) {
                     // Adiciona à resposta um link para a página anterior da listagem de produtos.
@@ -741,7 +766,7 @@ public class MercadoController {
                 }
 
                 // Se a página informada pelo cliente não for a última página da listagem de produtos.
-                if(pagina < totalPaginas - 1) {
+                if(pagina < paginaProduto.getTotalPages() - 1) {
                     // Adiciona à resposta um link para a página seguinte da listagem de produtos.
                     responseProduto.add(
                         linkTo(
@@ -754,7 +779,7 @@ public class MercadoController {
                 // Adiciona à resposta um link para a última página da listagem de produtos.
                 responseProduto.add(
                     linkTo(
-                        methodOn(MercadoController.class).listarProdutos(id, totalPaginas - 1, limite)
+                        methodOn(MercadoController.class).listarProdutos(id, paginaProduto.getTotalPages() - 1, limite)
                     )
                     .withRel("last")
                 );
@@ -780,7 +805,7 @@ public class MercadoController {
      * @return <b>List < ResponseProduto ></b> - Lista ordenada dos produtos do mercado.
      */
     @GetMapping(value = "/{id}/produto", params = {"ordenarPor", "ordem"})
-    @Cacheable("mercadoProdutos")
+    @Cacheable(value = "mercadoProdutos", sync = true)
     public List<ResponseProduto> listarProdutos(
         @PathVariable("id") Integer id,
         @RequestParam(required = false, defaultValue = "") String ordenarPor,
@@ -791,88 +816,27 @@ public class MercadoController {
             if(!mercadoRepository.existsById(id))
                 throw new NoSuchElementException("mercado_nao_encontrado");
 
-            // Busca todos os estoques do mercado com o id informado e os armazena numa lista.
-            List<Estoque> estoques = estoqueRepository.findByMercadoId(id);
+            // Busca, em uma única consulta, todos os produtos em estoque no mercado com o id informado.
+            // A ordenação é feita pelo banco de dados, somente pelos campos permitidos.
+            List<ProdutoResumo> produtosMercado = produtoRepository.findByMercadoId(
+                id,
+                OrdenacaoUtils.criarOrdenacao(ordenarPor, ordem, OrdenacaoUtils.CAMPOS_PRODUTO)
+            );
             
             // Se não houver estoques no mercado
-            if(estoques.isEmpty())
+            if(produtosMercado.isEmpty())
                 // Lança uma exceção informando que o mercado com o id informado não possui nenhum estoque.
                 throw new NoSuchElementException("estoque_nao_encontrado");
 
             // Cria uma lista de objetos ResponseProduto.
             List<ResponseProduto> responseProduto = new ArrayList<>();
 
-            // Para cada estoque do mercado
-            for(Estoque estoque : estoques){
-                // Pesquisa as informações do produto do estoque atual e adiciona à lista de resposta de produtos.
-                responseProduto.add(new ResponseProduto(produtoRepository.findById(estoque.getProdutoId()).get()));
+            // Para cada produto do mercado
+            for(ProdutoResumo produto : produtosMercado){
+                // Adiciona o produto atual à lista de resposta de produtos.
+                responseProduto.add(new ResponseProduto(produto));
             }
 
-            // Faz a ordenação da lista de produtos.
-            responseProduto.sort((o1, o2) -> {
-
-                switch (ordenarPor) {
-
-                    case "id":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por id ascendente.
-                            return o1.getId().compareTo(o2.getId());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por id descendente.
-                            return o2.getId().compareTo(o1.getId());
-                    
-                    case "nome":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por nome ascendente.
-                            return o1.getNome().compareTo(o2.getNome());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por nome descendente.
-                            return o2.getNome().compareTo(o1.getNome());
-                    
-                    case "marca":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por marca ascendente.
-                            return o1.getMarca().compareTo(o2.getMarca());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por marca descendente.
-                            return o2.getMarca().compareTo(o1.getMarca());
-                    
-                    case "tamanho":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por tamanho ascendente.
-                            return o1.getTamanho().compareTo(o2.getTamanho());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por tamanho descendente.
-                            return o2.getTamanho().compareTo(o1.getTamanho());
-                    
-                    case "cor":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por cor ascendente.
-                            return o1.getCor() != null ? o1.getCor().compareTo(o2.getCor()) : 0;
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por cor descendente.
-                            return o2.getCor() != null ? o2.getCor().compareTo(o1.getCor()) : 0;
-                
-                    default:
-                        return 0;
-                }
-            });
-
             // Para cada produto da lista de resposta
             for(ResponseProduto produto : responseProduto){
 
@@ -916,7 +880,7 @@ public class MercadoController {
      * @return <b>ResponsePagina</b> - Objeto da página com as informações de paginação e os itens da página atual ordenados.
      */
     @GetMapping(value = "/{id}/produto", params = {"pagina", "limite", "ordenarPor", "ordem"})
-    @Cacheable("mercadoProdutos")
+    @Cacheable(value = "mercadoProdutos", sync = true)
     public ResponsePagina listarProdutos(
         @PathVariable("id") Integer id,
         @RequestParam(required = false, defaultValue = "0") Integer pagina,
@@ -929,88 +893,32 @@ public class MercadoController {
             if(!mercadoRepository.existsById(id))
                 throw new NoSuchElementException("mercado_nao_encontrado");
 
-            // Busca todos os estoques do mercado com o id informado e os armazena numa lista.
-            List<Estoque> estoques = estoqueRepository.findByMercadoId(id);
+            // Busca no banco somente a página solicitada dos produtos em estoque no mercado com o id informado.
+            // A ordenação é feita pelo banco de dados, somente pelos campos permitidos, antes de selecionar a página.
+            // O total de registros é obtido por uma consulta de contagem, sem carregar os demais produtos.
+            Page<ProdutoResumo> paginaProduto = produtoRepository.findByMercadoId(
+                id,
+                PageRequest.of(
+                    pagina,
+                    limite,
+                    OrdenacaoUtils.criarOrdenacao(ordenarPor, ordem, OrdenacaoUtils.CAMPOS_PRODUTO)
+                )
+            );
             
             // Se não houver estoques no mercado
-            if(estoques.isEmpty())
+            if(paginaProduto.getTotalElements() == 0)
                 // Lança uma exceção informando que o mercado com o id informado não possui nenhum estoque.
                 throw new NoSuchElementException("estoque_nao_encontrado");
 
             // Cria uma lista de objetos ResponseProduto.
             List<ResponseProduto> produtos = new ArrayList<>();
 
-            // Para cada estoque do mercado
-            for(Estoque estoque : estoques){
-                // Pesquisa as informações do produto do estoque atual e adiciona à lista de resposta de produtos.
-                produtos.add(new ResponseProduto(produtoRepository.findById(estoque.getProdutoId()).get()));
+            // Para cada produto da página atual
+            for(ProdutoResumo produto : paginaProduto.getContent()){
+                // Adiciona o produto atual à lista de resposta de produtos.
+                produtos.add(new ResponseProduto(produto));
             }
 
-            // Faz a ordenação da lista de produtos.
-            produtos.sort((o1, o2) -> {
-
-                switch (ordenarPor) {
-
-                    case "id":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por id ascendente.
-                            return o1.getId().compareTo(o2.getId());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por id descendente.
-                            return o2.getId().compareTo(o1.getId());
-                    
-                    case "nome":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por nome ascendente.
-                            return o1.getNome().compareTo(o2.getNome());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por nome descendente.
-                            return o2.getNome().compareTo(o1.getNome());
-                    
-                    case "marca":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por marca ascendente.
-                            return o1.getMarca().compareTo(o2.getMarca());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por marca descendente.
-                            return o2.getMarca().compareTo(o1.getMarca());
-                    
-                    case "tamanho":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por tamanho ascendente.
-                            return o1.getTamanho().compareTo(o2.getTamanho());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por tamanho descendente.
-                            return o2.getTamanho().compareTo(o1.getTamanho());
-                    
-                    case "cor":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por cor ascendente.
-                            return o1.getCor() != null ? o1.getCor().compareTo(o2.getCor()) : 0;
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por cor descendente.
-                            return o2.getCor() != null ? o2.getCor().compareTo(o1.getCor()) : 0;
-                
-                    default:
-                        return 0;
-                }
-            });
-
             // Para cada produto da lista de resposta
             for(ResponseProduto produto : produtos){
 
@@ -1032,50 +940,36 @@ public class MercadoController {
 
             }
 
-            // Produtos que serão mostrados na página atual.
-            // O início da página é a multiplicação do número da página pelo limite de produtos por página.
-            // O fim da página é o inicío da página mais o limite de produtos por página.
-            List<ResponseProduto> produtosPagina = produtos.subList(pagina * limite, (pagina * limite) + limite);
-
-            // Representa o total de páginas da pesquisa.
-            // O total de páginas é calculado dividindo o total de produtos pelo limite de produtos por página.
-            // O valor é arredondado para cima porque existe a possibilidade da ultima página não possuir o número limite de produtos.
-            Integer totalPaginas = (int) Math.ceil(produtos.size() / (double) limite);
-
-            // Total de produtos da pesquisa.
-            // Se o tamanho for maior que Integer.MAX_VALUE, o valor é Integer.MAX_VALUE.
-            Integer totalRegistros = produtos.size();
-
             // Prepara uma resposta em formato de página
-            ResponsePagina responseProduto = PaginaUtils.criarResposta(pagina, limite, totalRegistros, totalPaginas, produtosPagina);
+            ResponsePagina responseProduto = PaginaUtils.criarResposta(pagina, limite, paginaProduto, produtos);
 
             // Adiciona à resposta um link para a primeira página da listagem de produtos.
             responseProduto.add(
                 linkTo(
-                    methodOn(MercadoController.class).listarProdutos(id, 0, limite)
+                    methodOn(MercadoController.class).listarProdutos(id, 0, limite, ordenarPor, ordem)
                 )
                 .withRel("first")
             );
 
             // Se a página de produtos não estiver vazia.
-            if(!produtos.isEmpty()) {
+            if(!paginaProduto.isEmpty()) {
                 // Se a página informada pelo cliente não for a primeira página da listagem de produtos.
                 if(pagina > 0) {
                     // Adiciona à resposta um link para a página anterior da listagem de produtos.
                     responseProduto.add(
                         linkTo(
-                            methodOn(MercadoController.class).listarProdutos(id, pagina - 1, limite)
+                            methodOn(MercadoController.class).listarProdutos(id, pagina - 1, limite, ordenarPor, ordem)
                         )
                         .withRel("previous")
                     );
                 }
 
                 // Se a página informada pelo cliente não for a última página da listagem de produtos.
-                if(pagina < totalPaginas - 1) {
+                if(pagina < paginaProduto.getTotalPages() - 1) {
                     // Adiciona à resposta um link para a página seguinte da listagem de produtos.
                     responseProduto.add(
                         linkTo(
-                            methodOn(MercadoController.class).listarProdutos(id, pagina + 1, limite)
+                            methodOn(MercadoController.class).listarProdutos(id, pagina + 1, limite, ordenarPor, ordem)
                         )
                         .withRel("next")
                     );
@@ -1084,7 +978,7 @@ public class MercadoController {
                 // Adiciona à resposta um link para a última página da listagem de produtos.
                 responseProduto.add(
                     linkTo(
-                        methodOn(MercadoController.class).listarProdutos(id, totalPaginas - 1, limite)
+                        methodOn(MercadoController.class).listarProdutos(id, paginaProduto.getTotalPages() - 1, limite, ordenarPor, ordem)
                     )
                     .withRel("last")
                 );
@@ -1115,15 +1009,22 @@ public class MercadoController {
         try {
 
             // Verifica se o mercado informado existe. Caso não exista, lança exceção.
-            if(!mercadoRepository.existsById(id))
+            // A existência fica em cache, então os ids inexistentes requisitados novamente não consultam o banco.
+            if(!registroExistencia.existe("mercado", id, () -> mercadoRepository.existsById(id)))
                 throw new NoSuchElementException("mercado_nao_encontrado");
 
             // Verifica se o produto informado existe. Caso não exista, lança exceção.
-            if(!produtoRepository.existsById(produtoId))
+            if(!registroExistencia.existe("produto", produtoId, () -> produtoRepository.existsById(produtoId)))
                 throw new NoSuchElementException("produto_nao_encontrado");
 
             // Busca um estoque do mercado com o id do mercado e produto informado
-            ResponseEstoque responseEstoque = new ResponseEstoque(estoqueRepository.findByProdutoIdAndMercadoId(produtoId, id));
+            EstoqueResumo estoque = estoqueRepository.findResumoByProdutoIdAndMercadoId(produtoId, id);
+
+            // Se o produto não estiver no estoque do mercado, lança exceção.
+            if(estoque == null)
+                throw new NoSuchElementException("estoque_nao_encontrado");
+
+            ResponseEstoque responseEstoque = new ResponseEstoque(estoque);
 
             // Adiciona à resposta um link para a leitura do estoque em questão.
             responseEstoque.add(
@@ -1176,7 +1077,7 @@ public class MercadoController {
      * @return <b>List < ResponseSugestao ></b> - Lista de sugestões do produto específico no mercado.
      */
     @GetMapping("/{id}/produto/{produtoId}/sugestao")
-    @Cacheable("mercadoSugestoes")
+    @Cacheable(value = "mercadoSugestoes", sync = true)
     public List<ResponseSugestao> ler(
         @PathVariable("id") Integer id,
         @PathVariable(value = "produtoId") Integer produtoId
@@ -1186,25 +1087,16 @@ public class MercadoController {
             // Criando uma lista de respostas de sugestões vazia.
             List<ResponseSugestao> responseSugestao = new ArrayList<ResponseSugestao>();
 
-            // Buscando o registro do estoque do mercado, que associa o produto ao estoque
-            // do mercado
-            Estoque estoque = estoqueRepository.findByProdutoIdAndMercadoId(produtoId, id);
+            // Buscando, em uma única consulta, todas as sugestões de preço do produto no mercado informado.
+            List<SugestaoResumo> sugestoes = sugestaoRepository.findByMercadoIdAndProdutoId(id, produtoId);
 
-            // Se o estoque for nulo
-            if(estoque == null)
+            // Se não houver sugestões, verifica se o produto está no estoque do mercado.
+            if(sugestoes.isEmpty() && !estoqueRepository.existsByProdutoIdAndMercadoId(produtoId, id))
                 // Lança uma exceção informando que o produto não está no estoque do mercado.
                 throw new NoSuchElementException("estoque_nao_encontrado");
 
-            // Buscando todas as sugestões de preço do produto no mercado informado
-            List<Sugestao> sugestoes = sugestaoRepository.findByEstoqueId(estoque.getId());
-
-            // Se não houver sugestões para esse produto
-            if(sugestoes == null)
-                // Lança uma exceção informando que não há sugestões para esse produto.
-                throw new NoSuchElementException("sugestao_nao_encontrado");
-
             // Para cada sugestão encontrada
-            for(Sugestao sugestao : sugestoes) {
+            for(SugestaoResumo sugestao : sugestoes) {
                 // Cria um objeto do tipo ResponseSugestao, convertendo o objeto Sugestao para o objeto ResponseSugestao
                 responseSugestao.add(new ResponseSugestao(sugestao));
             }
@@ -1249,7 +1141,7 @@ public class MercadoController {
                 // Adiciona à resposta um link para a leitura do estoque em questão.
                 sugestao.add(
                     linkTo(
-                        methodOn(EstoqueController.class).ler(estoque.getId())
+                        methodOn(EstoqueController.class).ler(sugestao.getEstoqueId())
                     )
                     .withRel("estoque")
                 );
@@ -1275,7 +1167,7 @@ public class MercadoController {
      * @return <b>ResponsePagina</b> - Objeto contendo as informações da página e a lista de sugestões.
      */
     @GetMapping(value = "/{id}/produto/{produtoId}/sugestao", params = {"pagina", "limite"})
-    @Cacheable("mercadoSugestoes")
+    @Cacheable(value = "mercadoSugestoes", sync = true)
     public ResponsePagina ler(
         @PathVariable("id") Integer id,
         @PathVariable(value = "produtoId") Integer produtoId,
@@ -1284,46 +1176,24 @@ public class MercadoController {
     ) {
         try {
 
-            // Criando uma lista de respostas de sugestões vazia.
-            List<ResponseSugestao> listaSugestoes = new ArrayList<ResponseSugestao>();
-
-            // Buscando o registro do estoque do mercado, que associa o produto ao estoque
-            // do mercado
-            Estoque estoque = estoqueRepository.findByProdutoIdAndMercadoId(produtoId, id);
+            // Buscando, em uma única consulta, somente a página solicitada das sugestões de preço do produto no mercado informado.
+            // O total de registros é obtido por uma consulta de contagem, sem carregar as demais sugestões.
+            Page<SugestaoResumo> paginaSugestao = sugestaoRepository.findByMercadoIdAndProdutoId(id, produtoId, PageRequest.of(pagina, limite));
 
-            // Se o estoque for nulo
-            if(estoque == null)
+            // Se não houver sugestões, verifica se o produto está no estoque do mercado.
+            if(paginaSugestao.getTotalElements() == 0 && !estoqueRepository.existsByProdutoIdAndMercadoId(produtoId, id))
                 // Lança uma exceção informando que o produto não está no estoque do mercado.
                 throw new NoSuchElementException("estoque_nao_encontrado");
 
-            // Buscando todas as sugestões de preço do produto no mercado informado
-            List<Sugestao> sugestoes = sugestaoRepository.findByEstoqueId(estoque.getId());
-
-            // Se não houver sugestões para esse produto
-            if(sugestoes == null)
-                // Lança uma exceção informando que não há sugestões para esse produto.
-                throw new NoSuchElementException("sugestao_nao_encontrado");
+            // Criando uma lista de respostas de sugestões vazia.
+            List<ResponseSugestao> sugestoesPagina = new ArrayList<ResponseSugestao>();
 
-            // Para cada sugestão encontrada
-            for(Sugestao sugestao : sugestoes) {
+            // Para cada sugestão da página atual
+            for(SugestaoResumo sugestao : paginaSugestao.getContent()) {
                 // Cria um objeto do tipo ResponseSugestao, convertendo o objeto Sugestao para o objeto ResponseSugestao
-                listaSugestoes.add(new ResponseSugestao(sugestao));
+                sugestoesPagina.add(new ResponseSugestao(sugestao));
             }
 
-            // Sugestões que serão mostradas na página atual.
-            // O início da página é a multiplicação do número da página pelo limite de sugestões por página.
-            // O fim da página é o inicío da página mais o limite de sugestões por página.
-            List<ResponseSugestao> sugestoesPagina = listaSugestoes.subList(pagina * limite, (pagina * limite) + limite);
-
-            // Representa o total de páginas da pesquisa.
-            // O total de páginas é calculado dividindo o total de sugestões pelo limite de sugestões por página.
-            // O valor é arredondado para cima porque existe a possibilidade da ultima página não possuir o número limite de sugestões.
-            Integer totalPaginas = (int) Math.ceil(listaSugestoes.size() / (double) limite);
-
-            // Total de sugestões da pesquisa.
-            // Se o tamanho for maior que Integer.MAX_VALUE, o valor é Integer.MAX_VALUE.
-            Integer totalRegistros = listaSugestoes.size();
-
             // Para cada sugestão da resposta
             for(ResponseSugestao sugestao : sugestoesPagina) {
                 // Converte o preço da sugestão de int para float para ser exibido no formato de moeda no retorno.
@@ -1364,14 +1234,14 @@ public class MercadoController {
                 // Adiciona à resposta um link para a leitura do estoque em questão.
                 sugestao.add(
                     linkTo(
-                        methodOn(EstoqueController.class).ler(estoque.getId())
+                        methodOn(EstoqueController.class).ler(sugestao.getEstoqueId())
                     )
                     .withRel("estoque")
                 );
             }
 
             // Prepara uma resposta em formato de página
-            ResponsePagina responseSugestao = PaginaUtils.criarResposta(pagina, limite, totalRegistros, totalPaginas, sugestoesPagina);
+            ResponsePagina responseSugestao = PaginaUtils.criarResposta(pagina, limite, paginaSugestao, sugestoesPagina);
 
             // Adiciona à resposta um link para a primeira página da listagem de sugestoes.
             responseSugestao.add(
@@ -1382,7 +1252,7 @@ public class MercadoController {
             );
 
             // Se a página de sugestões não estiver vazia.
-            if(!listaSugestoes.isEmpty()) {
+            if(!paginaSugestao.isEmpty()) {
                 // Se a página informada pelo cliente não for a primeira página da listagem de sugestões.
                 if(pagina > 0) {
                     // Adiciona à resposta um link para a página anterior da listagem de sugestões.
@@ -1395,7 +1265,7 @@ public class MercadoController {
                 }
 
                 // Se a página informada pelo cliente não for a última página da listagem de sugestões.
-                if(pagina < totalPaginas - 1) {
+                if(pagina < paginaSugestao.getTotalPages() - 1) {
                     // Adiciona à resposta um link para a página seguinte da listagem de sugestões.
                     responseSugestao.add(
                         linkTo(
@@ -1408,7 +1278,7 @@ public class MercadoController {
                 // Adiciona à resposta um link para a última página da listagem de sugestões.
                 responseSugestao.add(
                     linkTo(
-                        methodOn(MercadoController.class).ler(id, produtoId, totalPaginas - 1, limite)
+                        methodOn(MercadoController.class).ler(id, produtoId, paginaSugestao.getTotalPages() - 1, limite)
                     )
                     .withRel("last")
                 );
@@ -1434,7 +1304,7 @@ public class MercadoController {
      * @return <b>List < ResponseSugestao ></b> - Lista de sugestões do produto específico no mercado ordenadas.
      */
     @GetMapping(value = "/{id}/produto/{produtoId}/sugestao", params = {"ordenarPor", "ordem"})
-    @Cacheable("mercadoSugestoes")
+    @Cacheable(value = "mercadoSugestoes", sync = true)
     public List<ResponseSugestao> ler(
         @PathVariable("id") Integer id,
         @PathVariable(value = "produtoId") Integer produtoId,
@@ -1446,25 +1316,21 @@ public class MercadoController {
             // Criando uma lista de respostas de sugestões vazia.
             List<ResponseSugestao> responseSugestao = new ArrayList<ResponseSugestao>();
 
-            // Buscando o registro do estoque do mercado, que associa o produto ao estoque
-            // do mercado
-            Estoque estoque = estoqueRepository.findByProdutoIdAndMercadoId(produtoId, id);
+            // Buscando, em uma única consulta, todas as sugestões de preço do produto no mercado informado.
+            // A ordenação é feita pelo banco de dados, somente pelos campos permitidos.
+            List<SugestaoResumo> sugestoes = sugestaoRepository.findByMercadoIdAndProdutoId(
+                id,
+                produtoId,
+                OrdenacaoUtils.criarOrdenacao(ordenarPor, ordem, OrdenacaoUtils.CAMPOS_SUGESTAO)
+            );
 
-            // Se o estoque for nulo
-            if(estoque == null)
+            // Se não houver sugestões, verifica se o produto está no estoque do mercado.
+            if(sugestoes.isEmpty() && !estoqueRepository.existsByProdutoIdAndMercadoId(produtoId, id))
                 // Lança uma exceção informando que o produto não está no estoque do mercado.
                 throw new NoSuchElementException("estoque_nao_encontrado");
 
-            // Buscando todas as sugestões de preço do produto no mercado informado
-            List<Sugestao> sugestoes = sugestaoRepository.findByEstoqueId(estoque.getId());
-
-            // Se não houver sugestões para esse produto
-            if(sugestoes == null)
-                // Lança uma exceção informando que não há sugestões para esse produto.
-                throw new NoSuchElementException("sugestao_nao_encontrado");
-
             // Para cada sugestão encontrada
-            for(Sugestao sugestao : sugestoes) {
+            for(SugestaoResumo sugestao : sugestoes) {
                 // Cria um objeto do tipo ResponseSugestao, convertendo o objeto Sugestao para o objeto ResponseSugestao
                 responseSugestao.add(new ResponseSugestao(sugestao));
             }
@@ -1509,66 +1375,12 @@ public class MercadoController {
                 // Adiciona à resposta um link para a leitura do estoque em questão.
                 sugestao.add(
                     linkTo(
-                        methodOn(EstoqueController.class).ler(estoque.getId())
+                        methodOn(EstoqueController.class).ler(sugestao.getEstoqueId())
                     )
                     .withRel("estoque")
                 );
             }
 
-            // Faz a ordenação da lista de sugestões.
-            responseSugestao.sort((o1, o2) -> {
-
-                switch (ordenarPor) {
-
-                    case "id":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por id ascendente.
-                            return o1.getId().compareTo(o2.getId());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por id descendente.
-                            return o2.getId().compareTo(o1.getId());
-                    
-                    case "preco":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por preco ascendente.
-                            return o1.getPreco().compareTo(o2.getPreco());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por preco descendente.
-                            return o2.getPreco().compareTo(o1.getPreco());
-                    
-                    case "timestamp":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por data ascendente.
-                            return o1.getTimestamp().compareTo(o2.getTimestamp());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por data descendente.
-                            return o2.getTimestamp().compareTo(o1.getTimestamp());
-                    
-                    case "estoqueId":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por id do estoque ascendente.
-                            return o1.getEstoqueId().compareTo(o2.getEstoqueId());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por id do estoque descendente.
-                            return o2.getEstoqueId().compareTo(o1.getEstoqueId());
-                
-                    default:
-                        return 0;
-                }
-            });
-
             return responseSugestao;
 
         } catch (NoSuchElementException e) {
@@ -1591,7 +1403,7 @@ public class MercadoController {
      * @return <b>ResponsePagina</b> - Objeto contendo as informações da página e a lista de sugestões ordenada.
      */
     @GetMapping(value = "/{id}/produto/{produtoId}/sugestao", params = {"pagina", "limite", "ordenarPor", "ordem"})
-    @Cacheable("mercadoSugestoes")
+    @Cacheable(value = "mercadoSugestoes", sync = true)
     public ResponsePagina ler(
         @PathVariable("id") Integer id,
         @PathVariable(value = "produtoId") Integer produtoId,
@@ -1602,100 +1414,28 @@ public class MercadoController {
     ) {
         try {
 
-            // Criando uma lista de respostas de sugestões vazia.
-            List<ResponseSugestao> listaSugestoes = new ArrayList<ResponseSugestao>();
-
-            // Buscando o registro do estoque do mercado, que associa o produto ao estoque
-            // do mercado
-            Estoque estoque = estoqueRepository.findByProdutoIdAndMercadoId(produtoId, id);
-
-            // Se o estoque for nulo
-            if(estoque == null)
-                // Lança uma exceção informando que o produto não está no estoque do mercado.
-                throw new NoSuchElementException("estoque_nao_encontrado");
-
-            // Buscando todas as sugestões de preço do produto no mercado informado
-            List<Sugestao> sugestoes = sugestaoRepository.findByEstoqueId(estoque.getId());
+            // Buscando, em uma única consulta, somente a página solicitada das sugestões de preço do produto no mercado informado.
+            // A ordenação é feita pelo banco de dados, somente pelos campos permitidos, antes de selecionar a página.
+            // O total de registros é obtido por uma consulta de contagem, sem carregar as demais sugestões.
+            Page<SugestaoResumo> paginaSugestao = sugestaoRepository.findByMercadoIdAndProdutoId(
+                id,
+                produtoId,
+                PageRequest.of(
+                    pagina,
+                    limite,
+                    OrdenacaoUtils.criarOrdenacao(ordenarPor, ordem, OrdenacaoUtils.CAMPOS_SUGESTAO)
+                )
+            );
 
-            // Se não houver sugestões para esse produto
-            if(sugestoes == null)
-                // Lança uma exceção informando que não há sugestões para esse produto.
-                throw new NoSuchElementException("sugestao_nao_encontrado");
+            // Criando uma lista de respostas de sugestões vazia.
+            List<ResponseSugestao> sugestoesPagina = new ArrayList<ResponseSugestao>();
 
-            // Para cada sugestão encontrada
-            for(Sugestao sugestao : sugestoes) {
+            // Para cada sugestão da página atual
+            for(SugestaoResumo sugestao : paginaSugestao.getContent()) {
                 // Cria um objeto do tipo ResponseSugestao, convertendo o objeto Sugestao para o objeto ResponseSugestao
-                listaSugestoes.add(new ResponseSugestao(sugestao));
+                sugestoesPagina.add(new ResponseSugestao(sugestao));
             }
 
-            // Faz a ordenação da lista de sugestões.
-            listaSugestoes.sort((o1, o2) -> {
-
-                switch (ordenarPor) {
-
-                    case "id":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por id ascendente.
-                            return o1.getId().compareTo(o2.getId());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por id descendente.
-                            return o2.getId().compareTo(o1.getId());
-                    
-                    case "preco":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por preco ascendente.
-                            return o1.getPreco().compareTo(o2.getPreco());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por preco descendente.
-                            return o2.getPreco().compareTo(o1.getPreco());
-                    
-                    case "timestamp":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por data ascendente.
-                            return o1.getTimestamp().compareTo(o2.getTimestamp());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por data descendente.
-                            return o2.getTimestamp().compareTo(o1.getTimestamp());
-                    
-                    case "estoqueId":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por id do estoque ascendente.
-                            return o1.getEstoqueId().compareTo(o2.getEstoqueId());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por id do estoque descendente.
-                            return o2.getEstoqueId().compareTo(o1.getEstoqueId());
-                
-                    default:
-                        return 0;
-                }
-            });
-
-            // Sugestões que serão mostradas na página atual.
-            // O início da página é a multiplicação do número da página pelo limite de sugestões por página.
-            // O fim da página é o inicío da página mais o limite de sugestões por página.
-            List<ResponseSugestao> sugestoesPagina = listaSugestoes.subList(pagina * limite, (pagina * limite) + limite);
-
-            // Representa o total de páginas da pesquisa.
-            // O total de páginas é calculado dividindo o total de sugestões pelo limite de sugestões por página.
-            // O valor é arredondado para cima porque existe a possibilidade da ultima página não possuir o número limite de sugestões.
-            Integer totalPaginas = (int) Math.ceil(listaSugestoes.size() / (double) limite);
-
-            // Total de sugestões da pesquisa.
-            // Se o tamanho for maior que Integer.MAX_VALUE, o valor é Integer.MAX_VALUE.
-            Integer totalRegistros = listaSugestoes.size();
-
             // Para cada sugestão da resposta
             for(ResponseSugestao sugestao : sugestoesPagina) {
                 // Converte o preço da sugestão de int para float para ser exibido no formato de moeda no retorno.
@@ -1736,42 +1476,42 @@ public class MercadoController {
                 // Adiciona à resposta um link para a leitura do estoque em questão.
                 sugestao.add(
                     linkTo(
-                        methodOn(EstoqueController.class).ler(estoque.getId())
+                        methodOn(EstoqueController.class).ler(sugestao.getEstoqueId())
                     )
                     .withRel("estoque")
                 );
             }
 
             // Prepara uma resposta em formato de página
-            ResponsePagina responseSugestao = PaginaUtils.criarResposta(pagina, limite, totalRegistros, totalPaginas, sugestoesPagina);
+            ResponsePagina responseSugestao = PaginaUtils.criarResposta(pagina, limite, paginaSugestao, sugestoesPagina);
 
             // Adiciona à resposta um link para a primeira página da listagem de sugestoes.
             responseSugestao.add(
                 linkTo(
-                    methodOn(MercadoController.class).ler(id, produtoId, 0, limite)
+                    methodOn(MercadoController.class).ler(id, produtoId, 0, limite, ordenarPor, ordem)
                 )
                 .withRel("first")
             );
 
             // Se a página de sugestões não estiver vazia.
-            if(!listaSugestoes.isEmpty()) {
+            if(!paginaSugestao.isEmpty()) {
                 // Se a página informada pelo cliente não for a primeira página da listagem de sugestões.
                 if(pagina > 0) {
                     // Adiciona à resposta um link para a página anterior da listagem de sugestões.
                     responseSugestao.add(
                         linkTo(
-                            methodOn(MercadoController.class).ler(id, produtoId, pagina - 1, limite)
+                            methodOn(MercadoController.class).ler(id, produtoId, pagina - 1, limite, ordenarPor, ordem)
                         )
                         .withRel("previous")
                     );
                 }
 
                 // Se a página informada pelo cliente não for a última página da listagem de sugestões.
-                if(pagina < totalPaginas - 1) {
+                if(pagina < paginaSugestao.getTotalPages() - 1) {
                     // Adiciona à resposta um link para a página seguinte da listagem de sugestões.
                     responseSugestao.add(
                         linkTo(
-                            methodOn(MercadoController.class).ler(id, produtoId, pagina + 1, limite)
+                            methodOn(MercadoController.class).ler(id, produtoId, pagina + 1, limite, ordenarPor, ordem)
                         )
                         .withRel("next")
                     );
@@ -1780,7 +1520,7 @@ public class MercadoController {
                 // Adiciona à resposta um link para a última página da listagem de sugestões.
                 responseSugestao.add(
                     linkTo(
-                        methodOn(MercadoController.class).ler(id, produtoId, totalPaginas - 1, limite)
+                        methodOn(MercadoController.class).ler(id, produtoId, paginaSugestao.getTotalPages() - 1, limite, ordenarPor, ordem)
                     )
                     .withRel("last")
                 );
@@ -1803,7 +1543,7 @@ public class MercadoController {
      * @return <b>List < ResponseMercado ></b> - Lista de mercados.
      */
     @GetMapping
-    @Cacheable("mercados")
+    @Cacheable(value = "mercados", sync = true)
     public List<ResponseMercado> listar(Mercado requestMercado) {
         try {
 
@@ -1811,21 +1551,22 @@ public class MercadoController {
             Tratamento.validarMercado(requestMercado, true);
 
             // Buscando todos os mercados de acordo com o filtro enviado por parâmetro e salvando na lista de mercados
-            List<Mercado> mercados = mercadoRepository.findAll(
+            List<MercadoResumo> mercados = mercadoRepository.buscarResumos(
                 Example.of(
                     requestMercado, 
                     ExampleMatcher
                         .matching()
                         .withIgnoreCase()
                         .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
-                )
+                ),
+                MercadoResumo.class
             );
 
             // Criando uma lista de respostas de mercados vazia.
             List<ResponseMercado> responseMercado = new ArrayList<ResponseMercado>();
 
             // Para cada mercado encontrado
-            for(Mercado mercado : mercados) {
+            for(MercadoResumo mercado : mercados) {
                 // Cria um objeto do tipo ResponseMercado, convertendo o objeto Mercado para o objeto ResponseMercado
                 responseMercado.add(new ResponseMercado(mercado));
             }
@@ -1870,7 +1611,7 @@ public class MercadoController {
      * @return <b>ResponseMercado</b> - Mercado encontrado.
      */
     @GetMapping(params = { "pagina", "limite" })
-    @Cacheable("mercados")
+    @Cacheable(value = "mercados", sync = true)
     public ResponsePagina listar(
         Mercado requestMercado,
         @RequestParam(required = false, defaultValue = "0") Integer pagina,
@@ -1881,7 +1622,7 @@ public class MercadoController {
             Tratamento.validarMercado(requestMercado, true);
 
             // Buscando todos os mercados de acordo com o filtro enviado por parâmetro e salvando na página de Mercados.
-            Page<Mercado> paginaMercado = mercadoRepository.findAll(
+            Page<MercadoResumo> paginaMercado = mercadoRepository.buscarResumos(
                 Example.of(
                     requestMercado, 
                     ExampleMatcher
@@ -1889,6 +1630,7 @@ public class MercadoController {
                         .withIgnoreCase()
                         .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
                 ),
+                MercadoResumo.class,
                 PageRequest.of(pagina, limite)
             );
 
@@ -1896,7 +1638,7 @@ public class MercadoController {
             List<ResponseMercado> mercados = new ArrayList<ResponseMercado>();
 
             // Para cada mercado encontrado
-            for(Mercado mercado : paginaMercado.getContent()) {
+            for(MercadoResumo mercado : paginaMercado.getContent()) {
                 // Cria um objeto do tipo ResponseMercado, convertendo o objeto Mercado para o objeto ResponseMercado
                 mercados.add(new ResponseMercado(mercado));
             }
@@ -1982,7 +1724,7 @@ public class MercadoController {
      * @return <b>List < ResponseMercado ></b> - Lista de mercados ordenados.
      */
     @GetMapping(params = { "ordenarPor", "ordem" })
-    @Cacheable("mercados")
+    @Cacheable(value = "mercados", sync = true)
     public List<ResponseMercado> listar(
         Mercado requestMercado,
         @RequestParam(required = false, defaultValue = "") String ordenarPor,
@@ -1994,7 +1736,7 @@ public class MercadoController {
             Tratamento.validarMercado(requestMercado, true);
 
             // Buscando todos os mercados de acordo com o filtro enviado por parâmetro e salvando na lista de mercados
-            List<Mercado> mercados = mercadoRepository.findAll(
+            List<MercadoResumo> mercados = mercadoRepository.buscarResumos(
                 Example.of(
                     requestMercado, 
                     ExampleMatcher
@@ -2002,6 +1744,7 @@ public class MercadoController {
                         .withIgnoreCase()
                         .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
                 ),
+                MercadoResumo.class,
                 Sort.by(Sort.Direction.fromString(ordem), ordenarPor)
             );
 
@@ -2009,7 +1752,7 @@ public class MercadoController {
             List<ResponseMercado> responseMercado = new ArrayList<ResponseMercado>();
 
             // Para cada mercado encontrado
-            for(Mercado mercado : mercados) {
+            for(MercadoResumo mercado : mercados) {
                 // Cria um objeto do tipo ResponseMercado, convertendo o objeto Mercado para o objeto ResponseMercado
                 responseMercado.add(new ResponseMercado(mercado));
             }
@@ -2069,7 +1812,7 @@ public class MercadoController {
             Tratamento.validarMercado(requestMercado, true);
 
             // Buscando todos os mercados de acordo com o filtro enviado por parâmetro e salvando na página de Mercados.
-            Page<Mercado> paginaMercado = mercadoRepository.findAll(
+            Page<MercadoResumo> paginaMercado = mercadoRepository.buscarResumos(
                 Example.of(
                     requestMercado, 
                     ExampleMatcher
@@ -2077,6 +1820,7 @@ public class MercadoController {
                         .withIgnoreCase()
                         .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
                 ),
+                MercadoResumo.class,
                 PageRequest.of(pagina, limite, Sort.by(Sort.Direction.fromString(ordem), ordenarPor))
             );
 
@@ -2084,7 +1828,7 @@ public class MercadoController {
             List<ResponseMercado> mercados = new ArrayList<ResponseMercado>();
 
             // Para cada mercado encontrado
-            for(Mercado mercado : paginaMercado.getContent()) {
+            for(MercadoResumo mercado : paginaMercado.getContent()) {
                 // Cria um objeto do tipo ResponseMercado, convertendo o objeto Mercado para o objeto ResponseMercado
                 mercados.add(new ResponseMercado(mercado));
             }
@@ -2169,6 +1913,7 @@ public class MercadoController {
      * @return <b>ResponseMercado</b> - Mercado atualizado.
      */
     @PatchMapping("/{id}")
+    @CacheEvict(value = {"mercados", "produtoMercados"}, key = "T(com.pagueibaratoapi.cache.Dependencias).de('mercado', #id)")
     public ResponseMercado editar(@PathVariable int id, @RequestBody Mercado requestMercado) {
         try {
 
@@ -2192,7 +1937,7 @@ public class MercadoController {
             Mercado mercadoAtual = mercadoRepository.findById(id).get();
 
             // Se o ramo informado não existir
-            if(!ramoRepository.existsById(requestMercado.getRamoId()))
+            if(!ramoRepository.existeId(requestMercado.getRamoId()))
                 // Lança uma exceção informando que o ramo informado não existe.
                 throw new DadosInvalidosException("ramo_nao_encontrado");
 
@@ -2212,6 +1957,9 @@ public class MercadoController {
                 )
             );
 
+            // Altera a versão do mercado e da coleção de mercados.
+            versaoService.alterar("mercado", id);
+
             // Adiciona à resposta um link para a leitura do mercado em questão.
             responseMercado.add(
                 linkTo(
@@ -2251,42 +1999,45 @@ public class MercadoController {
      * @return <b>ResponseMercado</b> - Mercado atualizado.
      */
     @PutMapping("/{id}")
+    @CacheEvict(value = {"mercados", "produtoMercados"}, key = "T(com.pagueibaratoapi.cache.Dependencias).de('mercado', #id)")
     public ResponseMercado atualizar(@PathVariable int id, @RequestBody Mercado requestMercado) {
         try {
 
             // Validando os parâmetros enviados pelo cliente.
             Tratamento.validarMercado(requestMercado, false);
 
+            // Verificando, em uma única consulta, o mercado, o usuário, o ramo, o nome e o endereço informados.
+            Referencias referencias = referenciaService.verificar(
+                new Referencias()
+                    .mercado(id)
+                    .usuario(requestMercado.getCriadoPor())
+                    .ramo(requestMercado.getRamoId())
+                    .nomeMercado(requestMercado.getNome())
+                    .enderecoMercado(requestMercado)
+            );
+
             // Se o id do mercado informado não existir
-            if(!mercadoRepository.existsById(id))
+            if(!referencias.isMercadoExiste())
                 // Lança uma exceção informando que o mercado não existe.
                 throw new NoSuchElementException("nao_encontrado");
 
             // Se o id do usuário informado não existir
-            if(!usuarioRepository.existsById(requestMercado.getCriadoPor()))
+            if(!referencias.isUsuarioExiste())
                 // Lança uma exceção informando que o usuário não existe.
                 throw new DadosInvalidosException("usuario_nao_encontrado");
 
             // Se o id do ramo informado não existir
-            if(!ramoRepository.existsById(requestMercado.getRamoId()))
+            if(!referencias.isRamoExiste())
                 // Lança uma exceção informando que o ramo informado não existe.
                 throw new DadosInvalidosException("ramo_nao_encontrado");
 
             // Se o nome do mercado já existir no banco de dados
-            if(mercadoRepository.existsByNomeIgnoreCase(requestMercado.getNome()))
+            if(referencias.isNomeMercadoExistente())
                 // Lança uma exceção informando que o nome do mercado já existe.
                 throw new DadosConflitantesException("mercado_existente");
 
             // Se o endereço do mercado já existir no banco de dados
-            if(mercadoRepository.findByEndereco(
-                requestMercado.getLogradouro(), 
-                requestMercado.getNumero(),
-                requestMercado.getComplemento(), 
-                requestMercado.getBairro(), 
-                requestMercado.getCidade(),
-                requestMercado.getUf(), 
-                requestMercado.getCep()) != null
-            )
+            if(referencias.isEnderecoMercadoExistente())
                 // Lança uma exceção informando que o endereço já existe.
                 throw new DadosConflitantesException("mercado_existente");
 
@@ -2301,6 +2052,9 @@ public class MercadoController {
             // Atualizando o mercado com os dados enviados pelo cliente e armazenando no objeto responseMercado.
             ResponseMercado responseMercado = new ResponseMercado(mercadoRepository.save(requestMercado));
 
+            // Altera a versão do mercado e da coleção de mercados.
+            versaoService.alterar("mercado", id);
+
             // Adiciona à resposta um link para a leitura do mercado em questão.
             responseMercado.add(
                 linkTo(
@@ -2339,7 +2093,10 @@ public class MercadoController {
      * @return Object - Link para a listagem de mercados.
      */
     @DeleteMapping("/{id}")
-    @CacheEvict(value = "mercados", allEntries = true)
+    @CacheEvict(
+        value = {"mercados", "produtoMercados", "mercadoProdutos", "mercadoSugestoes", "estoques", "sugestoes"},
+        key = "T(com.pagueibaratoapi.cache.Dependencias).de('mercado', #id)"
+    )
     public Object remover(@PathVariable int id) {
         try {
 
@@ -2351,6 +2108,9 @@ public class MercadoController {
             // Deleta o mercado com o id informado.
             mercadoRepository.deleteById(id);
 
+            // Altera a versão do mercado e da coleção de mercados.
+            versaoService.alterar("mercado", id);
+
             // Retorna o link para a listagem de mercados.
             return linkTo(
                         methodOn(MercadoController.class).listar(new Mercado())
@@ -27,13 +27,13 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.pagueibaratoapi.cache.RegistroExistencia;
 import com.pagueibaratoapi.models.exceptions.DadosConflitantesException;
 import com.pagueibaratoapi.models.exceptions.DadosInvalidosException;
-import com.pagueibaratoapi.models.requests.Estoque;
+import com.pagueibaratoapi.models.projections.MercadoResumo;
+import com.pagueibaratoapi.models.projections.ProdutoResumo;
 import com.pagueibaratoapi.models.requests.Mercado;
 import com.pagueibaratoapi.models.requests.Produto;
-import com.pagueibaratoapi.models.requests.Sugestao;
-import com.pagueibaratoapi.models.requests.Usuario;
 import com.pagueibaratoapi.models.responses.ResponseLevantamentoProduto;
 import com.pagueibaratoapi.models.responses.ResponseMercado;
 import com.pagueibaratoapi.models.responses.ResponsePagina;
@@ -42,9 +42,14 @@ import com.pagueibaratoapi.repository.CategoriaRepository;
 import com.pagueibaratoapi.repository.EstoqueRepository;
 import com.pagueibaratoapi.repository.MercadoRepository;
 import com.pagueibaratoapi.repository.ProdutoRepository;
-import com.pagueibaratoapi.repository.SugestaoRepository;
-import com.pagueibaratoapi.repository.UsuarioRepository;
+import com.pagueibaratoapi.services.BuscaProdutoService;
+import com.pagueibaratoapi.services.LevantamentoService;
+import com.pagueibaratoapi.services.ReferenciaService;
+import com.pagueibaratoapi.services.Referencias;
+import com.pagueibaratoapi.services.VersaoService;
 import com.pagueibaratoapi.utils.EditaRecurso;
+import com.pagueibaratoapi.utils.OrdenacaoUtils;
+import com.pagueibaratoapi.utils.PaginaCursor;
 import com.pagueibaratoapi.utils.PaginaUtils;
 import com.pagueibaratoapi.utils.Tratamento;
 
@@ -60,8 +65,20 @@ public class ProdutoController {
     private final EstoqueRepository estoqueRepository;
     private final MercadoRepository mercadoRepository;
     private final ProdutoRepository produtoRepository;
-    private final SugestaoRepository sugestaoRepository;
-    private final UsuarioRepository usuarioRepository;
+    // Serviço de verificação das referências das requisições de escrita.
+    private final ReferenciaService referenciaService;
+
+    // Serviço do levantamento de preços dos produtos, mantido em memória.
+    private final LevantamentoService levantamentoService;
+
+    // Serviço das versões dos recursos, usadas nas requisições condicionais.
+    private final VersaoService versaoService;
+
+    // Existência em cache dos registros consultados pelo id.
+    private final RegistroExistencia registroExistencia;
+
+    // Serviço da busca textual de produtos.
+    private final BuscaProdutoService buscaProdutoService;
 
     // Construtor
     public ProdutoController(
@@ -69,15 +86,21 @@ public class ProdutoController {
         EstoqueRepository estoqueRepository,
         MercadoRepository mercadoRepository,
         ProdutoRepository produtoRepository,
-        SugestaoRepository sugestaoRepository,
-        UsuarioRepository usuarioRepository
+        ReferenciaService referenciaService,
+        LevantamentoService levantamentoService,
+        VersaoService versaoService,
+        RegistroExistencia registroExistencia,
+        BuscaProdutoService buscaProdutoService
     ) {
         this.categoriaRepository = categoriaRepository;
         this.estoqueRepository = estoqueRepository;
         this.mercadoRepository = mercadoRepository;
         this.produtoRepository = produtoRepository;
-        this.sugestaoRepository = sugestaoRepository;
-        this.usuarioRepository = usuarioRepository;
+        this.referenciaService = referenciaService;
+        this.levantamentoService = levantamentoService;
+        this.versaoService = versaoService;
+        this.registroExistencia = registroExistencia;
+        this.buscaProdutoService = buscaProdutoService;
     }
 
     /**
@@ -86,38 +109,38 @@ public class ProdutoController {
      * @return Dados e id do produto criado.
      */
     @PostMapping
-    @CacheEvict(value = "produtos", allEntries = true)
+    @CacheEvict(value = "produtos", key = "T(com.pagueibaratoapi.cache.Dependencias).doModelo(#requestProduto)")
     public ResponseProduto criar(@RequestBody Produto requestProduto) {
         try {
 
             // Valida os dados fornecidos.
             Tratamento.validarProduto(requestProduto, false);
 
+            // Verificando, em uma única consulta, o usuário, a categoria e as características informados.
+            Referencias referencias = referenciaService.verificar(
+                new Referencias()
+                    .usuario(requestProduto.getCriadoPor())
+                    .categoria(requestProduto.getCategoriaId())
+                    .caracteristicasProduto(requestProduto)
+            );
+
             // Se o usuário fornecido não existir,
-            if(!usuarioRepository.existsById(requestProduto.getCriadoPor()))
+            if(!referencias.isUsuarioExiste())
                 // Retorna um erro.
                 throw new DadosInvalidosException("usuario_nao_encontrado");
             
             // Se a categoria fornecida não existir,
-            if(!categoriaRepository.existsById(requestProduto.getCategoriaId()))
+            if(!referencias.isCategoriaExiste())
                 // Retorna um erro.
                 throw new DadosInvalidosException("categoria_nao_encontrado");
 
             // Se as características fornecidas pertencer a um produto já existente,
-            if(produtoRepository.findByCaracteristicas(
-                requestProduto.getNome(), 
-                requestProduto.getMarca(),
-                requestProduto.getTamanho(), 
-                requestProduto.getCor()) != null
-            )
+            if(referencias.isProdutoExistente())
                 // Retorna um erro.
                 throw new DadosConflitantesException("produto_existente");
 
-            // Buscando o usuário informado como criador do produto.
-            Usuario usuario = usuarioRepository.findById(requestProduto.getCriadoPor()).get();
-
             // Verifica se o usuário informado como criador não foi deletado anteriormente.
-            if(!Tratamento.usuarioExiste(usuario))
+            if(!referencias.isUsuarioAtivo())
                 // Retorna um erro.
                 throw new NoSuchElementException("usuario_nao_encontrado");
 
@@ -150,6 +173,12 @@ public class ProdutoController {
             // Insere o produto e transforma os dados obtidos em modelo de resposta.
             ResponseProduto responseProduto = new ResponseProduto(produtoRepository.save(produtoTratado));
 
+            // Altera a versão do novo produto e da coleção de produtos.
+            versaoService.alterar("produto", responseProduto.getId());
+
+            // Adiciona o produto à busca.
+            buscaProdutoService.indexar(responseProduto.getId());
+
             // Adiciona o link para o produto.
             responseProduto.add(
                 linkTo(
@@ -186,7 +215,7 @@ public class ProdutoController {
         try {
 
             // Busca o produto no banco e transforma os dados obtidos em modelo de resposta.
-            ResponseProduto responseProduto = new ResponseProduto(produtoRepository.findById(id).get());
+            ResponseProduto responseProduto = new ResponseProduto(produtoRepository.findResumoById(id).get());
 
             // Adiciona o link para a rota de listagem de produtos.
             if(responseProduto != null) {
@@ -214,30 +243,20 @@ public class ProdutoController {
      * @return <b>List< ResponseMercado ></b> - Lista de mercados onde o produto pode ser encontrado.
      */
     @GetMapping("/{id}/mercado")
-    @Cacheable("produtoMercados")
+    @Cacheable(value = "produtoMercados", sync = true)
     public List<ResponseMercado> listarMercados(@PathVariable("id") Integer id) {
         try {
 
-            // Buscando os estoques que possuem o produto informado e armazenando numa lista.
-            List<Estoque> estoques = estoqueRepository.findByProdutoId(id);
+            // Buscando, em uma única consulta, os mercados que possuem o produto informado em estoque.
+            List<MercadoResumo> mercadosProduto = mercadoRepository.findByProdutoId(id);
 
-            // Busca o produto no banco e transforma os dados obtidos em modelo de resposta.
+            // Cria a lista de resposta com os mercados encontrados.
             List<ResponseMercado> responseMercado = new ArrayList<>();
 
-            // Percorrendo cada estoque encontrado
-            for(Estoque estoque : estoques){
-                // Armazenando o mercado do estoque na lista de resposta com os mercados encontrados.
-                responseMercado.add(
-                    // Chamando o construtor da classe ResponseMercado que converte o objeto Mercado em modelo de resposta.
-                    new ResponseMercado(
-                        // Buscando o mercado pelo ID.
-                        mercadoRepository.findById(
-                            // Passando como parâmetro o ID do mercado no estoque atual.
-                            estoque.getMercadoId()
-                        )
-                        .get()
-                    )
-                );
+            // Percorrendo cada mercado encontrado
+            for(MercadoResumo mercado : mercadosProduto){
+                // Chamando o construtor da classe ResponseMercado que converte o objeto Mercado em modelo de resposta.
+                responseMercado.add(new ResponseMercado(mercado));
             }
 
             // Se não houver nenhum mercado que possua o produto
@@ -282,7 +301,7 @@ public class ProdutoController {
      * @return <b>ResponsePagina</b> - Objeto com as informações da página e a lista de mercados onde o produto pode ser encontrado.
      */
     @GetMapping(value = "/{id}/mercado", params = {"pagina", "limite"})
-    @Cacheable("produtoMercados")
+    @Cacheable(value = "produtoMercados", sync = true)
     public ResponsePagina listarMercados(
         @PathVariable("id") Integer id,
         @RequestParam(required = false, defaultValue = "0") Integer pagina,
@@ -290,46 +309,23 @@ public class ProdutoController {
     ) {
         try {
 
-            // Buscando os estoques que possuem o produto informado e armazenando numa lista.
-            List<Estoque> estoques = estoqueRepository.findByProdutoId(id);
-
-            // Busca o produto no banco e transforma os dados obtidos em modelo de resposta.
-            List<ResponseMercado> mercados = new ArrayList<>();
-
-            // Percorrendo cada estoque encontrado
-            for(Estoque estoque : estoques){
-                // Armazenando o mercado do estoque na lista de resposta com os mercados encontrados.
-                mercados.add(
-                    // Chamando o construtor da classe ResponseMercado que converte o objeto Mercado em modelo de resposta.
-                    new ResponseMercado(
-                        // Buscando o mercado pelo ID.
-                        mercadoRepository.findById(
-                            // Passando como parâmetro o ID do mercado no estoque atual.
-                            estoque.getMercadoId()
-                        )
-                        .get()
-                    )
-                );
-            }
+            // Buscando no banco somente a página solicitada dos mercados que possuem o produto informado em estoque.
+            // O total de registros é obtido por uma consulta de contagem, sem carregar os demais mercados.
+            Page<MercadoResumo> paginaMercado = mercadoRepository.findByProdutoId(id, PageRequest.of(pagina, limite));
 
             // Se não houver nenhum mercado que possua o produto
-            if(mercados.isEmpty())
+            if(paginaMercado.getTotalElements() == 0)
                 // Lança uma exceção informando que não foi encontrado um estoque com o produto informado.
                 throw new NoSuchElementException("estoque_nao_encontrado");
 
-            // Mercados que serão mostradas na página atual.
-            // O início da página é a multiplicação do número da página pelo limite de mercados por página.
-            // O fim da página é o inicío da página mais o limite de mercados por página.
-            List<ResponseMercado> mercadosPagina = mercados.subList(pagina * limite, (pagina * limite) + limite);
-
-            // Representa o total de páginas da pesquisa.
-            // O total de páginas é calculado dividindo o total de mercados pelo limite de mercados por página.
-            // O valor é arredondado para cima porque existe a possibilidade da ultima página não possuir o número limite de mercados.
-            Integer totalPaginas = (int) Math.ceil(mercados.size() / (double) limite);
+            // Cria a lista de resposta com os mercados da página atual.
+            List<ResponseMercado> mercados = new ArrayList<>();
 
-            // Total de mercados da pesquisa.
-            // Se o tamanho for maior que Integer.MAX_VALUE, o valor é Integer.MAX_VALUE.
-            Integer totalRegistros = mercados.size();
+            // Percorrendo cada mercado da página atual
+            for(MercadoResumo mercado : paginaMercado.getContent()){
+                // Chamando o construtor da classe ResponseMercado que converte o objeto Mercado em modelo de resposta.
+                mercados.add(new ResponseMercado(mercado));
+            }
 
             // Para cada mercado da lista de resposta.
             for(ResponseMercado mercado : mercados) {
@@ -351,7 +347,7 @@ public class ProdutoController {
             }
 
             // Prepara uma resposta em formato de página
-            ResponsePagina responseMercado = PaginaUtils.criarResposta(pagina, limite, totalRegistros, totalPaginas, mercadosPagina);
+            ResponsePagina responseMercado = PaginaUtils.criarResposta(pagina, limite, paginaMercado, mercados);
 
             // Adiciona à resposta um link para a primeira página da listagem de mercados.
             responseMercado.add(
@@ -362,7 +358,7 @@ public class ProdutoController {
             );
 
             // Se a página de mercados não estiver vazia.
-            if(!mercados.isEmpty()) {
+            if(!paginaMercado.isEmpty()) {
                 // Se a página informada pelo cliente não for a primeira página da listagem de mercados.
                 if(pagina > 0) {
                     // Adiciona à resposta um link para a página anterior da listagem de mercados.
@@ -375,7 +371,7 @@ public class ProdutoController {
                 }
 
                 // Se a página informada pelo cliente não for a última página da listagem de mercados.
-                if(pagina < totalPaginas - 1) {
+                if(pagina < paginaMercado.getTotalPages() - 1) {
                     // Adiciona à resposta um link para a página seguinte da listagem de mercados.
                     responseMercado.add(
                         linkTo(
@@ -388,7 +384,7 @@ public class ProdutoController {
                 // Adiciona à resposta um link para a última página da listagem de mercados.
                 responseMercado.add(
                     linkTo(
-                        methodOn(ProdutoController.class).listarMercados(id, totalPaginas - 1, limite)
+                        methodOn(ProdutoController.class).listarMercados(id, paginaMercado.getTotalPages() - 1, limite)
                     )
                     .withRel("last")
                 );
@@ -412,7 +408,7 @@ public class ProdutoController {
      * @return <b>List < ResponseMercado ></b> - Lista de mercados onde o produto pode ser encontrado ordenada.
      */
     @GetMapping(value = "/{id}/mercado", params = {"ordenarPor", "ordem"})
-    @Cacheable("produtoMercados")
+    @Cacheable(value = "produtoMercados", sync = true)
     public List<ResponseMercado> listarMercados(
         @PathVariable("id") Integer id,
         @RequestParam(required = false, defaultValue = "") String ordenarPor,
@@ -420,26 +416,20 @@ public class ProdutoController {
     ) {
         try {
 
-            // Buscando os estoques que possuem o produto informado e armazenando numa lista.
-            List<Estoque> estoques = estoqueRepository.findByProdutoId(id);
+            // Buscando, em uma única consulta, os mercados que possuem o produto informado em estoque.
+            // A ordenação é feita pelo banco de dados, somente pelos campos permitidos.
+            List<MercadoResumo> mercadosProduto = mercadoRepository.findByProdutoId(
+                id,
+                OrdenacaoUtils.criarOrdenacao(ordenarPor, ordem, OrdenacaoUtils.CAMPOS_MERCADO)
+            );
 
-            // Busca o produto no banco e transforma os dados obtidos em modelo de resposta.
+            // Cria a lista de resposta com os mercados encontrados.
             List<ResponseMercado> responseMercado = new ArrayList<>();
 
-            // Percorrendo cada estoque encontrado
-            for(Estoque estoque : estoques){
-                // Armazenando o mercado do estoque na lista de resposta com os mercados encontrados.
-                responseMercado.add(
-                    // Chamando o construtor da classe ResponseMercado que converte o objeto Mercado em modelo de resposta.
-                    new ResponseMercado(
-                        // Buscando o mercado pelo ID.
-                        mercadoRepository.findById(
-                            // Passando como parâmetro o ID do mercado no estoque atual.
-                            estoque.getMercadoId()
-                        )
-                        .get()
-                    )
-                );
+            // Percorrendo cada mercado encontrado
+            for(MercadoResumo mercado : mercadosProduto){
+                // Chamando o construtor da classe ResponseMercado que converte o objeto Mercado em modelo de resposta.
+                responseMercado.add(new ResponseMercado(mercado));
             }
 
             // Se não houver nenhum mercado que possua o produto
@@ -447,125 +437,6 @@ public class ProdutoController {
                 // Lança uma exceção informando que não foi encontrado um estoque com o produto informado.
                 throw new NoSuchElementException("estoque_nao_encontrado");
             
-            // Faz a ordenação da lista de sugestões.
-            responseMercado.sort((o1, o2) -> {
-
-                switch (ordenarPor) {
-
-                    case "id":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por id ascendente.
-                            return o1.getId().compareTo(o2.getId());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por id descendente.
-                            return o2.getId().compareTo(o1.getId());
-                    
-                    case "nome":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por nome ascendente.
-                            return o1.getNome().compareTo(o2.getNome());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por nome descendente.
-                            return o2.getNome().compareTo(o1.getNome());
-                    
-                    case "logradouro":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por logradouro ascendente.
-                            return o1.getLogradouro().compareTo(o2.getLogradouro());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por logradouro descendente.
-                            return o2.getLogradouro().compareTo(o1.getLogradouro());
-                    
-                    case "numero":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por numero ascendente.
-                            return o1.getNumero().compareTo(o2.getNumero());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por numero descendente.
-                            return o2.getNumero().compareTo(o1.getNumero());
-                    
-                    case "complemento":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por complemento ascendente.
-                            return o1.getComplemento().compareTo(o2.getComplemento());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por complemento descendente.
-                            return o2.getComplemento().compareTo(o1.getComplemento());
-                    
-                    case "bairro":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por bairro ascendente.
-                            return o1.getBairro().compareTo(o2.getBairro());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por bairro descendente.
-                            return o2.getBairro().compareTo(o1.getBairro());
-                    
-                    case "cidade":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por cidade ascendente.
-                            return o1.getCidade().compareTo(o2.getCidade());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por cidade descendente.
-                            return o2.getCidade().compareTo(o1.getCidade());
-                    
-                    case "uf":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por uf ascendente.
-                            return o1.getUf().compareTo(o2.getUf());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por uf descendente.
-                            return o2.getUf().compareTo(o1.getUf());
-                    
-                    case "cep":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por cep ascendente.
-                            return o1.getCep().compareTo(o2.getCep());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por cep descendente.
-                            return o2.getCep().compareTo(o1.getCep());
-                    
-                    case "ramoId":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por ramoId ascendente.
-                            return o1.getRamoId().compareTo(o2.getRamoId());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por ramoId descendente.
-                            return o2.getRamoId().compareTo(o1.getRamoId());
-                
-                    default:
-                        return 0;
-                }
-            });
 
             // Para cada mercado da lista de resposta.
             for(ResponseMercado mercado : responseMercado) {
@@ -606,7 +477,7 @@ public class ProdutoController {
      * @return <b>ResponsePagina</b> - Objeto com as informações da página e a lista de mercados onde o produto pode ser encontrado ordenada.
      */
     @GetMapping(value = "/{id}/mercado", params = {"ordenarPor", "ordem", "pagina", "limite"})
-    @Cacheable("produtoMercados")
+    @Cacheable(value = "produtoMercados", sync = true)
     public ResponsePagina listarMercados(
         @PathVariable("id") Integer id,
         @RequestParam(required = false, defaultValue = "") String ordenarPor,
@@ -616,166 +487,31 @@ public class ProdutoController {
     ) {
         try {
 
-            // Buscando os estoques que possuem o produto informado e armazenando numa lista.
-            List<Estoque> estoques = estoqueRepository.findByProdutoId(id);
-
-            // Busca o produto no banco e transforma os dados obtidos em modelo de resposta.
-            List<ResponseMercado> mercados = new ArrayList<>();
-
-            // Percorrendo cada estoque encontrado
-            for(Estoque estoque : estoques){
-                // Armazenando o mercado do estoque na lista de resposta com os mercados encontrados.
-                mercados.add(
-                    // Chamando o construtor da classe ResponseMercado que converte o objeto Mercado em modelo de resposta.
-                    new ResponseMercado(
-                        // Buscando o mercado pelo ID.
-                        mercadoRepository.findById(
-                            // Passando como parâmetro o ID do mercado no estoque atual.
-                            estoque.getMercadoId()
-                        )
-                        .get()
-                    )
-                );
-            }
+            // Buscando no banco somente a página solicitada dos mercados que possuem o produto informado em estoque.
+            // A ordenação é feita pelo banco de dados, somente pelos campos permitidos, antes de selecionar a página.
+            // O total de registros é obtido por uma consulta de contagem, sem carregar os demais mercados.
+            Page<MercadoResumo> paginaMercado = mercadoRepository.findByProdutoId(
+                id,
+                PageRequest.of(
+                    pagina,
+                    limite,
+                    OrdenacaoUtils.criarOrdenacao(ordenarPor, ordem, OrdenacaoUtils.CAMPOS_MERCADO)
+                )
+            );
 
             // Se não houver nenhum mercado que possua o produto
-            if(mercados.isEmpty())
+            if(paginaMercado.getTotalElements() == 0)
                 // Lança uma exceção informando que não foi encontrado um estoque com o produto informado.
                 throw new NoSuchElementException("estoque_nao_encontrado");
-            
-            // Faz a ordenação da lista de sugestões.
-            mercados.sort((o1, o2) -> {
-
-                switch (ordenarPor) {
-
-                    case "id":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por id ascendente.
-                            return o1.getId().compareTo(o2.getId());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por id descendente.
-                            return o2.getId().compareTo(o1.getId());
-                    
-                    case "nome":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por nome ascendente.
-                            return o1.getNome().compareTo(o2.getNome());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por nome descendente.
-                            return o2.getNome().compareTo(o1.getNome());
-                    
-                    case "logradouro":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por logradouro ascendente.
-                            return o1.getLogradouro().compareTo(o2.getLogradouro());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por logradouro descendente.
-                            return o2.getLogradouro().compareTo(o1.getLogradouro());
-                    
-                    case "numero":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por numero ascendente.
-                            return o1.getNumero().compareTo(o2.getNumero());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por numero descendente.
-                            return o2.getNumero().compareTo(o1.getNumero());
-                    
-                    case "complemento":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por complemento ascendente.
-                            return o1.getComplemento().compareTo(o2.getComplemento());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por complemento descendente.
-                            return o2.getComplemento().compareTo(o1.getComplemento());
-                    
-                    case "bairro":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por bairro ascendente.
-                            return o1.getBairro().compareTo(o2.getBairro());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por bairro descendente.
-                            return o2.getBairro().compareTo(o1.getBairro());
-                    
-                    case "cidade":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por cidade ascendente.
-                            return o1.getCidade().compareTo(o2.getCidade());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por cidade descendente.
-                            return o2.getCidade().compareTo(o1.getCidade());
-                    
-                    case "uf":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por uf ascendente.
-                            return o1.getUf().compareTo(o2.getUf());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por uf descendente.
-                            return o2.getUf().compareTo(o1.getUf());
-                    
-                    case "cep":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por cep ascendente.
-                            return o1.getCep().compareTo(o2.getCep());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por cep descendente.
-                            return o2.getCep().compareTo(o1.getCep());
-                    
-                    case "ramoId":
-
-                        // Se a ordem for "asc"
-                        if(ordem.equals("asc"))
-                            // Ordena a lista de produtos por ramoId ascendente.
-                            return o1.getRamoId().compareTo(o2.getRamoId());
-                        // Se a ordem for "desc"
-                        else
-                            // Ordena a lista de produtos por ramoId descendente.
-                            return o2.getRamoId().compareTo(o1.getRamoId());
-                
-                    default:
-                        return 0;
-                }
-            });
-
-            // Mercados que serão mostradas na página atual.
-            // O início da página é a multiplicação do número da página pelo limite de mercados por página.
-            // O fim da página é o inicío da página mais o limite de mercados por página.
-            List<ResponseMercado> mercadosPagina = mercados.subList(pagina * limite, (pagina * limite) + limite);
 
-            // Representa o total de páginas da pesquisa.
-            // O total de páginas é calculado dividindo o total de mercados pelo limite de mercados por página.
-            // O valor é arredondado para cima porque existe a possibilidade da ultima página não possuir o número limite de mercados.
-            Integer totalPaginas = (int) Math.ceil(mercados.size() / (double) limite);
+            // Cria a lista de resposta com os mercados da página atual.
+            List<ResponseMercado> mercados = new ArrayList<>();
 
-            // Total de mercados da pesquisa.
-            // Se o tamanho for maior que Integer.MAX_VALUE, o valor é Integer.MAX_VALUE.
-            Integer totalRegistros = mercados.size();
+            // Percorrendo cada mercado da página atual
+            for(MercadoResumo mercado : paginaMercado.getContent()){
+                // Chamando o construtor da classe ResponseMercado que converte o objeto Mercado em modelo de resposta.
+                mercados.add(new ResponseMercado(mercado));
+            }
 
             // Para cada mercado da lista de resposta.
             for(ResponseMercado mercado : mercados) {
@@ -797,35 +533,35 @@ public class ProdutoController {
             }
 
             // Prepara uma resposta em formato de página
-            ResponsePagina responseMercado = PaginaUtils.criarResposta(pagina, limite, totalRegistros, totalPaginas, mercadosPagina);
+            ResponsePagina responseMercado = PaginaUtils.criarResposta(pagina, limite, paginaMercado, mercados);
 
             // Adiciona à resposta um link para a primeira página da listagem de mercados.
             responseMercado.add(
                 linkTo(
-                    methodOn(ProdutoController.class).listarMercados(id, 0, limite)
+                    methodOn(ProdutoController.class).listarMercados(id, ordenarPor, ordem, 0, limite)
                 )
                 .withRel("first")
             );
 
             // Se a página de mercados não estiver vazia.
-            if(!mercados.isEmpty()) {
+            if(!paginaMercado.isEmpty()) {
                 // Se a página informada pelo cliente não for a primeira página da listagem de mercados.
                 if(pagina > 0) {
                     // Adiciona à resposta um link para a página anterior da listagem de mercados.
                     responseMercado.add(
                         linkTo(
-                            methodOn(ProdutoController.class).listarMercados(id, pagina - 1, limite)
+                            methodOn(ProdutoController.class).listarMercados(id, ordenarPor, ordem, pagina - 1, limite)
                         )
                         .withRel("previous")
                     );
                 }
 
                 // Se a página informada pelo cliente não for a última página da listagem de mercados.
-                if(pagina < totalPaginas - 1) {
+                if(pagina < paginaMercado.getTotalPages() - 1) {
                     // Adiciona à resposta um link para a página seguinte da listagem de mercados.
                     responseMercado.add(
                         linkTo(
-                            methodOn(ProdutoController.class).listarMercados(id, pagina + 1, limite)
+                            methodOn(ProdutoController.class).listarMercados(id, ordenarPor, ordem, pagina + 1, limite)
                         )
                         .withRel("next")
                     );
@@ -834,7 +570,7 @@ public class ProdutoController {
                 // Adiciona à resposta um link para a última página da listagem de mercados.
                 responseMercado.add(
                     linkTo(
-                        methodOn(ProdutoController.class).listarMercados(id, totalPaginas - 1, limite)
+                        methodOn(ProdutoController.class).listarMercados(id, ordenarPor, ordem, paginaMercado.getTotalPages() - 1, limite)
                     )
                     .withRel("last")
                 );
@@ -856,70 +592,21 @@ public class ProdutoController {
      * @return Informações do levantamento e lista de preços.
      */
     @GetMapping("/{id}/levantamento")
-    @Cacheable("produtoLevantamento")
+    @Cacheable(value = "produtoLevantamento", sync = true)
     public ResponseLevantamentoProduto levantamento(@PathVariable("id") Integer id) {
         try {
 
-            // Busca o produto no banco e transforma os dados obtidos em modelo de resposta.
-            ResponseLevantamentoProduto responseProduto = new ResponseLevantamentoProduto(produtoRepository.findById(id).get());
-
-            // Busca os estoques do produto.
-            List<Estoque> estoques = estoqueRepository.findByProdutoId(id);
-
-            float somaPreco = 0.0f; // Soma do preço encontrado em cada mercado.
-            int quantidadeSugestoes = 0; // Quantidade total de sugestões encontradas.
-
-            // Se houver estoques desse produto,
-            if(estoques != null) {
-                // Percorre os estoques do produto.
-                for(Estoque estoque : estoques) {
-                    // Buscando as sugestões do produto no mercado atual
-                    List<Sugestao> sugestoes = sugestaoRepository.findByEstoqueId(estoque.getId());
-
-                    // Se houver sugestões do produto no mercado atual,
-                    if(sugestoes != null) {
-                        // Percorre as sugestões do produto,
-                        for(Sugestao sugestao : sugestoes) {
-                            // Incrementa a quantidade de sugestões encontradas.
-                            quantidadeSugestoes++;
-                            // Soma o preço da sugestão.
-                            somaPreco += (sugestao.getPreco() / 100);
-
-                            // Se não houver data da ultima sugestão,
-                            if(responseProduto.getDataUltimaSugestao() == null)
-                                // Define a data do momento
-                                responseProduto.setDataUltimaSugestao(sugestao.getTimestamp());
-                            // Ou se a data da ultima sugestão for antes da data do momento,
-                            else if(responseProduto.getDataUltimaSugestao().before(sugestao.getTimestamp()))
-                                // Define a data do momento
-                                responseProduto.setDataUltimaSugestao(sugestao.getTimestamp());
-
-                            // Se o maior preço encontrado for 0,
-                            if(responseProduto.getMaiorPreco() == 0.0f)
-                                // Define o maior preço encontrado como o preço da sugestão atual
-                                responseProduto.setMaiorPreco(sugestao.getPreco() / 100);
-                            // Ou se o preço da sugestão atual for maior que o maior preço encontrado,
-                            else if(responseProduto.getMaiorPreco() < sugestao.getPreco())
-                                // Define o maior preço encontrado como o preço da sugestão atual
-                                responseProduto.setMaiorPreco(sugestao.getPreco() / 100);
-
-                            // Se o menor preço encontrado for 0,
-                            if(responseProduto.getMenorPreco() == 0.0f)
-                                // Define o menor preço encontrado como o preço da sugestão atual
-                                responseProduto.setMenorPreco(sugestao.getPreco() / 100);
-                            // Ou se o preço da sugestão atual for maior que o menor preço encontrado,
-                            else if(responseProduto.getMenorPreco() > sugestao.getPreco())
-                                // Define o menor preço encontrado como o preço da sugestão atual
-                                responseProduto.setMenorPreco(sugestao.getPreco() / 100);
-                        }
-                    }
-                }
-            }
+            // Verifica se o produto existe antes de montar o levantamento. As respostas 404 não ficam no cache
+            // do levantamento, mas a inexistência do produto fica, e as requisições repetidas não consultam o banco.
+            if(!registroExistencia.existe("produto", id, () -> produtoRepository.existsById(id)))
+                throw new NoSuchElementException("nao_encontrado");
 
-            // Define a quantidade de sugestões encontradas.
-            responseProduto.setQuantidadeSugestoes(quantidadeSugestoes);
-            // Define o preço médio do produto.
-            responseProduto.setPrecoMedio(quantidadeSugestoes > 0 ? somaPreco / quantidadeSugestoes : 0.0f);
+            // Busca o produto no banco e o levantamento de preços das suas sugestões, mantido em memória.
+            // O levantamento está em centavos e é transformado no modelo de resposta.
+            ResponseLevantamentoProduto responseProduto = new ResponseLevantamentoProduto(
+                produtoRepository.findResumoById(id).get(),
+                levantamentoService.buscar(id)
+            );
 
             // Adiciona o link para a rota de listagem de produtos.
             if(responseProduto != null) {
@@ -935,6 +622,8 @@ public class ProdutoController {
 
         } catch (IllegalArgumentException e) {
             throw new ResponseStatusException(500, "erro_interno", e);
+        } catch (NoSuchElementException e) {
+            throw new ResponseStatusException(404, "nao_encontrado", e);
         } catch (NullPointerException e) {
             throw new ResponseStatusException(404, "nao_encontrado", e);
         } catch (UnsupportedOperationException e) {
@@ -950,7 +639,7 @@ public class ProdutoController {
      * @return Lista de produtos.
      */
     @GetMapping
-    @Cacheable("produtos")
+    @Cacheable(value = "produtos", sync = true)
     public List<ResponseProduto> listar(Produto requestProduto) {
         try {
 
@@ -959,21 +648,22 @@ public class ProdutoController {
 
             // Busca os produtos no banco semelhantes aos dados de pesquisa.
             // Se não houver dados de pesquisa, busca todos os produtos.
-            List<Produto> produtos = produtoRepository.findAll(
+            List<ProdutoResumo> produtos = produtoRepository.buscarResumos(
                 Example.of(
                     requestProduto, 
                     ExampleMatcher
                         .matching()
                         .withIgnoreCase()
                         .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
-                )
+                ),
+                ProdutoResumo.class
             );
 
             // Lista de produtos que será retornada.
             List<ResponseProduto> responseProduto = new ArrayList<ResponseProduto>();
 
             // Adiciona os prdutos à lista.
-            for(Produto produto : produtos) {
+            for(ProdutoResumo produto : produtos) {
                 responseProduto.add(new ResponseProduto(produto));
             }
 
@@ -1012,7 +702,7 @@ public class ProdutoController {
      * @return Lista de produtos com os dados da página.
      */
     @GetMapping(params = { "pagina", "limite" })
-    @Cacheable("produtos")
+    @Cacheable(value = "produtos", sync = true)
     public ResponsePagina listar(
         Produto requestProduto,
         @RequestParam(required = false, defaultValue = "0") Integer pagina,
@@ -1027,7 +717,7 @@ public class ProdutoController {
             // Se não houver dados de pesquisa, busca todos os produtos.
             // Informa os dados de paginação.
             // Se não houver paginação, busca todos os produtos.
-            Page<Produto> paginaProduto = produtoRepository.findAll(
+            Page<ProdutoResumo> paginaProduto = produtoRepository.buscarResumos(
                 Example.of(
                     requestProduto, 
                     ExampleMatcher
@@ -1035,6 +725,7 @@ public class ProdutoController {
                         .withIgnoreCase()
                         .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
                 ),
+                ProdutoResumo.class,
                 PageRequest.of(pagina, limite)
             );
 
@@ -1045,7 +736,7 @@ public class ProdutoController {
             ResponsePagina responseProduto = PaginaUtils.criarResposta(pagina, limite, paginaProduto, produtos);
 
             // Adiciona os prdutos à lista.
-            for(Produto produto : paginaProduto.getContent()) {
+            for(ProdutoResumo produto : paginaProduto.getContent()) {
                 produtos.add(new ResponseProduto(produto));
             }
 
@@ -1123,7 +814,7 @@ public class ProdutoController {
      * @return Lista de produtos ordenados.
      */
     @GetMapping(params = { "ordenarPor", "ordem" })
-    @Cacheable("produtos")
+    @Cacheable(value = "produtos", sync = true)
     public List<ResponseProduto> listar(
         Produto requestProduto,
         @RequestParam(required = false, defaultValue = "") String ordenarPor,
@@ -1136,7 +827,7 @@ public class ProdutoController {
 
             // Busca os produtos no banco semelhantes aos dados de pesquisa.
             // Se não houver dados de pesquisa, busca todos os produtos.
-            List<Produto> produtos = produtoRepository.findAll(
+            List<ProdutoResumo> produtos = produtoRepository.buscarResumos(
                 Example.of(
                     requestProduto, 
                     ExampleMatcher
@@ -1144,6 +835,7 @@ public class ProdutoController {
                         .withIgnoreCase()
                         .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
                 ),
+                ProdutoResumo.class,
                 Sort.by(Sort.Direction.fromString(ordem), ordenarPor)
             );
 
@@ -1151,7 +843,7 @@ public class ProdutoController {
             List<ResponseProduto> responseProduto = new ArrayList<ResponseProduto>();
 
             // Adiciona os prdutos à lista.
-            for(Produto produto : produtos) {
+            for(ProdutoResumo produto : produtos) {
                 responseProduto.add(new ResponseProduto(produto));
             }
 
@@ -1192,7 +884,7 @@ public class ProdutoController {
      * @return Lista de produtos ordenados com os dados da página.
      */
     @GetMapping(params = { "ordenarPor", "ordem", "pagina", "limite" })
-    @Cacheable("produtos")
+    @Cacheable(value = "produtos", sync = true)
     public ResponsePagina listar(
         Produto requestProduto,
         @RequestParam(required = false, defaultValue = "") String ordenarPor,
@@ -1209,7 +901,7 @@ public class ProdutoController {
             // Se não houver dados de pesquisa, busca todos os produtos.
             // Informa os dados de paginação.
             // Se não houver paginação, busca todos os produtos.
-            Page<Produto> paginaProduto = produtoRepository.findAll(
+            Page<ProdutoResumo> paginaProduto = produtoRepository.buscarResumos(
                 Example.of(
                     requestProduto, 
                     ExampleMatcher
@@ -1217,6 +909,7 @@ public class ProdutoController {
                         .withIgnoreCase()
                         .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
                 ),
+                ProdutoResumo.class,
                 PageRequest.of(pagina, limite, Sort.by(Sort.Direction.fromString(ordem), ordenarPor))
             );
 
@@ -1227,7 +920,7 @@ public class ProdutoController {
             ResponsePagina responseProduto = PaginaUtils.criarResposta(pagina, limite, paginaProduto, produtos);
 
             // Adiciona os prdutos à lista.
-            for(Produto produto : paginaProduto.getContent()) {
+            for(ProdutoResumo produto : paginaProduto.getContent()) {
                 produtos.add(new ResponseProduto(produto));
             }
 
@@ -1297,6 +990,212 @@ public class ProdutoController {
         }
     }
 
+    /**
+     * Sobrecarga do método responsável por listar os produtos. Paginado por cursor.
+     * A ordenação é a informada na primeira página, guardada no cursor, ou pelo id quando não houver.
+     * @param requestProduto - Dados de pesquisa para filtragem.
+     * @param cursor - Cursor da página que será listada, obtido nos links "next" e "previous". Se estiver vazio, lista a primeira página.
+     * @param limite - Número de registros por página.
+     * @return <b>ResponsePagina</b> - Objeto com os produtos da página e os links para as páginas seguinte e anterior.
+     */
+    @GetMapping(params = { "cursor" })
+    @Cacheable(value = "produtos", sync = true)
+    public ResponsePagina listar(
+        Produto requestProduto,
+        @RequestParam(required = false, defaultValue = "") String cursor,
+        @RequestParam(required = false, defaultValue = "10") Integer limite
+    ) {
+        // Lista a página ordenada pelo id, caso o cursor não informe outra ordenação.
+        return listar(requestProduto, cursor, limite, "id", "asc");
+    }
+
+    /**
+     * Sobrecarga do método responsável por listar os produtos. Paginado por cursor, podendo ser ordenado.
+     * A busca parte do último registro da página anterior em vez de descartar registros, e o total de registros não é contado.
+     * @param requestProduto - Dados de pesquisa para filtragem.
+     * @param cursor - Cursor da página que será listada, obtido nos links "next" e "previous". Se estiver vazio, lista a primeira página.
+     * @param limite - Número de registros por página.
+     * @param ordenarPor - Campo que servirá de parâmetro para ordenar na primeira página. Nas demais, a ordenação vem do cursor.
+     * @param ordem - Direção em que os dados serão ordenados entre "asc" e "desc" na primeira página.
+     * @return <b>ResponsePagina</b> - Objeto com os produtos da página e os links para as páginas seguinte e anterior.
+     */
+    @GetMapping(params = { "cursor", "ordenarPor", "ordem" })
+    @Cacheable(value = "produtos", sync = true)
+    public ResponsePagina listar(
+        Produto requestProduto,
+        @RequestParam(required = false, defaultValue = "") String cursor,
+        @RequestParam(required = false, defaultValue = "10") Integer limite,
+        @RequestParam(required = false, defaultValue = "") String ordenarPor,
+        @RequestParam(required = false, defaultValue = "asc") String ordem
+    ) {
+        try {
+
+            // Valida os dados de pesquisa.
+            Tratamento.validarProduto(requestProduto, true);
+
+            // Busca somente a página dos produtos a partir do cursor, sem OFFSET e sem consulta de contagem.
+            PaginaCursor<Produto> paginaProduto = produtoRepository.buscarPorCursor(
+                Example.of(
+                    requestProduto, 
+                    ExampleMatcher
+                        .matching()
+                        .withIgnoreCase()
+                        .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
+                ),
+                cursor,
+                ordenarPor,
+                ordem,
+                limite,
+                OrdenacaoUtils.CAMPOS_CURSOR_PRODUTO
+            );
+
+            // Lista dos produtos que será retornada.
+            List<ResponseProduto> produtos = new ArrayList<ResponseProduto>();
+
+            // Percorre os produtos da página,
+            for(Produto produto : paginaProduto.getItens()) {
+                // Converte para o modelo de resposta.
+                ResponseProduto responseProduto = new ResponseProduto(produto);
+
+                // Adiciona o link para a rota de detalhamento.
+                responseProduto.add(
+                    linkTo(
+                        methodOn(ProdutoController.class).ler(responseProduto.getId())
+                    )
+                    .withSelfRel()
+                );
+
+                produtos.add(responseProduto);
+            }
+
+            // Formata a resposta com os dados obtidos, sem os totais da pesquisa.
+            ResponsePagina responsePagina = PaginaUtils.criarResposta(limite, produtos);
+
+            // Se houver página anterior,
+            if(paginaProduto.getCursorAnterior() != null) {
+                // Adiciona o link para a página anterior.
+                responsePagina.add(
+                    linkTo(
+                        methodOn(ProdutoController.class).listar(requestProduto, paginaProduto.getCursorAnterior(), limite)
+                    )
+                    .withRel("previous")
+                );
+            }
+
+            // Se houver página seguinte,
+            if(paginaProduto.getProximoCursor() != null) {
+                // Adiciona o link para a página seguinte.
+                responsePagina.add(
+                    linkTo(
+                        methodOn(ProdutoController.class).listar(requestProduto, paginaProduto.getProximoCursor(), limite)
+                    )
+                    .withRel("next")
+                );
+            }
+
+            // Retorna a resposta.
+            return responsePagina;
+
+        } catch (DadosInvalidosException e) {
+            throw new ResponseStatusException(400, e.getMessage(), e);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(500, "erro_inesperado", e);
+        } catch (Exception e) {
+            throw new ResponseStatusException(500, "erro_inesperado", e);
+        }
+    }
+
+    /**
+     * Rota responsável por buscar os produtos pelo texto, no nome, na marca, no tamanho e na categoria.
+     * Os termos são encontrados sem diferenciar acentos, plural e feminino, e os produtos são ordenados pela relevância.
+     * @param q - Texto da busca.
+     * @param pagina - Número da página a ser mostrada.
+     * @param limite - Número de registros por página, de 1 a 100.
+     * @return <b>ResponsePagina</b> - Objeto com os produtos encontrados na página e os links para as demais páginas.
+     */
+    @GetMapping("/busca")
+    public ResponsePagina buscar(
+        @RequestParam(required = false, defaultValue = "") String q,
+        @RequestParam(required = false, defaultValue = "0") Integer pagina,
+        @RequestParam(required = false, defaultValue = "10") Integer limite
+    ) {
+        try {
+
+            // Se o texto da busca estiver vazio,
+            if(q.isBlank())
+                // Retorna um erro.
+                throw new DadosInvalidosException("busca_invalido");
+
+            // Se a página for negativa,
+            if(pagina < 0)
+                // Retorna um erro.
+                throw new DadosInvalidosException("pagina_invalido");
+
+            // Se o limite estiver fora do intervalo permitido,
+            if(limite < 1 || limite > 100)
+                // Retorna um erro.
+                throw new DadosInvalidosException("limite_invalido");
+
+            // Busca os produtos no índice, sem consultar o banco.
+            BuscaProdutoService.Resultado resultado = buscaProdutoService.buscar(q, pagina, limite);
+
+            // Lista de produtos que será retornada.
+            List<ResponseProduto> produtos = new ArrayList<ResponseProduto>();
+
+            // Percorre os produtos encontrados,
+            for(ProdutoResumo produto : resultado.getProdutos()) {
+                // Converte para o modelo de resposta.
+                ResponseProduto responseProduto = new ResponseProduto(produto);
+
+                // Adiciona o link para a rota de detalhamento.
+                responseProduto.add(
+                    linkTo(
+                        methodOn(ProdutoController.class).ler(responseProduto.getId())
+                    )
+                    .withSelfRel()
+                );
+
+                produtos.add(responseProduto);
+            }
+
+            // Calcula o total de páginas com o total de produtos encontrados.
+            int totalPaginas = (resultado.getTotal() + limite - 1) / limite;
+
+            // Formata a resposta com os dados obtidos.
+            ResponsePagina responsePagina = PaginaUtils.criarResposta(pagina, limite, totalPaginas, resultado.getTotal(), produtos);
+
+            // Se a página atual não for a primeira e houver produtos,
+            if(pagina > 0 && pagina < totalPaginas) {
+                // Adiciona um link para a página anterior.
+                responsePagina.add(
+                    linkTo(
+                        methodOn(ProdutoController.class).buscar(q, pagina - 1, limite)
+                    )
+                    .withRel("previous")
+                );
+            }
+
+            // Se a página atual não for a última,
+            if(pagina < totalPaginas - 1) {
+                // Adiciona um link para a página seguinte.
+                responsePagina.add(
+                    linkTo(
+                        methodOn(ProdutoController.class).buscar(q, pagina + 1, limite)
+                    )
+                    .withRel("next")
+                );
+            }
+
+            // Retorna a resposta.
+            return responsePagina;
+
+        } catch (DadosInvalidosException e) {
+            throw new ResponseStatusException(400, e.getMessage(), e);
+        } catch (Exception e) {
+            throw new ResponseStatusException(500, "erro_inesperado", e);
+        }
+    }
+
     /**
      * Rota responsável por editar um produto.
      * @param id - Id do produto a ser editado.
@@ -1304,6 +1203,7 @@ public class ProdutoController {
      * @return Dados novos do produto editado.
      */
     @PatchMapping("/{id}")
+    @CacheEvict(value = {"produtos", "mercadoProdutos", "produtoLevantamento"}, key = "T(com.pagueibaratoapi.cache.Dependencias).de('produto', #id)")
     public ResponseProduto editar(@PathVariable int id, @RequestBody Produto requestProduto) {
         try {
 
@@ -1324,7 +1224,7 @@ public class ProdutoController {
             Produto produtoAtual = produtoRepository.findById(id).get();
             
             // Se a categoria informada não existir,
-            if(!categoriaRepository.existsById(requestProduto.getCategoriaId()))
+            if(!categoriaRepository.existeId(requestProduto.getCategoriaId()))
                 // Retorna um erro.
                 throw new DadosInvalidosException("categoria_nao_encontrado");
 
@@ -1339,6 +1239,12 @@ public class ProdutoController {
                     )
                 )
             );
+
+            // Altera a versão do produto e da coleção de produtos.
+            versaoService.alterar("produto", id);
+
+            // Atualiza o produto na busca.
+            buscaProdutoService.indexar(id);
     
             // Adiciona o link para a rota de detalhamento de produto.
             responseProduto.add(
@@ -1373,29 +1279,33 @@ public class ProdutoController {
      * @return Dados do novo produto.
      */
     @PutMapping("/{id}")
+    @CacheEvict(value = {"produtos", "mercadoProdutos", "produtoLevantamento"}, key = "T(com.pagueibaratoapi.cache.Dependencias).de('produto', #id)")
     public ResponseProduto atualizar(@PathVariable int id, @RequestBody Produto requestProduto) {
         try {
 
             // Valida os dados fornecidos.
             Tratamento.validarProduto(requestProduto, false);
 
+            // Verificando, em uma única consulta, o usuário, a categoria e as características informados.
+            Referencias referencias = referenciaService.verificar(
+                new Referencias()
+                    .usuario(requestProduto.getCriadoPor())
+                    .categoria(requestProduto.getCategoriaId())
+                    .caracteristicasProduto(requestProduto)
+            );
+
             // Se o usuário informado não existir,
-            if(!usuarioRepository.existsById(requestProduto.getCriadoPor()))
+            if(!referencias.isUsuarioExiste())
                 // Retorna um erro.
                 throw new DadosInvalidosException("usuario_nao_encontrado");
 
             // Se a categoria informada não existir,
-            if(!categoriaRepository.existsById(requestProduto.getCategoriaId()))
+            if(!referencias.isCategoriaExiste())
                 // Retorna um erro.
                 throw new DadosInvalidosException("categoria_nao_encontrado");
 
             // Se as características fornecidas pertencer a um produto já existente,
-            if(produtoRepository.findByCaracteristicas(
-                requestProduto.getNome(), 
-                requestProduto.getMarca(),
-                requestProduto.getTamanho(), 
-                requestProduto.getCor()) != null
-            )
+            if(referencias.isProdutoExistente())
                 // Retorna um erro.
                 throw new DadosConflitantesException("produto_existente");
 
@@ -1411,6 +1321,12 @@ public class ProdutoController {
             // Insere o novo produto e transforma os dados inseridos em resposta.
             ResponseProduto responseProduto = new ResponseProduto(produtoRepository.save(requestProduto));
 
+            // Altera a versão do produto e da coleção de produtos.
+            versaoService.alterar("produto", id);
+
+            // Atualiza o produto na busca.
+            buscaProdutoService.indexar(id);
+
             // Adiciona o link para a rota de detalhamento de produto.
             responseProduto.add(
                 linkTo(
@@ -1442,7 +1358,10 @@ public class ProdutoController {
      * @param id - Id do produto a ser excluído.
      */
     @DeleteMapping("/{id}")
-    @CacheEvict(value = "produtos", allEntries = true)
+    @CacheEvict(
+        value = {"produtos", "mercadoProdutos", "produtoMercados", "produtoLevantamento", "estoques", "sugestoes", "mercadoSugestoes"},
+        key = "T(com.pagueibaratoapi.cache.Dependencias).de('produto', #id)"
+    )
     public Object remover(@PathVariable int id) {
         try {
 
@@ -1454,6 +1373,12 @@ public class ProdutoController {
             // Exclui o produto.
             produtoRepository.deleteById(id);
 
+            // Altera a versão do produto e da coleção de produtos.
+            versaoService.alterar("produto", id);
+
+            // Remove o produto da busca.
+            buscaProdutoService.remover(id);
+
             // Retorna um link para a rota de listagem de produtos.
             return linkTo(
                         methodOn(ProdutoController.class).listar(new Produto())
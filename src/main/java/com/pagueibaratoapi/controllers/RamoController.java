@@ -134,7 +134,7 @@ public class RamoController {
      * @return <b>List< ResponseRamo ></b> - Lista de objetos do tipo ResponseRamo com os ramos encontrados.
      */
     @GetMapping
-    @Cacheable("ramos")
+    @Cacheable(value = "ramos", sync = true)
     public List<ResponseRamo> listar(Ramo requestRamo) {
         try {
 
@@ -200,6 +200,7 @@ public class RamoController {
      * @return ResponseRamo - Objeto do tipo ResponseRamo com o ramo atualizado.
      */
     @PatchMapping("/{id}")
+    @CacheEvict(value = "ramos", allEntries = true)
     public ResponseRamo editar(@PathVariable("id") Integer id, @RequestBody Ramo requestRamo) {
         try {
 
@@ -264,6 +265,7 @@ public class RamoController {
      * @return ResponseRamo - Objeto do tipo ResponseRamo com o ramo atualizado.
      */
     @PutMapping("/{id}")
+    @CacheEvict(value = "ramos", allEntries = true)
     public ResponseRamo atualizar(@PathVariable("id") Integer id, @RequestBody Ramo requestRamo) {
         try {
 
@@ -324,7 +326,7 @@ public class RamoController {
         try {
 
             // Se não existir um ramo com o Id informado.
-            if(!ramoRepository.existsById(id))
+            if(!ramoRepository.existeId(id))
                 // Lança uma exceção indicando que o registro não foi encontrado.
                 throw new NoSuchElementException("nao_encontrado");
             
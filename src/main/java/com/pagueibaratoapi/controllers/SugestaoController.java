@@ -4,10 +4,13 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.NoSuchElementException;
 
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
@@ -27,15 +30,23 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.pagueibaratoapi.cache.Dependencias;
+import com.pagueibaratoapi.models.projections.EstoqueResumo;
 import com.pagueibaratoapi.models.responses.ResponsePagina;
 import com.pagueibaratoapi.models.responses.ResponseSugestao;
 import com.pagueibaratoapi.models.exceptions.DadosInvalidosException;
+import com.pagueibaratoapi.models.projections.SugestaoResumo;
 import com.pagueibaratoapi.models.requests.Sugestao;
-import com.pagueibaratoapi.models.requests.Usuario;
 import com.pagueibaratoapi.repository.EstoqueRepository;
 import com.pagueibaratoapi.repository.SugestaoRepository;
-import com.pagueibaratoapi.repository.UsuarioRepository;
+import com.pagueibaratoapi.services.LevantamentoService;
+import com.pagueibaratoapi.services.PrecoSugerido;
+import com.pagueibaratoapi.services.ReferenciaService;
+import com.pagueibaratoapi.services.Referencias;
+import com.pagueibaratoapi.services.VersaoService;
 import com.pagueibaratoapi.utils.EditaRecurso;
+import com.pagueibaratoapi.utils.OrdenacaoUtils;
+import com.pagueibaratoapi.utils.PaginaCursor;
 import com.pagueibaratoapi.utils.PaginaUtils;
 import com.pagueibaratoapi.utils.Tratamento;
 
@@ -47,19 +58,41 @@ import com.pagueibaratoapi.utils.Tratamento;
 public class SugestaoController {
 
     // Repositórios responsáveis pelos métodos JPA do banco de dados.
-    private final EstoqueRepository estoqueRepository;
     private final SugestaoRepository sugestaoRepository;
-    private final UsuarioRepository usuarioRepository;
+
+    // Serviço de verificação das referências das requisições de escrita.
+    private final ReferenciaService referenciaService;
+
+    // Serviço do levantamento de preços dos produtos, atualizado a cada sugestão.
+    private final LevantamentoService levantamentoService;
+
+    // Serviço das versões dos recursos, usadas nas requisições condicionais.
+    private final VersaoService versaoService;
+
+    // Repositório do estoque, usado para obter o mercado e o produto das sugestões escritas.
+    private final EstoqueRepository estoqueRepository;
+
+    // Gerenciador das regiões de cache das listagens de sugestões.
+    private final CacheManager cacheManager;
+
+    // Regiões de cache com listagens de sugestões.
+    private static final String[] REGIOES_SUGESTOES = { "sugestoes", "mercadoSugestoes" };
 
     // Construtor.
     public SugestaoController(
-        EstoqueRepository estoqueRepository,
         SugestaoRepository sugestaoRepository,
-        UsuarioRepository usuarioRepository
+        ReferenciaService referenciaService,
+        LevantamentoService levantamentoService,
+        VersaoService versaoService,
+        EstoqueRepository estoqueRepository,
+        CacheManager cacheManager
     ) {
-        this.estoqueRepository = estoqueRepository;
         this.sugestaoRepository = sugestaoRepository;
-        this.usuarioRepository = usuarioRepository;
+        this.referenciaService = referenciaService;
+        this.levantamentoService = levantamentoService;
+        this.versaoService = versaoService;
+        this.estoqueRepository = estoqueRepository;
+        this.cacheManager = cacheManager;
     }
 
     /**
@@ -68,35 +101,45 @@ public class SugestaoController {
      * @return Dados e id da sugestão criada.
      */
     @PostMapping
-    @CacheEvict(value = "sugestoes", allEntries = true)
     public ResponseSugestao criar(@RequestBody Sugestao requestSugestao) {
         try {
 
             // Valida os dados fornecidos.
             Tratamento.validarSugestao(requestSugestao, false);
 
+            // Verificando, em uma única consulta, o estoque e o usuário informados.
+            Referencias referencias = referenciaService.verificar(
+                new Referencias()
+                    .estoque(requestSugestao.getEstoqueId())
+                    .usuario(requestSugestao.getCriadoPor())
+            );
+
             // Se o estoque informado não existir,
-            if(!estoqueRepository.existsById(requestSugestao.getEstoqueId()))
+            if(!referencias.isEstoqueExiste())
                 // Retorna erro.
                 throw new DadosInvalidosException("estoque_nao_encontrado");
 
             // Se o usuário informado não existir,
-            if(!usuarioRepository.existsById(requestSugestao.getCriadoPor()))
+            if(!referencias.isUsuarioExiste())
                 // Retorna erro.
                 throw new DadosInvalidosException("usuario_nao_encontrado");
 
-            Usuario usuario = usuarioRepository.findById(requestSugestao.getCriadoPor()).get();
-
             // Validando se o usuário informado como criador já foi excluído.
-            if(!Tratamento.usuarioExiste(usuario))
+            if(!referencias.isUsuarioAtivo())
                 // Retorna erro.
                 throw new NoSuchElementException("usuario_nao_encontrado");
 
             // Elimina os decimais do preço multiplicando por 100.
             requestSugestao.setPreco(requestSugestao.getPreco() * 100);
             
-            // Insere a sugestão e transforma os dados obtidos em modelo de resposta.
-            ResponseSugestao responseSugestao = new ResponseSugestao(sugestaoRepository.save(requestSugestao));
+            // Insere a sugestão, atualizando o levantamento de preços do produto, e transforma os dados obtidos em modelo de resposta.
+            ResponseSugestao responseSugestao = new ResponseSugestao(levantamentoService.inserir(requestSugestao));
+
+            // Altera a versão da sugestão e da coleção de sugestões.
+            versaoService.alterar("sugestao", responseSugestao.getId());
+
+            // Remove do cache as listagens do estoque da sugestão.
+            removerDoCache(responseSugestao.getId(), responseSugestao.getEstoqueId());
 
             // Adiciona o link para a sugestão.
             responseSugestao.add(
@@ -135,7 +178,7 @@ public class SugestaoController {
         try {
 
             // Busca a sugestão no banco e transforma os dados obtidos em modelo de resposta.
-            ResponseSugestao responseSugestao = new ResponseSugestao(sugestaoRepository.findById(id).get());
+            ResponseSugestao responseSugestao = new ResponseSugestao(sugestaoRepository.findResumoById(id).get());
 
             // Adiciona o link para a rota de listagem de sugestões.
             if(responseSugestao != null) {
@@ -165,7 +208,7 @@ public class SugestaoController {
      * @return Lista de sugestões.
      */
     @GetMapping
-    @Cacheable("sugestoes")
+    @Cacheable(value = "sugestoes", sync = true)
     public List<ResponseSugestao> listar(Sugestao requestSugestao) {
         try {
 
@@ -174,21 +217,22 @@ public class SugestaoController {
 
             // Busca as sugestões no banco semelhantes aos dados de pesquisa.
             // Se não houver dados de pesquisa, busca todas as sugestões.
-            List<Sugestao> sugestoes = sugestaoRepository.findAll(
+            List<SugestaoResumo> sugestoes = sugestaoRepository.buscarResumos(
                 Example.of(
                     requestSugestao, 
                     ExampleMatcher
                         .matching()
                         .withIgnoreCase()
                         .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
-                )
+                ),
+                SugestaoResumo.class
             );
 
             // Lista de sugestões que será retornada.
             List<ResponseSugestao> responseSugestao = new ArrayList<ResponseSugestao>();
 
             // Adiciona as sugestões a lista de sugestões.
-            for(Sugestao sugestao : sugestoes) {
+            for(SugestaoResumo sugestao : sugestoes) {
                 responseSugestao.add(new ResponseSugestao(sugestao));
             }
 
@@ -230,7 +274,7 @@ public class SugestaoController {
      * @return Lista de sugestões com dados da página.
      */
     @GetMapping(params = { "pagina", "limite" })
-    @Cacheable("sugestoes")
+    @Cacheable(value = "sugestoes", sync = true)
     public ResponsePagina listar(
         Sugestao requestSugestao,
         @RequestParam(required = false, defaultValue = "0") Integer pagina,
@@ -245,7 +289,7 @@ public class SugestaoController {
             // Se não houver dados de pesquisa, busca todas as sugestões.
             // Informa os dados de paginação.
             // Se não houver paginação, busca todas as sugestões.
-            Page<Sugestao> paginaSugestao = sugestaoRepository.findAll(
+            Page<SugestaoResumo> paginaSugestao = sugestaoRepository.buscarResumos(
                 Example.of(
                     requestSugestao, 
                     ExampleMatcher
@@ -253,6 +297,7 @@ public class SugestaoController {
                         .withIgnoreCase()
                         .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
                 ),
+                SugestaoResumo.class,
                 PageRequest.of(pagina, limite)
             );
 
@@ -263,7 +308,7 @@ public class SugestaoController {
             ResponsePagina responsePagina = PaginaUtils.criarResposta(pagina, limite, paginaSugestao, sugestoes);
 
             // Adiciona as sugestões a lista.
-            for(Sugestao sugestao : paginaSugestao.getContent()) {
+            for(SugestaoResumo sugestao : paginaSugestao.getContent()) {
                 sugestoes.add(new ResponseSugestao(sugestao));
             }
 
@@ -343,7 +388,7 @@ public class SugestaoController {
      * @return Lista de sugestões ordenada.
      */
     @GetMapping(params = { "ordenarPor", "ordem" })
-    @Cacheable("sugestoes")
+    @Cacheable(value = "sugestoes", sync = true)
     public List<ResponseSugestao> listar(
         Sugestao requestSugestao,
         @RequestParam(required = false, defaultValue = "") String ordenarPor,
@@ -356,7 +401,7 @@ public class SugestaoController {
 
             // Busca as sugestões no banco semelhantes aos dados de pesquisa.
             // Se não houver dados de pesquisa, busca todas as sugestões.
-            List<Sugestao> sugestoes = sugestaoRepository.findAll(
+            List<SugestaoResumo> sugestoes = sugestaoRepository.buscarResumos(
                 Example.of(
                     requestSugestao, 
                     ExampleMatcher
@@ -364,6 +409,7 @@ public class SugestaoController {
                         .withIgnoreCase()
                         .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
                 ),
+                SugestaoResumo.class,
                 Sort.by(Sort.Direction.fromString(ordem), ordenarPor)
             );
 
@@ -371,7 +417,7 @@ public class SugestaoController {
             List<ResponseSugestao> responseSugestao = new ArrayList<ResponseSugestao>();
 
             // Adiciona as sugestões a lista de sugestões.
-            for(Sugestao sugestao : sugestoes) {
+            for(SugestaoResumo sugestao : sugestoes) {
                 responseSugestao.add(new ResponseSugestao(sugestao));
             }
 
@@ -415,7 +461,7 @@ public class SugestaoController {
      * @return Lista de sugestões oredenada com dados da página.
      */
     @GetMapping(params = { "pagina", "limite", "ordenarPor", "ordem" })
-    @Cacheable("sugestoes")
+    @Cacheable(value = "sugestoes", sync = true)
     public ResponsePagina listar(
         Sugestao requestSugestao,
         @RequestParam(required = false, defaultValue = "0") Integer pagina,
@@ -432,7 +478,7 @@ public class SugestaoController {
             // Se não houver dados de pesquisa, busca todas as sugestões.
             // Informa os dados de paginação.
             // Se não houver paginação, busca todas as sugestões.
-            Page<Sugestao> paginaSugestao = sugestaoRepository.findAll(
+            Page<SugestaoResumo> paginaSugestao = sugestaoRepository.buscarResumos(
                 Example.of(
                     requestSugestao, 
                     ExampleMatcher
@@ -440,6 +486,7 @@ public class SugestaoController {
                         .withIgnoreCase()
                         .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
                 ),
+                SugestaoResumo.class,
                 PageRequest.of(pagina, limite, Sort.by(Sort.Direction.fromString(ordem), ordenarPor))
             );
 
@@ -450,7 +497,7 @@ public class SugestaoController {
             ResponsePagina responsePagina = PaginaUtils.criarResposta(pagina, limite, paginaSugestao, sugestoes);
 
             // Adiciona as sugestões a lista.
-            for(Sugestao sugestao : paginaSugestao.getContent()) {
+            for(SugestaoResumo sugestao : paginaSugestao.getContent()) {
                 sugestoes.add(new ResponseSugestao(sugestao));
             }
 
@@ -522,6 +569,124 @@ public class SugestaoController {
         }
     }
 
+    /**
+     * Sobrecarga do método responsável por listar as sugestões. Paginado por cursor.
+     * A ordenação é a informada na primeira página, guardada no cursor, ou pelo id quando não houver.
+     * @param requestSugestao - Dados de pesquisa para filtragem.
+     * @param cursor - Cursor da página que será listada, obtido nos links "next" e "previous". Se estiver vazio, lista a primeira página.
+     * @param limite - Número de registros por página.
+     * @return <b>ResponsePagina</b> - Objeto com as sugestões da página e os links para as páginas seguinte e anterior.
+     */
+    @GetMapping(params = { "cursor" })
+    @Cacheable(value = "sugestoes", sync = true)
+    public ResponsePagina listar(
+        Sugestao requestSugestao,
+        @RequestParam(required = false, defaultValue = "") String cursor,
+        @RequestParam(required = false, defaultValue = "10") Integer limite
+    ) {
+        // Lista a página ordenada pelo id, caso o cursor não informe outra ordenação.
+        return listar(requestSugestao, cursor, limite, "id", "asc");
+    }
+
+    /**
+     * Sobrecarga do método responsável por listar as sugestões. Paginado por cursor, podendo ser ordenado.
+     * A busca parte do último registro da página anterior em vez de descartar registros, e o total de registros não é contado.
+     * @param requestSugestao - Dados de pesquisa para filtragem.
+     * @param cursor - Cursor da página que será listada, obtido nos links "next" e "previous". Se estiver vazio, lista a primeira página.
+     * @param limite - Número de registros por página.
+     * @param ordenarPor - Campo que servirá de parâmetro para ordenar na primeira página. Nas demais, a ordenação vem do cursor.
+     * @param ordem - Direção em que os dados serão ordenados entre "asc" e "desc" na primeira página.
+     * @return <b>ResponsePagina</b> - Objeto com as sugestões da página e os links para as páginas seguinte e anterior.
+     */
+    @GetMapping(params = { "cursor", "ordenarPor", "ordem" })
+    @Cacheable(value = "sugestoes", sync = true)
+    public ResponsePagina listar(
+        Sugestao requestSugestao,
+        @RequestParam(required = false, defaultValue = "") String cursor,
+        @RequestParam(required = false, defaultValue = "10") Integer limite,
+        @RequestParam(required = false, defaultValue = "") String ordenarPor,
+        @RequestParam(required = false, defaultValue = "asc") String ordem
+    ) {
+        try {
+
+            // Valida os dados de pesquisa.
+            Tratamento.validarSugestao(requestSugestao, true);
+
+            // Busca somente a página das sugestões a partir do cursor, sem OFFSET e sem consulta de contagem.
+            PaginaCursor<Sugestao> paginaSugestao = sugestaoRepository.buscarPorCursor(
+                Example.of(
+                    requestSugestao, 
+                    ExampleMatcher
+                        .matching()
+                        .withIgnoreCase()
+                        .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)
+                ),
+                cursor,
+                ordenarPor,
+                ordem,
+                limite,
+                OrdenacaoUtils.CAMPOS_CURSOR_SUGESTAO
+            );
+
+            // Lista das sugestões que será retornada.
+            List<ResponseSugestao> sugestoes = new ArrayList<ResponseSugestao>();
+
+            // Percorre as sugestões da página,
+            for(Sugestao sugestao : paginaSugestao.getItens()) {
+                // Converte para o modelo de resposta.
+                ResponseSugestao responseSugestao = new ResponseSugestao(sugestao);
+
+                // Divide o preço da sugestão por 100 para obter o valor em reais.
+                responseSugestao.setPreco(responseSugestao.getPreco() / 100);
+
+                // Adiciona o link para a rota de detalhamento.
+                responseSugestao.add(
+                    linkTo(
+                        methodOn(SugestaoController.class).ler(responseSugestao.getId())
+                    )
+                    .withSelfRel()
+                );
+
+                sugestoes.add(responseSugestao);
+            }
+
+            // Formata a resposta com os dados obtidos, sem os totais da pesquisa.
+            ResponsePagina responsePagina = PaginaUtils.criarResposta(limite, sugestoes);
+
+            // Se houver página anterior,
+            if(paginaSugestao.getCursorAnterior() != null) {
+                // Adiciona o link para a página anterior.
+                responsePagina.add(
+                    linkTo(
+                        methodOn(SugestaoController.class).listar(requestSugestao, paginaSugestao.getCursorAnterior(), limite)
+                    )
+                    .withRel("previous")
+                );
+            }
+
+            // Se houver página seguinte,
+            if(paginaSugestao.getProximoCursor() != null) {
+                // Adiciona o link para a página seguinte.
+                responsePagina.add(
+                    linkTo(
+                        methodOn(SugestaoController.class).listar(requestSugestao, paginaSugestao.getProximoCursor(), limite)
+                    )
+                    .withRel("next")
+                );
+            }
+
+            // Retorna a resposta.
+            return responsePagina;
+
+        } catch (DadosInvalidosException e) {
+            throw new ResponseStatusException(400, e.getMessage(), e);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(500, "erro_inesperado", e);
+        } catch (Exception e) {
+            throw new ResponseStatusException(500, "erro_inesperado", e);
+        }
+    }
+
     /**
      * Rota responsável por editar uma sugestão.
      * @param id - Id da sugestão a ser editada.
@@ -537,19 +702,29 @@ public class SugestaoController {
 
             // Obtém a sugestão a ser editada.
             Sugestao sugestaoAtual = sugestaoRepository.findById(id).get();
+
+            // Guarda o preço atual, já que a sugestão é modificada pela edição.
+            PrecoSugerido precoAnterior = PrecoSugerido.de(sugestaoAtual);
     
             // Chama o recurso de tratamento para editar a sugestão.
-            // Insere os dados modificados no banco.
+            // Insere os dados modificados no banco, atualizando o levantamento de preços do produto.
             // Transforma os dados obtidos em modelo de resposta.
             ResponseSugestao responseSugestao = new ResponseSugestao(
-                sugestaoRepository.save(
+                levantamentoService.substituir(
                     EditaRecurso.editarSugestao(
                         sugestaoAtual, 
                         requestSugestao
-                    )
+                    ),
+                    precoAnterior
                 )
             );
 
+            // Altera a versão da sugestão e da coleção de sugestões.
+            versaoService.alterar("sugestao", id);
+
+            // Remove do cache as listagens do estoque anterior e do estoque atual da sugestão.
+            removerDoCache(id, precoAnterior.getEstoqueId(), responseSugestao.getEstoqueId());
+
             // Adiciona o link para detalhamento da sugestão.
             responseSugestao.add(
                 linkTo(
@@ -590,19 +765,29 @@ public class SugestaoController {
             // Valida os dados fornecidos.
             Tratamento.validarSugestao(requestSugestao, true);
 
+            // Verificando, em uma única consulta, o estoque e o usuário fornecidos.
+            Referencias referencias = referenciaService.verificar(
+                new Referencias()
+                    .estoque(requestSugestao.getEstoqueId())
+                    .usuario(requestSugestao.getCriadoPor())
+            );
+
             // Se o estoque fornecido não existir.
-            if(!estoqueRepository.existsById(requestSugestao.getEstoqueId()))
+            if(!referencias.isEstoqueExiste())
                 // Retorna erro.
                 throw new DadosInvalidosException("estoque_nao_encontrado");
 
             // Se o usuário fornecido não existir.
-            if(!usuarioRepository.existsById(requestSugestao.getCriadoPor()))
+            if(!referencias.isUsuarioExiste())
             // Retorna erro.
                 throw new DadosInvalidosException("usuario_nao_encontrado");
 
             // Sugestão a ser substituída.
             Sugestao sugestao = sugestaoRepository.findById(id).get();
 
+            // Guarda o preço atual, já que a sugestão é modificada pela substituição.
+            PrecoSugerido precoAnterior = PrecoSugerido.de(sugestao);
+
             // Define o id da sugestão a ser substituída.
             requestSugestao.setId(id);
 
@@ -612,8 +797,16 @@ public class SugestaoController {
             // Multiplica o preço por 100 para eliminar o decimal.
             requestSugestao.setPreco(requestSugestao.getPreco() * 100);
 
-            // Insere a nova sugestão no banco e transforma os dados obtidos em modelo de resposta.
-            ResponseSugestao responseSugestao = new ResponseSugestao(sugestaoRepository.save(requestSugestao));
+            // Insere a nova sugestão no banco, atualizando o levantamento de preços, e transforma os dados obtidos em modelo de resposta.
+            ResponseSugestao responseSugestao = new ResponseSugestao(
+                levantamentoService.substituir(requestSugestao, precoAnterior)
+            );
+
+            // Altera a versão da sugestão e da coleção de sugestões.
+            versaoService.alterar("sugestao", id);
+
+            // Remove do cache as listagens do estoque anterior e do estoque atual da sugestão.
+            removerDoCache(id, precoAnterior.getEstoqueId(), responseSugestao.getEstoqueId());
 
             // Adiciona o link para detalhamento da sugestão.
             responseSugestao.add(
@@ -647,17 +840,20 @@ public class SugestaoController {
      * @param id - Id da sugestão a ser excluída.
      */
     @DeleteMapping("/{id}")
-    @CacheEvict(value = "sugestoes", allEntries = true)
     public Object remover(@PathVariable int id) {
         try {
 
-            // Se a sugestão fornecida não existir.
-            if(!sugestaoRepository.existsById(id))
-            // Retorna erro.
-                throw new NoSuchElementException("nao_encontrado");
+            // Busca a sugestão fornecida. Se não existir, retorna erro.
+            Sugestao sugestao = sugestaoRepository.findById(id).orElseThrow(() -> new NoSuchElementException("nao_encontrado"));
+
+            // Exclui a sugestão do banco, retirando-a do levantamento de preços do produto.
+            levantamentoService.remover(sugestao);
 
-            // Exclui a sugestão do banco.
-            sugestaoRepository.deleteById(id);
+            // Altera a versão da sugestão e da coleção de sugestões.
+            versaoService.alterar("sugestao", id);
+
+            // Remove do cache as listagens do estoque da sugestão.
+            removerDoCache(id, sugestao.getEstoqueId());
 
             // Retorna o link para listagem de sugestões.
             return linkTo(
@@ -675,4 +871,25 @@ public class SugestaoController {
             throw new ResponseStatusException(500, "erro_inesperado", e);
         }
     }
+
+    // Remove do cache somente as listagens que podem conter a sugestão escrita: as do seu estoque e as do mercado e do
+    // produto desse estoque. As chaves das listagens não dependem do id da sugestão, então o mercado e o produto são
+    // buscados pelo estoque, como no levantamento de preços.
+    private void removerDoCache(Integer sugestaoId, Integer... estoqueIds) {
+        for(Integer estoqueId : new LinkedHashSet<Integer>(Arrays.asList(estoqueIds))) {
+            EstoqueResumo estoque = estoqueId != null ? estoqueRepository.findResumoById(estoqueId).orElse(null) : null;
+
+            Dependencias escrita = Dependencias.de("sugestao", sugestaoId, "estoque", estoqueId);
+
+            if(estoque != null)
+                escrita = escrita.mais("mercado", estoque.getMercadoId()).mais("produto", estoque.getProdutoId());
+
+            for(String regiao : REGIOES_SUGESTOES) {
+                Cache cache = cacheManager.getCache(regiao);
+
+                if(cache != null)
+                    cache.evict(escrita);
+            }
+        }
+    }
 }
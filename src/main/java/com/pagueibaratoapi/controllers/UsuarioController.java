@@ -24,6 +24,7 @@ import com.pagueibaratoapi.models.exceptions.DadosInvalidosException;
 import com.pagueibaratoapi.models.requests.Usuario;
 import com.pagueibaratoapi.models.responses.ResponseUsuario;
 import com.pagueibaratoapi.repository.UsuarioRepository;
+import com.pagueibaratoapi.services.UsuarioServiceImpl;
 import com.pagueibaratoapi.utils.EditaRecurso;
 import com.pagueibaratoapi.utils.Senha;
 import com.pagueibaratoapi.utils.Tratamento;
@@ -38,9 +39,13 @@ public class UsuarioController {
     // Iniciando a variável de instância do repositório
     private final UsuarioRepository usuarioRepository;
 
+    // Serviço do usuário, que guarda os usuários em cache para o login e as verificações das escritas.
+    private final UsuarioServiceImpl usuarioService;
+
     // Construtor do controller do usuário, que realizará a injeção de dependência do repositório
-    public UsuarioController(UsuarioRepository usuarioRepository) {
+    public UsuarioController(UsuarioRepository usuarioRepository, UsuarioServiceImpl usuarioService) {
         this.usuarioRepository = usuarioRepository;
+        this.usuarioService = usuarioService;
     }
 
     /**
@@ -65,6 +70,9 @@ public class UsuarioController {
             // Salvando o usuário no banco de dados e armazenando no objeto de resposta ResponseUsuario.
             ResponseUsuario responseUsuario = new ResponseUsuario(usuarioRepository.save(requestUsuario));
 
+            // Removendo do cache as buscas que não encontraram o usuário antes da criação.
+            usuarioService.descartar(responseUsuario.getId(), requestUsuario.getEmail());
+
             // Adicionando à resposta o link para leitura usuário criado.
             responseUsuario.add(
                 linkTo(
@@ -213,6 +221,9 @@ public class UsuarioController {
                 // Lançando exceção informando que o usuário não existe.
                 throw new NoSuchElementException("usuario_nao_encontrado");
 
+            // Guardando o email atual, antes que a edição o altere.
+            String emailAtual = usuarioAtual.getEmail();
+
             // Atualizando o usuário e armazenando num objeto de resposta ResponseUsuario.
             ResponseUsuario responseUsuario = new ResponseUsuario(
                 usuarioRepository.save(
@@ -223,6 +234,9 @@ public class UsuarioController {
                     )
                 )
             );
+
+            // Removendo do cache o usuário, pelo id e pelos emails antigo e novo.
+            usuarioService.descartar(id, emailAtual, requestUsuario.getEmail());
             
             // Adicionando à resposta o link para leitura do usuário criado.
             responseUsuario.add(
@@ -277,17 +291,26 @@ public class UsuarioController {
             // Adicionando ao corpo da requisição o id do recurso que será atualizado.
             requestUsuario.setId(id);
 
+            // Buscando o estado atual do usuário com o id informado.
+            Usuario usuarioAtual = usuarioRepository.findById(id).get();
+
             // Verificando se o usuário com o id informado não foi removido.
-            if(!Tratamento.usuarioExiste(usuarioRepository.findById(id).get()))
+            if(!Tratamento.usuarioExiste(usuarioAtual))
                 // Lançando uma exceção informando que o usuário não existe.
                 throw new NoSuchElementException("usuario_nao_encontrado");
 
+            // Guardando o email atual, antes que a atualização o altere.
+            String emailAtual = usuarioAtual.getEmail();
+
             // Setando a senha que será atualizada como a senha enviada pelo cliente com a criptografia.
             requestUsuario.setSenha(Senha.encriptar(requestUsuario.getSenha()));
 
             // Atualizando o usuário e armazenando o estado atualizado na variável de resposta.
             ResponseUsuario responseUsuario = new ResponseUsuario(usuarioRepository.save(requestUsuario));
 
+            // Removendo do cache o usuário, pelo id e pelos emails antigo e novo.
+            usuarioService.descartar(id, emailAtual, requestUsuario.getEmail());
+
             // Adicionando à resposta o link para leitura do usuário atualizado.
             responseUsuario.add(
                 linkTo(
@@ -337,6 +360,9 @@ public class UsuarioController {
                 // Lançando uma exceção informando que o usuário não existe.
                 throw new NoSuchElementException("usuario_nao_encontrado");
 
+            // Guardando o email do usuário, que será apagado.
+            String emailAtual = usuarioDeletado.getEmail();
+
             /* 
             * Setando todos os atributos do usuário como vazio,
             * haja vista que o usuário será mantido para manter integridade de outros recursos atrelados ao usuário,
@@ -357,6 +383,9 @@ public class UsuarioController {
             // Atualizando o usuário.
             usuarioRepository.save(usuarioDeletado);
 
+            // Removendo do cache o usuário, que não pode mais entrar nem criar recursos.
+            usuarioService.descartar(id, emailAtual);
+
             // Retornando um link para a listagem de todos os usuários.
             return linkTo(
                         methodOn(UsuarioController.class).listar()
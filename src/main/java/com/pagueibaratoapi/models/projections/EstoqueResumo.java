@@ -0,0 +1,17 @@
+package com.pagueibaratoapi.models.projections;
+
+/**
+ * Projeção somente com os dados do estoque exibidos nas respostas de leitura.
+ * Evita carregar a entidade completa, com suas associações, no contexto de persistência.
+ */
+public interface EstoqueResumo {
+
+    public Integer getId();
+
+    public Integer getCriadoPor();
+
+    public Integer getProdutoId();
+
+    public Integer getMercadoId();
+
+}
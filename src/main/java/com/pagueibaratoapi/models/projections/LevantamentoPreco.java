@@ -0,0 +1,41 @@
+package com.pagueibaratoapi.models.projections;
+
+import java.util.Calendar;
+
+/**
+ * Projeção com o resultado agregado das sugestões de preço de um produto.
+ * Os preços são mantidos em centavos, da mesma forma que são armazenados no banco de dados.
+ */
+public interface LevantamentoPreco {
+
+    /**
+     * @return Integer - Id do produto do levantamento.
+     */
+    public Integer getProdutoId();
+
+    /**
+     * @return Long - Quantidade de sugestões encontradas.
+     */
+    public Long getQuantidade();
+
+    /**
+     * @return Long - Soma dos preços sugeridos em centavos.
+     */
+    public Long getSomaCentavos();
+
+    /**
+     * @return Integer - Menor preço sugerido em centavos.
+     */
+    public Integer getMenorCentavos();
+
+    /**
+     * @return Integer - Maior preço sugerido em centavos.
+     */
+    public Integer getMaiorCentavos();
+
+    /**
+     * @return Calendar - Data da sugestão mais recente.
+     */
+    public Calendar getUltimaSugestao();
+
+}
@@ -0,0 +1,29 @@
+package com.pagueibaratoapi.models.projections;
+
+/**
+ * Projeção somente com os dados do mercado exibidos nas respostas de leitura.
+ * Evita carregar a entidade completa, com suas associações, no contexto de persistência.
+ */
+public interface MercadoResumo {
+
+    public Integer getId();
+
+    public String getNome();
+
+    public String getLogradouro();
+
+    public Integer getNumero();
+
+    public String getComplemento();
+
+    public String getBairro();
+
+    public String getCidade();
+
+    public String getUf();
+
+    public String getCep();
+
+    public Integer getRamoId();
+
+}
@@ -0,0 +1,11 @@
+package com.pagueibaratoapi.models.projections;
+
+/**
+ * Projeção com os dados do produto exibidos nas respostas de leitura e o nome da sua categoria,
+ * usada na indexação dos produtos para a busca textual.
+ */
+public interface ProdutoIndexado extends ProdutoResumo {
+
+    public String getCategoria();
+
+}
@@ -0,0 +1,21 @@
+package com.pagueibaratoapi.models.projections;
+
+/**
+ * Projeção somente com os dados do produto exibidos nas respostas de leitura.
+ * Evita carregar a entidade completa, com suas associações, no contexto de persistência.
+ */
+public interface ProdutoResumo {
+
+    public Integer getId();
+
+    public String getNome();
+
+    public String getMarca();
+
+    public String getTamanho();
+
+    public String getCor();
+
+    public Integer getCategoriaId();
+
+}
@@ -0,0 +1,19 @@
+package com.pagueibaratoapi.models.projections;
+
+import java.util.Calendar;
+
+/**
+ * Projeção somente com os dados da sugestão exibidos nas respostas de leitura.
+ * O preço é mantido em centavos, da mesma forma que é armazenado no banco de dados.
+ */
+public interface SugestaoResumo {
+
+    public Integer getId();
+
+    public Float getPreco();
+
+    public Calendar getTimestamp();
+
+    public Integer getEstoqueId();
+
+}
@@ -2,6 +2,7 @@ package com.pagueibaratoapi.models.responses;
 
 import org.springframework.hateoas.RepresentationModel;
 
+import com.pagueibaratoapi.models.projections.EstoqueResumo;
 import com.pagueibaratoapi.models.requests.Estoque;
 
 public class ResponseEstoque extends RepresentationModel<ResponseEstoque> {
@@ -19,6 +20,13 @@ public class ResponseEstoque extends RepresentationModel<ResponseEstoque> {
         this.mercadoId = estoque.getMercadoId();
     }
 
+    public ResponseEstoque(EstoqueResumo resumo) {
+        this.id = resumo.getId();
+        this.criadoPor = resumo.getCriadoPor();
+        this.produtoId = resumo.getProdutoId();
+        this.mercadoId = resumo.getMercadoId();
+    }
+
     public Integer getId() {
         return id;
     }
@@ -2,6 +2,8 @@ package com.pagueibaratoapi.models.responses;
 
 import java.util.Calendar;
 
+import com.pagueibaratoapi.models.projections.LevantamentoPreco;
+import com.pagueibaratoapi.models.projections.ProdutoResumo;
 import com.pagueibaratoapi.models.requests.Produto;
 
 public class ResponseLevantamentoProduto extends ResponseProduto {
@@ -23,6 +25,21 @@ public class ResponseLevantamentoProduto extends ResponseProduto {
         super(produto);
     }
 
+    public ResponseLevantamentoProduto(ProdutoResumo produto, LevantamentoPreco levantamento) {
+        super(produto);
+
+        // Se não houver sugestões para o produto, mantém os valores zerados.
+        if(levantamento == null || levantamento.getQuantidade() == 0)
+            return;
+
+        // Os valores do levantamento estão em centavos e são convertidos para reais somente aqui.
+        this.quantidadeSugestoes = levantamento.getQuantidade().intValue();
+        this.precoMedio = (levantamento.getSomaCentavos() / (float) levantamento.getQuantidade()) / 100;
+        this.menorPreco = levantamento.getMenorCentavos() / 100.0f;
+        this.maiorPreco = levantamento.getMaiorCentavos() / 100.0f;
+        this.dataUltimaSugestao = levantamento.getUltimaSugestao();
+    }
+
     public float getPrecoMedio() {
         return precoMedio;
     }
@@ -2,6 +2,7 @@ package com.pagueibaratoapi.models.responses;
 
 import org.springframework.hateoas.RepresentationModel;
 
+import com.pagueibaratoapi.models.projections.MercadoResumo;
 import com.pagueibaratoapi.models.requests.Mercado;
 
 public class ResponseMercado extends RepresentationModel<ResponseMercado> {
@@ -32,6 +33,19 @@ public class ResponseMercado extends RepresentationModel<ResponseMercado> {
         this.ramoId = mercado.getRamoId();
     }
 
+    public ResponseMercado(MercadoResumo resumo) {
+        this.id = resumo.getId();
+        this.nome = resumo.getNome();
+        this.logradouro = resumo.getLogradouro();
+        this.numero = resumo.getNumero();
+        this.complemento = resumo.getComplemento();
+        this.bairro = resumo.getBairro();
+        this.cidade = resumo.getCidade();
+        this.uf = resumo.getUf();
+        this.cep = resumo.getCep();
+        this.ramoId = resumo.getRamoId();
+    }
+
     public Integer getId() {
         return id;
     }
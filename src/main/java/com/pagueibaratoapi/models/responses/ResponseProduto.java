@@ -2,6 +2,7 @@ package com.pagueibaratoapi.models.responses;
 
 import org.springframework.hateoas.RepresentationModel;
 
+import com.pagueibaratoapi.models.projections.ProdutoResumo;
 import com.pagueibaratoapi.models.requests.Produto;
 
 public class ResponseProduto extends RepresentationModel<ResponseProduto> {
@@ -24,6 +25,15 @@ public class ResponseProduto extends RepresentationModel<ResponseProduto> {
         this.categoriaId = produto.getCategoriaId();
     }
 
+    public ResponseProduto(ProdutoResumo resumo) {
+        this.id = resumo.getId();
+        this.nome = resumo.getNome();
+        this.marca = resumo.getMarca();
+        this.tamanho = resumo.getTamanho();
+        this.cor = resumo.getCor();
+        this.categoriaId = resumo.getCategoriaId();
+    }
+
     public Integer getId() {
         return id;
     }
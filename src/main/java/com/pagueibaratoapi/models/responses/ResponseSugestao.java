@@ -4,6 +4,7 @@ import java.util.Calendar;
 
 import org.springframework.hateoas.RepresentationModel;
 
+import com.pagueibaratoapi.models.projections.SugestaoResumo;
 import com.pagueibaratoapi.models.requests.Sugestao;
 
 public class ResponseSugestao extends RepresentationModel<ResponseSugestao> {
@@ -22,6 +23,13 @@ public class ResponseSugestao extends RepresentationModel<ResponseSugestao> {
         this.estoqueId = sugestao.getEstoqueId();
     }
 
+    public ResponseSugestao(SugestaoResumo resumo) {
+        this.id = resumo.getId();
+        this.preco = resumo.getPreco();
+        this.timestamp = resumo.getTimestamp();
+        this.estoqueId = resumo.getEstoqueId();
+    }
+
     public Integer getId() {
         return id;
     }
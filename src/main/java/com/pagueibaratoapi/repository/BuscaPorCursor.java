@@ -0,0 +1,37 @@
+package com.pagueibaratoapi.repository;
+
+import java.util.Set;
+
+import org.springframework.data.domain.Example;
+
+import com.pagueibaratoapi.models.exceptions.DadosInvalidosException;
+import com.pagueibaratoapi.utils.PaginaCursor;
+
+/**
+ * Fragmento de repositório para paginação por cursor (keyset).
+ * Em vez de descartar os registros das páginas anteriores com OFFSET, a busca parte do último registro lido,
+ * comparando o campo de ordenação e o id, e não executa a consulta de contagem.
+ */
+public interface BuscaPorCursor<T> {
+
+    /**
+     * Busca a página de registros semelhantes ao exemplo informado a partir do cursor.
+     * @param exemplo - Exemplo com os dados de pesquisa para filtragem.
+     * @param cursor - Cursor codificado da página a ser buscada. Se for nulo ou vazio, busca a primeira página.
+     * @param ordenarPor - Campo que servirá de parâmetro para ordenar na primeira página. Nas demais, o campo vem do cursor.
+     * @param ordem - Direção em que os dados serão ordenados entre "asc" e "desc" na primeira página.
+     * @param limite - Número de registros da página.
+     * @param camposPermitidos - Campos não nulos pelos quais o recurso pode ser ordenado.
+     * @return PaginaCursor - Registros da página e os cursores das páginas seguinte e anterior.
+     * @throws DadosInvalidosException - Caso o cursor seja inválido.
+     */
+    public PaginaCursor<T> buscarPorCursor(
+        Example<T> exemplo,
+        String cursor,
+        String ordenarPor,
+        String ordem,
+        Integer limite,
+        Set<String> camposPermitidos
+    ) throws DadosInvalidosException;
+
+}
@@ -0,0 +1,179 @@
+package com.pagueibaratoapi.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Example;
+import org.springframework.data.jpa.convert.QueryByExamplePredicateBuilder;
+
+import com.pagueibaratoapi.models.exceptions.DadosInvalidosException;
+import com.pagueibaratoapi.utils.Cursor;
+import com.pagueibaratoapi.utils.PaginaCursor;
+
+/**
+ * Implementação do fragmento de repositório para paginação por cursor.
+ */
+public class BuscaPorCursorImpl<T> implements BuscaPorCursor<T> {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public PaginaCursor<T> buscarPorCursor(
+        Example<T> exemplo,
+        String cursor,
+        String ordenarPor,
+        String ordem,
+        Integer limite,
+        Set<String> camposPermitidos
+    ) throws DadosInvalidosException {
+
+        // Se o limite for inválido, lança exceção.
+        if(limite == null || limite < 1)
+            throw new DadosInvalidosException("limite_invalido");
+
+        // Decodifica o cursor enviado pelo cliente. Se não houver cursor, é a primeira página.
+        Cursor cursorAtual = (cursor == null || cursor.isBlank()) ? null : Cursor.decodificar(cursor);
+
+        // Na primeira página, o campo e a direção vêm dos parâmetros. Nas demais, vêm do cursor.
+        String campo = cursorAtual != null
+            ? cursorAtual.getCampo()
+            : (ordenarPor != null && camposPermitidos.contains(ordenarPor) ? ordenarPor : "id");
+        boolean ascendente = cursorAtual != null ? cursorAtual.isAscendente() : !"desc".equals(ordem);
+        boolean anterior = cursorAtual != null && cursorAtual.isAnterior();
+
+        // Se o campo do cursor não for permitido, lança exceção.
+        if(!campo.equals("id") && !camposPermitidos.contains(campo))
+            throw new DadosInvalidosException("cursor_invalido");
+
+        // Para buscar a página anterior, a consulta é feita na direção inversa e o resultado é invertido depois.
+        boolean ascendenteConsulta = ascendente != anterior;
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> consulta = criteriaBuilder.createQuery(exemplo.getProbeType());
+        Root<T> root = consulta.from(exemplo.getProbeType());
+
+        Path<Object> campoOrdenacao = root.get(campo);
+        Path<Object> id = root.get("id");
+
+        // Condições da consulta: filtros do exemplo e posição do cursor.
+        List<Predicate> condicoes = new ArrayList<Predicate>();
+
+        Predicate filtro = QueryByExamplePredicateBuilder.getPredicate(root, criteriaBuilder, exemplo);
+
+        if(filtro != null)
+            condicoes.add(filtro);
+
+        if(cursorAtual != null)
+            condicoes.add(
+                posicao(
+                    criteriaBuilder,
+                    campo.equals("id"),
+                    campoOrdenacao,
+                    id,
+                    cursorAtual.getValor(campoOrdenacao.getJavaType()),
+                    cursorAtual.getId(),
+                    ascendenteConsulta
+                )
+            );
+
+        consulta.where(condicoes.toArray(new Predicate[0]));
+
+        // Ordena pelo campo e desempata pelo id, que é único.
+        consulta.orderBy(
+            ascendenteConsulta ? criteriaBuilder.asc(campoOrdenacao) : criteriaBuilder.desc(campoOrdenacao),
+            ascendenteConsulta ? criteriaBuilder.asc(id) : criteriaBuilder.desc(id)
+        );
+
+        // Busca um registro a mais que o limite para saber se existe outra página na direção da busca.
+        // Os registros são somente para leitura, por isso o Hibernate não guarda cópias para verificar alterações.
+        List<T> itens = new ArrayList<T>(
+            entityManager
+                .createQuery(consulta)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .setMaxResults(limite + 1)
+                .getResultList()
+        );
+
+        boolean haMaisRegistros = itens.size() > limite;
+
+        if(haMaisRegistros)
+            itens.remove(itens.size() - 1);
+
+        if(anterior)
+            Collections.reverse(itens);
+
+        // Se não houver registros, não há cursores para as páginas vizinhas.
+        if(itens.isEmpty())
+            return new PaginaCursor<T>(itens, null, null);
+
+        // Existe página seguinte se a busca foi para frente e sobraram registros, ou se a busca foi para trás.
+        String proximoCursor = (anterior || haMaisRegistros)
+            ? criarCursor(itens.get(itens.size() - 1), campo, ascendente, false)
+            : null;
+
+        // Existe página anterior se a busca foi para trás e sobraram registros, ou se a busca partiu de um cursor.
+        String cursorAnterior = (anterior ? haMaisRegistros : cursorAtual != null)
+            ? criarCursor(itens.get(0), campo, ascendente, true)
+            : null;
+
+        return new PaginaCursor<T>(itens, proximoCursor, cursorAnterior);
+    }
+
+    // Monta a condição (campo, id) > (valor, idCursor), ou < na ordem descendente.
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Predicate posicao(
+        CriteriaBuilder criteriaBuilder,
+        boolean ordenadoPeloId,
+        Path<Object> campo,
+        Path<Object> id,
+        Object valor,
+        Integer idCursor,
+        boolean ascendente
+    ) {
+        Expression campoComparavel = campo;
+        Expression idComparavel = id;
+
+        Predicate depoisDoId = ascendente
+            ? criteriaBuilder.greaterThan(idComparavel, idCursor)
+            : criteriaBuilder.lessThan(idComparavel, idCursor);
+
+        if(ordenadoPeloId)
+            return depoisDoId;
+
+        Predicate depoisDoCampo = ascendente
+            ? criteriaBuilder.greaterThan(campoComparavel, (Comparable) valor)
+            : criteriaBuilder.lessThan(campoComparavel, (Comparable) valor);
+
+        return criteriaBuilder.or(
+            depoisDoCampo,
+            criteriaBuilder.and(criteriaBuilder.equal(campo, valor), depoisDoId)
+        );
+    }
+
+    // Cria o cursor codificado a partir do registro de referência.
+    private String criarCursor(T registro, String campo, boolean ascendente, boolean anterior) {
+        BeanWrapperImpl dados = new BeanWrapperImpl(registro);
+
+        return new Cursor(
+            campo,
+            ascendente,
+            anterior,
+            (Integer) dados.getPropertyValue("id"),
+            dados.getPropertyValue(campo)
+        ).codificar();
+    }
+}
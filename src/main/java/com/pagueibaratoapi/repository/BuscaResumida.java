@@ -0,0 +1,43 @@
+package com.pagueibaratoapi.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Fragmento de repositório para leituras por projeção.
+ * A consulta seleciona somente as propriedades da projeção informada, sem criar entidades gerenciadas
+ * no contexto de persistência e sem carregar as associações do recurso.
+ */
+public interface BuscaResumida<T> {
+
+    /**
+     * Busca as projeções dos registros semelhantes ao exemplo informado.
+     * @param exemplo - Exemplo com os dados de pesquisa para filtragem.
+     * @param projecao - Interface de projeção com as propriedades que serão lidas.
+     * @return List - Projeções dos registros encontrados.
+     */
+    public <P> List<P> buscarResumos(Example<T> exemplo, Class<P> projecao);
+
+    /**
+     * Busca as projeções dos registros semelhantes ao exemplo informado, ordenadas pelo banco de dados.
+     * @param exemplo - Exemplo com os dados de pesquisa para filtragem.
+     * @param projecao - Interface de projeção com as propriedades que serão lidas.
+     * @param sort - Ordenação da busca.
+     * @return List - Projeções dos registros encontrados.
+     */
+    public <P> List<P> buscarResumos(Example<T> exemplo, Class<P> projecao, Sort sort);
+
+    /**
+     * Busca somente a página solicitada das projeções dos registros semelhantes ao exemplo informado.
+     * @param exemplo - Exemplo com os dados de pesquisa para filtragem.
+     * @param projecao - Interface de projeção com as propriedades que serão lidas.
+     * @param pageable - Informações de paginação e ordenação da busca.
+     * @return Page - Página de projeções, com o total de registros obtido por uma consulta de contagem.
+     */
+    public <P> Page<P> buscarResumos(Example<T> exemplo, Class<P> projecao, Pageable pageable);
+
+}
@@ -0,0 +1,129 @@
+package com.pagueibaratoapi.repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.convert.QueryByExamplePredicateBuilder;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+/**
+ * Implementação do fragmento de repositório para leituras por projeção.
+ */
+public class BuscaResumidaImpl<T> implements BuscaResumida<T> {
+
+    // Fábrica que cria as projeções a partir dos valores lidos do banco de dados.
+    private static final ProjectionFactory FABRICA_PROJECOES = new SpelAwareProxyProjectionFactory();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public <P> List<P> buscarResumos(Example<T> exemplo, Class<P> projecao) {
+        return buscarResumos(exemplo, projecao, Sort.unsorted());
+    }
+
+    @Override
+    public <P> List<P> buscarResumos(Example<T> exemplo, Class<P> projecao, Sort sort) {
+        return converter(criarConsulta(exemplo, projecao, sort).getResultList(), projecao);
+    }
+
+    @Override
+    public <P> Page<P> buscarResumos(Example<T> exemplo, Class<P> projecao, Pageable pageable) {
+
+        // Busca somente os registros da página solicitada.
+        List<P> itens = converter(
+            criarConsulta(exemplo, projecao, pageable.getSort())
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList(),
+            projecao
+        );
+
+        // Conta os registros semelhantes ao exemplo para obter o total de páginas.
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> contagem = criteriaBuilder.createQuery(Long.class);
+        Root<T> root = contagem.from(exemplo.getProbeType());
+
+        contagem.select(criteriaBuilder.count(root));
+
+        Predicate filtro = QueryByExamplePredicateBuilder.getPredicate(root, criteriaBuilder, exemplo);
+
+        if(filtro != null)
+            contagem.where(filtro);
+
+        return new PageImpl<P>(itens, pageable, entityManager.createQuery(contagem).getSingleResult());
+    }
+
+    // Monta a consulta que seleciona somente as propriedades da projeção.
+    private <P> TypedQuery<Tuple> criarConsulta(Example<T> exemplo, Class<P> projecao, Sort sort) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> consulta = criteriaBuilder.createTupleQuery();
+        Root<T> root = consulta.from(exemplo.getProbeType());
+
+        // Seleciona cada propriedade da projeção com o seu próprio nome como apelido.
+        List<Selection<?>> colunas = new ArrayList<Selection<?>>();
+
+        for(String propriedade : propriedades(projecao))
+            colunas.add(root.get(propriedade).alias(propriedade));
+
+        consulta.multiselect(colunas);
+
+        Predicate filtro = QueryByExamplePredicateBuilder.getPredicate(root, criteriaBuilder, exemplo);
+
+        if(filtro != null)
+            consulta.where(filtro);
+
+        if(sort.isSorted())
+            consulta.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+
+        return entityManager.createQuery(consulta);
+    }
+
+    // Obtém as propriedades lidas pela projeção.
+    private List<String> propriedades(Class<?> projecao) {
+        List<String> propriedades = new ArrayList<String>();
+
+        FABRICA_PROJECOES
+            .getProjectionInformation(projecao)
+            .getInputProperties()
+            .forEach(propriedade -> propriedades.add(propriedade.getName()));
+
+        return propriedades;
+    }
+
+    // Converte as linhas lidas do banco de dados nas projeções.
+    private <P> List<P> converter(List<Tuple> linhas, Class<P> projecao) {
+        List<P> resumos = new ArrayList<P>();
+        List<String> propriedades = propriedades(projecao);
+
+        for(Tuple linha : linhas) {
+            Map<String, Object> valores = new HashMap<String, Object>();
+
+            for(String propriedade : propriedades)
+                valores.put(propriedade, linha.get(propriedade));
+
+            resumos.add(FABRICA_PROJECOES.createProjection(projecao, valores));
+        }
+
+        return resumos;
+    }
+}
@@ -1,11 +1,19 @@
 package com.pagueibaratoapi.repository;
 
+import java.util.List;
+
+import javax.persistence.QueryHint;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.pagueibaratoapi.models.requests.Categoria;
 
 /**
  * Repositório de categorias.
+ * As consultas são guardadas no cache de consultas do Hibernate e invalidadas a cada escrita na tabela.
  */
 public interface CategoriaRepository extends JpaRepository<Categoria, Integer> {
     
@@ -16,11 +24,28 @@ public interface CategoriaRepository extends JpaRepository<Categoria, Integer> {
      */
     public boolean existsById(Integer id);
 
+    /**
+     * Verifica se a categoria existe com base no id, guardando o resultado no cache de consultas.
+     * @param id - Id para verificar.
+     * @return <b>true</b> se o id estiver cadastrado e <b>false</b> se não estiver.
+     */
+    @Query("SELECT CASE WHEN COUNT(c) > 0 THEN true ELSE false END FROM Categoria c WHERE c.id = :id")
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    public boolean existeId(@Param("id") Integer id);
+
     /**
      * Verifica se a categoria existe com base no nome ignorando maiúsculas e minúsculas.
      * @param nome - Nome da categoria para verificar.
      * @return <b>true</b> se o nome estiver cadastrado e <b>false</b> se não estiver.
      */
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     public boolean existsByNomeIgnoreCase(String nome);
 
+    /**
+     * Lista todas as categorias.
+     * @return List&lt;Categoria&gt; - Categorias cadastradas.
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    public List<Categoria> findAll();
+
 }
\ No newline at end of file
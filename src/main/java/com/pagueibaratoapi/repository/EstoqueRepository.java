@@ -1,15 +1,19 @@
 package com.pagueibaratoapi.repository;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.pagueibaratoapi.models.projections.EstoqueResumo;
 import com.pagueibaratoapi.models.requests.Estoque;
 
 /*
  * Repositório de estoque.
  */
-public interface EstoqueRepository extends JpaRepository<Estoque, Integer> {
+public interface EstoqueRepository extends JpaRepository<Estoque, Integer>, BuscaPorCursor<Estoque>, BuscaResumida<Estoque> {
 
     /**
      * Verifica se o estoque existe com base no id.
@@ -18,6 +22,21 @@ public interface EstoqueRepository extends JpaRepository<Estoque, Integer> {
      */
     public boolean existsById(Integer id);
 
+    /**
+     * Busca somente os dados de leitura do estoque com o id informado.
+     * @param id - Id do estoque para buscar.
+     * @return Projeção do estoque encontrado ou vazio caso não exista.
+     */
+    public Optional<EstoqueResumo> findResumoById(Integer id);
+
+    /**
+     * Busca somente o id do produto do estoque informado.
+     * @param id - Id do estoque.
+     * @return Integer - Id do produto do estoque, ou null caso o estoque não exista ou não tenha produto.
+     */
+    @Query("SELECT e.produtoId FROM Estoque e WHERE e.id = :id")
+    public Integer findProdutoIdById(@Param("id") Integer id);
+
     /**
      * Busca estoques que possuem o id de produto informado.
      * @param produtoId - Id do produto para buscar.
@@ -40,4 +59,20 @@ public interface EstoqueRepository extends JpaRepository<Estoque, Integer> {
      */
     public Estoque findByProdutoIdAndMercadoId(Integer produtoId, Integer mercadoId);
 
+    /**
+     * Busca somente os dados de leitura do estoque que associa o produto ao mercado informados.
+     * @param produtoId - Id do produto para buscar.
+     * @param mercadoId - Id do mercado para buscar.
+     * @return Projeção do estoque encontrado ou null.
+     */
+    public EstoqueResumo findResumoByProdutoIdAndMercadoId(Integer produtoId, Integer mercadoId);
+
+    /**
+     * Verifica se existe um estoque com o id de produto e o id de mercado informados.
+     * @param produtoId - Id do produto para verificar.
+     * @param mercadoId - Id do mercado para verificar.
+     * @return <b>true</b> se o produto estiver no estoque do mercado e <b>false</b> se não estiver.
+     */
+    public boolean existsByProdutoIdAndMercadoId(Integer produtoId, Integer mercadoId);
+
 }
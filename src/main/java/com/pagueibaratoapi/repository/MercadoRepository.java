@@ -1,15 +1,22 @@
 package com.pagueibaratoapi.repository;
 
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.pagueibaratoapi.models.projections.MercadoResumo;
 import com.pagueibaratoapi.models.requests.Mercado;
 
 /**
  * Repositório de mercados.
  */
-public interface MercadoRepository extends JpaRepository<Mercado, Integer> {
+public interface MercadoRepository extends JpaRepository<Mercado, Integer>, BuscaResumida<Mercado> {
 
     /**
      * Verifica se o mercado existe com base no id.
@@ -18,6 +25,13 @@ public interface MercadoRepository extends JpaRepository<Mercado, Integer> {
      */
     public boolean existsById(Integer id);
 
+    /**
+     * Busca somente os dados de leitura do mercado com o id informado.
+     * @param id - Id do mercado para buscar.
+     * @return Projeção do mercado encontrado ou vazio caso não exista.
+     */
+    public Optional<MercadoResumo> findResumoById(Integer id);
+
     /**
      * Verifica se o mercado existe com base no nome ignorando maiúsculas e minúsculas.
      * @param nome - Nome do mercado para verificar.
@@ -47,4 +61,33 @@ public interface MercadoRepository extends JpaRepository<Mercado, Integer> {
         @Param("cep") String cep
     );
 
-}
\ No newline at end of file
+    /**
+     * Busca, em uma única consulta por projeção, todos os mercados que possuem o produto informado em estoque.
+     * @param produtoId - Id do produto para buscar.
+     * @return Lista de mercados que possuem o produto.
+     */
+    @Query("SELECT m.id AS id, m.nome AS nome, m.logradouro AS logradouro, m.numero AS numero, m.complemento AS complemento, m.bairro AS bairro, m.cidade AS cidade, m.uf AS uf, m.cep AS cep, m.ramoId AS ramoId FROM Mercado m JOIN m.estoques e WHERE e.produtoId = :produtoId")
+    public List<MercadoResumo> findByProdutoId(@Param("produtoId") Integer produtoId);
+
+    /**
+     * Busca, em uma única consulta ordenada pelo banco de dados, todos os mercados que possuem o produto informado em estoque.
+     * @param produtoId - Id do produto para buscar.
+     * @param sort - Ordenação da busca.
+     * @return Lista ordenada de mercados que possuem o produto.
+     */
+    @Query("SELECT m.id AS id, m.nome AS nome, m.logradouro AS logradouro, m.numero AS numero, m.complemento AS complemento, m.bairro AS bairro, m.cidade AS cidade, m.uf AS uf, m.cep AS cep, m.ramoId AS ramoId FROM Mercado m JOIN m.estoques e WHERE e.produtoId = :produtoId")
+    public List<MercadoResumo> findByProdutoId(@Param("produtoId") Integer produtoId, Sort sort);
+
+    /**
+     * Busca somente a página solicitada dos mercados que possuem o produto informado em estoque.
+     * @param produtoId - Id do produto para buscar.
+     * @param pageable - Informações de paginação e ordenação da busca.
+     * @return Página de mercados que possuem o produto, com o total de registros obtido por uma consulta de contagem.
+     */
+    @Query(
+        value = "SELECT m.id AS id, m.nome AS nome, m.logradouro AS logradouro, m.numero AS numero, m.complemento AS complemento, m.bairro AS bairro, m.cidade AS cidade, m.uf AS uf, m.cep AS cep, m.ramoId AS ramoId FROM Mercado m JOIN m.estoques e WHERE e.produtoId = :produtoId",
+        countQuery = "SELECT COUNT(e) FROM Estoque e WHERE e.produtoId = :produtoId"
+    )
+    public Page<MercadoResumo> findByProdutoId(@Param("produtoId") Integer produtoId, Pageable pageable);
+
+}
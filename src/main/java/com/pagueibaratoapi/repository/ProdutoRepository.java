@@ -1,15 +1,23 @@
 package com.pagueibaratoapi.repository;
 
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.pagueibaratoapi.models.projections.ProdutoIndexado;
+import com.pagueibaratoapi.models.projections.ProdutoResumo;
 import com.pagueibaratoapi.models.requests.Produto;
 
 /**
  * Repositório de produtos.
  */
-public interface ProdutoRepository extends JpaRepository<Produto, Integer> {
+public interface ProdutoRepository extends JpaRepository<Produto, Integer>, BuscaPorCursor<Produto>, BuscaResumida<Produto> {
     
     /**
      * Verifica se o produto existe com base no id.
@@ -18,6 +26,13 @@ public interface ProdutoRepository extends JpaRepository<Produto, Integer> {
      */
     public boolean existsById(Integer id);
 
+    /**
+     * Busca somente os dados de leitura do produto com o id informado.
+     * @param id - Id do produto para buscar.
+     * @return Projeção do produto encontrado ou vazio caso não exista.
+     */
+    public Optional<ProdutoResumo> findResumoById(Integer id);
+
     /**
      * Busca produtos que possuem as mesmas características do produto informado.
      * @param nome - Nome do produto para buscar.
@@ -33,4 +48,58 @@ public interface ProdutoRepository extends JpaRepository<Produto, Integer> {
         @Param("tamanho") String tamanho, 
         @Param("cor") String cor
     );
-}
\ No newline at end of file
+
+    /**
+     * Busca, em uma única consulta por projeção, todos os produtos que estão no estoque do mercado informado.
+     * @param mercadoId - Id do mercado para buscar.
+     * @return Lista de produtos do mercado.
+     */
+    @Query("SELECT p.id AS id, p.nome AS nome, p.marca AS marca, p.tamanho AS tamanho, p.cor AS cor, p.categoriaId AS categoriaId FROM Produto p JOIN p.estoques e WHERE e.mercadoId = :mercadoId")
+    public List<ProdutoResumo> findByMercadoId(@Param("mercadoId") Integer mercadoId);
+
+    /**
+     * Busca, em uma única consulta ordenada pelo banco de dados, todos os produtos que estão no estoque do mercado informado.
+     * @param mercadoId - Id do mercado para buscar.
+     * @param sort - Ordenação da busca.
+     * @return Lista ordenada de produtos do mercado.
+     */
+    @Query("SELECT p.id AS id, p.nome AS nome, p.marca AS marca, p.tamanho AS tamanho, p.cor AS cor, p.categoriaId AS categoriaId FROM Produto p JOIN p.estoques e WHERE e.mercadoId = :mercadoId")
+    public List<ProdutoResumo> findByMercadoId(@Param("mercadoId") Integer mercadoId, Sort sort);
+
+    /**
+     * Busca somente a página solicitada dos produtos que estão no estoque do mercado informado.
+     * @param mercadoId - Id do mercado para buscar.
+     * @param pageable - Informações de paginação da busca.
+     * @return Página de produtos do mercado, com o total de registros obtido por uma consulta de contagem.
+     */
+    @Query(
+        value = "SELECT p.id AS id, p.nome AS nome, p.marca AS marca, p.tamanho AS tamanho, p.cor AS cor, p.categoriaId AS categoriaId FROM Produto p JOIN p.estoques e WHERE e.mercadoId = :mercadoId",
+        countQuery = "SELECT COUNT(e) FROM Estoque e WHERE e.mercadoId = :mercadoId"
+    )
+    public Page<ProdutoResumo> findByMercadoId(@Param("mercadoId") Integer mercadoId, Pageable pageable);
+
+    /**
+     * Busca os dados indexados na busca textual do produto com o id informado.
+     * @param id - Id do produto para buscar.
+     * @return Projeção do produto, com o nome da categoria, ou vazio caso não exista.
+     */
+    @Query("SELECT p.id AS id, p.nome AS nome, p.marca AS marca, p.tamanho AS tamanho, p.cor AS cor, p.categoriaId AS categoriaId, c.nome AS categoria FROM Produto p LEFT JOIN p.categoria c WHERE p.id = :id")
+    public Optional<ProdutoIndexado> findIndexadoById(@Param("id") Integer id);
+
+    /**
+     * Busca, em ordem de id, os dados indexados na busca textual dos produtos seguintes ao id informado.
+     * @param ultimoId - Último id já lido, ou zero para começar do primeiro produto.
+     * @param pageable - Quantidade de produtos buscados.
+     * @return Lista de produtos, com o nome da categoria.
+     */
+    @Query("SELECT p.id AS id, p.nome AS nome, p.marca AS marca, p.tamanho AS tamanho, p.cor AS cor, p.categoriaId AS categoriaId, c.nome AS categoria FROM Produto p LEFT JOIN p.categoria c WHERE p.id > :ultimoId ORDER BY p.id")
+    public List<ProdutoIndexado> findIndexadosAposId(@Param("ultimoId") Integer ultimoId, Pageable pageable);
+
+    /**
+     * Busca os dados indexados na busca textual dos produtos da categoria informada.
+     * @param categoriaId - Id da categoria para buscar.
+     * @return Lista de produtos da categoria, com o nome da categoria.
+     */
+    @Query("SELECT p.id AS id, p.nome AS nome, p.marca AS marca, p.tamanho AS tamanho, p.cor AS cor, p.categoriaId AS categoriaId, c.nome AS categoria FROM Produto p JOIN p.categoria c WHERE p.categoriaId = :categoriaId")
+    public List<ProdutoIndexado> findIndexadosByCategoriaId(@Param("categoriaId") Integer categoriaId);
+}
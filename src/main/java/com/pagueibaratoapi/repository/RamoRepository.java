@@ -1,11 +1,20 @@
 package com.pagueibaratoapi.repository;
 
+import java.util.List;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Example;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.pagueibaratoapi.models.requests.Ramo;
 
 /**
  * Repositório de ramos.
+ * As consultas são guardadas no cache de consultas do Hibernate e invalidadas a cada escrita na tabela.
  */
 public interface RamoRepository extends JpaRepository<Ramo, Integer> {
     
@@ -16,11 +25,29 @@ public interface RamoRepository extends JpaRepository<Ramo, Integer> {
      */
     public boolean existsById(Integer id);
 
+    /**
+     * Verifica se o ramo existe com base no id, guardando o resultado no cache de consultas.
+     * @param id - Id para verificar.
+     * @return <b>true</b> se o id estiver cadastrado e <b>false</b> se não estiver.
+     */
+    @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM Ramo r WHERE r.id = :id")
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    public boolean existeId(@Param("id") Integer id);
+
     /**
      * Verifica se o ramo existe com base no nome ignorando maiúsculas e minúsculas.
      * @param nome - Nome do ramo para verificar.
      * @return <b>true</b> se o nome estiver cadastrado e <b>false</b> se não estiver.
      */
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     public boolean existsByNomeIgnoreCase(String nome);
 
-}
+    /**
+     * Lista os ramos semelhantes ao exemplo.
+     * @param exemplo - Exemplo com os campos para filtrar.
+     * @return List&lt;Ramo&gt; - Ramos encontrados.
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    public <S extends Ramo> List<S> findAll(Example<S> exemplo);
+
+}
\ No newline at end of file
@@ -1,15 +1,31 @@
 package com.pagueibaratoapi.repository;
 
+import java.util.Calendar;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.pagueibaratoapi.models.projections.LevantamentoPreco;
+import com.pagueibaratoapi.models.projections.SugestaoResumo;
 import com.pagueibaratoapi.models.requests.Sugestao;
 
 /*
  * Repositório de sugestões.
  */
-public interface SugestaoRepository extends JpaRepository<Sugestao, Integer> {
+public interface SugestaoRepository extends JpaRepository<Sugestao, Integer>, BuscaPorCursor<Sugestao>, BuscaResumida<Sugestao> {
+
+    /**
+     * Busca somente os dados de leitura da sugestão com o id informado.
+     * @param id - Id da sugestão para buscar.
+     * @return Projeção da sugestão encontrada ou vazio caso não exista.
+     */
+    public Optional<SugestaoResumo> findResumoById(Integer id);
 
     /**
      * Busca as sugestões que possuem o id de estoque informado.
@@ -18,4 +34,112 @@ public interface SugestaoRepository extends JpaRepository<Sugestao, Integer> {
      */
     public List<Sugestao> findByEstoqueId(Integer estoqueId);
 
-}
\ No newline at end of file
+    /**
+     * Busca as sugestões que possuem o id de estoque informado, ordenadas pelo banco de dados.
+     * @param estoqueId - Id do estoque para buscar.
+     * @param sort - Ordenação da busca.
+     * @return Lista ordenada de sugestões.
+     */
+    public List<Sugestao> findByEstoqueId(Integer estoqueId, Sort sort);
+
+    /**
+     * Busca somente a página solicitada das sugestões que possuem o id de estoque informado.
+     * @param estoqueId - Id do estoque para buscar.
+     * @param pageable - Informações de paginação da busca.
+     * @return Página de sugestões, com o total de registros obtido por uma consulta de contagem.
+     */
+    public Page<Sugestao> findByEstoqueId(Integer estoqueId, Pageable pageable);
+
+    /**
+     * Busca, em uma única consulta por projeção, as sugestões do produto informado no mercado informado.
+     * @param mercadoId - Id do mercado para buscar.
+     * @param produtoId - Id do produto para buscar.
+     * @return Lista de sugestões.
+     */
+    @Query("SELECT s.id AS id, s.preco AS preco, s.timestamp AS timestamp, s.estoqueId AS estoqueId FROM Sugestao s JOIN s.estoque e WHERE e.mercadoId = :mercadoId AND e.produtoId = :produtoId")
+    public List<SugestaoResumo> findByMercadoIdAndProdutoId(
+        @Param("mercadoId") Integer mercadoId,
+        @Param("produtoId") Integer produtoId
+    );
+
+    /**
+     * Busca, em uma única consulta ordenada pelo banco de dados, as sugestões do produto informado no mercado informado.
+     * @param mercadoId - Id do mercado para buscar.
+     * @param produtoId - Id do produto para buscar.
+     * @param sort - Ordenação da busca.
+     * @return Lista ordenada de sugestões.
+     */
+    @Query("SELECT s.id AS id, s.preco AS preco, s.timestamp AS timestamp, s.estoqueId AS estoqueId FROM Sugestao s JOIN s.estoque e WHERE e.mercadoId = :mercadoId AND e.produtoId = :produtoId")
+    public List<SugestaoResumo> findByMercadoIdAndProdutoId(
+        @Param("mercadoId") Integer mercadoId,
+        @Param("produtoId") Integer produtoId,
+        Sort sort
+    );
+
+    /**
+     * Busca somente a página solicitada das sugestões do produto informado no mercado informado.
+     * @param mercadoId - Id do mercado para buscar.
+     * @param produtoId - Id do produto para buscar.
+     * @param pageable - Informações de paginação e ordenação da busca.
+     * @return Página de sugestões, com o total de registros obtido por uma consulta de contagem.
+     */
+    @Query(
+        value = "SELECT s.id AS id, s.preco AS preco, s.timestamp AS timestamp, s.estoqueId AS estoqueId FROM Sugestao s JOIN s.estoque e WHERE e.mercadoId = :mercadoId AND e.produtoId = :produtoId",
+        countQuery = "SELECT COUNT(s) FROM Sugestao s JOIN s.estoque e WHERE e.mercadoId = :mercadoId AND e.produtoId = :produtoId"
+    )
+    public Page<SugestaoResumo> findByMercadoIdAndProdutoId(
+        @Param("mercadoId") Integer mercadoId,
+        @Param("produtoId") Integer produtoId,
+        Pageable pageable
+    );
+
+    /**
+     * Calcula, em uma única consulta agrupada, o levantamento de preços das sugestões de todos os estoques do produto informado.
+     * @param produtoId - Id do produto para calcular o levantamento.
+     * @return LevantamentoPreco - Quantidade, soma, menor e maior preço em centavos e data da última sugestão, ou null caso não haja sugestões.
+     */
+    @Query(
+        "SELECT e.produtoId AS produtoId, " +
+        "COUNT(s.id) AS quantidade, " +
+        "SUM(CAST(s.preco AS long)) AS somaCentavos, " +
+        "MIN(CAST(s.preco AS integer)) AS menorCentavos, " +
+        "MAX(CAST(s.preco AS integer)) AS maiorCentavos, " +
+        "MAX(s.timestamp) AS ultimaSugestao " +
+        "FROM Sugestao s JOIN s.estoque e " +
+        "WHERE e.produtoId = :produtoId " +
+        "GROUP BY e.produtoId"
+    )
+    public LevantamentoPreco levantamentoPorProduto(@Param("produtoId") Integer produtoId);
+
+    /**
+     * Calcula, em uma única consulta agrupada, o levantamento de preços de todos os produtos que possuem sugestões.
+     * @return List&lt;LevantamentoPreco&gt; - Levantamento de cada produto, com o id do produto.
+     */
+    @Query(
+        "SELECT e.produtoId AS produtoId, " +
+        "COUNT(s.id) AS quantidade, " +
+        "SUM(CAST(s.preco AS long)) AS somaCentavos, " +
+        "MIN(CAST(s.preco AS integer)) AS menorCentavos, " +
+        "MAX(CAST(s.preco AS integer)) AS maiorCentavos, " +
+        "MAX(s.timestamp) AS ultimaSugestao " +
+        "FROM Sugestao s JOIN s.estoque e " +
+        "WHERE e.produtoId IS NOT NULL " +
+        "GROUP BY e.produtoId"
+    )
+    public List<LevantamentoPreco> levantamentos();
+
+    /**
+     * Busca os produtos que receberam mais sugestões a partir da data informada, usados no aquecimento do cache.
+     * @param desde - Data a partir da qual as sugestões são contadas.
+     * @param pageable - Quantidade de produtos buscados.
+     * @return List&lt;Integer&gt; - Ids dos produtos, do mais sugerido para o menos sugerido.
+     */
+    @Query(
+        "SELECT e.produtoId FROM Sugestao s JOIN s.estoque e " +
+        "WHERE e.produtoId IS NOT NULL AND s.timestamp >= :desde " +
+        "GROUP BY e.produtoId " +
+        "ORDER BY COUNT(s.id) DESC, e.produtoId"
+    )
+    public List<Integer> findProdutoIdMaisSugeridos(@Param("desde") Calendar desde, Pageable pageable);
+
+}
@@ -1,5 +1,7 @@
 package com.pagueibaratoapi.security;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -32,6 +34,9 @@ public class JWTConfig {
     // Chave secreta para gerar o token.
     private final String SEGREDO;
 
+    // Emails dos administradores, que podem acessar as rotas de administração (/actuator).
+    private final List<String> administradores;
+
     // Serviço do usuário.
     private final UsuarioServiceImpl usuarioServiceImpl;
 
@@ -42,10 +47,12 @@ public class JWTConfig {
     public JWTConfig(
         @Value("${pagueibarato.config.token.expiration}") long expiraEm,
         @Value("${pagueibarato.config.token.secret.key}") String segredo,
+        @Value("${pagueibarato.config.administradores:}") List<String> administradores,
         UsuarioServiceImpl usuarioServiceImpl
     ) {
         this.EXPIRA_EM = expiraEm;
         this.SEGREDO = segredo;
+        this.administradores = administradores;
         this.usuarioServiceImpl = usuarioServiceImpl;
     }
 
@@ -87,6 +94,10 @@ public class JWTConfig {
             .antMatchers(HttpMethod.GET, "/ramo/**").permitAll()
             .antMatchers(HttpMethod.GET, "/sugestao/**").permitAll()
             .antMatchers(HttpMethod.GET, "/").permitAll()
+            .antMatchers(HttpMethod.GET, "/actuator/health/**").permitAll()
+
+            // Permite as demais rotas de administração (estatísticas e remoções do cache) somente aos administradores.
+            .antMatchers("/actuator/**").hasRole("ADMIN")
 
             // Bloqueia qualquer outra requisição de qualquer outra rota.
             .anyRequest().authenticated()
@@ -103,6 +114,7 @@ public class JWTConfig {
             ))
             .addFilter(new JWTValidateFilter(
                 SEGREDO,
+                administradores,
                 authenticationManager
             ))
 
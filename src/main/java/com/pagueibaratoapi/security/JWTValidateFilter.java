@@ -1,6 +1,9 @@
 package com.pagueibaratoapi.security;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -10,6 +13,7 @@ import javax.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
@@ -22,13 +26,21 @@ public class JWTValidateFilter extends BasicAuthenticationFilter {
     // Chave secreta para gerar o token.
     private final String SEGREDO;
 
+    // Emails dos administradores, em minúsculas, que recebem o nível de acesso ADMIN.
+    private final Set<String> administradores;
+
     // Construtor.
     public JWTValidateFilter(
         @Value("${pagueibarato.config.token.secret.key}") String segredo,
+        @Value("${pagueibarato.config.administradores:}") List<String> administradores,
         AuthenticationManager authenticationManager
     ) {
         super(authenticationManager);
         this.SEGREDO = segredo;
+        this.administradores = administradores.stream()
+            .map(email -> email.trim().toLowerCase())
+            .filter(email -> !email.isEmpty())
+            .collect(Collectors.toSet());
     }
 
     // Inclui uma etapa na cadeia de eventos de autenticação.
@@ -76,6 +88,10 @@ public class JWTValidateFilter extends BasicAuthenticationFilter {
         if(usuario == null)
             return null;
 
+        // Os administradores recebem o nível de acesso das rotas de administração (/actuator).
+        if(administradores.contains(usuario.toLowerCase()))
+            return new UsernamePasswordAuthenticationToken(usuario, null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
         // Retorna o token JWT autenticado.
         return new UsernamePasswordAuthenticationToken(usuario, null, null);
     }
@@ -0,0 +1,551 @@
+package com.pagueibaratoapi.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.StopFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.pt.PortugueseAnalyzer;
+import org.apache.lucene.analysis.pt.PortugueseLightStemFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.PointValues;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.DisjunctionMaxQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopScoreDocCollector;
+import org.apache.lucene.search.similarities.BM25Similarity;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.MMapDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.pagueibaratoapi.cache.BarramentoInvalidacao;
+import com.pagueibaratoapi.cache.Invalidacao;
+import com.pagueibaratoapi.models.projections.ProdutoIndexado;
+import com.pagueibaratoapi.models.projections.ProdutoResumo;
+import com.pagueibaratoapi.repository.ProdutoRepository;
+
+/**
+ * Classe de serviço da busca textual de produtos, feita em um índice invertido do Lucene mantido pela aplicação.
+ * <P>
+ * O nome, a marca, o tamanho e a categoria de cada produto são indexados com a análise do português: letras
+ * minúsculas, sem acentos e sem palavras vazias ("de", "com"), reduzidas ao radical ("pães", "pão" e "pao" são o mesmo
+ * termo). Os resultados são ordenados pela relevância (BM25), com peso maior para os termos encontrados no nome.
+ * Os dados exibidos também ficam no índice, então a busca não consulta o banco.
+ * </P>
+ * <P>
+ * O índice fica somente em memória, ou no diretório configurado em pagueibarato.config.busca.diretorio, lido por
+ * mapeamento de memória, que deve ser exclusivo de cada instância. Ele é reconstruído na inicialização e atualizado a
+ * cada escrita de produto, nesta instância pelos controllers. As escritas das outras instâncias chegam pelo
+ * {@link BarramentoInvalidacao} e são aplicadas antes da próxima busca, sem consultar o banco a cada invalidação recebida.
+ * Quando o índice inteiro precisa ser reconstruído, a reconstrução é feita em segundo plano e as buscas continuam
+ * usando o índice atual até o fim dela.
+ * </P>
+ */
+@Component
+public class BuscaProdutoService implements AutoCloseable {
+
+    // Região do cache cujas remoções indicam os produtos escritos pelas outras instâncias.
+    private static final String REGIAO = "produtos";
+
+    // Região do cache das categorias, limpa a cada escrita de categoria.
+    private static final String REGIAO_CATEGORIAS = "categorias";
+
+    // Quantidade de produtos lidos do banco por consulta na reconstrução do índice.
+    private static final int LOTE_RECONSTRUCAO = 1000;
+
+    // Campos do índice.
+    private static final String ID = "id";
+    private static final String NOME = "nome";
+    private static final String MARCA = "marca";
+    private static final String TAMANHO = "tamanho";
+    private static final String CATEGORIA = "categoria";
+    private static final String COR = "cor";
+    private static final String CATEGORIA_ID = "categoriaId";
+    private static final String RECONSTRUCAO = "reconstrucao";
+
+    // Peso de cada campo buscado.
+    private static final String[] CAMPOS = { NOME, MARCA, CATEGORIA, TAMANHO };
+    private static final float[] PESOS = { 3f, 2f, 1.5f, 1f };
+
+    private final ProdutoRepository produtoRepository;
+
+    private final Analyzer analisador = new AnalisadorPortugues();
+    private final Directory diretorio;
+    private final IndexWriter escritor;
+    private final SearcherManager leitores;
+
+    // Trava das escritas no índice. A leitura do produto no banco e a sua escrita no índice são feitas juntas,
+    // para que uma reconstrução nunca grave um produto mais antigo do que o gravado por uma escrita simultânea.
+    private final ReentrantLock trava = new ReentrantLock();
+
+    // Número da reconstrução atual, gravado em cada produto indexado.
+    private long reconstrucao;
+
+    // Produtos escritos pelas outras instâncias e se o índice inteiro deve ser reconstruído, aplicados na próxima busca.
+    private final Set<Integer> pendentes = ConcurrentHashMap.newKeySet();
+    private volatile boolean desatualizado;
+
+    // Thread das reconstruções pedidas pelas outras instâncias e se já há uma reconstrução agendada que não começou.
+    private final ExecutorService reconstrutor = Executors.newSingleThreadExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "busca-produtos-reconstrucao");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean reconstrucaoAgendada = new AtomicBoolean();
+
+    // Construtor. Abre o índice no diretório configurado, criando-o se não existir.
+    public BuscaProdutoService(
+        ProdutoRepository produtoRepository,
+        BarramentoInvalidacao barramento,
+        @Value("${pagueibarato.config.busca.diretorio:}") String diretorio
+    ) {
+        this.produtoRepository = produtoRepository;
+
+        try {
+            this.diretorio = diretorio.isBlank() ? new ByteBuffersDirectory() : new MMapDirectory(Path.of(diretorio));
+            this.escritor = new IndexWriter(
+                this.diretorio,
+                new IndexWriterConfig(analisador)
+                    .setSimilarity(new BM25Similarity())
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+            );
+            this.leitores = new SearcherManager(escritor, new SearcherFactory() {
+                @Override
+                public IndexSearcher newSearcher(IndexReader leitor, IndexReader anterior) {
+                    IndexSearcher buscador = new IndexSearcher(leitor);
+                    buscador.setSimilarity(new BM25Similarity());
+                    return buscador;
+                }
+            });
+
+            // Continua a numeração das reconstruções gravadas no diretório, para que a primeira reconstrução remova os
+            // produtos que deixaram de existir enquanto a instância estava parada.
+            this.reconstrucao = ultimaReconstrucao();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        barramento.aoReceber(this::receber);
+    }
+
+    /**
+     * Reconstrói o índice com todos os produtos do banco, lidos em lotes pela ordem do id.
+     * Os produtos continuam sendo encontrados durante a reconstrução. Ao fim, são removidos os que não existem mais.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        long atual;
+
+        trava.lock();
+
+        try {
+            atual = ++reconstrucao;
+        } finally {
+            trava.unlock();
+        }
+
+        Integer ultimoId = 0;
+
+        while(true) {
+            List<ProdutoIndexado> produtos;
+
+            trava.lock();
+
+            try {
+                produtos = produtoRepository.findIndexadosAposId(ultimoId, PageRequest.of(0, LOTE_RECONSTRUCAO));
+
+                for(ProdutoIndexado produto : produtos)
+                    gravar(produto);
+            } finally {
+                trava.unlock();
+            }
+
+            if(produtos.size() < LOTE_RECONSTRUCAO)
+                break;
+
+            ultimoId = produtos.get(produtos.size() - 1).getId();
+        }
+
+        try {
+            // Os produtos não gravados por esta reconstrução, nem por escritas feitas durante ela, foram removidos.
+            escritor.deleteDocuments(LongPoint.newRangeQuery(RECONSTRUCAO, Long.MIN_VALUE, atual - 1));
+            escritor.commit();
+            leitores.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Atualiza o produto no índice com os dados do banco, ou o remove do índice se ele não existir mais.
+     * @param produtoId - Id do produto escrito.
+     */
+    public void indexar(Integer produtoId) {
+        trava.lock();
+
+        try {
+            ProdutoIndexado produto = produtoRepository.findIndexadoById(produtoId).orElse(null);
+
+            if(produto != null)
+                gravar(produto);
+            else
+                escritor.deleteDocuments(new Term(ID, String.valueOf(produtoId)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            trava.unlock();
+        }
+
+        atualizarLeitores();
+    }
+
+    /**
+     * Atualiza no índice todos os produtos da categoria, cujo nome foi alterado.
+     * @param categoriaId - Id da categoria alterada.
+     */
+    public void indexarCategoria(Integer categoriaId) {
+        trava.lock();
+
+        try {
+            for(ProdutoIndexado produto : produtoRepository.findIndexadosByCategoriaId(categoriaId))
+                gravar(produto);
+        } finally {
+            trava.unlock();
+        }
+
+        atualizarLeitores();
+    }
+
+    /**
+     * Remove o produto do índice.
+     * @param produtoId - Id do produto removido.
+     */
+    public void remover(Integer produtoId) {
+        trava.lock();
+
+        try {
+            escritor.deleteDocuments(new Term(ID, String.valueOf(produtoId)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            trava.unlock();
+        }
+
+        atualizarLeitores();
+    }
+
+    /**
+     * Busca os produtos pelo texto informado, ordenados pela relevância.
+     * @param texto - Texto da busca, com um ou mais termos.
+     * @param pagina - Número da página, começando em zero.
+     * @param limite - Quantidade de produtos por página.
+     * @return Resultado - Produtos da página e o total de produtos encontrados.
+     */
+    public Resultado buscar(String texto, int pagina, int limite) {
+        aplicarPendentes();
+
+        Query consulta = consulta(texto);
+
+        if(consulta == null)
+            return new Resultado(new ArrayList<ProdutoResumo>(), 0);
+
+        IndexSearcher buscador = null;
+
+        try {
+            buscador = leitores.acquire();
+
+            // Páginas depois do último produto do índice não possuem produtos, somente o total é contado.
+            long inicio = (long) pagina * limite;
+            int maximo = buscador.getIndexReader().maxDoc();
+
+            if(inicio >= maximo)
+                return new Resultado(new ArrayList<ProdutoResumo>(), buscador.count(consulta));
+
+            // O total é contado de forma exata, para o cálculo da quantidade de páginas. O coletor nunca guarda mais
+            // produtos do que os existentes no índice.
+            TopScoreDocCollector coletor = TopScoreDocCollector.create((int) Math.min(inicio + limite, maximo), Integer.MAX_VALUE);
+            buscador.search(consulta, coletor);
+
+            TopDocs encontrados = coletor.topDocs((int) inicio, limite);
+            List<ProdutoResumo> produtos = new ArrayList<ProdutoResumo>(encontrados.scoreDocs.length);
+
+            for(ScoreDoc encontrado : encontrados.scoreDocs)
+                produtos.add(produto(buscador.doc(encontrado.doc)));
+
+            return new Resultado(produtos, (int) encontrados.totalHits.value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            liberar(buscador);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reconstrutor.shutdownNow();
+        leitores.close();
+        escritor.close();
+        diretorio.close();
+    }
+
+    // Cada termo do texto deve ser encontrado em algum campo, valendo a pontuação do campo de maior peso.
+    // Em buscas com quatro termos ou mais, um a cada quatro termos pode faltar.
+    private Query consulta(String texto) {
+        List<String> termos = termos(texto);
+
+        if(termos.isEmpty())
+            return null;
+
+        BooleanQuery.Builder consulta = new BooleanQuery.Builder();
+
+        for(String termo : termos) {
+            List<Query> campos = new ArrayList<Query>(CAMPOS.length);
+
+            for(int i = 0; i < CAMPOS.length; i++)
+                campos.add(new BoostQuery(new TermQuery(new Term(CAMPOS[i], termo)), PESOS[i]));
+
+            consulta.add(new DisjunctionMaxQuery(campos, 0.1f), BooleanClause.Occur.SHOULD);
+        }
+
+        return consulta.setMinimumNumberShouldMatch(termos.size() - termos.size() / 4).build();
+    }
+
+    // Termos do texto após a análise, sem repetições.
+    private List<String> termos(String texto) {
+        List<String> termos = new ArrayList<String>();
+
+        try(TokenStream fluxo = analisador.tokenStream(NOME, texto)) {
+            CharTermAttribute termo = fluxo.addAttribute(CharTermAttribute.class);
+            fluxo.reset();
+
+            while(fluxo.incrementToken())
+                if(!termos.contains(termo.toString()))
+                    termos.add(termo.toString());
+
+            fluxo.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return termos;
+    }
+
+    // Grava o produto no índice, substituindo a versão anterior. Deve ser chamado com a trava.
+    private void gravar(ProdutoIndexado produto) {
+        Document documento = new Document();
+
+        documento.add(new StringField(ID, String.valueOf(produto.getId()), Field.Store.YES));
+        documento.add(new LongPoint(RECONSTRUCAO, reconstrucao));
+
+        adicionar(documento, NOME, produto.getNome(), Field.Store.YES);
+        adicionar(documento, MARCA, produto.getMarca(), Field.Store.YES);
+        adicionar(documento, TAMANHO, produto.getTamanho(), Field.Store.YES);
+        adicionar(documento, CATEGORIA, produto.getCategoria(), Field.Store.NO);
+
+        if(produto.getCor() != null)
+            documento.add(new StoredField(COR, produto.getCor()));
+
+        if(produto.getCategoriaId() != null)
+            documento.add(new StoredField(CATEGORIA_ID, produto.getCategoriaId()));
+
+        try {
+            escritor.updateDocument(new Term(ID, String.valueOf(produto.getId())), documento);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void adicionar(Document documento, String campo, String valor, Field.Store guardar) {
+        if(valor != null)
+            documento.add(new TextField(campo, valor, guardar));
+    }
+
+    // Monta a projeção do produto com os dados guardados no índice.
+    private static ProdutoResumo produto(Document documento) {
+        Integer id = Integer.valueOf(documento.get(ID));
+        String nome = documento.get(NOME);
+        String marca = documento.get(MARCA);
+        String tamanho = documento.get(TAMANHO);
+        String cor = documento.get(COR);
+        Integer categoriaId = documento.getField(CATEGORIA_ID) != null ? documento.getField(CATEGORIA_ID).numericValue().intValue() : null;
+
+        return new ProdutoResumo() {
+            public Integer getId() { return id; }
+            public String getNome() { return nome; }
+            public String getMarca() { return marca; }
+            public String getTamanho() { return tamanho; }
+            public String getCor() { return cor; }
+            public Integer getCategoriaId() { return categoriaId; }
+        };
+    }
+
+    // Torna as escritas visíveis às próximas buscas, sem gravá-las em disco, já que o índice é reconstruído na inicialização.
+    private void atualizarLeitores() {
+        try {
+            leitores.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Maior número de reconstrução gravado no índice, ou zero se o índice estiver vazio.
+    private long ultimaReconstrucao() throws IOException {
+        IndexSearcher buscador = leitores.acquire();
+
+        try {
+            byte[] maximo = PointValues.getMaxPackedValue(buscador.getIndexReader(), RECONSTRUCAO);
+
+            return maximo == null ? 0 : LongPoint.decodeDimension(maximo, 0);
+        } finally {
+            leitores.release(buscador);
+        }
+    }
+
+    private void liberar(IndexSearcher buscador) {
+        if(buscador == null)
+            return;
+
+        try {
+            leitores.release(buscador);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Aplica as escritas recebidas das outras instâncias desde a última busca. A reconstrução do índice inteiro é
+    // agendada em segundo plano, para não atrasar a busca.
+    private void aplicarPendentes() {
+        if(desatualizado) {
+            // As escritas recebidas durante a reconstrução marcam o índice novamente.
+            desatualizado = false;
+            pendentes.clear();
+            agendarReconstrucao();
+            return;
+        }
+
+        for(Integer produtoId : pendentes)
+            if(pendentes.remove(produtoId))
+                indexar(produtoId);
+    }
+
+    // Agenda uma reconstrução, se não houver uma agendada que ainda não começou, que já incluirá as escritas recebidas.
+    private void agendarReconstrucao() {
+        if(!reconstrucaoAgendada.compareAndSet(false, true))
+            return;
+
+        reconstrutor.execute(() -> {
+            reconstrucaoAgendada.set(false);
+
+            try {
+                reconstruir();
+            } catch (RuntimeException e) {
+                // A próxima busca agenda outra reconstrução.
+                desatualizado = true;
+            }
+        });
+    }
+
+    // Guarda os produtos escritos pelas outras instâncias. A limpeza da região de produtos ou a alteração de uma
+    // categoria, que pode ter sido renomeada, marcam o índice inteiro para reconstrução.
+    private void receber(List<Invalidacao> invalidacoes) {
+        for(Invalidacao invalidacao : invalidacoes) {
+            boolean todos = invalidacao.getTipo() == Invalidacao.Tipo.TUDO
+                || (invalidacao.getTipo() == Invalidacao.Tipo.REGIAO && (invalidacao.getRegiao().equals(REGIAO) || invalidacao.getRegiao().equals(REGIAO_CATEGORIAS)));
+
+            if(todos)
+                desatualizado = true;
+
+            else if(invalidacao.getTipo() == Invalidacao.Tipo.DEPENDENCIAS && invalidacao.getRegiao().equals(REGIAO)) {
+                String produtoId = invalidacao.getDependencias().getIds().get("produto");
+
+                if(produtoId != null)
+                    pendentes.add(Integer.valueOf(produtoId));
+            }
+        }
+    }
+
+    /**
+     * Página de produtos encontrados pela busca.
+     */
+    public static final class Resultado {
+
+        private final List<ProdutoResumo> produtos;
+        private final int total;
+
+        private Resultado(List<ProdutoResumo> produtos, int total) {
+            this.produtos = produtos;
+            this.total = total;
+        }
+
+        public List<ProdutoResumo> getProdutos() {
+            return produtos;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+    }
+
+    /**
+     * Análise dos textos em português: separa as palavras, converte em minúsculas, remove as palavras vazias, reduz as
+     * palavras ao radical, removendo o plural e o feminino, e remove os acentos.
+     */
+    private static final class AnalisadorPortugues extends Analyzer {
+
+        @Override
+        protected TokenStreamComponents createComponents(String campo) {
+            Tokenizer tokenizer = new StandardTokenizer();
+
+            // As palavras vazias e os radicais são obtidos antes da remoção dos acentos, pois a lista de palavras vazias
+            // e as regras do radical dependem deles ("à", "pães" e "pão").
+            TokenStream fluxo = new LowerCaseFilter(tokenizer);
+            fluxo = new StopFilter(fluxo, PortugueseAnalyzer.getDefaultStopSet());
+            fluxo = new PortugueseLightStemFilter(fluxo);
+            fluxo = new ASCIIFoldingFilter(fluxo);
+
+            return new TokenStreamComponents(tokenizer, fluxo);
+        }
+
+        @Override
+        protected TokenStream normalize(String campo, TokenStream entrada) {
+            return new ASCIIFoldingFilter(new LowerCaseFilter(entrada));
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package com.pagueibaratoapi.services;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.pagueibaratoapi.cache.BarramentoInvalidacao;
+import com.pagueibaratoapi.cache.CacheRegiao;
+import com.pagueibaratoapi.cache.Dependencias;
+import com.pagueibaratoapi.cache.Invalidacao;
+import com.pagueibaratoapi.models.projections.LevantamentoPreco;
+import com.pagueibaratoapi.models.requests.Sugestao;
+import com.pagueibaratoapi.repository.EstoqueRepository;
+import com.pagueibaratoapi.repository.SugestaoRepository;
+
+/**
+ * Classe de serviço que mantém em memória o levantamento de preços de cada produto.
+ * <P>
+ * O levantamento (quantidade, soma, menor e maior preço e última sugestão) é reconstruído do banco na inicialização
+ * e atualizado a cada sugestão criada, substituída ou removida, respondendo sem consultar o banco.
+ * Somente a remoção do menor ou maior preço, ou da sugestão mais recente, não pode ser desfeita em memória:
+ * nesse caso o levantamento do produto é descartado e recalculado pelo banco na próxima leitura.
+ * </P>
+ * <P>
+ * As escritas de produtos diferentes usam travas diferentes (faixas), para que produtos disputados não bloqueiem os demais.
+ * Cada faixa conta as escritas em andamento e possui uma versão, incrementada ao fim de cada escrita. Um levantamento lido
+ * do banco só é guardado se nenhuma escrita da faixa aconteceu durante a leitura, evitando contar a mesma sugestão duas vezes.
+ * </P>
+ * <P>
+ * As sugestões escritas por outras instâncias da aplicação chegam pelo {@link BarramentoInvalidacao}, como a remoção do
+ * levantamento do produto no cache. Nesse caso o levantamento em memória também é descartado e recalculado pelo banco.
+ * </P>
+ */
+@Component
+public class LevantamentoService {
+
+    // Quantidade de faixas de travas.
+    private static final int FAIXAS = 64;
+
+    // Região do cache com as respostas do levantamento.
+    private static final String REGIAO = "produtoLevantamento";
+
+    // Levantamento de cada produto, pelo id do produto. Os levantamentos são imutáveis e substituídos a cada escrita.
+    private final Map<Integer, Agregado> agregados = new ConcurrentHashMap<Integer, Agregado>();
+
+    private final ReentrantLock[] travas = new ReentrantLock[FAIXAS];
+    private final AtomicLongArray versoes = new AtomicLongArray(FAIXAS);
+    private final AtomicIntegerArray pendentes = new AtomicIntegerArray(FAIXAS);
+
+    private final SugestaoRepository sugestaoRepository;
+    private final EstoqueRepository estoqueRepository;
+    private final CacheManager cacheManager;
+    private final VersaoService versaoService;
+
+    // Construtor.
+    public LevantamentoService(
+        SugestaoRepository sugestaoRepository,
+        EstoqueRepository estoqueRepository,
+        CacheManager cacheManager,
+        VersaoService versaoService,
+        BarramentoInvalidacao barramento
+    ) {
+        this.sugestaoRepository = sugestaoRepository;
+        this.estoqueRepository = estoqueRepository;
+        this.cacheManager = cacheManager;
+        this.versaoService = versaoService;
+
+        for(int i = 0; i < FAIXAS; i++)
+            travas[i] = new ReentrantLock();
+
+        barramento.aoReceber(this::receber);
+    }
+
+    /**
+     * Reconstrói, com uma única consulta agrupada, o levantamento de todos os produtos que possuem sugestões.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        long[] versoesAntes = new long[FAIXAS];
+
+        for(int i = 0; i < FAIXAS; i++)
+            versoesAntes[i] = versoes.get(i);
+
+        for(LevantamentoPreco levantamento : sugestaoRepository.levantamentos())
+            guardar(levantamento.getProdutoId(), Agregado.de(levantamento.getProdutoId(), levantamento), versoesAntes[faixa(levantamento.getProdutoId())]);
+    }
+
+    /**
+     * Busca o levantamento de preços do produto.
+     * @param produtoId - Id do produto.
+     * @return LevantamentoPreco - Levantamento do produto, com quantidade zero caso não haja sugestões.
+     */
+    public LevantamentoPreco buscar(Integer produtoId) {
+        Agregado agregado = agregados.get(produtoId);
+
+        if(agregado != null)
+            return agregado;
+
+        // Se o levantamento não está em memória, é calculado pelo banco e guardado para as próximas leituras.
+        long versao = versoes.get(faixa(produtoId));
+
+        agregado = Agregado.de(produtoId, sugestaoRepository.levantamentoPorProduto(produtoId));
+
+        guardar(produtoId, agregado, versao);
+
+        return agregado;
+    }
+
+    /**
+     * Insere uma sugestão de um produto conhecido e a adiciona ao levantamento do produto.
+     * @param sugestao - Sugestão com o preço em centavos.
+     * @param produtoId - Id do produto do estoque da sugestão.
+     * @return Sugestao - Sugestão inserida.
+     */
+    public Sugestao inserir(Sugestao sugestao, Integer produtoId) {
+        return salvar(sugestao, produtoId, null);
+    }
+
+    /**
+     * Insere uma sugestão e a adiciona ao levantamento do produto do seu estoque.
+     * @param sugestao - Sugestão com o preço em centavos.
+     * @return Sugestao - Sugestão inserida.
+     */
+    public Sugestao inserir(Sugestao sugestao) {
+        return salvar(sugestao, null, null);
+    }
+
+    /**
+     * Substitui uma sugestão, atualizando o levantamento dos produtos envolvidos.
+     * @param sugestao - Sugestão com o preço em centavos.
+     * @param anterior - Estado da sugestão antes da alteração.
+     * @return Sugestao - Sugestão salva.
+     */
+    public Sugestao substituir(Sugestao sugestao, PrecoSugerido anterior) {
+        return salvar(sugestao, null, anterior);
+    }
+
+    /**
+     * Remove uma sugestão e a retira do levantamento do seu produto.
+     * @param sugestao - Sugestão que será removida, da forma como está no banco de dados.
+     */
+    public void remover(Sugestao sugestao) {
+        PrecoSugerido anterior = PrecoSugerido.de(sugestao);
+
+        alterar(
+            produtoDoEstoque(anterior.getEstoqueId()),
+            anterior,
+            null,
+            () -> {
+                sugestaoRepository.delete(sugestao);
+                return null;
+            },
+            removida -> null
+        );
+    }
+
+    // Descarta os levantamentos alterados por outras instâncias. O cache é limpo depois do levantamento em memória,
+    // para que uma leitura simultânea não guarde no cache o levantamento antigo.
+    private void receber(List<Invalidacao> invalidacoes) {
+        for(Invalidacao invalidacao : invalidacoes) {
+            boolean todos = invalidacao.getTipo() == Invalidacao.Tipo.TUDO
+                || (invalidacao.getTipo() == Invalidacao.Tipo.REGIAO && invalidacao.getRegiao().equals(REGIAO));
+
+            if(todos)
+                descartarTodos();
+
+            else if(invalidacao.getTipo() == Invalidacao.Tipo.DEPENDENCIAS && invalidacao.getRegiao().equals(REGIAO)) {
+                String produtoId = invalidacao.getDependencias().getIds().get("produto");
+
+                if(produtoId == null)
+                    continue;
+
+                descartarLocal(Integer.valueOf(produtoId));
+            }
+            else
+                continue;
+
+            Cache cache = cacheManager.getCache(REGIAO);
+
+            if(cache instanceof CacheRegiao)
+                ((CacheRegiao) cache).aplicar(invalidacao);
+        }
+    }
+
+    // Retira todos os levantamentos da memória, faixa por faixa.
+    private void descartarTodos() {
+        for(int i = 0; i < FAIXAS; i++) {
+            int faixa = i;
+
+            travas[faixa].lock();
+
+            try {
+                agregados.keySet().removeIf(produtoId -> faixa(produtoId) == faixa);
+                versoes.incrementAndGet(faixa);
+            } finally {
+                travas[faixa].unlock();
+            }
+        }
+    }
+
+    // Retira o levantamento da memória, sem remover as respostas do cache.
+    private void descartarLocal(Integer produtoId) {
+        travar(produtoId, () -> {
+            agregados.remove(produtoId);
+
+            // Impede que uma leitura iniciada antes da remoção guarde o levantamento antigo.
+            versoes.incrementAndGet(faixa(produtoId));
+        });
+    }
+
+    // Salva a sugestão. Se o produto não for informado, é buscado pelo estoque da sugestão.
+    private Sugestao salvar(Sugestao sugestao, Integer produtoId, PrecoSugerido anterior) {
+        Integer produtoNovo = produtoId != null ? produtoId : produtoDoEstoque(sugestao.getEstoqueId());
+
+        Integer produtoAnterior = null;
+
+        if(anterior != null)
+            produtoAnterior = Objects.equals(anterior.getEstoqueId(), sugestao.getEstoqueId())
+                ? produtoNovo
+                : produtoDoEstoque(anterior.getEstoqueId());
+
+        return alterar(produtoAnterior, anterior, produtoNovo, () -> sugestaoRepository.save(sugestao), PrecoSugerido::de);
+    }
+
+    // Executa a escrita e aplica a alteração ao levantamento dos produtos assim que a escrita é confirmada.
+    private <T> T alterar(
+        Integer produtoAnterior,
+        PrecoSugerido anterior,
+        Integer produtoNovo,
+        Supplier<T> escrita,
+        Function<T, PrecoSugerido> novo
+    ) {
+        List<Integer> produtos = new ArrayList<Integer>();
+
+        if(produtoAnterior != null)
+            produtos.add(produtoAnterior);
+
+        if(produtoNovo != null && !produtoNovo.equals(produtoAnterior))
+            produtos.add(produtoNovo);
+
+        // Marca a escrita como em andamento, impedindo que leituras simultâneas do banco sejam guardadas.
+        for(Integer produto : produtos)
+            travar(produto, () -> pendentes.incrementAndGet(faixa(produto)));
+
+        Runnable concluir = () -> {
+            for(Integer produto : produtos)
+                travar(produto, () -> {
+                    versoes.incrementAndGet(faixa(produto));
+                    pendentes.decrementAndGet(faixa(produto));
+                });
+        };
+
+        T resultado;
+
+        try {
+            resultado = escrita.get();
+        } catch (RuntimeException e) {
+            // Sem saber se a escrita chegou ao banco, os levantamentos envolvidos são recalculados na próxima leitura.
+            for(Integer produto : produtos)
+                aplicar(produto, agregado -> null);
+
+            concluir.run();
+            throw e;
+        }
+
+        PrecoSugerido depois = novo.apply(resultado);
+
+        Runnable atualizar = () -> {
+            if(produtoAnterior != null && anterior != null)
+                aplicar(produtoAnterior, agregado -> agregado.sem(anterior));
+
+            if(produtoNovo != null && depois != null)
+                aplicar(produtoNovo, agregado -> agregado.com(depois));
+        };
+
+        // Dentro de uma transação, o levantamento só é alterado após a confirmação.
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    atualizar.run();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    concluir.run();
+                }
+            });
+        }
+        else {
+            try {
+                atualizar.run();
+            } finally {
+                concluir.run();
+            }
+        }
+
+        return resultado;
+    }
+
+    // Altera o levantamento do produto, se estiver em memória, remove do cache as respostas do produto e altera a sua versão.
+    private void aplicar(Integer produtoId, UnaryOperator<Agregado> alteracao) {
+        travar(produtoId, () -> agregados.computeIfPresent(produtoId, (id, agregado) -> alteracao.apply(agregado)));
+
+        Cache cache = cacheManager.getCache(REGIAO);
+
+        if(cache != null)
+            cache.evict(Dependencias.de("produto", produtoId));
+
+        versaoService.alterarSubrecursos("produto", produtoId);
+    }
+
+    // Guarda um levantamento lido do banco, somente se nenhuma escrita da faixa aconteceu desde a leitura.
+    private void guardar(Integer produtoId, Agregado agregado, long versaoLida) {
+        int faixa = faixa(produtoId);
+
+        travar(produtoId, () -> {
+            if(versoes.get(faixa) == versaoLida && pendentes.get(faixa) == 0)
+                agregados.putIfAbsent(produtoId, agregado);
+        });
+    }
+
+    // Executa a ação com a trava da faixa do produto.
+    private void travar(Integer produtoId, Runnable acao) {
+        ReentrantLock trava = travas[faixa(produtoId)];
+
+        trava.lock();
+
+        try {
+            acao.run();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    // Faixa de travas do produto.
+    private int faixa(Integer produtoId) {
+        return Math.floorMod(produtoId.hashCode(), FAIXAS);
+    }
+
+    // Busca o produto do estoque. Estoques sem produto não possuem levantamento.
+    private Integer produtoDoEstoque(Integer estoqueId) {
+        return estoqueId == null ? null : estoqueRepository.findProdutoIdById(estoqueId);
+    }
+
+    /**
+     * Levantamento de preços de um produto em centavos, imutável.
+     */
+    private static final class Agregado implements LevantamentoPreco {
+
+        private final Integer produtoId;
+        private final long quantidade;
+        private final long somaCentavos;
+        private final int menorCentavos;
+        private final int maiorCentavos;
+        private final Calendar ultimaSugestao;
+
+        private Agregado(Integer produtoId, long quantidade, long somaCentavos, int menorCentavos, int maiorCentavos, Calendar ultimaSugestao) {
+            this.produtoId = produtoId;
+            this.quantidade = quantidade;
+            this.somaCentavos = somaCentavos;
+            this.menorCentavos = menorCentavos;
+            this.maiorCentavos = maiorCentavos;
+            this.ultimaSugestao = ultimaSugestao;
+        }
+
+        // Converte o levantamento calculado pelo banco, que é nulo quando o produto não possui sugestões.
+        private static Agregado de(Integer produtoId, LevantamentoPreco levantamento) {
+            if(levantamento == null || levantamento.getQuantidade() == null || levantamento.getQuantidade() == 0)
+                return new Agregado(produtoId, 0, 0, 0, 0, null);
+
+            return new Agregado(
+                produtoId,
+                levantamento.getQuantidade(),
+                levantamento.getSomaCentavos(),
+                levantamento.getMenorCentavos(),
+                levantamento.getMaiorCentavos(),
+                levantamento.getUltimaSugestao()
+            );
+        }
+
+        // Levantamento com a sugestão adicionada.
+        private Agregado com(PrecoSugerido preco) {
+            if(quantidade == 0)
+                return new Agregado(produtoId, 1, preco.getCentavos(), preco.getCentavos(), preco.getCentavos(), preco.getTimestamp());
+
+            Calendar ultima = ultimaSugestao;
+
+            if(ultima == null || (preco.getTimestamp() != null && preco.getTimestamp().after(ultima)))
+                ultima = preco.getTimestamp();
+
+            return new Agregado(
+                produtoId,
+                quantidade + 1,
+                somaCentavos + preco.getCentavos(),
+                Math.min(menorCentavos, preco.getCentavos()),
+                Math.max(maiorCentavos, preco.getCentavos()),
+                ultima
+            );
+        }
+
+        // Levantamento com a sugestão retirada, ou null se o levantamento precisar ser recalculado pelo banco.
+        private Agregado sem(PrecoSugerido preco) {
+            if(quantidade <= 1)
+                return new Agregado(produtoId, 0, 0, 0, 0, null);
+
+            boolean eraExtremo = preco.getCentavos() <= menorCentavos || preco.getCentavos() >= maiorCentavos;
+            boolean eraUltima = preco.getTimestamp() == null || ultimaSugestao == null || !preco.getTimestamp().before(ultimaSugestao);
+
+            if(eraExtremo || eraUltima)
+                return null;
+
+            return new Agregado(produtoId, quantidade - 1, somaCentavos - preco.getCentavos(), menorCentavos, maiorCentavos, ultimaSugestao);
+        }
+
+        @Override
+        public Integer getProdutoId() {
+            return produtoId;
+        }
+
+        @Override
+        public Long getQuantidade() {
+            return quantidade;
+        }
+
+        @Override
+        public Long getSomaCentavos() {
+            return somaCentavos;
+        }
+
+        @Override
+        public Integer getMenorCentavos() {
+            return menorCentavos;
+        }
+
+        @Override
+        public Integer getMaiorCentavos() {
+            return maiorCentavos;
+        }
+
+        @Override
+        public Calendar getUltimaSugestao() {
+            return ultimaSugestao;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.pagueibaratoapi.services;
+
+import java.util.Calendar;
+
+import com.pagueibaratoapi.models.requests.Sugestao;
+
+/**
+ * Classe que guarda o estado de uma sugestão antes de uma alteração, já que a entidade é modificada ao ser editada.
+ */
+public class PrecoSugerido {
+
+    private final Integer estoqueId;
+    private final int centavos;
+    private final Calendar timestamp;
+
+    // Construtor.
+    private PrecoSugerido(Integer estoqueId, int centavos, Calendar timestamp) {
+        this.estoqueId = estoqueId;
+        this.centavos = centavos;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Guarda o estado atual da sugestão.
+     * @param sugestao - Sugestão com o preço em centavos, da forma como está no banco de dados.
+     * @return PrecoSugerido - Cópia do estoque, do preço e da data da sugestão.
+     */
+    public static PrecoSugerido de(Sugestao sugestao) {
+        return new PrecoSugerido(
+            sugestao.getEstoqueId(),
+            sugestao.getPreco() == null ? 0 : Math.round(sugestao.getPreco()),
+            sugestao.getTimestamp() == null ? null : (Calendar) sugestao.getTimestamp().clone()
+        );
+    }
+
+    public Integer getEstoqueId() {
+        return estoqueId;
+    }
+
+    public int getCentavos() {
+        return centavos;
+    }
+
+    public Calendar getTimestamp() {
+        return timestamp;
+    }
+}
@@ -0,0 +1,245 @@
+package com.pagueibaratoapi.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+
+import org.springframework.cache.Cache;
+import org.springframework.stereotype.Component;
+
+import com.pagueibaratoapi.models.requests.Mercado;
+import com.pagueibaratoapi.models.requests.Produto;
+import com.pagueibaratoapi.models.requests.Usuario;
+import com.pagueibaratoapi.repository.CategoriaRepository;
+import com.pagueibaratoapi.repository.RamoRepository;
+import com.pagueibaratoapi.utils.Tratamento;
+
+/**
+ * Classe de serviço responsável por verificar as referências das requisições de escrita.
+ * As referências informadas (usuário, produto, mercado, estoque e conflitos) são resolvidas em uma única consulta
+ * ao banco de dados, em vez de uma consulta por verificação. Ramos e categorias, que quase nunca mudam, são
+ * verificados pelo cache de segundo nível, e o usuário pelo cache de usuários do {@link UsuarioServiceImpl}.
+ */
+@Component
+public class ReferenciaService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final CategoriaRepository categoriaRepository;
+    private final RamoRepository ramoRepository;
+    private final UsuarioServiceImpl usuarioService;
+
+    // Construtor.
+    public ReferenciaService(CategoriaRepository categoriaRepository, RamoRepository ramoRepository, UsuarioServiceImpl usuarioService) {
+        this.categoriaRepository = categoriaRepository;
+        this.ramoRepository = ramoRepository;
+        this.usuarioService = usuarioService;
+    }
+
+    /**
+     * Verifica, em uma única consulta, todas as referências informadas.
+     * @param referencias - Referências que serão verificadas.
+     * @return Referencias - As mesmas referências com o resultado da verificação preenchido.
+     */
+    public Referencias verificar(Referencias referencias) {
+
+        // Ramos e categorias são verificados pelo cache de consultas do Hibernate, sem consultar o banco.
+        if(referencias.getRamoId() != null)
+            referencias.setRamoExiste(ramoRepository.existeId(referencias.getRamoId()));
+
+        if(referencias.getCategoriaId() != null)
+            referencias.setCategoriaExiste(categoriaRepository.existeId(referencias.getCategoriaId()));
+
+        // O usuário é verificado pelo cache de usuários. Se não estiver no cache, é buscado junto com as demais referências.
+        Cache.ValueWrapper usuarioEmCache = null;
+
+        if(referencias.getUsuarioId() != null) {
+            usuarioEmCache = usuarioService.emCache(referencias.getUsuarioId());
+
+            if(usuarioEmCache != null)
+                verificarUsuario(referencias, (Usuario) usuarioEmCache.get());
+        }
+
+        // Colunas da consulta, cada uma resolvendo uma das referências informadas.
+        List<String> colunas = new ArrayList<String>();
+
+        // Parâmetros utilizados pelas colunas.
+        Map<String, Object> parametros = new HashMap<String, Object>();
+
+        if(referencias.getUsuarioId() != null && usuarioEmCache == null) {
+            colunas.add("(SELECT email FROM usuario WHERE id = :usuarioId)");
+            colunas.add("(SELECT senha FROM usuario WHERE id = :usuarioId)");
+            parametros.put("usuarioId", referencias.getUsuarioId());
+        }
+
+        if(referencias.getProdutoId() != null) {
+            colunas.add(existe("SELECT 1 FROM produto WHERE id = :produtoId"));
+            parametros.put("produtoId", referencias.getProdutoId());
+        }
+
+        if(referencias.getMercadoId() != null) {
+            colunas.add(existe("SELECT 1 FROM mercado WHERE id = :mercadoId"));
+            parametros.put("mercadoId", referencias.getMercadoId());
+        }
+
+        if(referencias.getEstoqueId() != null) {
+            colunas.add(existe("SELECT 1 FROM estoque WHERE id = :estoqueId"));
+            parametros.put("estoqueId", referencias.getEstoqueId());
+        }
+
+        if(referencias.getEstoqueProdutoId() != null && referencias.getEstoqueMercadoId() != null) {
+            colunas.add("(SELECT MIN(id) FROM estoque WHERE \"produtoId\" = :estoqueProdutoId AND \"mercadoId\" = :estoqueMercadoId)");
+            parametros.put("estoqueProdutoId", referencias.getEstoqueProdutoId());
+            parametros.put("estoqueMercadoId", referencias.getEstoqueMercadoId());
+        }
+
+        if(referencias.getNomeMercado() != null) {
+            colunas.add(existe("SELECT 1 FROM mercado WHERE UPPER(nome) = UPPER(:nomeMercado)"));
+            parametros.put("nomeMercado", referencias.getNomeMercado());
+        }
+
+        if(referencias.getEnderecoMercado() != null)
+            colunas.add(existe("SELECT 1 FROM mercado WHERE " + condicaoEndereco(referencias.getEnderecoMercado(), parametros)));
+
+        if(referencias.getCaracteristicasProduto() != null)
+            colunas.add(existe("SELECT 1 FROM produto WHERE " + condicaoCaracteristicas(referencias.getCaracteristicasProduto(), parametros)));
+
+        // Se nenhuma referência foi informada, não há o que consultar.
+        if(colunas.isEmpty())
+            return referencias;
+
+        // Cada coluna recebe um apelido próprio, pois o Hibernate não aceita colunas com nomes repetidos.
+        for(int i = 0; i < colunas.size(); i++)
+            colunas.set(i, colunas.get(i) + " AS referencia" + i);
+
+        Query consulta = entityManager.createNativeQuery("SELECT " + String.join(", ", colunas));
+
+        for(Map.Entry<String, Object> parametro : parametros.entrySet())
+            consulta.setParameter(parametro.getKey(), parametro.getValue());
+
+        // Com uma única coluna o resultado não vem em um array.
+        Object resultado = consulta.getSingleResult();
+        Object[] valores = resultado instanceof Object[] ? (Object[]) resultado : new Object[] { resultado };
+
+        // Lê os valores na mesma ordem em que as colunas foram adicionadas.
+        int i = 0;
+
+        if(referencias.getUsuarioId() != null && usuarioEmCache == null) {
+            String email = (String) valores[i++];
+            String senha = (String) valores[i++];
+
+            // O email é obrigatório, então sem email o usuário não existe.
+            Usuario usuario = null;
+
+            if(email != null) {
+                usuario = new Usuario();
+                usuario.setId(referencias.getUsuarioId());
+                usuario.setEmail(email);
+                usuario.setSenha(senha);
+            }
+
+            usuarioService.guardar(referencias.getUsuarioId(), usuario);
+            verificarUsuario(referencias, usuario);
+        }
+
+        if(referencias.getProdutoId() != null)
+            referencias.setProdutoExiste(verdadeiro(valores[i++]));
+
+        if(referencias.getMercadoId() != null)
+            referencias.setMercadoExiste(verdadeiro(valores[i++]));
+
+        if(referencias.getEstoqueId() != null)
+            referencias.setEstoqueExiste(verdadeiro(valores[i++]));
+
+        if(referencias.getEstoqueProdutoId() != null && referencias.getEstoqueMercadoId() != null) {
+            Object estoqueId = valores[i++];
+            referencias.setEstoqueEncontradoId(estoqueId == null ? null : ((Number) estoqueId).intValue());
+        }
+
+        if(referencias.getNomeMercado() != null)
+            referencias.setNomeMercadoExistente(verdadeiro(valores[i++]));
+
+        if(referencias.getEnderecoMercado() != null)
+            referencias.setEnderecoMercadoExistente(verdadeiro(valores[i++]));
+
+        if(referencias.getCaracteristicasProduto() != null)
+            referencias.setProdutoExistente(verdadeiro(valores[i++]));
+
+        return referencias;
+    }
+
+    // Preenche a existência do usuário. Usuários removidos continuam no banco, mas com o email vazio.
+    private void verificarUsuario(Referencias referencias, Usuario usuario) {
+        referencias.setUsuarioExiste(usuario != null);
+        referencias.setUsuarioAtivo(usuario != null && Tratamento.usuarioExiste(usuario));
+    }
+
+    // Transforma a subconsulta em uma coluna que vale 1 se houver registro e 0 caso contrário.
+    private String existe(String subconsulta) {
+        return "CASE WHEN EXISTS (" + subconsulta + ") THEN 1 ELSE 0 END";
+    }
+
+    // Converte o valor numérico da coluna em booleano.
+    private boolean verdadeiro(Object valor) {
+        return valor != null && ((Number) valor).intValue() == 1;
+    }
+
+    // Mesma condição de MercadoRepository.findByEndereco.
+    private String condicaoEndereco(Mercado mercado, Map<String, Object> parametros) {
+        List<String> condicoes = new ArrayList<String>();
+
+        condicoes.add("UPPER(logradouro) LIKE UPPER(CONCAT('%', :logradouro, '%'))");
+        condicoes.add("numero = :numero");
+        condicoes.add("UPPER(bairro) = UPPER(:bairro)");
+        condicoes.add("UPPER(cidade) = UPPER(:cidade)");
+        condicoes.add("UPPER(uf) = UPPER(:uf)");
+        condicoes.add("cep = :cep");
+
+        parametros.put("logradouro", mercado.getLogradouro());
+        parametros.put("numero", mercado.getNumero());
+        parametros.put("bairro", mercado.getBairro());
+        parametros.put("cidade", mercado.getCidade());
+        parametros.put("uf", mercado.getUf());
+        parametros.put("cep", mercado.getCep());
+
+        // Sem complemento, somente mercados sem complemento são considerados iguais, já que a comparação da consulta
+        // original com o complemento nulo nunca é verdadeira.
+        if(mercado.getComplemento() != null) {
+            condicoes.add("(complemento IS NULL OR UPPER(complemento) LIKE UPPER(CONCAT('%', :complemento, '%')))");
+            parametros.put("complemento", mercado.getComplemento());
+        }
+        else
+            condicoes.add("complemento IS NULL");
+
+        return String.join(" AND ", condicoes);
+    }
+
+    // Mesma condição de ProdutoRepository.findByCaracteristicas.
+    private String condicaoCaracteristicas(Produto produto, Map<String, Object> parametros) {
+        List<String> condicoes = new ArrayList<String>();
+
+        condicoes.add("UPPER(nome) = UPPER(:nomeProduto)");
+        condicoes.add("UPPER(marca) = UPPER(:marca)");
+        condicoes.add("UPPER(tamanho) LIKE UPPER(CONCAT('%', :tamanho, '%'))");
+
+        parametros.put("nomeProduto", produto.getNome());
+        parametros.put("marca", produto.getMarca());
+        parametros.put("tamanho", produto.getTamanho());
+
+        // Sem cor, somente produtos sem cor são considerados iguais.
+        if(produto.getCor() != null) {
+            condicoes.add("(cor IS NULL OR UPPER(cor) = UPPER(:cor))");
+            parametros.put("cor", produto.getCor());
+        }
+        else
+            condicoes.add("cor IS NULL");
+
+        return String.join(" AND ", condicoes);
+    }
+}
@@ -0,0 +1,280 @@
+package com.pagueibaratoapi.services;
+
+import com.pagueibaratoapi.models.requests.Mercado;
+import com.pagueibaratoapi.models.requests.Produto;
+
+/**
+ * Classe que reúne as referências que uma requisição de escrita precisa verificar e o resultado da verificação.
+ * Somente as referências informadas são consultadas, as demais permanecem nulas.
+ */
+public class Referencias {
+
+    // Ids e dados informados pelo cliente que serão verificados.
+    private Integer usuarioId;
+    private Integer produtoId;
+    private Integer mercadoId;
+    private Integer ramoId;
+    private Integer categoriaId;
+    private Integer estoqueId;
+    private Integer estoqueProdutoId;
+    private Integer estoqueMercadoId;
+    private String nomeMercado;
+    private Mercado enderecoMercado;
+    private Produto caracteristicasProduto;
+
+    // Resultado da verificação.
+    private boolean usuarioExiste;
+    private boolean usuarioAtivo;
+    private boolean produtoExiste;
+    private boolean mercadoExiste;
+    private boolean ramoExiste;
+    private boolean categoriaExiste;
+    private boolean estoqueExiste;
+    private Integer estoqueEncontradoId;
+    private boolean nomeMercadoExistente;
+    private boolean enderecoMercadoExistente;
+    private boolean produtoExistente;
+
+    /**
+     * Verifica se o usuário informado existe, independentemente de ter sido deletado.
+     * @param usuarioId - Id do usuário para verificar.
+     * @return Referencias - As próprias referências, para encadear as verificações.
+     */
+    public Referencias usuario(Integer usuarioId) {
+        this.usuarioId = usuarioId;
+        return this;
+    }
+
+    /**
+     * Verifica se o produto informado existe.
+     * @param produtoId - Id do produto para verificar.
+     * @return Referencias - As próprias referências, para encadear as verificações.
+     */
+    public Referencias produto(Integer produtoId) {
+        this.produtoId = produtoId;
+        return this;
+    }
+
+    /**
+     * Verifica se o mercado informado existe.
+     * @param mercadoId - Id do mercado para verificar.
+     * @return Referencias - As próprias referências, para encadear as verificações.
+     */
+    public Referencias mercado(Integer mercadoId) {
+        this.mercadoId = mercadoId;
+        return this;
+    }
+
+    /**
+     * Verifica se o ramo informado existe.
+     * @param ramoId - Id do ramo para verificar.
+     * @return Referencias - As próprias referências, para encadear as verificações.
+     */
+    public Referencias ramo(Integer ramoId) {
+        this.ramoId = ramoId;
+        return this;
+    }
+
+    /**
+     * Verifica se a categoria informada existe.
+     * @param categoriaId - Id da categoria para verificar.
+     * @return Referencias - As próprias referências, para encadear as verificações.
+     */
+    public Referencias categoria(Integer categoriaId) {
+        this.categoriaId = categoriaId;
+        return this;
+    }
+
+    /**
+     * Verifica se o estoque informado existe.
+     * @param estoqueId - Id do estoque para verificar.
+     * @return Referencias - As próprias referências, para encadear as verificações.
+     */
+    public Referencias estoque(Integer estoqueId) {
+        this.estoqueId = estoqueId;
+        return this;
+    }
+
+    /**
+     * Busca o id do estoque que associa o produto ao mercado informados.
+     * @param produtoId - Id do produto do estoque.
+     * @param mercadoId - Id do mercado do estoque.
+     * @return Referencias - As próprias referências, para encadear as verificações.
+     */
+    public Referencias estoque(Integer produtoId, Integer mercadoId) {
+        this.estoqueProdutoId = produtoId;
+        this.estoqueMercadoId = mercadoId;
+        return this;
+    }
+
+    /**
+     * Verifica se já existe um mercado com o nome informado, ignorando maiúsculas e minúsculas.
+     * @param nome - Nome do mercado para verificar.
+     * @return Referencias - As próprias referências, para encadear as verificações.
+     */
+    public Referencias nomeMercado(String nome) {
+        this.nomeMercado = nome;
+        return this;
+    }
+
+    /**
+     * Verifica se já existe um mercado no endereço do mercado informado.
+     * @param mercado - Mercado com o endereço para verificar.
+     * @return Referencias - As próprias referências, para encadear as verificações.
+     */
+    public Referencias enderecoMercado(Mercado mercado) {
+        this.enderecoMercado = mercado;
+        return this;
+    }
+
+    /**
+     * Verifica se já existe um produto com as características do produto informado.
+     * @param produto - Produto com as características para verificar.
+     * @return Referencias - As próprias referências, para encadear as verificações.
+     */
+    public Referencias caracteristicasProduto(Produto produto) {
+        this.caracteristicasProduto = produto;
+        return this;
+    }
+
+    public Integer getUsuarioId() {
+        return usuarioId;
+    }
+
+    public Integer getProdutoId() {
+        return produtoId;
+    }
+
+    public Integer getMercadoId() {
+        return mercadoId;
+    }
+
+    public Integer getRamoId() {
+        return ramoId;
+    }
+
+    public Integer getCategoriaId() {
+        return categoriaId;
+    }
+
+    public Integer getEstoqueId() {
+        return estoqueId;
+    }
+
+    public Integer getEstoqueProdutoId() {
+        return estoqueProdutoId;
+    }
+
+    public Integer getEstoqueMercadoId() {
+        return estoqueMercadoId;
+    }
+
+    public String getNomeMercado() {
+        return nomeMercado;
+    }
+
+    public Mercado getEnderecoMercado() {
+        return enderecoMercado;
+    }
+
+    public Produto getCaracteristicasProduto() {
+        return caracteristicasProduto;
+    }
+
+    /**
+     * @return boolean - true se o usuário está cadastrado, mesmo que tenha sido deletado.
+     */
+    public boolean isUsuarioExiste() {
+        return usuarioExiste;
+    }
+
+    public void setUsuarioExiste(boolean usuarioExiste) {
+        this.usuarioExiste = usuarioExiste;
+    }
+
+    /**
+     * @return boolean - true se o usuário está cadastrado e não foi deletado.
+     */
+    public boolean isUsuarioAtivo() {
+        return usuarioAtivo;
+    }
+
+    public void setUsuarioAtivo(boolean usuarioAtivo) {
+        this.usuarioAtivo = usuarioAtivo;
+    }
+
+    public boolean isProdutoExiste() {
+        return produtoExiste;
+    }
+
+    public void setProdutoExiste(boolean produtoExiste) {
+        this.produtoExiste = produtoExiste;
+    }
+
+    public boolean isMercadoExiste() {
+        return mercadoExiste;
+    }
+
+    public void setMercadoExiste(boolean mercadoExiste) {
+        this.mercadoExiste = mercadoExiste;
+    }
+
+    public boolean isRamoExiste() {
+        return ramoExiste;
+    }
+
+    public void setRamoExiste(boolean ramoExiste) {
+        this.ramoExiste = ramoExiste;
+    }
+
+    public boolean isCategoriaExiste() {
+        return categoriaExiste;
+    }
+
+    public void setCategoriaExiste(boolean categoriaExiste) {
+        this.categoriaExiste = categoriaExiste;
+    }
+
+    public boolean isEstoqueExiste() {
+        return estoqueExiste;
+    }
+
+    public void setEstoqueExiste(boolean estoqueExiste) {
+        this.estoqueExiste = estoqueExiste;
+    }
+
+    /**
+     * @return Integer - Id do estoque que associa o produto ao mercado, ou null caso não exista.
+     */
+    public Integer getEstoqueEncontradoId() {
+        return estoqueEncontradoId;
+    }
+
+    public void setEstoqueEncontradoId(Integer estoqueEncontradoId) {
+        this.estoqueEncontradoId = estoqueEncontradoId;
+    }
+
+    public boolean isNomeMercadoExistente() {
+        return nomeMercadoExistente;
+    }
+
+    public void setNomeMercadoExistente(boolean nomeMercadoExistente) {
+        this.nomeMercadoExistente = nomeMercadoExistente;
+    }
+
+    public boolean isEnderecoMercadoExistente() {
+        return enderecoMercadoExistente;
+    }
+
+    public void setEnderecoMercadoExistente(boolean enderecoMercadoExistente) {
+        this.enderecoMercadoExistente = enderecoMercadoExistente;
+    }
+
+    public boolean isProdutoExistente() {
+        return produtoExistente;
+    }
+
+    public void setProdutoExistente(boolean produtoExistente) {
+        this.produtoExistente = produtoExistente;
+    }
+}
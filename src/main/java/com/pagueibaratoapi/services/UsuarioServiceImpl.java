@@ -2,6 +2,8 @@ package com.pagueibaratoapi.services;
 
 import java.util.Optional;
 
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -13,23 +15,35 @@ import com.pagueibaratoapi.repository.UsuarioRepository;
 
 /**
  * Classe de serviço do usuário.
+ * <P>
+ * Os usuários buscados no login e na verificação de quem criou os recursos são guardados, por pouco tempo, na região
+ * "usuarios" do cache, pelo id e pelo email. Somente uma cópia com os dados usados nessas verificações é guardada, e o
+ * {@link com.pagueibaratoapi.controllers.UsuarioController} remove as chaves do usuário a cada escrita.
+ * </P>
  */
 @Component
 public class UsuarioServiceImpl implements UserDetailsService {
 
+    // Região do cache com os usuários, pelo id e pelo email.
+    public static final String REGIAO = "usuarios";
+
     // Repositório do usuário.
     private final UsuarioRepository usuarioRepository;
 
+    // Região do cache dos usuários.
+    private final Cache usuarios;
+
     // Construtor.
-    public UsuarioServiceImpl(UsuarioRepository usuarioRepository) {
+    public UsuarioServiceImpl(UsuarioRepository usuarioRepository, CacheManager cacheManager) {
         this.usuarioRepository = usuarioRepository;
+        this.usuarios = cacheManager.getCache(REGIAO);
     }
 
     // Busca o usuário pelo endereço de email.
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         // Busca o usuário pelo endereço de email.
-        Usuario usuario = usuarioRepository.findByEmail(username);
+        Usuario usuario = buscarPorEmail(username);
 
         // Se não encontrar, lança exceção.
         if(usuario == null)
@@ -38,4 +52,58 @@ public class UsuarioServiceImpl implements UserDetailsService {
         // Retorna o usuário.
         return new UsuarioService(Optional.of(usuario));
     }
-}
\ No newline at end of file
+
+    /**
+     * Busca o usuário pelo email, consultando o banco somente se ele não estiver no cache.
+     * @param email - Email do usuário.
+     * @return Usuario - Cópia somente leitura do usuário (id, email e senha) ou null se não existir.
+     */
+    public Usuario buscarPorEmail(String email) {
+        return usuarios.get("email:" + email, () -> copiar(usuarioRepository.findByEmail(email)));
+    }
+
+    /**
+     * Busca o usuário guardado no cache pelo id.
+     * @param id - Id do usuário.
+     * @return ValueWrapper - Cópia do usuário, com valor null se ele não existir, ou null se o id não estiver no cache.
+     */
+    public Cache.ValueWrapper emCache(Integer id) {
+        return usuarios.get("id:" + id);
+    }
+
+    /**
+     * Guarda no cache o usuário buscado pelo id em outra consulta.
+     * @param id - Id do usuário.
+     * @param usuario - Usuário encontrado ou null se ele não existir.
+     */
+    public void guardar(Integer id, Usuario usuario) {
+        usuarios.put("id:" + id, copiar(usuario));
+    }
+
+    /**
+     * Remove do cache as chaves do usuário alterado.
+     * @param id - Id do usuário.
+     * @param emails - Emails do usuário antes e depois da alteração.
+     */
+    public void descartar(Integer id, String... emails) {
+        usuarios.evict("id:" + id);
+
+        for(String email : emails) {
+            if(email != null)
+                usuarios.evict("email:" + email);
+        }
+    }
+
+    // Copia somente os dados usados no login e nas verificações, já que a entidade pode ser alterada pela sessão que a carregou.
+    private Usuario copiar(Usuario usuario) {
+        if(usuario == null)
+            return null;
+
+        Usuario copia = new Usuario();
+        copia.setId(usuario.getId());
+        copia.setEmail(usuario.getEmail());
+        copia.setSenha(usuario.getSenha());
+
+        return copia;
+    }
+}
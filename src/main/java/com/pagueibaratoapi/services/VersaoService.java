@@ -0,0 +1,192 @@
+package com.pagueibaratoapi.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.pagueibaratoapi.cache.BarramentoInvalidacao;
+import com.pagueibaratoapi.cache.Invalidacao;
+
+/**
+ * Classe de serviço que guarda a versão dos recursos (mercados, produtos, estoques e sugestões), usada nas
+ * requisições condicionais (ETag e Last-Modified).
+ * <P>
+ * Cada recurso possui uma versão própria ("mercado:5") e cada tipo de recurso possui a versão da sua coleção ("mercado"),
+ * incrementadas pelas escritas. As versões só crescem e começam na inicialização da aplicação, que também faz parte da ETag.
+ * </P>
+ * <P>
+ * Dentro de uma requisição, as versões só são incrementadas ao fim da requisição, depois que o cache já removeu os valores
+ * alterados. Assim, uma leitura nunca recebe a versão nova junto com um valor antigo do cache.
+ * </P>
+ * <P>
+ * Os incrementos são repassados às outras instâncias pelo {@link BarramentoInvalidacao}, que os entrega depois das
+ * invalidações do cache do mesmo lote. Os contadores continuam locais, pois cada instância começa do zero ao iniciar,
+ * então a mesma versão não tem o mesmo número em instâncias diferentes e as ETags exigem sessões fixas no balanceador.
+ * </P>
+ */
+@Component
+public class VersaoService {
+
+    // Tipos de recurso que possuem versão.
+    public static final Set<String> TIPOS = Set.of("mercado", "produto", "estoque", "sugestao");
+
+    // Atributo da requisição com as versões que serão incrementadas ao fim da requisição.
+    private static final String ALTERACOES = VersaoService.class.getName() + ".alteracoes";
+
+    // Momento da inicialização, que diferencia as versões de execuções diferentes da aplicação.
+    private final long inicio = System.currentTimeMillis();
+
+    // Chave da versão incrementada quando invalidações de outras instâncias podem ter sido perdidas, somada a todas as versões.
+    private static final String TODAS = "*";
+
+    // Versão de cada recurso e de cada coleção, pela chave.
+    private final Map<String, Versao> versoes = new ConcurrentHashMap<String, Versao>();
+
+    // Barramento que repassa os incrementos às outras instâncias.
+    private final BarramentoInvalidacao barramento;
+
+    // Construtor. Os incrementos das outras instâncias são aplicados somente nesta instância.
+    public VersaoService(BarramentoInvalidacao barramento) {
+        this.barramento = barramento;
+
+        barramento.aoReceberVersoes(this::receber);
+    }
+
+    /**
+     * Incrementa a versão do recurso e da coleção do seu tipo.
+     * @param tipo - Tipo do recurso.
+     * @param id - Id do recurso.
+     */
+    public void alterar(String tipo, Integer id) {
+        alterarChaves(List.of(tipo + ":" + id, tipo));
+    }
+
+    /**
+     * Incrementa somente a versão do recurso, cujos sub-recursos (como os produtos de um mercado) foram alterados.
+     * @param tipo - Tipo do recurso.
+     * @param id - Id do recurso.
+     */
+    public void alterarSubrecursos(String tipo, Integer id) {
+        if(id != null)
+            alterarChaves(List.of(tipo + ":" + id));
+    }
+
+    /**
+     * Incrementa as versões adiadas pela requisição.
+     * @param requisicao - Atributos da requisição concluída.
+     */
+    @SuppressWarnings("unchecked")
+    public void concluir(RequestAttributes requisicao) {
+        List<String> alteracoes = (List<String>) requisicao.getAttribute(ALTERACOES, RequestAttributes.SCOPE_REQUEST);
+
+        if(alteracoes == null)
+            return;
+
+        requisicao.removeAttribute(ALTERACOES, RequestAttributes.SCOPE_REQUEST);
+        incrementarEDifundir(alteracoes);
+    }
+
+    /**
+     * Busca a versão combinada das chaves informadas.
+     * @param chaves - Chaves dos recursos ("mercado:5") e das coleções ("mercado") dos quais a resposta depende.
+     * @return Versao - Soma das versões e a data da alteração mais recente.
+     */
+    public Versao versao(Collection<String> chaves) {
+        Versao todas = versoes.get(TODAS);
+        long numero = todas == null ? 0 : todas.numero;
+        long alteradoEm = todas == null ? inicio : Math.max(inicio, todas.alteradoEm);
+
+        for(String chave : chaves) {
+            Versao versao = versoes.get(chave);
+
+            if(versao != null) {
+                numero += versao.numero;
+                alteradoEm = Math.max(alteradoEm, versao.alteradoEm);
+            }
+        }
+
+        return new Versao(numero, alteradoEm);
+    }
+
+    /**
+     * @return long - Momento da inicialização da aplicação, em milissegundos.
+     */
+    public long getInicio() {
+        return inicio;
+    }
+
+    // Incrementa as versões, ao fim da requisição atual se houver uma.
+    @SuppressWarnings("unchecked")
+    private void alterarChaves(List<String> chaves) {
+        RequestAttributes requisicao = RequestContextHolder.getRequestAttributes();
+
+        if(requisicao == null) {
+            incrementarEDifundir(chaves);
+            return;
+        }
+
+        List<String> alteracoes = (List<String>) requisicao.getAttribute(ALTERACOES, RequestAttributes.SCOPE_REQUEST);
+
+        if(alteracoes == null) {
+            alteracoes = new ArrayList<String>();
+            requisicao.setAttribute(ALTERACOES, alteracoes, RequestAttributes.SCOPE_REQUEST);
+        }
+
+        alteracoes.addAll(chaves);
+    }
+
+    // Incrementa as versões e repassa os incrementos às outras instâncias.
+    private void incrementarEDifundir(Collection<String> chaves) {
+        incrementar(chaves);
+
+        for(String chave : chaves)
+            barramento.publicar(Invalidacao.versao(chave));
+    }
+
+    // Aplica os incrementos recebidos das outras instâncias.
+    private void receber(List<Invalidacao> invalidacoes) {
+        List<String> chaves = new ArrayList<String>();
+
+        for(Invalidacao invalidacao : invalidacoes)
+            chaves.add(invalidacao.getTipo() == Invalidacao.Tipo.TUDO ? TODAS : invalidacao.getChave());
+
+        incrementar(chaves);
+    }
+
+    // Substitui a versão de cada chave pela próxima.
+    private void incrementar(Collection<String> chaves) {
+        long agora = System.currentTimeMillis();
+
+        for(String chave : chaves)
+            versoes.merge(chave, new Versao(1, agora), (atual, nova) -> new Versao(atual.numero + 1, Math.max(atual.alteradoEm, agora)));
+    }
+
+    /**
+     * Versão de um recurso, imutável.
+     */
+    public static final class Versao {
+
+        private final long numero;
+        private final long alteradoEm;
+
+        private Versao(long numero, long alteradoEm) {
+            this.numero = numero;
+            this.alteradoEm = alteradoEm;
+        }
+
+        public long getNumero() {
+            return numero;
+        }
+
+        public long getAlteradoEm() {
+            return alteradoEm;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.pagueibaratoapi.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Calendar;
+
+import com.pagueibaratoapi.models.exceptions.DadosInvalidosException;
+
+/**
+ * Classe que representa a posição de uma listagem paginada por cursor.
+ * O cursor guarda o campo e a direção da ordenação, o valor do campo e o id do registro de referência,
+ * sendo enviado ao cliente de forma opaca, codificado em Base64.
+ */
+public class Cursor {
+
+    // Separador dos dados do cursor. O valor do campo é sempre o último dado, podendo conter o separador.
+    private static final String SEPARADOR = ";";
+
+    private final String campo;
+    private final boolean ascendente;
+    private final boolean anterior;
+    private final Integer id;
+    private final String valor;
+
+    // Construtor.
+    public Cursor(String campo, boolean ascendente, boolean anterior, Integer id, Object valor) {
+        this.campo = campo;
+        this.ascendente = ascendente;
+        this.anterior = anterior;
+        this.id = id;
+        this.valor = valorParaTexto(valor);
+    }
+
+    public String getCampo() {
+        return campo;
+    }
+
+    public boolean isAscendente() {
+        return ascendente;
+    }
+
+    public boolean isAnterior() {
+        return anterior;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    /**
+     * Método responsável por converter o valor do campo guardado no cursor para o tipo do atributo da entidade.
+     * @param tipo - Tipo do atributo da entidade.
+     * @return Object - Valor do campo no tipo informado.
+     * @throws DadosInvalidosException - Caso o valor não possa ser convertido.
+     */
+    public Object getValor(Class<?> tipo) throws DadosInvalidosException {
+        try {
+            if(tipo == Integer.class)
+                return Integer.valueOf(valor);
+
+            if(tipo == Float.class)
+                return Float.valueOf(valor);
+
+            if(Calendar.class.isAssignableFrom(tipo)) {
+                Calendar calendario = Calendar.getInstance();
+                calendario.setTimeInMillis(Long.parseLong(valor));
+                return calendario;
+            }
+
+            return valor;
+
+        } catch (NumberFormatException e) {
+            throw new DadosInvalidosException("cursor_invalido");
+        }
+    }
+
+    /**
+     * Método responsável por codificar o cursor no formato opaco enviado ao cliente.
+     * @return String - Cursor codificado em Base64.
+     */
+    public String codificar() {
+        String texto = String.join(
+            SEPARADOR,
+            anterior ? "a" : "p",
+            campo,
+            ascendente ? "asc" : "desc",
+            String.valueOf(id),
+            valor
+        );
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Método responsável por decodificar o cursor enviado pelo cliente.
+     * @param cursor - Cursor codificado em Base64.
+     * @return Cursor - Cursor decodificado.
+     * @throws DadosInvalidosException - Caso o cursor não esteja no formato esperado.
+     */
+    public static Cursor decodificar(String cursor) throws DadosInvalidosException {
+        try {
+            String[] dados = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARADOR, 5);
+
+            if(dados.length != 5)
+                throw new DadosInvalidosException("cursor_invalido");
+
+            return new Cursor(
+                dados[1],
+                dados[2].equals("asc"),
+                dados[0].equals("a"),
+                Integer.valueOf(dados[3]),
+                dados[4]
+            );
+
+        } catch (IllegalArgumentException e) {
+            throw new DadosInvalidosException("cursor_invalido");
+        }
+    }
+
+    // Converte o valor do campo para texto. Datas são guardadas em milissegundos.
+    private static String valorParaTexto(Object valor) {
+        if(valor instanceof Calendar)
+            return String.valueOf(((Calendar) valor).getTimeInMillis());
+
+        return String.valueOf(valor);
+    }
+}
@@ -0,0 +1,71 @@
+package com.pagueibaratoapi.utils;
+
+import java.util.Set;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Classe utilitária para ordenação de dados no banco de dados.
+ */
+public class OrdenacaoUtils {
+
+    /**
+     * Campos pelos quais as listagens de produtos podem ser ordenadas.
+     */
+    public static final Set<String> CAMPOS_PRODUTO = Set.of("id", "nome", "marca", "tamanho", "cor");
+
+    /**
+     * Campos pelos quais as listagens de mercados podem ser ordenadas.
+     */
+    public static final Set<String> CAMPOS_MERCADO = Set.of("id", "nome", "logradouro", "numero", "complemento", "bairro", "cidade", "uf", "cep", "ramoId");
+
+    /**
+     * Campos pelos quais as listagens de sugestões podem ser ordenadas.
+     */
+    public static final Set<String> CAMPOS_SUGESTAO = Set.of("id", "preco", "timestamp", "estoqueId");
+
+    /**
+     * Campos pelos quais as listagens de estoques podem ser ordenadas.
+     */
+    public static final Set<String> CAMPOS_ESTOQUE = Set.of("id", "produtoId", "mercadoId");
+
+    /**
+     * Campos pelos quais as listagens de produtos paginadas por cursor podem ser ordenadas.
+     * A paginação por cursor compara o valor do campo, por isso somente campos não nulos são permitidos.
+     */
+    public static final Set<String> CAMPOS_CURSOR_PRODUTO = Set.of("id", "nome", "marca", "tamanho");
+
+    /**
+     * Campos pelos quais as listagens de sugestões paginadas por cursor podem ser ordenadas.
+     * A data da sugestão não é permitida, pois pode ser nula.
+     */
+    public static final Set<String> CAMPOS_CURSOR_SUGESTAO = Set.of("id", "preco", "estoqueId");
+
+    /**
+     * Método responsável por converter os parâmetros de ordenação enviados pelo cliente em uma ordenação do banco de dados.
+     * Somente os campos permitidos são aceitos, evitando que o cliente ordene por campos não indexados ou inexistentes.
+     * @param ordenarPor - Campo que servirá de parâmetro para ordenar.
+     * @param ordem - Direção em que os dados serão ordenados entre "asc" e "desc".
+     * @param camposPermitidos - Campos pelos quais o recurso pode ser ordenado.
+     * @return Sort - Ordenação pelo campo informado com desempate pelo id, ou sem ordenação caso o campo não seja permitido.
+     */
+    public static Sort criarOrdenacao(String ordenarPor, String ordem, Set<String> camposPermitidos) {
+
+        // Se o campo não for permitido, os dados não são ordenados.
+        if(ordenarPor == null || !camposPermitidos.contains(ordenarPor))
+            return Sort.unsorted();
+
+        // Se a ordem for "asc", ordena de forma ascendente. Caso contrário, de forma descendente.
+        Sort.Direction direcao = "asc".equals(ordem) ? Sort.Direction.ASC : Sort.Direction.DESC;
+
+        // Ordenação pelo campo informado.
+        Sort ordenacao = Sort.by(direcao, ordenarPor);
+
+        // Se o campo não for o id, desempata pelo id para que as páginas sejam estáveis.
+        if(!ordenarPor.equals("id"))
+            ordenacao = ordenacao.and(Sort.by(direcao, "id"));
+
+        // Retorna a ordenação.
+        return ordenacao;
+    }
+}
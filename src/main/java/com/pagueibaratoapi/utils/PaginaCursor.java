@@ -0,0 +1,38 @@
+package com.pagueibaratoapi.utils;
+
+import java.util.List;
+
+/**
+ * Classe que representa uma página obtida por cursor, sem contagem do total de registros.
+ */
+public class PaginaCursor<T> {
+
+    private final List<T> itens;
+    private final String proximoCursor;
+    private final String cursorAnterior;
+
+    // Construtor.
+    public PaginaCursor(List<T> itens, String proximoCursor, String cursorAnterior) {
+        this.itens = itens;
+        this.proximoCursor = proximoCursor;
+        this.cursorAnterior = cursorAnterior;
+    }
+
+    public List<T> getItens() {
+        return itens;
+    }
+
+    /**
+     * @return String - Cursor da página seguinte ou null caso esta seja a última página.
+     */
+    public String getProximoCursor() {
+        return proximoCursor;
+    }
+
+    /**
+     * @return String - Cursor da página anterior ou null caso esta seja a primeira página.
+     */
+    public String getCursorAnterior() {
+        return cursorAnterior;
+    }
+}
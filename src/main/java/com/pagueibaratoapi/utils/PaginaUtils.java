@@ -61,4 +61,24 @@ public class PaginaUtils {
         // Retorna a página.
         return responsePagina;
     }
+
+    /**
+     * Sobrecarga do método responsável por criar um objeto ResponsePagina para páginas obtidas por cursor.
+     * Nesse caso o número da página e os totais da pesquisa não são conhecidos, pois não há consulta de contagem.
+     * @param limite - Quantidade de itens por página.
+     * @param itens - Itens que serão enviados nessa página.
+     * @return ResponsePagina - Objeto com os dados da página.
+     */
+    public static ResponsePagina criarResposta(Integer limite, List<?> itens) {
+
+        // Cria o objeto de resposta.
+        ResponsePagina responsePagina = new ResponsePagina();
+
+        // Define os dados recebidos.
+        responsePagina.setItensPorPagina(limite);
+        responsePagina.setItens(itens);
+
+        // Retorna a página.
+        return responsePagina;
+    }
 }
@@ -0,0 +1,120 @@
+-- Esquema inicial da base de dados, equivalente ao arquivo assets/api-pagueibarato-db.sql.
+-- Em bases de dados já existentes, esta versão é marcada como aplicada pelo baseline do Flyway.
+
+CREATE TABLE usuario
+(
+    id SERIAL NOT NULL,
+    nome character varying(50) NOT NULL,
+    email character varying(255) NOT NULL,
+    senha character varying(255) NOT NULL,
+    logradouro character varying(120) NOT NULL,
+    numero integer NOT NULL,
+    bairro character varying(50) NOT NULL,
+    cidade character varying(30) NOT NULL,
+    uf character(2) NOT NULL,
+    cep character(9) NOT NULL,
+    complemento character varying(20),
+    CONSTRAINT usuario_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE categoria
+(
+    id SERIAL NOT NULL,
+    nome character varying(30) NOT NULL,
+    descricao character varying(150) NOT NULL,
+    CONSTRAINT categoria_pkey PRIMARY KEY (id),
+    CONSTRAINT categoria_nome_key UNIQUE (nome)
+);
+
+CREATE TABLE ramo
+(
+    id SERIAL NOT NULL,
+    nome character varying(30) NOT NULL,
+    descricao character varying(150) NOT NULL,
+    CONSTRAINT ramo_pkey PRIMARY KEY (id),
+    CONSTRAINT ramo_nome_key UNIQUE (nome)
+);
+
+CREATE TABLE produto
+(
+    id SERIAL NOT NULL,
+    nome character varying(150) NOT NULL,
+    marca character varying(50) NOT NULL,
+    tamanho character varying(20) NOT NULL,
+    cor character varying(20),
+    "criadoPor" integer NOT NULL,
+    "categoriaId" integer NOT NULL,
+    CONSTRAINT produto_pkey PRIMARY KEY (id),
+    CONSTRAINT produto_categoriaid_fkey FOREIGN KEY ("categoriaId")
+        REFERENCES categoria (id)
+        ON UPDATE NO ACTION
+        ON DELETE NO ACTION,
+    CONSTRAINT produto_criadopor_fkey FOREIGN KEY ("criadoPor")
+        REFERENCES usuario (id)
+        ON UPDATE NO ACTION
+        ON DELETE NO ACTION
+);
+
+CREATE TABLE mercado
+(
+    id SERIAL NOT NULL,
+    nome character varying(50) NOT NULL,
+    logradouro character varying(120) NOT NULL,
+    numero integer NOT NULL,
+    complemento character varying(20),
+    bairro character varying(50) NOT NULL,
+    cidade character varying(30) NOT NULL,
+    uf character(2) NOT NULL,
+    cep character(9) NOT NULL,
+    "criadoPor" integer NOT NULL,
+    "ramoId" integer NOT NULL,
+    CONSTRAINT mercado_pkey PRIMARY KEY (id),
+    CONSTRAINT mercado_nome_key UNIQUE (nome),
+    CONSTRAINT mercado_criadopor_fkey FOREIGN KEY ("criadoPor")
+        REFERENCES usuario (id)
+        ON UPDATE NO ACTION
+        ON DELETE NO ACTION,
+    CONSTRAINT mercado_ramoid_fkey FOREIGN KEY ("ramoId")
+        REFERENCES ramo (id)
+        ON UPDATE NO ACTION
+        ON DELETE NO ACTION
+);
+
+CREATE TABLE estoque
+(
+    id SERIAL NOT NULL,
+    "criadoPor" integer NOT NULL,
+    "produtoId" integer NOT NULL,
+    "mercadoId" integer NOT NULL,
+    CONSTRAINT estoque_pkey PRIMARY KEY (id),
+    CONSTRAINT estoque_criadopor_fkey FOREIGN KEY ("criadoPor")
+        REFERENCES usuario (id)
+        ON UPDATE NO ACTION
+        ON DELETE NO ACTION,
+    CONSTRAINT estoque_mercadoid_fkey FOREIGN KEY ("mercadoId")
+        REFERENCES mercado (id)
+        ON UPDATE NO ACTION
+        ON DELETE NO ACTION,
+    CONSTRAINT estoque_produtoid_fkey FOREIGN KEY ("produtoId")
+        REFERENCES produto (id)
+        ON UPDATE NO ACTION
+        ON DELETE NO ACTION
+);
+
+CREATE TABLE sugestao
+(
+    id SERIAL NOT NULL,
+    preco integer NOT NULL,
+    "timestamp" timestamp without time zone,
+    "estoqueId" integer NOT NULL,
+    "criadoPor" integer NOT NULL,
+    CONSTRAINT sugestao_pkey PRIMARY KEY (id),
+    CONSTRAINT "sugestao_estoqueId_fkey" FOREIGN KEY ("estoqueId")
+        REFERENCES estoque (id)
+        ON UPDATE NO ACTION
+        ON DELETE NO ACTION,
+    CONSTRAINT "sugestao_criadoPor_fkey" FOREIGN KEY ("criadoPor")
+        REFERENCES usuario (id)
+        ON UPDATE NO ACTION
+        ON DELETE NO ACTION
+);
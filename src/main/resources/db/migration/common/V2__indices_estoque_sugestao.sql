@@ -0,0 +1,26 @@
+-- Índices das consultas de estoque e sugestões e unicidade do produto no estoque de cada mercado.
+
+-- Antes de criar a restrição de unicidade, as sugestões de estoques duplicados passam para o estoque mais antigo
+-- do mesmo produto no mesmo mercado, e os estoques duplicados são removidos.
+UPDATE sugestao SET "estoqueId" = (
+    SELECT MIN(duplicado.id)
+    FROM estoque atual
+    JOIN estoque duplicado
+        ON duplicado."produtoId" = atual."produtoId"
+        AND duplicado."mercadoId" = atual."mercadoId"
+    WHERE atual.id = sugestao."estoqueId"
+);
+
+DELETE FROM estoque
+WHERE id NOT IN (
+    SELECT MIN(id) FROM estoque GROUP BY "produtoId", "mercadoId"
+);
+
+-- O índice da restrição começa pelo produto e também atende às buscas de estoques por produto.
+ALTER TABLE estoque ADD CONSTRAINT estoque_produtoid_mercadoid_key UNIQUE ("produtoId", "mercadoId");
+
+-- Busca dos produtos de um mercado.
+CREATE INDEX estoque_mercadoid_idx ON estoque ("mercadoId");
+
+-- Busca das sugestões de um estoque, ordenadas pela data.
+CREATE INDEX sugestao_estoqueid_timestamp_idx ON sugestao ("estoqueId", "timestamp");
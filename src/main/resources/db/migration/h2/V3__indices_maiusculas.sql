@@ -0,0 +1,8 @@
+-- O H2 não possui índices de expressão, por isso os índices usam as próprias colunas.
+-- Esta versão existe somente para que o banco de dados embarcado tenha o mesmo histórico de versões.
+
+CREATE INDEX produto_caracteristicas_idx ON produto (nome, marca);
+
+CREATE INDEX mercado_nome_maiusculas_idx ON mercado (nome);
+
+CREATE INDEX mercado_endereco_idx ON mercado (cep, numero, cidade, bairro);
@@ -0,0 +1,10 @@
+-- Índices de expressão para as comparações sem diferenciar maiúsculas e minúsculas.
+
+-- Busca de produtos pelas características (ProdutoRepository.findByCaracteristicas).
+CREATE INDEX produto_caracteristicas_idx ON produto (UPPER(nome), UPPER(marca));
+
+-- Verificação do nome do mercado (MercadoRepository.existsByNomeIgnoreCase).
+CREATE INDEX mercado_nome_maiusculas_idx ON mercado (UPPER(nome));
+
+-- Busca de mercados pelo endereço (MercadoRepository.findByEndereco).
+CREATE INDEX mercado_endereco_idx ON mercado (cep, numero, UPPER(cidade), UPPER(bairro));
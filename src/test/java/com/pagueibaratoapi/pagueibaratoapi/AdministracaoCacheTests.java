@@ -0,0 +1,68 @@
+package com.pagueibaratoapi.pagueibaratoapi;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+
+@SpringBootTest(properties = {
+	"management.endpoints.web.exposure.include=health,metrics,cache",
+	"pagueibarato.config.administradores=Admin@Teste.com"
+})
+@AutoConfigureMockMvc
+class AdministracaoCacheTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void rotasDeAdministracaoDoCachePermitidasSomenteAosAdministradores() throws Exception {
+		// A saúde da aplicação continua pública.
+		mockMvc.perform(get("/actuator/health"))
+			.andExpect(status().isOk());
+
+		// Sem token, a requisição não é autorizada.
+		mockMvc.perform(get("/actuator/cache"))
+			.andExpect(status().isForbidden());
+
+		// Um usuário autenticado que não é administrador não lê as estatísticas nem remove os valores do cache.
+		String usuario = "Bearer " + token("usuario@teste.com");
+
+		mockMvc.perform(get("/actuator/cache").header("Authorization", usuario))
+			.andExpect(status().isForbidden());
+
+		mockMvc.perform(delete("/actuator/cache/produtos").header("Authorization", usuario))
+			.andExpect(status().isForbidden());
+
+		mockMvc.perform(get("/actuator/metrics").header("Authorization", usuario))
+			.andExpect(status().isForbidden());
+
+		// O administrador, com o email em qualquer caixa, acessa as rotas de administração.
+		String administrador = "Bearer " + token("admin@teste.com");
+
+		mockMvc.perform(get("/actuator/cache").header("Authorization", administrador))
+			.andExpect(status().isOk());
+
+		mockMvc.perform(get("/actuator/metrics").header("Authorization", administrador))
+			.andExpect(status().isOk());
+	}
+
+	// Gera um token igual ao do login, com o segredo dos testes.
+	private String token(String email) {
+		return JWT.create()
+			.withSubject(email)
+			.withExpiresAt(new Date(System.currentTimeMillis() + 600000))
+			.sign(Algorithm.HMAC512("segredo_teste"));
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.pagueibaratoapi.pagueibaratoapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+
+import com.pagueibaratoapi.cache.AquecimentoCache;
+import com.pagueibaratoapi.cache.GerenciadorCache;
+import com.pagueibaratoapi.models.requests.Estoque;
+import com.pagueibaratoapi.models.requests.Mercado;
+import com.pagueibaratoapi.models.requests.Produto;
+import com.pagueibaratoapi.models.requests.Sugestao;
+import com.pagueibaratoapi.repository.EstoqueRepository;
+import com.pagueibaratoapi.repository.MercadoRepository;
+import com.pagueibaratoapi.repository.ProdutoRepository;
+import com.pagueibaratoapi.repository.SugestaoRepository;
+
+@SpringBootTest(
+	webEnvironment = WebEnvironment.RANDOM_PORT,
+	properties = {
+		"pagueibarato.config.aquecimento.habilitado=true",
+		"pagueibarato.config.aquecimento.url-publica=https://api.pagueibarato.com",
+		"server.forward-headers-strategy=native",
+		"server.tomcat.remoteip.internal-proxies=127\\\\.0\\\\.0\\\\.1|0:0:0:0:0:0:0:1"
+	}
+)
+class AquecimentoCacheTests {
+
+	@Autowired
+	private AquecimentoCache aquecimentoCache;
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private GerenciadorCache gerenciadorCache;
+
+	@Autowired
+	private ProdutoRepository produtoRepository;
+
+	@Autowired
+	private MercadoRepository mercadoRepository;
+
+	@Autowired
+	private EstoqueRepository estoqueRepository;
+
+	@Autowired
+	private SugestaoRepository sugestaoRepository;
+
+	@Test
+	void inicializacaoAqueceAsListagensEOLevantamentoDosProdutosMaisSugeridos() throws Exception {
+		// As listagens configuradas foram aquecidas antes da aplicação ficar pronta.
+		assertEquals(4, aquecimentoCache.getAquecidos());
+		assertEquals(0, aquecimentoCache.getFalhas());
+
+		for(String regiao : new String[] { "categorias", "ramos", "produtos", "mercados" })
+			assertEquals(1, gerenciadorCache.estatisticas().get(regiao).loadCount(), regiao);
+
+		// As listagens guardadas possuem os links do endereço público, vindos dos cabeçalhos do aquecimento.
+		assertTrue(restTemplate.getForObject("/mercado?pagina=0&limite=10", String.class).contains("https://api.pagueibarato.com/mercado"));
+
+		Produto produto = new Produto();
+		produto.setNome("Produto Aquecido");
+		produto.setMarca("Marca");
+		produto.setTamanho("1kg");
+		produto = produtoRepository.save(produto);
+
+		Mercado mercado = new Mercado();
+		mercado.setNome("Mercado Aquecido");
+		mercado.setLogradouro("Rua de Teste");
+		mercado.setNumero(1);
+		mercado.setBairro("Centro");
+		mercado.setCidade("Sao Paulo");
+		mercado.setUf("SP");
+		mercado.setCep("01001-000");
+		mercado = mercadoRepository.save(mercado);
+
+		Estoque estoque = new Estoque();
+		estoque.setProdutoId(produto.getId());
+		estoque.setMercadoId(mercado.getId());
+		estoque = estoqueRepository.save(estoque);
+
+		Sugestao sugestao = new Sugestao();
+		sugestao.setEstoqueId(estoque.getId());
+		sugestao.setPreco(1000f);
+		sugestaoRepository.save(sugestao);
+
+		// Um novo aquecimento inclui o levantamento do produto sugerido.
+		aquecimentoCache.run(null);
+
+		assertEquals(9, aquecimentoCache.getAquecidos());
+		assertTrue(gerenciadorCache.estatisticas().containsKey("produtoLevantamento"));
+	}
+
+}
@@ -0,0 +1,209 @@
+package com.pagueibaratoapi.pagueibaratoapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.cache.Cache;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.pagueibaratoapi.cache.BarramentoInvalidacao;
+import com.pagueibaratoapi.cache.ChaveCache;
+import com.pagueibaratoapi.cache.Dependencias;
+import com.pagueibaratoapi.cache.DifusorLocal;
+import com.pagueibaratoapi.cache.GerenciadorCache;
+import com.pagueibaratoapi.cache.Invalidacao;
+import com.pagueibaratoapi.cache.PropriedadesCache;
+import com.pagueibaratoapi.services.VersaoService;
+
+// Simula duas instâncias da aplicação na mesma JVM, ligadas pelo difusor local.
+class BarramentoInvalidacaoTests {
+
+	// Canal exclusivo do teste, para não receber as invalidações dos contextos Spring dos outros testes.
+	private final String canal = "teste_" + UUID.randomUUID();
+
+	private final List<BarramentoInvalidacao> barramentos = new ArrayList<BarramentoInvalidacao>();
+
+	private BarramentoInvalidacao criarBarramento(Duration intervalo, int tamanhoLote) {
+		BarramentoInvalidacao barramento = new BarramentoInvalidacao(new DifusorLocal(canal), intervalo, tamanhoLote);
+		barramentos.add(barramento);
+		return barramento;
+	}
+
+	private GerenciadorCache criarGerenciador(BarramentoInvalidacao barramento) {
+		PropriedadesCache propriedades = new Binder(new MapConfigurationPropertySource(Map.of(
+			"pagueibarato.config.cache.padrao.tamanho-maximo", "100",
+			"pagueibarato.config.cache.padrao.expiracao", "10m"
+		))).bind("pagueibarato.config.cache", PropriedadesCache.class).get();
+
+		GerenciadorCache gerenciador = new GerenciadorCache(propriedades, Ticker.systemTicker());
+
+		gerenciador.difundirPor(barramento::publicar);
+		barramento.aoReceber(gerenciador::aplicar);
+
+		return gerenciador;
+	}
+
+	// Aguarda a condição, já que as invalidações chegam às outras instâncias depois do intervalo do barramento.
+	private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+		long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+
+		while(!condicao.getAsBoolean()) {
+			assertTrue(System.nanoTime() < limite, "invalidacao_nao_recebida");
+			Thread.sleep(10);
+		}
+	}
+
+	@AfterEach
+	void fechar() {
+		barramentos.forEach(BarramentoInvalidacao::close);
+	}
+
+	@Test
+	void remocoesChegamAsOutrasInstancias() throws InterruptedException {
+		BarramentoInvalidacao barramentoA = criarBarramento(Duration.ofMillis(10), 200);
+		BarramentoInvalidacao barramentoB = criarBarramento(Duration.ofMillis(10), 200);
+		GerenciadorCache instanciaA = criarGerenciador(barramentoA);
+		GerenciadorCache instanciaB = criarGerenciador(barramentoB);
+
+		ChaveCache mercado1 = new ChaveCache(1, Dependencias.de("mercado", 1));
+		ChaveCache mercado2 = new ChaveCache(2, Dependencias.de("mercado", 2));
+
+		for(GerenciadorCache instancia : List.of(instanciaA, instanciaB)) {
+			instancia.getCache("mercadoProdutos").put(mercado1, "produtos do mercado 1");
+			instancia.getCache("mercadoProdutos").put(mercado2, "produtos do mercado 2");
+			instancia.getCache("usuarios").put("email:teste@teste.com", "usuario");
+			instancia.getCache("categorias").put("todas", "categorias");
+		}
+
+		instanciaA.getCache("mercadoProdutos").evict(Dependencias.de("mercado", 1));
+		instanciaA.getCache("usuarios").evict("email:teste@teste.com");
+		instanciaA.getCache("categorias").clear();
+
+		Cache mercadoProdutosB = instanciaB.getCache("mercadoProdutos");
+
+		aguardar(() -> mercadoProdutosB.get(mercado1) == null);
+		aguardar(() -> instanciaB.getCache("usuarios").get("email:teste@teste.com") == null);
+		aguardar(() -> instanciaB.getCache("categorias").get("todas") == null);
+
+		// Somente os valores afetados são removidos na outra instância.
+		assertNotNull(mercadoProdutosB.get(mercado2));
+
+		// As invalidações recebidas não são publicadas de novo.
+		assertEquals(0, barramentoB.getEnviados());
+	}
+
+	@Test
+	void rajadaDeRemocoesEAgrupadaEmUmLote() throws InterruptedException {
+		BarramentoInvalidacao barramentoA = criarBarramento(Duration.ofMillis(200), 10);
+		BarramentoInvalidacao barramentoB = criarBarramento(Duration.ofMillis(200), 10);
+		GerenciadorCache instanciaA = criarGerenciador(barramentoA);
+		GerenciadorCache instanciaB = criarGerenciador(barramentoB);
+
+		List<List<Invalidacao>> recebidos = new ArrayList<List<Invalidacao>>();
+		barramentoB.aoReceber(lote -> {
+			synchronized(recebidos) {
+				recebidos.add(lote);
+			}
+		});
+
+		for(int i = 0; i < 50; i++)
+			instanciaB.getCache("usuarios").put("id:" + i, "usuario" + i);
+
+		instanciaB.getCache("produtos").put("todos", "produtos");
+
+		// A mesma chave removida várias vezes, as chaves de uma região que passam do lote e uma região limpa depois das chaves.
+		for(int i = 0; i < 50; i++) {
+			instanciaA.getCache("usuarios").evict("id:" + i);
+			instanciaA.getCache("usuarios").evict("id:" + i);
+		}
+
+		instanciaA.getCache("produtos").evict("todos");
+		instanciaA.getCache("produtos").clear();
+
+		aguardar(() -> barramentoB.getRecebidos() > 0);
+
+		assertEquals(1, barramentoA.getEnviados());
+		assertEquals(1, recebidos.size());
+		assertEquals(Set.of(Invalidacao.regiao("usuarios"), Invalidacao.regiao("produtos")), Set.copyOf(recebidos.get(0)));
+
+		for(int i = 0; i < 50; i++)
+			assertNull(instanciaB.getCache("usuarios").get("id:" + i));
+
+		assertNull(instanciaB.getCache("produtos").get("todos"));
+	}
+
+	@Test
+	void versoesChegamAsOutrasInstancias() throws InterruptedException {
+		BarramentoInvalidacao barramentoA = criarBarramento(Duration.ofMillis(10), 200);
+		BarramentoInvalidacao barramentoB = criarBarramento(Duration.ofMillis(10), 200);
+		VersaoService versaoA = new VersaoService(barramentoA);
+		VersaoService versaoB = new VersaoService(barramentoB);
+
+		versaoA.alterar("mercado", 5);
+
+		aguardar(() -> versaoB.versao(List.of("mercado:5")).getNumero() == 1);
+
+		assertEquals(1, versaoB.versao(List.of("mercado")).getNumero());
+		assertEquals(0, versaoB.versao(List.of("mercado:6")).getNumero());
+		assertEquals(0, barramentoB.getEnviados());
+	}
+
+	@Test
+	void versoesQuePassamDoLoteChegamDepoisDaLimpezaDaRegiao() throws InterruptedException {
+		BarramentoInvalidacao barramentoA = criarBarramento(Duration.ofMillis(200), 3);
+		BarramentoInvalidacao barramentoB = criarBarramento(Duration.ofMillis(200), 3);
+
+		List<Invalidacao> ordem = new ArrayList<Invalidacao>();
+		barramentoB.aoReceber(lote -> {
+			synchronized(ordem) {
+				ordem.addAll(lote);
+			}
+		});
+		barramentoB.aoReceberVersoes(lote -> {
+			synchronized(ordem) {
+				ordem.addAll(lote);
+			}
+		});
+
+		// As chaves da região são trocadas pela limpeza da região, publicada depois das versões.
+		for(int i = 0; i < 3; i++)
+			barramentoA.publicar(Invalidacao.daRemocao("usuarios", "id:" + i));
+
+		for(int i = 0; i < 4; i++)
+			barramentoA.publicar(Invalidacao.versao("mercado:" + i));
+
+		aguardar(() -> barramentoB.getRecebidos() == 2);
+
+		synchronized(ordem) {
+			assertEquals(5, ordem.size());
+			assertEquals(Invalidacao.regiao("usuarios"), ordem.get(0));
+		}
+	}
+
+	@Test
+	void invalidacaoEscritaELidaSemPerdas() {
+		Invalidacao dependencias = Invalidacao.daRemocao("mercadoProdutos", Dependencias.de("mercado", 1, "produto", 7));
+		Invalidacao chave = Invalidacao.daRemocao("usuarios", "email:com\ttabulacao\ne\\barra");
+
+		assertEquals(dependencias, Invalidacao.ler(dependencias.escrever()));
+		assertEquals(chave, Invalidacao.ler(chave.escrever()));
+		assertEquals(Dependencias.de("mercado", 1, "produto", 7), Invalidacao.ler(dependencias.escrever()).getDependencias());
+
+		// Chaves que não podem ser reconstruídas limpam a região inteira.
+		assertEquals(Invalidacao.regiao("produtos"), Invalidacao.daRemocao("produtos", 7));
+	}
+}
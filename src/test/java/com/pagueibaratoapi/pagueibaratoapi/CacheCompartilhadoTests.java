@@ -0,0 +1,181 @@
+package com.pagueibaratoapi.pagueibaratoapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.hateoas.Link;
+
+import com.pagueibaratoapi.cache.ArmazenamentoMemoria;
+import com.pagueibaratoapi.cache.CacheRegiao;
+import com.pagueibaratoapi.cache.CacheRemoto;
+import com.pagueibaratoapi.cache.ChaveCache;
+import com.pagueibaratoapi.cache.Dependencias;
+import com.pagueibaratoapi.cache.GerenciadorCache;
+import com.pagueibaratoapi.cache.PropriedadesCache;
+import com.pagueibaratoapi.cache.SerializadorRespostas;
+import com.pagueibaratoapi.models.requests.Produto;
+import com.pagueibaratoapi.models.responses.ResponsePagina;
+import com.pagueibaratoapi.models.responses.ResponseProduto;
+
+class CacheCompartilhadoTests {
+
+	// Relógio controlado pelo teste, usado pelas regiões e pela espera após as falhas.
+	private final AtomicLong agora = new AtomicLong();
+
+	// Armazenamento compartilhado pelas instâncias simuladas.
+	private final ArmazenamentoMemoria armazenamento = new ArmazenamentoMemoria();
+
+	private GerenciadorCache criarInstancia() {
+		PropriedadesCache propriedades = new Binder(new MapConfigurationPropertySource(Map.of(
+			"pagueibarato.config.cache.padrao.tamanho-maximo", "100",
+			"pagueibarato.config.cache.padrao.expiracao", "10m",
+			"pagueibarato.config.cache.regioes[produtos].compartilhada", "true"
+		))).bind("pagueibarato.config.cache", PropriedadesCache.class).get();
+
+		GerenciadorCache gerenciador = new GerenciadorCache(propriedades, agora::get);
+		gerenciador.compartilharPor(new CacheRemoto(armazenamento, Duration.ofSeconds(30), agora::get));
+
+		return gerenciador;
+	}
+
+	private static ResponseProduto produto(int id) {
+		Produto modelo = new Produto();
+
+		modelo.setId(id);
+		modelo.setNome("Produto " + id);
+		modelo.setMarca("Marca");
+		modelo.setCategoriaId(3);
+
+		ResponseProduto produto = new ResponseProduto(modelo);
+		produto.add(Link.of("/produto/" + id).withSelfRel());
+
+		return produto;
+	}
+
+	@Test
+	void valorCarregadoPorUmaInstanciaEhEntregueAsDemais() {
+		CacheRegiao produtosA = (CacheRegiao) criarInstancia().getCache("produtos");
+		CacheRegiao produtosB = (CacheRegiao) criarInstancia().getCache("produtos");
+
+		AtomicInteger carregamentos = new AtomicInteger();
+		ChaveCache chave = new ChaveCache(1, Dependencias.de("produto", 1));
+
+		ResponseProduto carregado = produtosA.get(chave, () -> {
+			carregamentos.incrementAndGet();
+			return produto(1);
+		});
+
+		ResponseProduto lido = produtosB.get(new ChaveCache(1, Dependencias.de("produto", 1)), () -> {
+			carregamentos.incrementAndGet();
+			return produto(1);
+		});
+
+		assertEquals(1, carregamentos.get());
+		assertEquals(carregado.getNome(), lido.getNome());
+		assertEquals(carregado.getLinks(), lido.getLinks());
+		assertEquals(1, produtosA.getAusenciasRemotas());
+		assertEquals(1, produtosB.getAcertosRemotos());
+	}
+
+	@Test
+	void remocaoPorDependenciasRemoveValorDoCacheCompartilhado() {
+		CacheRegiao produtosA = (CacheRegiao) criarInstancia().getCache("produtos");
+		CacheRegiao produtosB = (CacheRegiao) criarInstancia().getCache("produtos");
+
+		AtomicInteger carregamentos = new AtomicInteger();
+
+		produtosA.get(new ChaveCache(1, Dependencias.de("produto", 1)), () -> produto(1));
+		produtosA.get(new ChaveCache(2, Dependencias.de("produto", 2)), () -> produto(2));
+
+		produtosA.evict(Dependencias.de("produto", 1));
+
+		produtosB.get(new ChaveCache(1, Dependencias.de("produto", 1)), () -> {
+			carregamentos.incrementAndGet();
+			return produto(1);
+		});
+		produtosB.get(new ChaveCache(2, Dependencias.de("produto", 2)), () -> {
+			carregamentos.incrementAndGet();
+			return produto(2);
+		});
+
+		// Somente o produto removido é carregado novamente.
+		assertEquals(1, carregamentos.get());
+	}
+
+	@Test
+	void serializadorPreservaPaginasDeProdutos() {
+		ResponsePagina pagina = new ResponsePagina();
+
+		pagina.setContagem(2);
+		pagina.setItensPorPagina(10);
+		pagina.setPaginaAtual(0);
+		pagina.setTotalPaginas(1);
+		pagina.setTotalRegistros(2L);
+		pagina.setItens(List.of(produto(1), produto(-2)));
+		pagina.add(Link.of("/produto?pagina=0").withRel("primeira"));
+
+		ResponsePagina lida = (ResponsePagina) SerializadorRespostas.ler(SerializadorRespostas.escrever(pagina));
+
+		assertEquals(pagina.getContagem(), lida.getContagem());
+		assertEquals(pagina.getTotalRegistros(), lida.getTotalRegistros());
+		assertEquals(pagina.getLinks(), lida.getLinks());
+		assertEquals(2, lida.getItens().size());
+
+		ResponseProduto produto = (ResponseProduto) lida.getItens().get(1);
+
+		assertEquals(-2, produto.getId());
+		assertNull(produto.getCor());
+		assertEquals(produto(-2).getLinks(), produto.getLinks());
+
+		assertNull(SerializadorRespostas.escrever(List.of(new Object())));
+	}
+
+	@Test
+	void falhaDoCacheCompartilhadoUsaSomenteMemoriaELimpaRegioesPendentes() {
+		GerenciadorCache instanciaA = criarInstancia();
+		CacheRegiao produtosA = (CacheRegiao) instanciaA.getCache("produtos");
+		CacheRegiao produtosB = (CacheRegiao) criarInstancia().getCache("produtos");
+
+		AtomicInteger carregamentos = new AtomicInteger();
+
+		produtosA.get(new ChaveCache(1, Dependencias.de("produto", 1)), () -> produto(1));
+
+		armazenamento.setForaDoAr(true);
+
+		// Com o armazenamento fora do ar, a remoção não chega a ele e a região é carregada pelo método.
+		produtosA.evict(Dependencias.de("produto", 1));
+
+		assertEquals("Produto 1", produtosA.get(new ChaveCache(1, Dependencias.de("produto", 1)), () -> {
+			carregamentos.incrementAndGet();
+			return produto(1);
+		}).getNome());
+		assertEquals(1, carregamentos.get());
+		assertFalse(instanciaA.getRemoto().isDisponivel());
+
+		armazenamento.setForaDoAr(false);
+		agora.addAndGet(Duration.ofSeconds(31).toNanos());
+
+		// A instância A volta a consultar o armazenamento depois de limpar a região cuja remoção foi perdida.
+		produtosA.get(new ChaveCache(3, Dependencias.de("produto", 3)), () -> produto(3));
+
+		assertTrue(instanciaA.getRemoto().isDisponivel());
+
+		produtosB.get(new ChaveCache(1, Dependencias.de("produto", 1)), () -> {
+			carregamentos.incrementAndGet();
+			return produto(1);
+		});
+
+		assertEquals(2, carregamentos.get());
+	}
+}
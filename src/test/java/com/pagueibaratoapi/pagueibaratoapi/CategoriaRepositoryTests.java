@@ -0,0 +1,57 @@
+package com.pagueibaratoapi.pagueibaratoapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.pagueibaratoapi.models.requests.Categoria;
+import com.pagueibaratoapi.repository.CategoriaRepository;
+
+@SpringBootTest
+class CategoriaRepositoryTests {
+
+	@Autowired
+	private CategoriaRepository categoriaRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void verificacaoDaCategoriaUsaOCacheAteAProximaEscrita() {
+		Categoria categoria = new Categoria();
+		categoria.setNome("Categoria em Cache");
+		categoria = categoriaRepository.save(categoria);
+
+		Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		// A primeira verificação consulta o banco, as seguintes são respondidas pelo cache de consultas.
+		estatisticas.clear();
+
+		assertTrue(categoriaRepository.existeId(categoria.getId()));
+		assertTrue(categoriaRepository.existeId(categoria.getId()));
+		assertFalse(categoriaRepository.existeId(-1));
+		assertFalse(categoriaRepository.existeId(-1));
+		categoriaRepository.findAll();
+		categoriaRepository.findAll();
+
+		assertEquals(3, estatisticas.getPrepareStatementCount());
+		assertEquals(3, estatisticas.getQueryCacheHitCount());
+
+		// A remoção da categoria invalida as verificações em cache.
+		categoriaRepository.deleteById(categoria.getId());
+
+		estatisticas.clear();
+
+		assertFalse(categoriaRepository.existeId(categoria.getId()));
+		assertEquals(1, estatisticas.getPrepareStatementCount());
+	}
+
+}
@@ -0,0 +1,260 @@
+package com.pagueibaratoapi.pagueibaratoapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import com.pagueibaratoapi.cache.AdministracaoCache;
+import com.pagueibaratoapi.cache.CacheRegiao;
+import com.pagueibaratoapi.cache.ChaveCache;
+import com.pagueibaratoapi.cache.Dependencias;
+import com.pagueibaratoapi.cache.EstatisticasRegiao;
+import com.pagueibaratoapi.cache.GerenciadorCache;
+import com.pagueibaratoapi.cache.MetricasCache;
+import com.pagueibaratoapi.cache.PropriedadesCache;
+
+class GerenciadorCacheTests {
+
+	// Relógio controlado pelo teste.
+	private final AtomicLong agora = new AtomicLong();
+
+	private GerenciadorCache criarGerenciador() {
+		PropriedadesCache propriedades = new Binder(new MapConfigurationPropertySource(Map.of(
+			"pagueibarato.config.cache.padrao.tamanho-maximo", "10",
+			"pagueibarato.config.cache.padrao.expiracao", "10m",
+			"pagueibarato.config.cache.regioes[mercadoSugestoes].expiracao", "1h",
+			"pagueibarato.config.cache.regioes[mercadoSugestoes].recarga", "5m",
+			"pagueibarato.config.cache.regioes[produtoMercados].espera-maxima", "100ms"
+		))).bind("pagueibarato.config.cache", PropriedadesCache.class).get();
+
+		return new GerenciadorCache(propriedades, agora::get);
+	}
+
+	@Test
+	void remocaoPorDependenciasRemoveSomenteChavesAfetadas() {
+		Cache mercadoProdutos = criarGerenciador().getCache("mercadoProdutos");
+
+		ChaveCache mercado1 = new ChaveCache(1, Dependencias.de("mercado", 1));
+		ChaveCache mercado2 = new ChaveCache(2, Dependencias.de("mercado", 2));
+		ChaveCache todosMercados = new ChaveCache("todos", Dependencias.de("categoria", 3));
+
+		mercadoProdutos.put(mercado1, "produtos do mercado 1");
+		mercadoProdutos.put(mercado2, "produtos do mercado 2");
+		mercadoProdutos.put(todosMercados, "produtos da categoria 3");
+
+		mercadoProdutos.evict(Dependencias.de("mercado", 1, "produto", 7));
+
+		assertNull(mercadoProdutos.get(mercado1));
+		assertNotNull(mercadoProdutos.get(mercado2));
+		assertNull(mercadoProdutos.get(todosMercados));
+	}
+
+	@Test
+	void regiaoRespeitaTamanhoMaximoEExpiracao() {
+		GerenciadorCache gerenciador = criarGerenciador();
+		Cache produtos = gerenciador.getCache("produtos");
+
+		for(int i = 0; i < 100; i++)
+			produtos.put(i, "produto" + i);
+
+		((CaffeineCache) produtos).getNativeCache().cleanUp();
+
+		assertTrue(((CaffeineCache) produtos).getNativeCache().estimatedSize() <= 10);
+
+		produtos.put("novo", "produto");
+		agora.addAndGet(TimeUnit.MINUTES.toNanos(11));
+
+		assertNull(produtos.get("novo"));
+		assertEquals(1, gerenciador.estatisticas().get("produtos").missCount());
+	}
+
+	@Test
+	void regiaoComRecargaEntregaValorAntigoEnquantoUmaRequisicaoRecarrega() {
+		GerenciadorCache gerenciador = criarGerenciador();
+		Cache mercadoSugestoes = gerenciador.getCache("mercadoSugestoes");
+
+		mercadoSugestoes.put(1, "antigo");
+		agora.addAndGet(Duration.ofMinutes(6).toNanos());
+
+		// A primeira leitura recarrega, as seguintes continuam com o valor antigo, pois a região expira em uma hora.
+		assertNull(mercadoSugestoes.get(1));
+		assertNotNull(mercadoSugestoes.get(1));
+		assertEquals("antigo", mercadoSugestoes.get(1).get());
+
+		mercadoSugestoes.put(1, "novo");
+
+		assertEquals("novo", mercadoSugestoes.get(1).get());
+		assertEquals("novo", mercadoSugestoes.get(1, () -> "carregado"));
+	}
+
+	@Test
+	void remocaoDuranteARecargaImpedeAGravacaoDoValorAntigo() {
+		Cache mercadoSugestoes = criarGerenciador().getCache("mercadoSugestoes");
+		ChaveCache chave = new ChaveCache(1, Dependencias.de("mercado", 1));
+
+		mercadoSugestoes.put(chave, "antigo");
+		agora.addAndGet(Duration.ofMinutes(6).toNanos());
+
+		// A escrita remove a chave enquanto a recarga lê o valor anterior a ela.
+		assertEquals("lido antes da escrita", mercadoSugestoes.get(chave, () -> {
+			mercadoSugestoes.evict(Dependencias.de("mercado", 1));
+			return "lido antes da escrita";
+		}));
+
+		assertNull(mercadoSugestoes.get(chave));
+		assertEquals("novo", mercadoSugestoes.get(chave, () -> "novo"));
+	}
+
+	@Test
+	void falhaNaRecargaPermiteQueAProximaRequisicaoRecarregue() {
+		Cache mercadoSugestoes = criarGerenciador().getCache("mercadoSugestoes");
+
+		mercadoSugestoes.put(1, "antigo");
+		agora.addAndGet(Duration.ofMinutes(6).toNanos());
+
+		assertThrows(Cache.ValueRetrievalException.class, () -> mercadoSugestoes.get(1, () -> {
+			throw new IllegalStateException("falha");
+		}));
+
+		assertEquals("novo", mercadoSugestoes.get(1, () -> "novo"));
+		assertEquals("novo", mercadoSugestoes.get(1).get());
+	}
+
+	@Test
+	void requisicoesSimultaneasDaMesmaChaveAguardamUmUnicoCarregamento() throws Exception {
+		CacheRegiao produtos = (CacheRegiao) criarGerenciador().getCache("produtos");
+
+		AtomicInteger carregamentos = new AtomicInteger();
+		CountDownLatch carregando = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		try {
+			Future<String> primeira = executor.submit(() -> produtos.get(1, () -> {
+				carregamentos.incrementAndGet();
+				carregando.countDown();
+				liberar.await();
+				return "carregado";
+			}));
+
+			carregando.await();
+
+			Future<String> segunda = executor.submit(() -> produtos.get(1, () -> {
+				carregamentos.incrementAndGet();
+				return "carregado novamente";
+			}));
+
+			// Aguarda a segunda requisição começar a esperar pelo carregamento da primeira.
+			while(produtos.getRequisicoesAgrupadas() == 0)
+				Thread.sleep(1);
+
+			liberar.countDown();
+
+			assertEquals("carregado", primeira.get(5, TimeUnit.SECONDS));
+			assertEquals("carregado", segunda.get(5, TimeUnit.SECONDS));
+			assertEquals(1, carregamentos.get());
+			assertEquals("carregado", produtos.get(1).get());
+		} finally {
+			liberar.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void requisicaoCarregaPorContaPropriaAposEsgotarAEspera() throws Exception {
+		CacheRegiao produtoMercados = (CacheRegiao) criarGerenciador().getCache("produtoMercados");
+
+		CountDownLatch carregando = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+
+		try {
+			Future<String> lenta = executor.submit(() -> produtoMercados.get(1, () -> {
+				carregando.countDown();
+				liberar.await();
+				return "lento";
+			}));
+
+			carregando.await();
+
+			assertEquals("rapido", produtoMercados.get(1, () -> "rapido"));
+			assertEquals(1, produtoMercados.getEsperasEsgotadas());
+
+			liberar.countDown();
+
+			assertEquals("lento", lenta.get(5, TimeUnit.SECONDS));
+		} finally {
+			liberar.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void metricasEAdministracaoAcompanhamAsRegioesCriadasDepoisDoRegistro() {
+		GerenciadorCache gerenciador = criarGerenciador();
+		SimpleMeterRegistry registro = new SimpleMeterRegistry();
+		new MetricasCache(gerenciador).bindTo(registro);
+
+		AdministracaoCache administracao = new AdministracaoCache(gerenciador);
+
+		// A região é criada depois do registro das métricas.
+		Cache mercadoProdutos = gerenciador.getCache("mercadoProdutos");
+		ChaveCache mercado1 = new ChaveCache(1, Dependencias.de("mercado", 1));
+		ChaveCache mercado2 = new ChaveCache(2, Dependencias.de("mercado", 2));
+
+		mercadoProdutos.get(mercado1, () -> {
+			agora.addAndGet(Duration.ofMillis(30).toNanos());
+			return "produtos do mercado 1";
+		});
+		mercadoProdutos.get(mercado1, () -> "carregado novamente");
+		mercadoProdutos.put(mercado2, "produtos do mercado 2");
+		mercadoProdutos.put("chave", "valor");
+
+		assertEquals(1, registro.get("cache.gets").tags("cache", "mercadoProdutos", "result", "hit").functionCounter().count());
+		assertEquals(1, registro.get("cache.carregamento").tag("cache", "mercadoProdutos").functionTimer().count());
+		assertEquals(30, registro.get("cache.carregamento").tag("cache", "mercadoProdutos").functionTimer().totalTime(TimeUnit.MILLISECONDS));
+		assertTrue(registro.get("cache.memoria.estimada").tag("cache", "mercadoProdutos").gauge().value() > 0);
+
+		EstatisticasRegiao estatisticas = administracao.regiao("mercadoProdutos");
+
+		assertEquals(3, estatisticas.getTamanho());
+		assertEquals(0.5, estatisticas.getTaxaAcertos());
+		assertEquals(30, estatisticas.getTempoMedioCarregamentoMs());
+		assertNull(administracao.regiao("inexistente"));
+
+		// A chave é removida pelo texto ou pelos registros dos quais o valor depende.
+		administracao.remover("mercadoProdutos", "chave");
+		administracao.remover("mercadoProdutos", "mercado:1");
+
+		assertNull(mercadoProdutos.get("chave"));
+		assertNull(mercadoProdutos.get(mercado1));
+		assertNotNull(mercadoProdutos.get(mercado2));
+
+		administracao.limpar("mercadoProdutos");
+
+		assertNull(mercadoProdutos.get(mercado2));
+	}
+
+}
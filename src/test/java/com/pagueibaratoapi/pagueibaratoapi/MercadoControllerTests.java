@@ -0,0 +1,393 @@
+package com.pagueibaratoapi.pagueibaratoapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.pagueibaratoapi.controllers.MercadoController;
+import com.pagueibaratoapi.controllers.SugestaoController;
+import com.pagueibaratoapi.models.projections.ProdutoResumo;
+import com.pagueibaratoapi.models.requests.Categoria;
+import com.pagueibaratoapi.models.requests.Estoque;
+import com.pagueibaratoapi.models.requests.Mercado;
+import com.pagueibaratoapi.models.requests.Produto;
+import com.pagueibaratoapi.models.requests.Ramo;
+import com.pagueibaratoapi.models.requests.Sugestao;
+import com.pagueibaratoapi.models.requests.Usuario;
+import com.pagueibaratoapi.models.responses.ResponsePagina;
+import com.pagueibaratoapi.models.responses.ResponseProduto;
+import com.pagueibaratoapi.models.responses.ResponseSugestao;
+import com.pagueibaratoapi.repository.CategoriaRepository;
+import com.pagueibaratoapi.repository.EstoqueRepository;
+import com.pagueibaratoapi.repository.MercadoRepository;
+import com.pagueibaratoapi.repository.ProdutoRepository;
+import com.pagueibaratoapi.repository.RamoRepository;
+import com.pagueibaratoapi.repository.SugestaoRepository;
+import com.pagueibaratoapi.repository.UsuarioRepository;
+import com.pagueibaratoapi.services.ReferenciaService;
+import com.pagueibaratoapi.services.Referencias;
+
+@SpringBootTest
+class MercadoControllerTests {
+
+	@Autowired
+	private MercadoController mercadoController;
+
+	@Autowired
+	private SugestaoController sugestaoController;
+
+	@Autowired
+	private CategoriaRepository categoriaRepository;
+
+	@Autowired
+	private EstoqueRepository estoqueRepository;
+
+	@Autowired
+	private MercadoRepository mercadoRepository;
+
+	@Autowired
+	private ProdutoRepository produtoRepository;
+
+	@Autowired
+	private RamoRepository ramoRepository;
+
+	@Autowired
+	private SugestaoRepository sugestaoRepository;
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	@Autowired
+	private ReferenciaService referenciaService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void listarProdutosExecutaNumeroConstanteDeConsultas() {
+		Integer mercadoPequeno = criarMercadoComProdutos("Mercado Pequeno", 2);
+		Integer mercadoGrande = criarMercadoComProdutos("Mercado Grande", 40);
+
+		Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		estatisticas.clear();
+		List<ResponseProduto> produtosPequeno = mercadoController.listarProdutos(mercadoPequeno);
+		long consultasPequeno = estatisticas.getPrepareStatementCount();
+
+		estatisticas.clear();
+		List<ResponseProduto> produtosGrande = mercadoController.listarProdutos(mercadoGrande);
+		long consultasGrande = estatisticas.getPrepareStatementCount();
+
+		assertEquals(2, produtosPequeno.size());
+		assertEquals(40, produtosGrande.size());
+		assertEquals(consultasPequeno, consultasGrande);
+	}
+
+	@Test
+	void listarProdutosPaginadoRetornaUltimaPaginaIncompleta() {
+		Integer mercado = criarMercadoComProdutos("Mercado Paginado", 5);
+
+		ResponsePagina ultimaPagina = mercadoController.listarProdutos(mercado, 1, 3);
+
+		assertEquals(2, ultimaPagina.getItens().size());
+		assertEquals(2, ultimaPagina.getTotalPaginas());
+		assertEquals(5L, ultimaPagina.getTotalRegistros());
+	}
+
+	@Test
+	void listarProdutosOrdenadoEPaginadoRetornaPrimeirosRegistrosDaOrdenacao() {
+		Integer mercado = criarMercadoComProdutos("Mercado Ordenado", 5);
+
+		ResponsePagina pagina = mercadoController.listarProdutos(mercado, 0, 2, "tamanho", "desc");
+
+		assertEquals(2, pagina.getItens().size());
+		assertEquals("4g", ((ResponseProduto) pagina.getItens().get(0)).getTamanho());
+		assertEquals("3g", ((ResponseProduto) pagina.getItens().get(1)).getTamanho());
+		assertEquals(5L, pagina.getTotalRegistros());
+	}
+
+	@Test
+	void listarSugestoesExecutaUmaUnicaConsulta() {
+		Integer mercado = criarMercadoComProdutos("Mercado Sugestoes", 1);
+		ProdutoResumo produto = produtoRepository.findByMercadoId(mercado).get(0);
+		Estoque estoque = estoqueRepository.findByProdutoIdAndMercadoId(produto.getId(), mercado);
+
+		for(int i = 1; i <= 3; i++) {
+			Sugestao sugestao = new Sugestao();
+			sugestao.setPreco(i * 100f);
+			sugestao.setEstoqueId(estoque.getId());
+			sugestaoRepository.save(sugestao);
+		}
+
+		Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		estatisticas.clear();
+		List<ResponseSugestao> sugestoes = mercadoController.ler(mercado, produto.getId(), "preco", "desc");
+
+		assertEquals(1, estatisticas.getPrepareStatementCount());
+		assertEquals(3, sugestoes.size());
+		assertEquals(3.0f, sugestoes.get(0).getPreco());
+	}
+
+	@Test
+	void listarSugestoesDeProdutoForaDoEstoqueRetorna404() {
+		Integer mercado = criarMercadoComProdutos("Mercado Sem Estoque", 1);
+
+		ResponseStatusException excecao = assertThrows(
+			ResponseStatusException.class,
+			() -> mercadoController.ler(mercado, -1)
+		);
+
+		assertEquals(404, excecao.getRawStatusCode());
+	}
+
+	@Test
+	void criarSugestaoVerificaReferenciasEmUmaUnicaConsulta() {
+		Integer mercado = criarMercadoComProdutos("Mercado Referencias", 1);
+		ProdutoResumo produto = produtoRepository.findByMercadoId(mercado).get(0);
+
+		Sugestao requestSugestao = new Sugestao();
+		requestSugestao.setPreco(4.5f);
+		requestSugestao.setCriadoPor(mercadoRepository.findById(mercado).get().getCriadoPor());
+
+		Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		estatisticas.clear();
+		ResponseSugestao sugestao = mercadoController.criarSugestao(mercado, produto.getId(), requestSugestao);
+
+		// Uma consulta para as referências e uma para a inserção.
+		assertEquals(2, estatisticas.getPrepareStatementCount());
+		assertEquals(4.5f, sugestao.getPreco());
+	}
+
+	@Test
+	void criarSugestaoComUsuarioDeletadoRetorna404() {
+		Integer mercado = criarMercadoComProdutos("Mercado Usuario Deletado", 1);
+		ProdutoResumo produto = produtoRepository.findByMercadoId(mercado).get(0);
+
+		Usuario usuario = usuarioRepository.findById(mercadoRepository.findById(mercado).get().getCriadoPor()).get();
+		usuario.setEmail("");
+		usuarioRepository.save(usuario);
+
+		Sugestao requestSugestao = new Sugestao();
+		requestSugestao.setPreco(4.5f);
+		requestSugestao.setCriadoPor(usuario.getId());
+
+		ResponseStatusException excecao = assertThrows(
+			ResponseStatusException.class,
+			() -> mercadoController.criarSugestao(mercado, produto.getId(), requestSugestao)
+		);
+
+		assertEquals(404, excecao.getRawStatusCode());
+		assertEquals("usuario_nao_encontrado", excecao.getReason());
+	}
+
+	@Test
+	void criarSugestaoRemoveDoCacheSomenteAsSugestoesDoMercadoAlterado() {
+		Integer mercadoAlterado = criarMercadoComProdutos("Mercado Cache Alterado", 1);
+		Integer mercadoIntacto = criarMercadoComProdutos("Mercado Cache Intacto", 1);
+		Integer produtoAlterado = produtoRepository.findByMercadoId(mercadoAlterado).get(0).getId();
+		Integer produtoIntacto = produtoRepository.findByMercadoId(mercadoIntacto).get(0).getId();
+
+		mercadoController.ler(mercadoAlterado, produtoAlterado);
+		mercadoController.ler(mercadoIntacto, produtoIntacto);
+
+		Sugestao requestSugestao = new Sugestao();
+		requestSugestao.setPreco(2.5f);
+		requestSugestao.setCriadoPor(mercadoRepository.findById(mercadoAlterado).get().getCriadoPor());
+		mercadoController.criarSugestao(mercadoAlterado, produtoAlterado, requestSugestao);
+
+		Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		// As sugestões do outro mercado continuam no cache.
+		estatisticas.clear();
+		mercadoController.ler(mercadoIntacto, produtoIntacto);
+		assertEquals(0, estatisticas.getPrepareStatementCount());
+
+		// As sugestões do mercado alterado são buscadas novamente, já com a nova sugestão.
+		List<ResponseSugestao> sugestoes = mercadoController.ler(mercadoAlterado, produtoAlterado);
+		assertTrue(estatisticas.getPrepareStatementCount() > 0);
+		assertEquals(1, sugestoes.size());
+	}
+
+	@Test
+	void editarERemoverSugestaoRemovemDoCacheSomenteAsSugestoesDoMercadoAlterado() {
+		Integer mercadoAlterado = criarMercadoComProdutos("Mercado Edicao Alterado", 1);
+		Integer mercadoIntacto = criarMercadoComProdutos("Mercado Edicao Intacto", 1);
+		Integer produtoAlterado = produtoRepository.findByMercadoId(mercadoAlterado).get(0).getId();
+		Integer produtoIntacto = produtoRepository.findByMercadoId(mercadoIntacto).get(0).getId();
+
+		Sugestao requestSugestao = new Sugestao();
+		requestSugestao.setPreco(2.5f);
+		requestSugestao.setCriadoPor(mercadoRepository.findById(mercadoAlterado).get().getCriadoPor());
+		Integer sugestaoId = mercadoController.criarSugestao(mercadoAlterado, produtoAlterado, requestSugestao).getId();
+
+		mercadoController.ler(mercadoAlterado, produtoAlterado);
+		mercadoController.ler(mercadoIntacto, produtoIntacto);
+
+		Sugestao edicao = new Sugestao();
+		edicao.setPreco(3.5f);
+		sugestaoController.editar(sugestaoId, edicao);
+
+		Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		// As sugestões do outro mercado continuam no cache, as do mercado alterado são buscadas com o novo preço.
+		estatisticas.clear();
+		mercadoController.ler(mercadoIntacto, produtoIntacto);
+		assertEquals(0, estatisticas.getPrepareStatementCount());
+		assertEquals(3.5f, mercadoController.ler(mercadoAlterado, produtoAlterado).get(0).getPreco(), 0.001f);
+
+		sugestaoController.remover(sugestaoId);
+
+		estatisticas.clear();
+		mercadoController.ler(mercadoIntacto, produtoIntacto);
+		assertEquals(0, estatisticas.getPrepareStatementCount());
+		assertEquals(0, mercadoController.ler(mercadoAlterado, produtoAlterado).size());
+	}
+
+	@Test
+	void substituirSugestaoPorOutroEstoqueRemoveDoCacheAsSugestoesDoEstoqueAnterior() {
+		Integer mercadoAnterior = criarMercadoComProdutos("Mercado Substituicao Anterior", 1);
+		Integer mercadoNovo = criarMercadoComProdutos("Mercado Substituicao Novo", 1);
+		Integer produtoAnterior = produtoRepository.findByMercadoId(mercadoAnterior).get(0).getId();
+		Integer produtoNovo = produtoRepository.findByMercadoId(mercadoNovo).get(0).getId();
+
+		Sugestao requestSugestao = new Sugestao();
+		requestSugestao.setPreco(2.5f);
+		requestSugestao.setCriadoPor(mercadoRepository.findById(mercadoAnterior).get().getCriadoPor());
+		Integer sugestaoId = mercadoController.criarSugestao(mercadoAnterior, produtoAnterior, requestSugestao).getId();
+
+		assertEquals(1, mercadoController.ler(mercadoAnterior, produtoAnterior).size());
+
+		Sugestao substituta = new Sugestao();
+		substituta.setPreco(3.5f);
+		substituta.setEstoqueId(estoqueRepository.findByProdutoIdAndMercadoId(produtoNovo, mercadoNovo).getId());
+		substituta.setCriadoPor(requestSugestao.getCriadoPor());
+
+		// Como no open-in-view, a sugestão lida pela substituição é a mesma instância gravada por ela.
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+
+		try {
+			sugestaoController.atualizar(sugestaoId, substituta);
+		} finally {
+			TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+			entityManager.close();
+		}
+
+		// A sugestão sai das sugestões do estoque anterior e passa para as do novo estoque.
+		assertEquals(0, mercadoController.ler(mercadoAnterior, produtoAnterior).size());
+		assertEquals(3.5f, mercadoController.ler(mercadoNovo, produtoNovo).get(0).getPreco(), 0.001f);
+	}
+
+	@Test
+	void mercadoSemComplementoSoConflitaComMercadosSemComplementoNoMesmoEndereco() {
+		Mercado loja = mercadoNoEndereco("Rua do Complemento", "Loja 2");
+		mercadoRepository.save(loja);
+
+		// Sem complemento, o mercado com complemento no mesmo endereço não é o mesmo mercado.
+		assertFalse(referenciaService.verificar(new Referencias().enderecoMercado(mercadoNoEndereco("Rua do Complemento", null))).isEnderecoMercadoExistente());
+		assertTrue(referenciaService.verificar(new Referencias().enderecoMercado(mercadoNoEndereco("Rua do Complemento", "loja 2"))).isEnderecoMercadoExistente());
+
+		mercadoRepository.save(mercadoNoEndereco("Rua do Complemento", null));
+
+		assertTrue(referenciaService.verificar(new Referencias().enderecoMercado(mercadoNoEndereco("Rua do Complemento", null))).isEnderecoMercadoExistente());
+	}
+
+	@Test
+	void leituraDeMercadoInexistenteNaoConsultaOBancoAteQueSejaCriado() {
+		Integer proximo = criarMercadoComProdutos("Mercado Anterior", 0) + 1;
+
+		assertEquals(404, assertThrows(ResponseStatusException.class, () -> mercadoController.ler(proximo)).getRawStatusCode());
+
+		Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		// A inexistência do mercado fica em cache.
+		estatisticas.clear();
+		assertEquals(404, assertThrows(ResponseStatusException.class, () -> mercadoController.ler(proximo)).getRawStatusCode());
+		assertEquals(404, assertThrows(ResponseStatusException.class, () -> mercadoController.lerEstoque(proximo, 1)).getRawStatusCode());
+		assertEquals(0, estatisticas.getPrepareStatementCount());
+
+		// A criação do mercado com o id remove a inexistência do cache.
+		assertEquals(proximo, criarMercadoComProdutos("Mercado Criado", 0));
+		assertEquals("Mercado Criado", mercadoController.ler(proximo).getNome());
+	}
+
+	private Mercado mercadoNoEndereco(String logradouro, String complemento) {
+		Mercado mercado = new Mercado();
+		mercado.setNome("Mercado " + logradouro);
+		mercado.setLogradouro(logradouro);
+		mercado.setNumero(10);
+		mercado.setComplemento(complemento);
+		mercado.setBairro("Centro");
+		mercado.setCidade("Sao Paulo");
+		mercado.setUf("SP");
+		mercado.setCep("01001-000");
+		return mercado;
+	}
+
+	private Integer criarMercadoComProdutos(String nome, int quantidadeProdutos) {
+		Usuario usuario = new Usuario();
+		usuario.setNome("Usuario " + nome);
+		usuario.setEmail(nome.replace(" ", "").toLowerCase() + "@teste.com");
+		usuario.setSenha("senha");
+		usuario = usuarioRepository.save(usuario);
+
+		Ramo ramo = new Ramo();
+		ramo.setNome("Ramo " + nome);
+		ramo.setDescricao("Ramo de teste");
+		ramo = ramoRepository.save(ramo);
+
+		Categoria categoria = new Categoria();
+		categoria.setNome("Categoria " + nome);
+		categoria.setDescricao("Categoria de teste");
+		categoria = categoriaRepository.save(categoria);
+
+		Mercado mercado = new Mercado();
+		mercado.setNome(nome);
+		mercado.setLogradouro("Rua de Teste");
+		mercado.setNumero(1);
+		mercado.setBairro("Centro");
+		mercado.setCidade("Sao Paulo");
+		mercado.setUf("SP");
+		mercado.setCep("01001-000");
+		mercado.setCriadoPor(usuario.getId());
+		mercado.setRamoId(ramo.getId());
+		mercado = mercadoRepository.save(mercado);
+
+		for(int i = 0; i < quantidadeProdutos; i++) {
+			Produto produto = new Produto();
+			produto.setNome("Produto " + i);
+			produto.setMarca("Marca " + nome);
+			produto.setTamanho(i + "g");
+			produto.setCor("Azul");
+			produto.setCriadoPor(usuario.getId());
+			produto.setCategoriaId(categoria.getId());
+			produto = produtoRepository.save(produto);
+
+			Estoque estoque = new Estoque();
+			estoque.setCriadoPor(usuario.getId());
+			estoque.setProdutoId(produto.getId());
+			estoque.setMercadoId(mercado.getId());
+			estoqueRepository.save(estoque);
+		}
+
+		return mercado.getId();
+	}
+
+}
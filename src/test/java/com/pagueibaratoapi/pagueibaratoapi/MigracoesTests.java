@@ -0,0 +1,69 @@
+package com.pagueibaratoapi.pagueibaratoapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+
+class MigracoesTests {
+
+	private static final String URL = "jdbc:h2:mem:migracoes;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+	@Test
+	void migracoesCriamOEsquemaComIndicesERestricaoDeEstoqueUnico() throws SQLException {
+		Flyway flyway = Flyway
+			.configure()
+			.dataSource(URL, "sa", "")
+			.locations("classpath:db/migration/common", "classpath:db/migration/h2")
+			.load();
+
+		assertEquals(3, flyway.migrate().migrationsExecuted);
+
+		try(Connection conexao = DriverManager.getConnection(URL, "sa", "")) {
+			Set<String> indicesEstoque = indices(conexao, "ESTOQUE");
+			Set<String> indicesSugestao = indices(conexao, "SUGESTAO");
+
+			assertTrue(indicesEstoque.contains("ESTOQUE_MERCADOID_IDX"));
+			assertTrue(indicesSugestao.contains("SUGESTAO_ESTOQUEID_TIMESTAMP_IDX"));
+			assertTrue(indices(conexao, "PRODUTO").contains("PRODUTO_CARACTERISTICAS_IDX"));
+			assertTrue(indices(conexao, "MERCADO").contains("MERCADO_ENDERECO_IDX"));
+
+			try(Statement comando = conexao.createStatement()) {
+				comando.execute("INSERT INTO usuario (nome, email, senha, logradouro, numero, bairro, cidade, uf, cep) VALUES ('Usuario', 'usuario@teste.com', 'senha', 'Rua', 1, 'Centro', 'Sao Paulo', 'SP', '01001-000')");
+				comando.execute("INSERT INTO categoria (nome, descricao) VALUES ('Categoria', 'Categoria de teste')");
+				comando.execute("INSERT INTO ramo (nome, descricao) VALUES ('Ramo', 'Ramo de teste')");
+				comando.execute("INSERT INTO produto (nome, marca, tamanho, \"criadoPor\", \"categoriaId\") VALUES ('Produto', 'Marca', '1kg', 1, 1)");
+				comando.execute("INSERT INTO mercado (nome, logradouro, numero, bairro, cidade, uf, cep, \"criadoPor\", \"ramoId\") VALUES ('Mercado', 'Rua', 1, 'Centro', 'Sao Paulo', 'SP', '01001-000', 1, 1)");
+				comando.execute("INSERT INTO estoque (\"criadoPor\", \"produtoId\", \"mercadoId\") VALUES (1, 1, 1)");
+
+				// O mesmo produto não pode ser adicionado duas vezes ao estoque do mesmo mercado.
+				assertThrows(
+					SQLException.class,
+					() -> comando.execute("INSERT INTO estoque (\"criadoPor\", \"produtoId\", \"mercadoId\") VALUES (1, 1, 1)")
+				);
+			}
+		}
+	}
+
+	private Set<String> indices(Connection conexao, String tabela) throws SQLException {
+		Set<String> indices = new HashSet<String>();
+
+		try(ResultSet resultado = conexao.getMetaData().getIndexInfo(null, null, tabela, false, false)) {
+			while(resultado.next())
+				indices.add(resultado.getString("INDEX_NAME"));
+		}
+
+		return indices;
+	}
+
+}
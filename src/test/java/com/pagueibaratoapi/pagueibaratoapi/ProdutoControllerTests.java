@@ -0,0 +1,342 @@
+package com.pagueibaratoapi.pagueibaratoapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.pagueibaratoapi.cache.BarramentoInvalidacao;
+import com.pagueibaratoapi.controllers.ProdutoController;
+import com.pagueibaratoapi.controllers.SugestaoController;
+import com.pagueibaratoapi.models.requests.Categoria;
+import com.pagueibaratoapi.models.requests.Estoque;
+import com.pagueibaratoapi.models.requests.Mercado;
+import com.pagueibaratoapi.models.requests.Produto;
+import com.pagueibaratoapi.models.requests.Sugestao;
+import com.pagueibaratoapi.models.requests.Usuario;
+import com.pagueibaratoapi.models.responses.ResponseLevantamentoProduto;
+import com.pagueibaratoapi.models.responses.ResponsePagina;
+import com.pagueibaratoapi.models.responses.ResponseProduto;
+import com.pagueibaratoapi.repository.CategoriaRepository;
+import com.pagueibaratoapi.repository.EstoqueRepository;
+import com.pagueibaratoapi.repository.MercadoRepository;
+import com.pagueibaratoapi.repository.ProdutoRepository;
+import com.pagueibaratoapi.repository.SugestaoRepository;
+import com.pagueibaratoapi.repository.UsuarioRepository;
+import com.pagueibaratoapi.services.BuscaProdutoService;
+
+@SpringBootTest
+class ProdutoControllerTests {
+
+	@Autowired
+	private ProdutoController produtoController;
+
+	@Autowired
+	private SugestaoController sugestaoController;
+
+	@Autowired
+	private CategoriaRepository categoriaRepository;
+
+	@Autowired
+	private EstoqueRepository estoqueRepository;
+
+	@Autowired
+	private MercadoRepository mercadoRepository;
+
+	@Autowired
+	private ProdutoRepository produtoRepository;
+
+	@Autowired
+	private SugestaoRepository sugestaoRepository;
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	@Autowired
+	private BuscaProdutoService buscaProdutoService;
+
+	@Autowired
+	private BarramentoInvalidacao barramento;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void levantamentoAgregaSugestoesDeTodosOsMercadosEmCentavos() {
+		Produto produto = criarProduto("Cafe");
+
+		Integer estoqueA = criarEstoque(produto.getId(), "Mercado Levantamento A");
+		Integer estoqueB = criarEstoque(produto.getId(), "Mercado Levantamento B");
+
+		criarSugestao(estoqueA, 1099f);
+		criarSugestao(estoqueA, 1250f);
+		criarSugestao(estoqueB, 999f);
+
+		ResponseLevantamentoProduto levantamento = produtoController.levantamento(produto.getId());
+
+		assertEquals(3, levantamento.getQuantidadeSugestoes());
+		assertEquals(9.99f, levantamento.getMenorPreco(), 0.001f);
+		assertEquals(12.50f, levantamento.getMaiorPreco(), 0.001f);
+		assertEquals(11.16f, levantamento.getPrecoMedio(), 0.001f);
+	}
+
+	@Test
+	void levantamentoSemSugestoesRetornaValoresZerados() {
+		Produto produto = criarProduto("Leite");
+
+		ResponseLevantamentoProduto levantamento = produtoController.levantamento(produto.getId());
+
+		assertEquals(0, levantamento.getQuantidadeSugestoes());
+		assertEquals(0.0f, levantamento.getPrecoMedio());
+		assertNull(levantamento.getDataUltimaSugestao());
+	}
+
+	@Test
+	void levantamentoAcompanhaAsSugestoesSemRecalcularNoBanco() throws InterruptedException {
+		Produto produto = criarProduto("Acucar");
+		Integer estoque = criarEstoque(produto.getId(), "Mercado Levantamento Incremental");
+
+		criarSugestao(estoque, 1000f);
+		Integer sugestaoIntermediaria = criarSugestao(estoque, 1500f);
+		criarSugestao(estoque, 2000f);
+
+		// A primeira leitura calcula o levantamento pelo banco.
+		assertEquals(3, produtoController.levantamento(produto.getId()).getQuantidadeSugestoes());
+
+		// Garante que a próxima sugestão seja a mais recente.
+		Thread.sleep(5);
+
+		Usuario usuario = new Usuario();
+		usuario.setNome("Usuario Levantamento");
+		usuario.setEmail("levantamento@teste.com");
+		usuario.setSenha("senha");
+		usuario = usuarioRepository.save(usuario);
+
+		Sugestao requestSugestao = new Sugestao();
+		requestSugestao.setEstoqueId(estoque);
+		requestSugestao.setPreco(25f);
+		requestSugestao.setCriadoPor(usuario.getId());
+		sugestaoController.criar(requestSugestao);
+
+		Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		// Somente o produto é buscado no banco, o levantamento já inclui a nova sugestão.
+		estatisticas.clear();
+		ResponseLevantamentoProduto levantamento = produtoController.levantamento(produto.getId());
+
+		assertEquals(1, estatisticas.getPrepareStatementCount());
+		assertEquals(4, levantamento.getQuantidadeSugestoes());
+		assertEquals(17.5f, levantamento.getPrecoMedio(), 0.001f);
+		assertEquals(25.0f, levantamento.getMaiorPreco(), 0.001f);
+
+		// A remoção de um preço intermediário e antigo também é feita em memória.
+		sugestaoController.remover(sugestaoIntermediaria);
+
+		estatisticas.clear();
+		levantamento = produtoController.levantamento(produto.getId());
+
+		assertEquals(1, estatisticas.getPrepareStatementCount());
+		assertEquals(3, levantamento.getQuantidadeSugestoes());
+		assertEquals(10.0f, levantamento.getMenorPreco(), 0.001f);
+		assertEquals(25.0f, levantamento.getMaiorPreco(), 0.001f);
+	}
+
+	@Test
+	void listarLeSomenteProjecoesSemCarregarEntidades() {
+		for(String nome : new String[] { "Arroz", "Feijao" }) {
+			Produto produto = new Produto();
+			produto.setNome(nome);
+			produto.setMarca("Marca Projecao");
+			produto.setTamanho("1kg");
+			produtoRepository.save(produto);
+		}
+
+		Produto filtro = new Produto();
+		filtro.setMarca("Marca Projecao");
+
+		Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		estatisticas.clear();
+		List<ResponseProduto> produtos = produtoController.listar(filtro);
+
+		assertEquals(2, produtos.size());
+		assertEquals(0, estatisticas.getEntityLoadCount());
+	}
+
+	@Test
+	void listarComFiltrosIguaisUsaAMesmaChaveDoCache() {
+		Produto produto = new Produto();
+		produto.setNome("Macarrao");
+		produto.setMarca("Marca Chave");
+		produto.setTamanho("500g");
+		produtoRepository.save(produto);
+
+		Produto filtro = new Produto();
+		filtro.setMarca("Marca Chave");
+
+		// Outra instância, com o texto em maiúsculas, que a listagem considera igual.
+		Produto mesmoFiltro = new Produto();
+		mesmoFiltro.setMarca("MARCA CHAVE");
+
+		Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		estatisticas.clear();
+		List<ResponseProduto> produtos = produtoController.listar(filtro);
+		long consultas = estatisticas.getPrepareStatementCount();
+
+		assertEquals(1, produtos.size());
+		assertEquals(produtos, produtoController.listar(mesmoFiltro));
+		assertEquals(consultas, estatisticas.getPrepareStatementCount());
+
+		// A direção da ordenação também é comparada sem diferenciar maiúsculas.
+		produtoController.listar(filtro, "nome", "asc");
+		consultas = estatisticas.getPrepareStatementCount();
+
+		produtoController.listar(mesmoFiltro, "nome", "ASC");
+		assertEquals(consultas, estatisticas.getPrepareStatementCount());
+
+		// Um filtro diferente não reutiliza a chave.
+		Produto outroFiltro = new Produto();
+		outroFiltro.setMarca("Marca Chave");
+		outroFiltro.setTamanho("1kg");
+
+		assertEquals(0, produtoController.listar(outroFiltro).size());
+	}
+
+	@Test
+	void buscaIgnoraAcentosEPluralEOrdenaPelaRelevancia() {
+		Produto noNome = criarProduto("Pão de Queijo Mineiro");
+		Produto naMarca = criarProduto("Pão de Polvilho");
+
+		Produto marca = new Produto();
+		marca.setMarca("Queijos Mineiros");
+		marca.setCategoriaId(criarCategoria("Biscoitos Salgados"));
+		produtoController.editar(naMarca.getId(), marca);
+
+		buscaProdutoService.indexar(noNome.getId());
+
+		ResponsePagina pagina = produtoController.buscar("pães QUEIJOS mineiros", 0, 10);
+		List<?> produtos = pagina.getItens();
+
+		// O produto com os termos no nome vem antes do produto com os termos na marca.
+		assertEquals(2, pagina.getTotalRegistros());
+		assertEquals(noNome.getId(), ((ResponseProduto) produtos.get(0)).getId());
+		assertEquals(naMarca.getId(), ((ResponseProduto) produtos.get(1)).getId());
+		assertEquals("Queijos Mineiros", ((ResponseProduto) produtos.get(1)).getMarca());
+
+		// Sem o acento, o termo também é encontrado.
+		assertEquals(noNome.getId(), ((ResponseProduto) produtoController.buscar("pao queijo", 0, 10).getItens().get(0)).getId());
+	}
+
+	@Test
+	void buscaAcompanhaAsEdicoesEAsRemocoesDosProdutos() {
+		Produto produto = criarProduto("Goiabada Cascao");
+
+		buscaProdutoService.indexar(produto.getId());
+		assertEquals(1, produtoController.buscar("goiabada", 0, 10).getTotalRegistros());
+
+		// Uma página muito além do último produto não possui produtos, mas informa o total.
+		ResponsePagina distante = produtoController.buscar("goiabada", Integer.MAX_VALUE, 100);
+
+		assertTrue(distante.getItens().isEmpty());
+		assertEquals(1, distante.getTotalRegistros());
+
+		Produto nome = new Produto();
+		nome.setNome("Marmelada Cascao");
+		nome.setCategoriaId(criarCategoria("Doces Caseiros"));
+		produtoController.editar(produto.getId(), nome);
+
+		assertEquals(0, produtoController.buscar("goiabada", 0, 10).getTotalRegistros());
+		assertEquals(1, produtoController.buscar("marmelada", 0, 10).getTotalRegistros());
+
+		// O produto também é encontrado pelo nome da categoria.
+		assertEquals(1, produtoController.buscar("marmelada doce caseiro", 0, 10).getTotalRegistros());
+
+		produtoController.remover(produto.getId());
+
+		assertEquals(0, produtoController.buscar("marmelada", 0, 10).getTotalRegistros());
+	}
+
+	@Test
+	void buscaSemTermosRetornaErro() {
+		ResponseStatusException erro = assertThrows(ResponseStatusException.class, () -> produtoController.buscar(" ", 0, 10));
+
+		assertEquals("busca_invalido", erro.getReason());
+		assertEquals(0, produtoController.buscar("de com", 0, 10).getTotalRegistros());
+	}
+
+	@Test
+	void reconstrucaoDeUmIndiceReabertoRemoveOsProdutosRemovidosComAInstanciaParada(@TempDir Path diretorio) throws Exception {
+		Produto produto = criarProduto("Pitanga Reaberta");
+
+		try(BuscaProdutoService busca = new BuscaProdutoService(produtoRepository, barramento, diretorio.toString())) {
+			busca.reconstruir();
+			assertEquals(1, busca.buscar("pitanga", 0, 10).getTotal());
+		}
+
+		// O produto é removido enquanto o índice está fechado.
+		produtoRepository.deleteById(produto.getId());
+
+		try(BuscaProdutoService busca = new BuscaProdutoService(produtoRepository, barramento, diretorio.toString())) {
+			// O índice reaberto ainda possui o produto, até a reconstrução da inicialização.
+			assertEquals(1, busca.buscar("pitanga", 0, 10).getTotal());
+
+			busca.reconstruir();
+			assertEquals(0, busca.buscar("pitanga", 0, 10).getTotal());
+		}
+	}
+
+	private Produto criarProduto(String nome) {
+		Produto produto = new Produto();
+		produto.setNome(nome);
+		produto.setMarca("Marca");
+		produto.setTamanho("500g");
+		produto.setCor("Preto");
+		return produtoRepository.save(produto);
+	}
+
+	private Integer criarCategoria(String nome) {
+		Categoria categoria = new Categoria();
+		categoria.setNome(nome);
+		categoria.setDescricao("Categoria de teste");
+		return categoriaRepository.save(categoria).getId();
+	}
+
+	private Integer criarEstoque(Integer produtoId, String nomeMercado) {
+		Mercado mercado = new Mercado();
+		mercado.setNome(nomeMercado);
+		mercado.setLogradouro("Rua de Teste");
+		mercado.setNumero(1);
+		mercado.setBairro("Centro");
+		mercado.setCidade("Sao Paulo");
+		mercado.setUf("SP");
+		mercado.setCep("01001-000");
+		mercado = mercadoRepository.save(mercado);
+
+		Estoque estoque = new Estoque();
+		estoque.setProdutoId(produtoId);
+		estoque.setMercadoId(mercado.getId());
+		return estoqueRepository.save(estoque).getId();
+	}
+
+	private Integer criarSugestao(Integer estoqueId, Float precoCentavos) {
+		Sugestao sugestao = new Sugestao();
+		sugestao.setEstoqueId(estoqueId);
+		sugestao.setPreco(precoCentavos);
+		return sugestaoRepository.save(sugestao).getId();
+	}
+
+}
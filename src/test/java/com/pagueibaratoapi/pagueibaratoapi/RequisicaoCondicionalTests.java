@@ -0,0 +1,80 @@
+package com.pagueibaratoapi.pagueibaratoapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.pagueibaratoapi.controllers.ProdutoController;
+import com.pagueibaratoapi.models.requests.Produto;
+import com.pagueibaratoapi.repository.ProdutoRepository;
+import com.pagueibaratoapi.services.VersaoService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RequisicaoCondicionalTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ProdutoController produtoController;
+
+	@Autowired
+	private ProdutoRepository produtoRepository;
+
+	@Autowired
+	private VersaoService versaoService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void leituraComAEtagAtualRespondeNaoModificadoSemConsultarOBanco() throws Exception {
+		Produto produto = new Produto();
+		produto.setNome("Feijao");
+		produto.setMarca("Marca");
+		produto.setTamanho("1kg");
+		produto = produtoRepository.save(produto);
+
+		String etag = mockMvc.perform(get("/produto/" + produto.getId()))
+			.andExpect(status().isOk())
+			.andExpect(header().exists("Last-Modified"))
+			.andReturn()
+			.getResponse()
+			.getHeader("ETag");
+
+		assertNotNull(etag);
+
+		Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		estatisticas.clear();
+
+		mockMvc.perform(get("/produto/" + produto.getId()).header("If-None-Match", etag))
+			.andExpect(status().isNotModified())
+			.andExpect(header().string("ETag", etag))
+			.andExpect(content().string(""));
+
+		assertEquals(0, estatisticas.getPrepareStatementCount());
+
+		// A remoção altera a versão do produto ao fim da requisição simulada pelo teste, então a ETag antiga não vale mais.
+		produtoController.remover(produto.getId());
+		versaoService.concluir(RequestContextHolder.currentRequestAttributes());
+
+		mockMvc.perform(get("/produto/" + produto.getId()).header("If-None-Match", etag))
+			.andExpect(status().isNotFound());
+	}
+
+}
@@ -0,0 +1,131 @@
+package com.pagueibaratoapi.pagueibaratoapi;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.pagueibaratoapi.cache.RespostasCodificadas;
+import com.pagueibaratoapi.models.requests.Categoria;
+import com.pagueibaratoapi.models.requests.Produto;
+import com.pagueibaratoapi.repository.CategoriaRepository;
+import com.pagueibaratoapi.repository.ProdutoRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RespostasCodificadasTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private CategoriaRepository categoriaRepository;
+
+	@Autowired
+	private ProdutoRepository produtoRepository;
+
+	@Autowired
+	private RespostasCodificadas respostasCodificadas;
+
+	@Test
+	void respostaEmCacheEhEscritaComOsBytesGuardadosAteSerRemovida() throws Exception {
+		for(int i = 0; i < 20; i++)
+			criarCategoria("Categoria Codificada " + i);
+
+		cacheManager.getCache("categorias").clear();
+
+		byte[] primeira = mockMvc.perform(get("/categoria"))
+			.andExpect(status().isOk())
+			.andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")))
+			.andReturn()
+			.getResponse()
+			.getContentAsByteArray();
+
+		long acertos = respostasCodificadas.getAcertos();
+
+		MvcResult segunda = mockMvc.perform(get("/categoria"))
+			.andExpect(status().isOk())
+			.andReturn();
+
+		// A segunda leitura recebe os mesmos bytes, com o tamanho do conteúdo, sem converter a lista novamente.
+		assertArrayEquals(primeira, segunda.getResponse().getContentAsByteArray());
+		assertEquals(primeira.length, segunda.getResponse().getContentLength());
+		assertEquals(acertos + 1, respostasCodificadas.getAcertos());
+		assertTrue(new String(primeira, "UTF-8").contains("/categoria/"));
+
+		// Os clientes que aceitam gzip recebem os mesmos bytes comprimidos.
+		byte[] comprimida = mockMvc.perform(get("/categoria").header("Accept-Encoding", "gzip, deflate"))
+			.andExpect(status().isOk())
+			.andExpect(header().string("Content-Encoding", "gzip"))
+			.andReturn()
+			.getResponse()
+			.getContentAsByteArray();
+
+		try(GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(comprimida))) {
+			assertArrayEquals(primeira, gzip.readAllBytes());
+		}
+
+		// A remoção do cache dos objetos também descarta os bytes.
+		criarCategoria("Categoria Codificada Nova");
+		cacheManager.getCache("categorias").clear();
+
+		String atualizada = mockMvc.perform(get("/categoria"))
+			.andExpect(status().isOk())
+			.andReturn()
+			.getResponse()
+			.getContentAsString();
+
+		assertTrue(atualizada.contains("Categoria Codificada Nova"));
+	}
+
+	@Test
+	void respostaHalEmCacheEhEscritaComOsBytesGuardados() throws Exception {
+		Produto produto = new Produto();
+		produto.setNome("Arroz Codificado");
+		produto.setMarca("Marca");
+		produto.setTamanho("5kg");
+		produto = produtoRepository.save(produto);
+
+		String primeira = mockMvc.perform(get("/produto/" + produto.getId() + "/levantamento"))
+			.andExpect(status().isOk())
+			.andReturn()
+			.getResponse()
+			.getContentAsString();
+
+		long acertos = respostasCodificadas.getAcertos();
+
+		String segunda = mockMvc.perform(get("/produto/" + produto.getId() + "/levantamento"))
+			.andExpect(status().isOk())
+			.andReturn()
+			.getResponse()
+			.getContentAsString();
+
+		assertEquals(primeira, segunda);
+		assertEquals(acertos + 1, respostasCodificadas.getAcertos());
+		assertTrue(segunda.contains("_links"));
+	}
+
+	private void criarCategoria(String nome) {
+		Categoria categoria = new Categoria();
+		categoria.setNome(nome);
+		categoria.setDescricao("Categoria de teste");
+		categoriaRepository.save(categoria);
+	}
+}
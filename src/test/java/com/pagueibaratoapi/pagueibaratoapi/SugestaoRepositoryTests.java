@@ -0,0 +1,66 @@
+package com.pagueibaratoapi.pagueibaratoapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Example;
+
+import com.pagueibaratoapi.models.requests.Estoque;
+import com.pagueibaratoapi.models.requests.Sugestao;
+import com.pagueibaratoapi.repository.EstoqueRepository;
+import com.pagueibaratoapi.repository.SugestaoRepository;
+import com.pagueibaratoapi.utils.OrdenacaoUtils;
+import com.pagueibaratoapi.utils.PaginaCursor;
+
+@SpringBootTest
+class SugestaoRepositoryTests {
+
+	@Autowired
+	private EstoqueRepository estoqueRepository;
+
+	@Autowired
+	private SugestaoRepository sugestaoRepository;
+
+	@Test
+	void buscarPorCursorPercorreAsPaginasNosDoisSentidos() throws Exception {
+		Integer estoqueId = estoqueRepository.save(new Estoque()).getId();
+
+		// Dois preços repetidos para garantir o desempate pelo id.
+		for(float preco : new float[] { 500f, 300f, 300f, 100f, 400f }) {
+			Sugestao sugestao = new Sugestao();
+			sugestao.setPreco(preco);
+			sugestao.setEstoqueId(estoqueId);
+			sugestaoRepository.save(sugestao);
+		}
+
+		Sugestao filtro = new Sugestao();
+		filtro.setEstoqueId(estoqueId);
+		Example<Sugestao> exemplo = Example.of(filtro);
+
+		List<Float> precos = new ArrayList<Float>();
+
+		PaginaCursor<Sugestao> primeira = sugestaoRepository.buscarPorCursor(exemplo, "", "preco", "desc", 2, OrdenacaoUtils.CAMPOS_SUGESTAO);
+		PaginaCursor<Sugestao> segunda = sugestaoRepository.buscarPorCursor(exemplo, primeira.getProximoCursor(), null, null, 2, OrdenacaoUtils.CAMPOS_SUGESTAO);
+		PaginaCursor<Sugestao> terceira = sugestaoRepository.buscarPorCursor(exemplo, segunda.getProximoCursor(), null, null, 2, OrdenacaoUtils.CAMPOS_SUGESTAO);
+
+		for(PaginaCursor<Sugestao> pagina : List.of(primeira, segunda, terceira))
+			for(Sugestao sugestao : pagina.getItens())
+				precos.add(sugestao.getPreco());
+
+		assertEquals(List.of(500f, 400f, 300f, 300f, 100f), precos);
+		assertNull(primeira.getCursorAnterior());
+		assertNull(terceira.getProximoCursor());
+
+		PaginaCursor<Sugestao> voltando = sugestaoRepository.buscarPorCursor(exemplo, terceira.getCursorAnterior(), null, null, 2, OrdenacaoUtils.CAMPOS_SUGESTAO);
+
+		assertEquals(segunda.getItens().get(0).getId(), voltando.getItens().get(0).getId());
+		assertEquals(segunda.getItens().get(1).getId(), voltando.getItens().get(1).getId());
+	}
+
+}
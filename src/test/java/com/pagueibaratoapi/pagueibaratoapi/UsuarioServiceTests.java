@@ -0,0 +1,73 @@
+package com.pagueibaratoapi.pagueibaratoapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import com.pagueibaratoapi.controllers.UsuarioController;
+import com.pagueibaratoapi.models.requests.Usuario;
+import com.pagueibaratoapi.repository.UsuarioRepository;
+import com.pagueibaratoapi.services.ReferenciaService;
+import com.pagueibaratoapi.services.Referencias;
+import com.pagueibaratoapi.services.UsuarioServiceImpl;
+
+@SpringBootTest
+class UsuarioServiceTests {
+
+	@Autowired
+	private UsuarioServiceImpl usuarioService;
+
+	@Autowired
+	private ReferenciaService referenciaService;
+
+	@Autowired
+	private UsuarioController usuarioController;
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void loginEVerificacaoDoUsuarioUsamOCacheAteARemocao() {
+		Usuario usuario = new Usuario();
+		usuario.setNome("Usuario em Cache");
+		usuario.setEmail("cache@teste.com");
+		usuario.setSenha("senha");
+		usuario = usuarioRepository.save(usuario);
+
+		Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		// Somente a primeira busca por email e a primeira por id consultam o banco.
+		estatisticas.clear();
+
+		assertEquals("cache@teste.com", usuarioService.loadUserByUsername("cache@teste.com").getUsername());
+		assertEquals("cache@teste.com", usuarioService.loadUserByUsername("cache@teste.com").getUsername());
+		assertTrue(referenciaService.verificar(new Referencias().usuario(usuario.getId())).isUsuarioAtivo());
+		assertTrue(referenciaService.verificar(new Referencias().usuario(usuario.getId())).isUsuarioAtivo());
+
+		assertEquals(2, estatisticas.getPrepareStatementCount());
+
+		// A remoção pelo controller descarta o usuário do cache.
+		usuarioController.remover(usuario.getId());
+
+		assertThrows(UsernameNotFoundException.class, () -> usuarioService.loadUserByUsername("cache@teste.com"));
+
+		Referencias referencias = referenciaService.verificar(new Referencias().usuario(usuario.getId()));
+
+		assertTrue(referencias.isUsuarioExiste());
+		assertFalse(referencias.isUsuarioAtivo());
+	}
+
+}